@@ -0,0 +1,19 @@
+import api from "./axios";
+
+// Danh sách lấy qua GET <path>/page (keyset, tối đa 100 dòng/trang); GET <path> không phân trang
+// đã deprecated và bị bỏ ngày 31/01/2027.
+export const PAGE_SIZE = 100;
+export const MAX_ITEMS = 1000;
+
+// Đọc lần lượt các trang (dừng ở maxItems dòng) và trả về dạng response của axios ({ data: [...] })
+// để code đang đọc res.data vẫn dùng được như cũ.
+export const getAllPages = async (path, { maxItems = MAX_ITEMS } = {}) => {
+  const items = [];
+  let cursor;
+  do {
+    const res = await api.get(`${path}/page`, { params: { size: PAGE_SIZE, cursor } });
+    items.push(...res.data.items);
+    cursor = res.data.hasNext ? res.data.nextCursor : undefined;
+  } while (cursor && items.length < maxItems);
+  return { data: items.slice(0, maxItems) };
+};
@@ -1,4 +1,5 @@
 import api from "../lib/axios";
+import { getAllPages } from "../lib/pagedList";
 
 export const orderAPI = {
   // Create a new order
@@ -9,7 +10,7 @@ export const orderAPI = {
 
   // Get all orders
   getOrders: async () => {
-    const res = await api.get('/orders');
+    const res = await getAllPages('/orders');
     return res.data;
   },
 
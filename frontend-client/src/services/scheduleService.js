@@ -1,13 +1,13 @@
 // Service để quản lý schedules (lịch trình tàu)
 // Kết nối với schedules-service qua API Gateway
 import api from "../lib/axios";
+import { getAllPages } from "../lib/pagedList";
 
 export const scheduleAPI = {
   // Lấy danh sách tất cả schedules
-  // Params: { page, size, trainNumber, departureStation, arrivalStation, status }
   // Output: Array of schedules
-  getSchedules: async (params = {}) => {
-    const res = await api.get('/schedules', { params });
+  getSchedules: async () => {
+    const res = await getAllPages('/schedules');
     return res.data;
   },
   
@@ -20,7 +20,7 @@ export const scheduleAPI = {
     
     // Lấy tickets cho schedule này để tính số vé và giá
     try {
-      const ticketsRes = await api.get('/tickets');
+      const ticketsRes = await getAllPages('/tickets');
       const allTickets = Array.isArray(ticketsRes.data) ? ticketsRes.data : [];
       
       const scheduleTickets = allTickets.filter(ticket => 
@@ -65,7 +65,7 @@ export const scheduleAPI = {
   searchSchedules: async (params) => {
     try {
       // Lấy tất cả schedules từ backend
-      const res = await api.get('/schedules');
+      const res = await getAllPages('/schedules');
       let schedules = res.data || [];
 
       // Filter theo departureStation (tìm chính xác hoặc chứa chuỗi)
@@ -109,7 +109,7 @@ export const scheduleAPI = {
       // Lấy TẤT CẢ tickets để tính số vé available và giá thực tế
       let allTickets = [];
       try {
-        const ticketsRes = await api.get('/tickets');
+        const ticketsRes = await getAllPages('/tickets');
         allTickets = Array.isArray(ticketsRes.data) ? ticketsRes.data : [];
       } catch (error) {
         console.error('Error fetching tickets for search:', error);
@@ -198,7 +198,7 @@ export const scheduleAPI = {
   // Output: Array of available schedules
   getAvailableSchedules: async () => {
     try {
-      const res = await api.get('/schedules');
+      const res = await getAllPages('/schedules');
       
       // Xử lý trường hợp response không phải array
       if (!Array.isArray(res.data)) {
@@ -216,7 +216,7 @@ export const scheduleAPI = {
       // Lấy TẤT CẢ tickets một lần (vì API không hỗ trợ filter theo scheduleId)
       let allTickets = [];
       try {
-        const ticketsRes = await api.get('/tickets');
+        const ticketsRes = await getAllPages('/tickets');
         allTickets = Array.isArray(ticketsRes.data) ? ticketsRes.data : [];
       } catch (error) {
         console.error('Error fetching tickets:', error);
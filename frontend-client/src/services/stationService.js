@@ -1,13 +1,13 @@
 // Service để quản lý stations (ga tàu)
 // Kết nối với stations-service qua API Gateway
 import api from "../lib/axios";
+import { getAllPages } from "../lib/pagedList";
 
 export const stationAPI = {
   // Lấy danh sách tất cả stations
-  // Params: { page, size, search, city }
   // Output: Array of stations
-  getStations: async (params = {}) => {
-    const res = await api.get('/stations', { params });
+  getStations: async () => {
+    const res = await getAllPages('/stations');
     return res.data;
   },
   
@@ -38,7 +38,7 @@ export const stationAPI = {
   // Lấy chỉ stations đang active
   // Output: Array of active stations
   getActiveStations: async () => {
-    const res = await api.get('/stations');
+    const res = await getAllPages('/stations');
     // Filter chỉ lấy stations có isActive = true
     return res.data.filter(station => station.isActive === true);
   }
@@ -1,13 +1,13 @@
 // Service để quản lý tickets (vé tàu)
 // Kết nối với tickets-service qua API Gateway
 import api from "../lib/axios";
+import { getAllPages } from "../lib/pagedList";
 
 export const ticketAPI = {
   // Lấy danh sách tất cả tickets
-  // Params: { page, size, status, passengerName }
   // Output: Array of tickets
-  getTickets: async (params = {}) => {
-    const res = await api.get('/tickets', { params });
+  getTickets: async () => {
+    const res = await getAllPages('/tickets');
     return res.data;
   },
   
@@ -55,12 +55,9 @@ export const ticketAPI = {
   },
 
   // Lấy tickets của user hiện tại
-  // Params: { userId }
   // Output: Array of user's tickets
-  getMyTickets: async (userId) => {
-    const res = await api.get('/tickets', { 
-      params: { userId } 
-    });
+  getMyTickets: async () => {
+    const res = await getAllPages('/tickets');
     return res.data;
   }
 };
@@ -1,13 +1,13 @@
 // Service để quản lý trains (tàu)
 // Kết nối với trains-service qua API Gateway
 import api from "../lib/axios";
+import { getAllPages } from "../lib/pagedList";
 
 export const trainAPI = {
   // Lấy danh sách tất cả trains
-  // Params: { page, size, search, type, status }
   // Output: Array of trains
-  getTrains: async (params = {}) => {
-    const res = await api.get('/trains', { params });
+  getTrains: async () => {
+    const res = await getAllPages('/trains');
     return res.data;
   },
   
@@ -38,7 +38,7 @@ export const trainAPI = {
   // Lấy chỉ trains đang active
   // Output: Array of active trains
   getActiveTrains: async () => {
-    const res = await api.get('/trains');
+    const res = await getAllPages('/trains');
     // Filter chỉ lấy trains có status active (lowercase)
     return res.data.filter(train => train.status === 'active');
   }
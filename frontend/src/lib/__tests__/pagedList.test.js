@@ -0,0 +1,46 @@
+/**
+ * Tests for reading list endpoints through GET <path>/page
+ */
+
+import { vi } from 'vitest';
+
+vi.mock('@/lib/axios', () => ({ default: { get: vi.fn() } }));
+
+import { getAllPages, PAGE_SIZE } from '../pagedList.js';
+
+// Giả lập endpoint /page: rows có id 1..total, cursor = id cuối của trang trước
+const pagedClient = (total) => ({
+  get: vi.fn(async (url, { params }) => {
+    const after = params.cursor ? Number(params.cursor) : 0;
+    const items = [];
+    for (let id = after + 1; id <= Math.min(total, after + params.size); id++) {
+      items.push({ id });
+    }
+    const last = items.length ? items[items.length - 1].id : after;
+    const hasNext = last < total;
+    return { data: { items, size: items.length, hasNext, nextCursor: hasNext ? String(last) : null } };
+  }),
+});
+
+describe('getAllPages', () => {
+  test('should follow nextCursor until the last page', async () => {
+    const client = pagedClient(250);
+
+    const res = await getAllPages('/trains', { client });
+
+    expect(res.data).toHaveLength(250);
+    expect(client.get).toHaveBeenCalledTimes(3);
+    expect(client.get).toHaveBeenNthCalledWith(1, '/trains/page', { params: { size: PAGE_SIZE, cursor: undefined } });
+    expect(client.get).toHaveBeenNthCalledWith(2, '/trains/page', { params: { size: PAGE_SIZE, cursor: '100' } });
+  });
+
+  test('should stop at maxItems', async () => {
+    const client = pagedClient(5000);
+
+    const res = await getAllPages('/orders', { client, maxItems: 150 });
+
+    expect(res.data).toHaveLength(150);
+    expect(res.data[149]).toEqual({ id: 150 });
+    expect(client.get).toHaveBeenCalledTimes(2);
+  });
+});
@@ -1,4 +1,5 @@
 import api from "@/lib/axios";
+import { getAllPages } from "@/lib/pagedList";
 
 export const authService  = {
   signUp: async (firstname, lastname,username, email,password) => {
@@ -31,7 +32,7 @@ export const authService  = {
 };
 
 export const stationAPI = {
-  getStations: (params) => api.get('/stations', { params }),
+  getStations: () => getAllPages('/stations'),
   getStation: (id) => api.get(`/stations/${id}`),
   getStationByCode: (code) => api.get(`/stations/code/${code}`),
   createStation: (data) => api.post('/stations', data),
@@ -42,7 +43,7 @@ export const stationAPI = {
 };
 
 export const trainAPI = {
-  getTrains: (params) => api.get('/trains', { params }),
+  getTrains: () => getAllPages('/trains'),
   getTrain: (id) => api.get(`/trains/${id}`),
   getTrainByNumber: (number) => api.get(`/trains/number/${number}`),
   createTrain: (data) => api.post('/trains', data),
@@ -54,7 +55,7 @@ export const trainAPI = {
 };
 
 export const scheduleAPI = {
-  getSchedules: (params) => api.get('/schedules', { params }),
+  getSchedules: () => getAllPages('/schedules'),
   getSchedule: (id) => api.get(`/schedules/${id}`),
   searchSchedules: (params) => api.get('/schedules/search/route', { params }),
   createSchedule: (data) => api.post('/schedules', data),
@@ -66,7 +67,7 @@ export const scheduleAPI = {
 };
 
 export const ticketAPI = {
-  getTickets: (params) => api.get('/tickets', { params }),
+  getTickets: () => getAllPages('/tickets'),
   getTicket: (id) => api.get(`/tickets/${id}`),
   createTicket: (data) => api.post('/tickets', data),
   updateTicket: (id, data) => api.put(`/tickets/${id}`, data),
@@ -74,7 +75,7 @@ export const ticketAPI = {
 };
 
 export const orderAPI = {
-  getOrders: (params) => api.get('/orders', { params }),
+  getOrders: () => getAllPages('/orders'),
   getOrder: (id) => api.get(`/orders/${id}`),
   createOrder: (data) => api.post('/orders/create', data),
   getUserOrders: (userId) => api.get(`/orders/user/${userId}`),
@@ -1,7 +1,8 @@
 import api from "@/lib/axios";
+import { getAllPages } from "@/lib/pagedList";
 
 export const scheduleAPI  = {
-  getSchedules: (params) => api.get('/schedules', { params }),
+  getSchedules: () => getAllPages('/schedules'),
   getSchedule: (id) => api.get(`/schedules/${id}`),
   searchSchedules: (params) => api.get('/schedules/search/route', { params }),
   createSchedule: (data) => api.post('/schedules/create', data),
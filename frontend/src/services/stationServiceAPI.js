@@ -1,7 +1,8 @@
 import api from "@/lib/axios";
+import { getAllPages } from "@/lib/pagedList";
 
 export const stationAPI = {
-  getStations: (params) => api.get('/stations', { params }),
+  getStations: () => getAllPages('/stations'),
   getStation: (id) => api.get(`/stations/${id}`),
   createStation: (data) => api.post('/stations', data),
   updateStation: (id, data) => api.put(`/stations/${id}`, data),
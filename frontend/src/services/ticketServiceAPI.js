@@ -1,8 +1,9 @@
 import api from "@/lib/axios";
+import { getAllPages } from "@/lib/pagedList";
 
 export const ticketAPI = {
   // Get all tickets
-  getTickets: () => api.get('/tickets'),
+  getTickets: () => getAllPages('/tickets'),
   
   // Get ticket by ID
   getTicketById: (id) => api.get(`/tickets/${id}`),
@@ -1,8 +1,9 @@
 import axios from 'axios';
+import { getAllPages } from '@/lib/pagedList';
 
 const API_URL = 'http://localhost:8000/api/trains';
 
-export const getTrains = () => axios.get(API_URL);
+export const getTrains = () => getAllPages(API_URL, { client: axios });
 export const getTrainById = (id) => axios.get(`${API_URL}/${id}`);
 export const createTrain = (data) => axios.post(API_URL, data);
 export const updateTrain = (id, data) => axios.put(`${API_URL}/${id}`, data);
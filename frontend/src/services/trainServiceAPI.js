@@ -1,8 +1,9 @@
 import api from "@/lib/axios";
+import { getAllPages } from "@/lib/pagedList";
 
 
 export const trainAPI = {
-  getTrains: (params) => api.get('/trains', { params }),
+  getTrains: () => getAllPages('/trains'),
   getTrainById: (id) => api.get(`/trains/${id}`),
   createTrain: (data) => api.post('/trains/create', data),
   updateTrain: (id, data) => api.put(`/trains/${id}`, data),
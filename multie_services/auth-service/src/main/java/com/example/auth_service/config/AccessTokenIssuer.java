@@ -1,6 +1,7 @@
 package com.example.auth_service.config;
 
-import io.jsonwebtoken.*;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
@@ -8,14 +9,17 @@ import org.springframework.stereotype.Component;
 import java.security.Key;
 import java.util.Date;
 
+/**
+ * Issues the access tokens every service verifies (common-security JwtUtils, same app.jwt.secret).
+ */
 @Component
-public class JwtUtils {
+public class AccessTokenIssuer {
 
     private final Key key;
     private final long accessTokenExpirationMs;
 
-    public JwtUtils(@Value("${app.jwt.secret}") String secret,
-                    @Value("${app.jwt.accessTokenExpirationMs}") long accessTokenExpirationMs) {
+    public AccessTokenIssuer(@Value("${app.jwt.secret}") String secret,
+                             @Value("${app.jwt.accessTokenExpirationMs}") long accessTokenExpirationMs) {
         this.key = Keys.hmacShaKeyFor(secret.getBytes());
         this.accessTokenExpirationMs = accessTokenExpirationMs;
     }
@@ -33,17 +37,4 @@ public class JwtUtils {
                 .signWith(key, SignatureAlgorithm.HS256)
                 .compact();
     }
-
-    public Jws<Claims> validateAndParse(String token) throws JwtException {
-        return Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token);
-    }
-
-    public boolean isTokenValid(String token) {
-        try {
-            validateAndParse(token);
-            return true;
-        } catch (JwtException ex) {
-            return false;
-        }
-    }
 }
@@ -1,14 +1,13 @@
 package com.example.auth_service.config;
 
+import com.example.common.security.JwtAuthenticationFilter;
+import com.example.common.security.JwtSecurity;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
-import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
-import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
-// Không cần import các class CORS nữa
 
 @Configuration
 @EnableWebSecurity
@@ -16,22 +15,14 @@ public class SecurityConfig {
 
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http, JwtAuthenticationFilter jwtFilter) throws Exception {
-        http
-                .csrf(csrf -> csrf.disable())
-
-                // --- QUAN TRỌNG: Tắt CORS tại đây ---
-                // Gateway sẽ lo việc thêm header. Service không được phép can thiệp.
-                .cors(cors -> cors.disable())
-
-                .sessionManagement(session ->
-                        session.sessionCreationPolicy(SessionCreationPolicy.STATELESS)
-                )
+        // Stateless + JWT filter; CORS tắt: Gateway sẽ lo việc thêm header, service không được phép can thiệp
+        JwtSecurity.statelessJwt(http, jwtFilter)
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers("/api/auth/signin", "/api/auth/signup", "/api/auth/refresh", "/api/auth/signout").permitAll()
+                        .requestMatchers("/actuator/**").permitAll()
                         .requestMatchers("/api/auth/me").authenticated()
                         .anyRequest().authenticated()
-                )
-                .addFilterBefore(jwtFilter, UsernamePasswordAuthenticationFilter.class);
+                );
 
         return http.build();
     }
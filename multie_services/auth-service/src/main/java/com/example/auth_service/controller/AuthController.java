@@ -1,12 +1,12 @@
 package com.example.auth_service.controller;
 
-import com.example.auth_service.config.JwtUserPrincipal;
 import com.example.auth_service.dto.SignInRequest;
 import com.example.auth_service.dto.SignUpRequest;
 import com.example.auth_service.dto.TokenResponse;
 import com.example.auth_service.dto.UserResponse;
 import com.example.auth_service.entity.User;
 import com.example.auth_service.service.AuthService;
+import com.example.common.security.AuthenticatedUser;
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
@@ -97,12 +97,12 @@ public class AuthController {
 
             // Lấy userId từ JWT principal
             Object principal = authentication.getPrincipal();
-            if (!(principal instanceof JwtUserPrincipal)) {
+            if (!(principal instanceof AuthenticatedUser)) {
                 return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid authentication");
             }
 
-            JwtUserPrincipal userPrincipal = (JwtUserPrincipal) principal;
-            Long userId = userPrincipal.getUserId();
+            AuthenticatedUser userPrincipal = (AuthenticatedUser) principal;
+            Long userId = userPrincipal.userId();
 
             User user = authService.getUserById(userId);
             
@@ -132,12 +132,12 @@ public class AuthController {
             }
 
             Object principal = authentication.getPrincipal();
-            if (!(principal instanceof JwtUserPrincipal)) {
+            if (!(principal instanceof AuthenticatedUser)) {
                 return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid authentication");
             }
 
-            JwtUserPrincipal userPrincipal = (JwtUserPrincipal) principal;
-            Long userId = userPrincipal.getUserId();
+            AuthenticatedUser userPrincipal = (AuthenticatedUser) principal;
+            Long userId = userPrincipal.userId();
 
             User updatedUser = authService.updateProfile(
                 userId,
@@ -174,12 +174,12 @@ public class AuthController {
             }
 
             Object principal = authentication.getPrincipal();
-            if (!(principal instanceof JwtUserPrincipal)) {
+            if (!(principal instanceof AuthenticatedUser)) {
                 return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid authentication");
             }
 
-            JwtUserPrincipal userPrincipal = (JwtUserPrincipal) principal;
-            Long userId = userPrincipal.getUserId();
+            AuthenticatedUser userPrincipal = (AuthenticatedUser) principal;
+            Long userId = userPrincipal.userId();
 
             authService.changePassword(userId, req.getCurrentPassword(), req.getNewPassword());
 
@@ -2,12 +2,37 @@ package com.example.auth_service.repository;
 
 import com.example.auth_service.entity.RefreshToken;
 import com.example.auth_service.entity.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 
 public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
     Optional<RefreshToken> findByToken(String token);
     int deleteByUser(User user);
-    void deleteByToken(String token);
+
+    // Token và user trong một query (không lazy-load User sau đó)
+    @Query("select r from RefreshToken r join fetch r.user where r.token = :token")
+    Optional<RefreshToken> findWithUserByToken(@Param("token") String token);
+
+    // Token còn hạn theo id tăng dần, cho việc chuyển sang Redis từng batch
+    @Query("select r from RefreshToken r join fetch r.user where r.id > :afterId and r.expiryDate > :now order by r.id")
+    List<RefreshToken> findUnexpiredWithUserAfter(@Param("afterId") long afterId,
+                                                  @Param("now") Instant now,
+                                                  Pageable page);
+
+    // Token đã hết hạn, cũ nhất trước (index expiry_date), cho việc dọn bảng từng batch
+    @Query("select r.id from RefreshToken r where r.expiryDate < :now order by r.expiryDate")
+    List<Long> findExpiredIds(@Param("now") Instant now, Pageable page);
+
+    @Modifying
+    @Transactional
+    @Query("delete from RefreshToken r where r.token = :token")
+    int deleteByToken(@Param("token") String token);
 }
@@ -1,12 +1,10 @@
 package com.example.auth_service.service;
 
-import com.example.auth_service.config.JwtUtils;
+import com.example.auth_service.config.AccessTokenIssuer;
 import com.example.auth_service.dto.SignInRequest;
 import com.example.auth_service.dto.SignUpRequest;
-import com.example.auth_service.entity.RefreshToken;
 import com.example.auth_service.entity.Role;
 import com.example.auth_service.entity.User;
-import com.example.auth_service.repository.RefreshTokenRepository;
 import com.example.auth_service.repository.UserRepository;
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletResponse;
@@ -15,25 +13,25 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
 
-import java.time.Instant;
+import java.time.Duration;
 import java.util.UUID;
 
 @Service
 public class AuthService {
     private final UserRepository userRepository;
-    private final RefreshTokenRepository refreshTokenRepository;
+    private final RefreshTokenStore refreshTokenStore;
     private final BCryptPasswordEncoder passwordEncoder;
-    private final JwtUtils jwtUtils;
+    private final AccessTokenIssuer accessTokenIssuer;
     private final long refreshTokenDurationMs;
 
     public AuthService(UserRepository userRepository,
-                       RefreshTokenRepository refreshTokenRepository,
-                       JwtUtils jwtUtils,
+                       RefreshTokenStore refreshTokenStore,
+                       AccessTokenIssuer accessTokenIssuer,
                        @Value("${app.jwt.refreshTokenExpirationMs}") long refreshTokenDurationMs) {
         this.userRepository = userRepository;
-        this.refreshTokenRepository = refreshTokenRepository;
+        this.refreshTokenStore = refreshTokenStore;
         this.passwordEncoder = new BCryptPasswordEncoder();
-        this.jwtUtils = jwtUtils;
+        this.accessTokenIssuer = accessTokenIssuer;
         this.refreshTokenDurationMs = refreshTokenDurationMs;
     }
 
@@ -83,16 +81,11 @@ public class AuthService {
 
         // create session (HTTP session) - handled by controller if needed
         // create access token
-        String accessToken = jwtUtils.generateAccessToken(user.getUsername(), user.getId(), user.getRole().name());
+        String accessToken = accessTokenIssuer.generateAccessToken(user.getUsername(), user.getId(), user.getRole().name());
 
-        // create refresh token (store in DB)
+        // create refresh token (Redis, TTL = thời hạn token; user id/username/role lưu kèm)
         String refreshTokenStr = UUID.randomUUID().toString();
-        RefreshToken refreshToken = RefreshToken.builder()
-                .token(refreshTokenStr)
-                .user(user)
-                .expiryDate(Instant.now().plusMillis(refreshTokenDurationMs))
-                .build();
-        refreshTokenRepository.save(refreshToken);
+        refreshTokenStore.save(refreshTokenStr, RefreshTokenStore.Session.of(user), Duration.ofMillis(refreshTokenDurationMs));
 
         // set cookie (HttpOnly)
         Cookie cookie = new Cookie("refreshToken", refreshTokenStr);
@@ -112,9 +105,7 @@ public class AuthService {
 
     public void signout(String refreshTokenFromCookie, HttpServletResponse response) {
         if (refreshTokenFromCookie != null) {
-            refreshTokenRepository.findByToken(refreshTokenFromCookie).ifPresent(rt -> {
-                refreshTokenRepository.delete(rt);
-            });
+            refreshTokenStore.delete(refreshTokenFromCookie);
         }
         Cookie cookie = new Cookie("refreshToken", "");
         cookie.setHttpOnly(true);
@@ -129,16 +120,10 @@ public class AuthService {
         if (refreshTokenStr == null) {
             throw new SecurityException("No token found");
         }
-        RefreshToken refreshToken = refreshTokenRepository.findByToken(refreshTokenStr)
-                .orElseThrow(() -> new SecurityException("Token không hợp lệ"));
-
-        if (refreshToken.getExpiryDate().isBefore(Instant.now())) {
-            refreshTokenRepository.delete(refreshToken);
-            throw new SecurityException("Refresh token hết hạn");
-        }
-
-        User user = refreshToken.getUser();
-        return jwtUtils.generateAccessToken(user.getUsername(), user.getId(), user.getRole().name());
+        // Không đụng MySQL: session lưu sẵn trong store; token hết hạn thì store không còn
+        RefreshTokenStore.Session session = refreshTokenStore.find(refreshTokenStr)
+                .orElseThrow(() -> new SecurityException("Refresh token không hợp lệ hoặc đã hết hạn"));
+        return accessTokenIssuer.generateAccessToken(session.username(), session.userId(), session.role());
     }
 
     public User getUserById(Long userId) {
@@ -0,0 +1,55 @@
+package com.example.auth_service.service;
+
+import com.example.auth_service.entity.RefreshToken;
+import com.example.auth_service.repository.RefreshTokenRepository;
+import com.example.auth_service.repository.UserRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Refresh tokens in the refresh_tokens table, as before the Redis store. Used where there is no
+ * Redis (loadtest profile): app.refresh-tokens.store=database.
+ */
+@Component
+@ConditionalOnProperty(name = "app.refresh-tokens.store", havingValue = "database")
+public class DatabaseRefreshTokenStore implements RefreshTokenStore {
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final UserRepository userRepository;
+
+    public DatabaseRefreshTokenStore(RefreshTokenRepository refreshTokenRepository, UserRepository userRepository) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.userRepository = userRepository;
+    }
+
+    @Override
+    public void save(String token, Session session, Duration ttl) {
+        refreshTokenRepository.save(RefreshToken.builder()
+                .token(token)
+                .user(userRepository.getReferenceById(session.userId()))
+                .expiryDate(Instant.now().plus(ttl))
+                .build());
+    }
+
+    @Override
+    public Optional<Session> find(String token) {
+        Optional<RefreshToken> refreshToken = refreshTokenRepository.findWithUserByToken(token);
+        if (refreshToken.isEmpty()) {
+            return Optional.empty();
+        }
+        if (refreshToken.get().getExpiryDate().isBefore(Instant.now())) {
+            refreshTokenRepository.delete(refreshToken.get());
+            return Optional.empty();
+        }
+        return Optional.of(Session.of(refreshToken.get().getUser()));
+    }
+
+    @Override
+    public void delete(String token) {
+        refreshTokenRepository.deleteByToken(token);
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.auth_service.service;
+
+import com.example.auth_service.entity.RefreshToken;
+import com.example.auth_service.repository.RefreshTokenRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Refresh tokens in Redis: one key per token, refresh:&lt;token&gt; = "userId:role:username", with the
+ * token's lifetime as TTL. Redis drops expired tokens itself, and a refresh is a single GET with no
+ * MySQL access.
+ *
+ * Migration from the refresh_tokens table: while app.refresh-tokens.read-legacy is on, a token that
+ * is not in Redis is looked up in the table once, moved to Redis with its remaining lifetime and
+ * deleted from the table. RefreshTokenMigrator moves every row at startup instead. Once the tokens
+ * issued before the switch have expired (app.jwt.refreshTokenExpirationMs) read-legacy can be
+ * turned off.
+ */
+@Component
+@ConditionalOnProperty(name = "app.refresh-tokens.store", havingValue = "redis", matchIfMissing = true)
+@Slf4j
+public class RedisRefreshTokenStore implements RefreshTokenStore {
+
+    static final String KEY_PREFIX = "refresh:";
+    private static final char SEPARATOR = ':';
+
+    private final StringRedisTemplate redisTemplate;
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final boolean readLegacy;
+
+    public RedisRefreshTokenStore(StringRedisTemplate redisTemplate,
+                                  RefreshTokenRepository refreshTokenRepository,
+                                  @Value("${app.refresh-tokens.read-legacy:true}") boolean readLegacy) {
+        this.redisTemplate = redisTemplate;
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.readLegacy = readLegacy;
+    }
+
+    @Override
+    public void save(String token, Session session, Duration ttl) {
+        redisTemplate.opsForValue().set(KEY_PREFIX + token, encode(session), ttl);
+    }
+
+    @Override
+    public Optional<Session> find(String token) {
+        String value = redisTemplate.opsForValue().get(KEY_PREFIX + token);
+        if (value != null) {
+            return Optional.ofNullable(decode(value));
+        }
+        return readLegacy ? migrateLegacy(token) : Optional.empty();
+    }
+
+    @Override
+    public void delete(String token) {
+        // Chỉ xuống bảng cũ khi Redis không có token
+        if (!Boolean.TRUE.equals(redisTemplate.delete(KEY_PREFIX + token)) && readLegacy) {
+            refreshTokenRepository.deleteByToken(token);
+        }
+    }
+
+    private Optional<Session> migrateLegacy(String token) {
+        Optional<RefreshToken> legacy = refreshTokenRepository.findWithUserByToken(token);
+        if (legacy.isEmpty()) {
+            return Optional.empty();
+        }
+        RefreshToken refreshToken = legacy.get();
+        Duration remaining = Duration.between(Instant.now(), refreshToken.getExpiryDate());
+        Session session = null;
+        if (!remaining.isNegative() && !remaining.isZero()) {
+            session = Session.of(refreshToken.getUser());
+            save(token, session, remaining);
+            log.debug("Moved refresh token of user {} from refresh_tokens to Redis", session.userId());
+        }
+        refreshTokenRepository.deleteByToken(token);
+        return Optional.ofNullable(session);
+    }
+
+    // username để cuối: có thể chứa ':'
+    static String encode(Session session) {
+        return session.userId() + String.valueOf(SEPARATOR) + session.role() + SEPARATOR + session.username();
+    }
+
+    static Session decode(String value) {
+        int first = value.indexOf(SEPARATOR);
+        int second = first < 0 ? -1 : value.indexOf(SEPARATOR, first + 1);
+        if (second < 0) {
+            return null;
+        }
+        try {
+            return new Session(Long.valueOf(value.substring(0, first)),
+                    value.substring(second + 1), value.substring(first + 1, second));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.auth_service.service;
+
+import com.example.auth_service.entity.RefreshToken;
+import com.example.auth_service.repository.RefreshTokenRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * One-off move of the unexpired rows of refresh_tokens to Redis, at startup when
+ * app.refresh-tokens.migrate-on-startup=true. Each batch is written with one pipelined round trip
+ * (SET ... PX remaining lifetime) and then deleted from the table; expired rows are not moved.
+ * Safe to run on several instances or twice: the values are the same.
+ */
+@Component
+@ConditionalOnExpression("${app.refresh-tokens.migrate-on-startup:false} and '${app.refresh-tokens.store:redis}' == 'redis'")
+@Slf4j
+public class RefreshTokenMigrator {
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final StringRedisTemplate redisTemplate;
+    private final int batchSize;
+
+    public RefreshTokenMigrator(RefreshTokenRepository refreshTokenRepository,
+                                StringRedisTemplate redisTemplate,
+                                @Value("${app.refresh-tokens.migrate-batch-size:1000}") int batchSize) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.redisTemplate = redisTemplate;
+        this.batchSize = batchSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrate() {
+        long afterId = 0;
+        int moved = 0;
+        List<RefreshToken> batch;
+        while (!(batch = refreshTokenRepository.findUnexpiredWithUserAfter(
+                afterId, Instant.now(), PageRequest.of(0, batchSize))).isEmpty()) {
+            write(batch);
+            List<Long> ids = batch.stream().map(RefreshToken::getId).toList();
+            refreshTokenRepository.deleteAllByIdInBatch(ids);
+            moved += ids.size();
+            afterId = ids.get(ids.size() - 1);
+        }
+        log.info("Moved {} refresh tokens from refresh_tokens to Redis", moved);
+    }
+
+    private void write(List<RefreshToken> batch) {
+        Instant now = Instant.now();
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            RedisStringCommands commands = connection.stringCommands();
+            for (RefreshToken refreshToken : batch) {
+                long remainingMs = Duration.between(now, refreshToken.getExpiryDate()).toMillis();
+                if (remainingMs <= 0) {
+                    continue;
+                }
+                String value = RedisRefreshTokenStore.encode(RefreshTokenStore.Session.of(refreshToken.getUser()));
+                commands.set(bytes(RedisRefreshTokenStore.KEY_PREFIX + refreshToken.getToken()), bytes(value),
+                        Expiration.milliseconds(remainingMs), RedisStringCommands.SetOption.upsert());
+            }
+            return null;
+        });
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.auth_service.service;
+
+import com.example.auth_service.repository.RefreshTokenRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Deletes expired rows of refresh_tokens: the rows of DatabaseRefreshTokenStore and the legacy
+ * rows left from before the Redis store, which otherwise only go when someone presents them.
+ *
+ * Each batch picks the oldest expired ids through the expiry_date index and deletes them by
+ * primary key in its own short transaction, so signins writing to the table wait at most one batch.
+ * A run stops starting batches after purge-max-duration-ms; what is left goes at the next run.
+ *
+ * Metrics: auth.refresh_tokens.purged (rows deleted), auth.refresh_tokens.rows (table size after the
+ * last run) and auth.refresh_tokens.purge (run duration).
+ */
+@Component
+@Slf4j
+public class RefreshTokenPurger {
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final int batchSize;
+    private final Duration maxDuration;
+    private final Counter purged;
+    private final Timer runs;
+    private final AtomicLong rows = new AtomicLong(-1);
+
+    public RefreshTokenPurger(RefreshTokenRepository refreshTokenRepository,
+                              MeterRegistry meterRegistry,
+                              @Value("${app.refresh-tokens.purge-batch-size:1000}") int batchSize,
+                              @Value("${app.refresh-tokens.purge-max-duration-ms:2000}") long maxDurationMs) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.batchSize = batchSize;
+        this.maxDuration = Duration.ofMillis(maxDurationMs);
+        this.purged = Counter.builder("auth.refresh_tokens.purged")
+                .description("Expired refresh_tokens rows deleted by the purge job")
+                .register(meterRegistry);
+        this.runs = Timer.builder("auth.refresh_tokens.purge")
+                .description("Duration of a refresh_tokens purge run")
+                .register(meterRegistry);
+        meterRegistry.gauge("auth.refresh_tokens.rows", rows);
+    }
+
+    @Scheduled(initialDelayString = "${app.refresh-tokens.purge-initial-delay-ms:60000}",
+            fixedDelayString = "${app.refresh-tokens.purge-interval-ms:600000}")
+    public void purge() {
+        long start = System.nanoTime();
+        Instant deadline = Instant.now().plus(maxDuration);
+        int deleted = 0;
+        boolean backlog = false;
+        List<Long> expired;
+        while (!(expired = refreshTokenRepository.findExpiredIds(Instant.now(), PageRequest.of(0, batchSize))).isEmpty()) {
+            refreshTokenRepository.deleteAllByIdInBatch(expired);
+            deleted += expired.size();
+            purged.increment(expired.size());
+            if (expired.size() < batchSize) {
+                break;
+            }
+            if (Instant.now().isAfter(deadline)) {
+                backlog = true;
+                break;
+            }
+        }
+        rows.set(refreshTokenRepository.count());
+        runs.record(Duration.ofNanos(System.nanoTime() - start));
+
+        if (backlog) {
+            log.info("Purged {} expired refresh tokens, stopped after {} ms with more left", deleted, maxDuration.toMillis());
+        } else if (deleted > 0) {
+            log.info("Purged {} expired refresh tokens", deleted);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.auth_service.service;
+
+import com.example.auth_service.entity.User;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Where refresh tokens live: Redis (RedisRefreshTokenStore, the default) or the refresh_tokens
+ * table (DatabaseRefreshTokenStore, app.refresh-tokens.store=database).
+ *
+ * A token maps to the Session it was issued for, so a refresh signs a new access token from the
+ * session alone. Role or username changes are therefore seen at the next signin, as for the
+ * access tokens already issued.
+ */
+public interface RefreshTokenStore {
+
+    void save(String token, Session session, Duration ttl);
+
+    /**
+     * @return the session, or empty if the token is unknown or expired
+     */
+    Optional<Session> find(String token);
+
+    void delete(String token);
+
+    record Session(Long userId, String username, String role) {
+
+        public static Session of(User user) {
+            return new Session(user.getId(), user.getUsername(), user.getRole().name());
+        }
+    }
+}
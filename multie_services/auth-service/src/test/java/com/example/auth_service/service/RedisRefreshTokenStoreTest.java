@@ -0,0 +1,147 @@
+package com.example.auth_service.service;
+
+import com.example.auth_service.entity.RefreshToken;
+import com.example.auth_service.entity.Role;
+import com.example.auth_service.entity.User;
+import com.example.auth_service.repository.RefreshTokenRepository;
+import com.example.auth_service.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * RedisRefreshTokenStore against a mocked Redis and a real (H2) refresh_tokens table: the Redis
+ * path never touches the table, and legacy rows are moved to Redis with their remaining lifetime.
+ */
+@DataJpaTest(showSql = false)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:refresh-tokens;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "logging.level.root=WARN"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // như service: mỗi query một transaction riêng
+class RedisRefreshTokenStoreTest {
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private StringRedisTemplate redisTemplate;
+    private ValueOperations<String, String> values;
+    private User user;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        refreshTokenRepository.deleteAll();
+        userRepository.deleteAll();
+        user = userRepository.save(User.builder()
+                .email("an@example.com").username("an:nguyen").password("x").role(Role.USER).build());
+        redisTemplate = mock(StringRedisTemplate.class);
+        values = mock(ValueOperations.class);
+        when(redisTemplate.opsForValue()).thenReturn(values);
+    }
+
+    private RedisRefreshTokenStore store(boolean readLegacy) {
+        return new RedisRefreshTokenStore(redisTemplate, refreshTokenRepository, readLegacy);
+    }
+
+    private void legacyRow(String token, Instant expiryDate) {
+        refreshTokenRepository.save(RefreshToken.builder().token(token).user(user).expiryDate(expiryDate).build());
+    }
+
+    @Test
+    void sessionRoundTripsThroughTheRedisValue() {
+        RefreshTokenStore.Session session = new RefreshTokenStore.Session(42L, "an:nguyen", "ADMIN");
+
+        assertThat(RedisRefreshTokenStore.encode(session)).isEqualTo("42:ADMIN:an:nguyen");
+        assertThat(RedisRefreshTokenStore.decode("42:ADMIN:an:nguyen")).isEqualTo(session);
+        assertThat(RedisRefreshTokenStore.decode("garbage")).isNull();
+        assertThat(RedisRefreshTokenStore.decode("x:USER:an")).isNull();
+    }
+
+    @Test
+    void savesWithTheTokenLifetimeAsTtl() {
+        store(true).save("t1", RefreshTokenStore.Session.of(user), Duration.ofDays(7));
+
+        verify(values).set("refresh:t1", user.getId() + ":USER:an:nguyen", Duration.ofDays(7));
+    }
+
+    @Test
+    void tokenInRedisIsServedWithoutTheTable() {
+        when(values.get("refresh:t1")).thenReturn(user.getId() + ":USER:an:nguyen");
+        legacyRow("t1", Instant.now().plus(Duration.ofDays(1)));
+
+        assertThat(store(true).find("t1"))
+                .contains(new RefreshTokenStore.Session(user.getId(), "an:nguyen", "USER"));
+        assertThat(refreshTokenRepository.findByToken("t1")).isPresent();
+    }
+
+    @Test
+    void legacyRowIsMovedToRedisWithItsRemainingLifetime() {
+        legacyRow("t1", Instant.now().plus(Duration.ofHours(2)));
+
+        assertThat(store(true).find("t1"))
+                .contains(new RefreshTokenStore.Session(user.getId(), "an:nguyen", "USER"));
+
+        verify(values).set(eq("refresh:t1"), eq(user.getId() + ":USER:an:nguyen"),
+                argThat((Duration ttl) -> ttl.compareTo(Duration.ofHours(2)) <= 0
+                        && ttl.compareTo(Duration.ofMinutes(119)) > 0));
+        assertThat(refreshTokenRepository.findByToken("t1")).isEmpty();
+    }
+
+    @Test
+    void expiredLegacyRowIsDeletedAndRejected() {
+        legacyRow("t1", Instant.now().minusSeconds(1));
+
+        assertThat(store(true).find("t1")).isEmpty();
+
+        verify(values, never()).set(anyString(), anyString(), any(Duration.class));
+        assertThat(refreshTokenRepository.findByToken("t1")).isEmpty();
+    }
+
+    @Test
+    void tableIsIgnoredOnceReadLegacyIsOff() {
+        legacyRow("t1", Instant.now().plus(Duration.ofHours(2)));
+
+        assertThat(store(false).find("t1")).isEmpty();
+        store(false).delete("t1");
+
+        assertThat(refreshTokenRepository.findByToken("t1")).isPresent();
+    }
+
+    @Test
+    void signoutDeletesALegacyRowOnlyWhenRedisHasNoToken() {
+        legacyRow("t1", Instant.now().plus(Duration.ofHours(2)));
+        when(redisTemplate.delete("refresh:t1")).thenReturn(false);
+
+        store(true).delete("t1");
+
+        assertThat(refreshTokenRepository.findByToken("t1")).isEmpty();
+    }
+}
@@ -0,0 +1,202 @@
+package com.example.auth_service.service;
+
+import com.example.auth_service.config.AccessTokenIssuer;
+import com.example.auth_service.entity.RefreshToken;
+import com.example.auth_service.entity.User;
+import com.example.auth_service.repository.RefreshTokenRepository;
+import com.example.auth_service.repository.UserRepository;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Refresh throughput (lookup of the refresh token + signing the new access token) with the token in
+ * the refresh_tokens table, as before (findByToken, then lazy-load of the User), through
+ * DatabaseRefreshTokenStore (one join fetch query), and in Redis (RedisRefreshTokenStore, one GET).
+ *
+ * The table is H2 in memory, so the database figures have no network round trip and no contention
+ * with signin writes: against MySQL the two variants that touch the table are slower, the first
+ * one by two round trips per refresh. The Redis variant needs a Redis server and is skipped if none
+ * answers. Opt-in:
+ * mvn test -Dtest=RefreshTokenBenchmarkTest -Dbenchmark=true [-Dbenchmark.threads=16]
+ *     [-Dbenchmark.refreshes=200000] [-Dbenchmark.redis.host=localhost -Dbenchmark.redis.port=6379]
+ */
+@DataJpaTest(showSql = false)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:refresh-benchmark;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.hikari.maximum-pool-size=16",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "logging.level.root=WARN"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class RefreshTokenBenchmarkTest {
+
+    private static final int USERS = 5_000;
+    private static final int TOKENS = 100_000;
+    private static final int THREADS = Integer.getInteger("benchmark.threads", 16);
+    private static final int REFRESHES = Integer.getInteger("benchmark.refreshes", 200_000);
+    // Token riêng của benchmark: không đụng token thật trên một Redis dùng chung
+    private static final String TOKEN_PREFIX = "benchmark-";
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final AccessTokenIssuer accessTokenIssuer =
+            new AccessTokenIssuer("12345678901234567890123456789012", 86_400_000);
+
+    @BeforeAll
+    void seedTokens() {
+        jdbcTemplate.update("""
+                INSERT INTO users (email, username, password, firstname, lastname, role)
+                SELECT CONCAT('user', X, '@example.com'), CONCAT('user', X), 'x', 'Load', 'Test',
+                    CASEWHEN(MOD(X, 50) = 0, 'ADMIN', 'USER')
+                FROM SYSTEM_RANGE(1, ?)
+                """, USERS);
+        jdbcTemplate.update("""
+                INSERT INTO refresh_tokens (token, user_id, expiry_date)
+                SELECT CONCAT(?, X), MOD(X, ?) + 1, DATEADD('DAY', 7, CURRENT_TIMESTAMP)
+                FROM SYSTEM_RANGE(1, ?)
+                """, TOKEN_PREFIX, USERS, TOKENS);
+    }
+
+    @Test
+    void refreshThroughput() throws Exception {
+        System.out.printf("%,d tokens, %,d users, %d threads, %,d refreshes%n", TOKENS, USERS, THREADS, REFRESHES);
+        System.out.printf("%-34s %12s %12s%n", "variant", "refresh/s", "us/refresh");
+
+        // Chỉ ký access token: phần không đổi giữa các cách lưu
+        run("signing only", token -> accessTokenIssuer.generateAccessToken("user1", 1L, "USER"));
+
+        // Trước: findByToken rồi lazy-load User trong cùng session (open-in-view của request)
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        run("before: findByToken + lazy User", token -> readOnly.execute(status -> {
+            RefreshToken refreshToken = refreshTokenRepository.findByToken(token).orElseThrow();
+            User user = refreshToken.getUser();
+            return accessTokenIssuer.generateAccessToken(user.getUsername(), user.getId(), user.getRole().name());
+        }));
+
+        DatabaseRefreshTokenStore database = new DatabaseRefreshTokenStore(refreshTokenRepository, userRepository);
+        run("database store: join fetch", token -> issue(database, token));
+
+        LettuceConnectionFactory connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration(
+                System.getProperty("benchmark.redis.host", "localhost"),
+                Integer.getInteger("benchmark.redis.port", 6379)));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        try {
+            StringRedisTemplate redisTemplate = new StringRedisTemplate(connectionFactory);
+            try {
+                redisTemplate.execute((RedisCallback<String>) connection -> connection.ping());
+            } catch (RuntimeException e) {
+                System.out.printf("%-34s skipped, no Redis: %s%n", "redis store: GET", e.getMessage());
+                return;
+            }
+            seedRedis(redisTemplate);
+            RedisRefreshTokenStore redis = new RedisRefreshTokenStore(redisTemplate, refreshTokenRepository, false);
+            run("redis store: GET", token -> issue(redis, token));
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                for (int i = 1; i <= TOKENS; i++) {
+                    connection.keyCommands().del(key(i));
+                }
+                return null;
+            });
+        } finally {
+            connectionFactory.destroy();
+        }
+    }
+
+    private String issue(RefreshTokenStore store, String token) {
+        RefreshTokenStore.Session session = store.find(token).orElseThrow();
+        return accessTokenIssuer.generateAccessToken(session.username(), session.userId(), session.role());
+    }
+
+    // Cùng token/user như bảng; TTL ngắn phòng khi benchmark dừng giữa chừng
+    private void seedRedis(StringRedisTemplate redisTemplate) {
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (int i = 1; i <= TOKENS; i++) {
+                long userId = i % USERS + 1;
+                String value = RedisRefreshTokenStore.encode(new RefreshTokenStore.Session(
+                        userId, "user" + userId, userId % 50 == 0 ? "ADMIN" : "USER"));
+                connection.stringCommands().set(key(i), value.getBytes(StandardCharsets.UTF_8),
+                        Expiration.seconds(600), RedisStringCommands.SetOption.upsert());
+            }
+            return null;
+        });
+    }
+
+    private void run(String variant, Function<String, String> refresh) throws Exception {
+        // Warm-up: JIT, pool, cache của H2
+        execute(refresh, Math.min(REFRESHES, 20_000));
+        long start = System.nanoTime();
+        execute(refresh, REFRESHES);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("%-34s %,12.0f %12.1f%n", variant, REFRESHES / seconds, seconds * 1e6 * THREADS / REFRESHES);
+    }
+
+    private void execute(Function<String, String> refresh, int refreshes) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        try {
+            Future<?>[] workers = new Future<?>[THREADS];
+            for (int t = 0; t < THREADS; t++) {
+                int share = refreshes / THREADS + (t < refreshes % THREADS ? 1 : 0);
+                workers[t] = pool.submit(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    for (int i = 0; i < share; i++) {
+                        assertThat(refresh.apply(TOKEN_PREFIX + (random.nextInt(TOKENS) + 1))).isNotEmpty();
+                    }
+                });
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } finally {
+            pool.shutdown();
+            pool.awaitTermination(1, TimeUnit.MINUTES);
+        }
+    }
+
+    private static byte[] key(int i) {
+        return (RedisRefreshTokenStore.KEY_PREFIX + TOKEN_PREFIX + i).getBytes(StandardCharsets.UTF_8);
+    }
+}
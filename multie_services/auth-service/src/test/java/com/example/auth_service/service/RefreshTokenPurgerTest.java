@@ -0,0 +1,118 @@
+package com.example.auth_service.service;
+
+import com.example.auth_service.repository.RefreshTokenRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * RefreshTokenPurger on a seeded refresh_tokens table: expired rows go in batches through the
+ * expiry_date index, unexpired ones stay, a run stops at its time budget, and the metrics follow.
+ */
+@DataJpaTest(showSql = false)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:refresh-purge;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.example.auth_service.service.RefreshTokenPurgerTest$LastSql",
+        "logging.level.root=WARN"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class RefreshTokenPurgerTest {
+
+    private static final int EXPIRED = 2_500;
+    private static final int VALID = 100;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @BeforeEach
+    void seedTokens() {
+        jdbcTemplate.update("DELETE FROM refresh_tokens");
+        jdbcTemplate.update("DELETE FROM users");
+        jdbcTemplate.update("INSERT INTO users (id, email, username, password, role) VALUES (1, 'a@example.com', 'a', 'x', 'USER')");
+        // Hết hạn trải trên 30 ngày trước, còn hạn trong 7 ngày tới
+        jdbcTemplate.update("""
+                INSERT INTO refresh_tokens (token, user_id, expiry_date)
+                SELECT CONCAT('expired-', X), 1, DATEADD('MINUTE', -MOD(X * 7919, 43200) - 1, CURRENT_TIMESTAMP)
+                FROM SYSTEM_RANGE(1, ?)
+                """, EXPIRED);
+        jdbcTemplate.update("""
+                INSERT INTO refresh_tokens (token, user_id, expiry_date)
+                SELECT CONCAT('valid-', X), 1, DATEADD('DAY', 7, CURRENT_TIMESTAMP)
+                FROM SYSTEM_RANGE(1, ?)
+                """, VALID);
+    }
+
+    private RefreshTokenPurger purger(int batchSize, long maxDurationMs) {
+        return new RefreshTokenPurger(refreshTokenRepository, meterRegistry, batchSize, maxDurationMs);
+    }
+
+    @Test
+    void deletesEveryExpiredTokenAndKeepsTheOthers() {
+        purger(1_000, 60_000).purge();
+
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM refresh_tokens WHERE expiry_date < CURRENT_TIMESTAMP", Long.class)).isZero();
+        assertThat(refreshTokenRepository.count()).isEqualTo(VALID);
+        assertThat(meterRegistry.get("auth.refresh_tokens.purged").counter().count()).isEqualTo(EXPIRED);
+        assertThat(meterRegistry.get("auth.refresh_tokens.rows").gauge().value()).isEqualTo(VALID);
+        assertThat(meterRegistry.get("auth.refresh_tokens.purge").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void runStopsAtItsTimeBudgetAndTheNextOneContinues() {
+        RefreshTokenPurger purger = purger(1_000, 0);
+
+        purger.purge();
+        assertThat(refreshTokenRepository.count()).isEqualTo(EXPIRED - 1_000 + VALID);
+        assertThat(meterRegistry.get("auth.refresh_tokens.rows").gauge().value()).isEqualTo(EXPIRED - 1_000 + VALID);
+
+        purger.purge();
+        purger.purge();
+        assertThat(refreshTokenRepository.count()).isEqualTo(VALID);
+        assertThat(meterRegistry.get("auth.refresh_tokens.purged").counter().count()).isEqualTo(EXPIRED);
+    }
+
+    @Test
+    void expiredBatchIsReadThroughTheExpiryDateIndex() {
+        Instant now = Instant.now();
+        refreshTokenRepository.findExpiredIds(now, PageRequest.of(0, 1_000));
+
+        String plan = jdbcTemplate.queryForObject("EXPLAIN " + LastSql.sql, String.class, Timestamp.from(now), 1_000);
+        assertThat(plan).containsIgnoringCase("idx_refresh_tokens_expiry_date").doesNotContainIgnoringCase("tableScan");
+    }
+
+    // Giữ lại câu SQL cuối cùng Hibernate sinh ra (test chạy tuần tự trên một thread)
+    public static class LastSql implements StatementInspector {
+        static volatile String sql;
+
+        @Override
+        public String inspect(String sql) {
+            LastSql.sql = sql;
+            return sql;
+        }
+    }
+}
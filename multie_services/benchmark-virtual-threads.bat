@@ -0,0 +1,41 @@
+@echo off
+echo ========================================
+echo Order Load Benchmark - Platform vs Virtual Threads
+echo ========================================
+echo.
+echo Requires: JDK 21, MySQL, and these services running:
+echo - Tickets Service (5004)
+echo - Schedules Service (5005)
+echo - Orders Service (5006)
+echo.
+echo Usage: benchmark-virtual-threads.bat [ticketId] [scheduleId]
+echo The ticket should have enough seats for the whole run.
+echo.
+
+set TICKET_ID=%1
+if "%TICKET_ID%"=="" set TICKET_ID=1
+set SCHEDULE_ID=%2
+if "%SCHEDULE_ID%"=="" set SCHEDULE_ID=1
+
+echo [1/2] Start tickets-service and orders-service with
+echo       --spring.threads.virtual.enabled=false
+pause
+java loadtest\OrderLoadBenchmark.java http://localhost:5006 %TICKET_ID% %SCHEDULE_ID% > benchmark-platform-threads.txt
+type benchmark-platform-threads.txt
+echo.
+
+echo [2/2] Restart tickets-service and orders-service with
+echo       --spring.threads.virtual.enabled=true
+echo       and the JVM option -Djdk.tracePinnedThreads=short: any stack printed in their
+echo       logs blocked while pinning a carrier thread and must be fixed before comparing.
+pause
+java loadtest\OrderLoadBenchmark.java http://localhost:5006 %TICKET_ID% %SCHEDULE_ID% > benchmark-virtual-threads.txt
+type benchmark-virtual-threads.txt
+echo.
+
+echo ========================================
+echo Compare p99 and "Max concurrent in-flight orders" in:
+echo   benchmark-platform-threads.txt
+echo   benchmark-virtual-threads.txt
+echo ========================================
+pause
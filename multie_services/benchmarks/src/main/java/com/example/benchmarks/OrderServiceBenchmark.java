@@ -0,0 +1,255 @@
+package com.example.benchmarks;
+
+import com.example.orders_service.client.PaymentServiceClient;
+import com.example.orders_service.client.ReactivePaymentServiceClient;
+import com.example.orders_service.client.ReactiveScheduleServiceClient;
+import com.example.orders_service.client.ReactiveTicketsServiceClient;
+import com.example.orders_service.client.ScheduleServiceClient;
+import com.example.orders_service.client.TicketsServiceClient;
+import com.example.orders_service.dto.OrderRequest;
+import com.example.orders_service.dto.OrderResponse;
+import com.example.orders_service.dto.ScheduleResponse;
+import com.example.orders_service.dto.TicketResponse;
+import com.example.orders_service.entity.Order;
+import com.example.orders_service.repository.OrderOutboxRepository;
+import com.example.orders_service.repository.OrderRepository;
+import com.example.orders_service.service.OrderAggregates;
+import com.example.orders_service.service.ScheduleCache;
+import com.example.orders_service.service.impl.OrderServiceImpl;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * OrderServiceImpl on the booking hot path without network or database: the Tickets and Schedules
+ * clients answer immediately with fixed responses, repositories are stubs and transactions are
+ * no-ops. createOrder measures the in-process work only (lookup fan-out on virtual threads,
+ * validation, passenger JSON, schedule snapshot, entity and response mapping).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = "-XX:+EnableDynamicAgentLoading") // Mockito stubs
+@State(Scope.Benchmark)
+public class OrderServiceBenchmark {
+
+    private static final int TICKET_ID = 1;
+    private static final int SCHEDULE_ID = 1;
+
+    // mapToResponse và createScheduleSnapshot là private trong OrderServiceImpl
+    private static final MethodHandle MAP_TO_RESPONSE;
+    private static final MethodHandle CREATE_SCHEDULE_SNAPSHOT;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(OrderServiceImpl.class, MethodHandles.lookup());
+            MAP_TO_RESPONSE = lookup.findVirtual(OrderServiceImpl.class, "mapToResponse",
+                    MethodType.methodType(OrderResponse.class, Order.class));
+            CREATE_SCHEDULE_SNAPSHOT = lookup.findVirtual(OrderServiceImpl.class, "createScheduleSnapshot",
+                    MethodType.methodType(String.class, ScheduleResponse.class));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private ExecutorService lookupExecutor;
+    private OrderServiceImpl orderService;
+    private OrderRequest request;
+    private ScheduleResponse schedule;
+    private Order order;
+
+    @Setup
+    public void setUp() throws ReflectiveOperationException {
+        lookupExecutor = Executors.newVirtualThreadPerTaskExecutor();
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        schedule = schedule();
+
+        ScheduleCache scheduleCache = new ScheduleCache(new FixedScheduleServiceClient(schedule),
+                lookupExecutor, meterRegistry, 10_000, 3600, 3600);
+        scheduleCache.get(SCHEDULE_ID); // nạp sẵn qua client cố định
+
+        OrderRepository orderRepository = mock(OrderRepository.class, withSettings().stubOnly());
+        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> {
+            Order saved = invocation.getArgument(0);
+            saved.setId(1);
+            return saved;
+        });
+
+        StaticListableBeanFactory noBeans = new StaticListableBeanFactory();
+        orderService = new OrderServiceImpl(
+                orderRepository,
+                mock(OrderOutboxRepository.class, withSettings().stubOnly()),
+                new TransactionTemplate(new NoOpTransactionManager()),
+                new FixedTicketsServiceClient(ticket()),
+                mock(PaymentServiceClient.class, withSettings().stubOnly()),
+                scheduleCache,
+                mock(OrderAggregates.class, withSettings().stubOnly()),
+                Jackson2ObjectMapperBuilder.json().build(),
+                lookupExecutor,
+                noBeans.getBeanProvider(ReactiveTicketsServiceClient.class),
+                noBeans.getBeanProvider(ReactiveScheduleServiceClient.class),
+                noBeans.getBeanProvider(ReactivePaymentServiceClient.class),
+                meterRegistry);
+        Field lookupTimeout = OrderServiceImpl.class.getDeclaredField("lookupTimeoutMs");
+        lookupTimeout.setAccessible(true);
+        lookupTimeout.setLong(orderService, 5000);
+
+        request = new OrderRequest();
+        request.setUserRefId(1);
+        request.setUserEmailSnapshot("user@example.com");
+        request.setScheduleRefId(SCHEDULE_ID);
+        request.setTicketTypeRefId(TICKET_ID);
+        request.setTicketTypeNameSnapshot("Economy");
+        request.setQuantity(2);
+        request.setTotalAmount(new BigDecimal("700000"));
+        request.setPaymentMethod("cash");
+        request.setPassengerDetails("[{\"name\":\"Nguyen Van A\",\"idNumber\":\"001\"},"
+                + "{\"name\":\"Tran Thi B\",\"idNumber\":\"002\"}]");
+
+        // Một lần chạy thật cũng kiểm tra stub đủ cho createOrder; order của nó dùng cho mapToResponse
+        order = toOrder(orderService.createOrder(request));
+    }
+
+    @TearDown
+    public void tearDown() {
+        lookupExecutor.shutdownNow();
+    }
+
+    @Benchmark
+    public OrderResponse createOrder() {
+        return orderService.createOrder(request);
+    }
+
+    @Benchmark
+    public OrderResponse mapToResponse() throws Throwable {
+        return (OrderResponse) MAP_TO_RESPONSE.invokeExact(orderService, order);
+    }
+
+    @Benchmark
+    public String createScheduleSnapshot() throws Throwable {
+        return (String) CREATE_SCHEDULE_SNAPSHOT.invokeExact(orderService, schedule);
+    }
+
+    private static Order toOrder(OrderResponse created) {
+        Order saved = new Order();
+        saved.setId(created.getId());
+        saved.setUserRefId(created.getUserRefId());
+        saved.setUserEmailSnapshot(created.getUserEmailSnapshot());
+        saved.setScheduleRefId(created.getScheduleRefId());
+        saved.setScheduleInfoSnapshot(created.getScheduleInfoSnapshot());
+        saved.setTicketTypeRefId(created.getTicketTypeRefId());
+        saved.setTicketTypeNameSnapshot(created.getTicketTypeNameSnapshot());
+        saved.setQuantity(created.getQuantity());
+        saved.setTotalAmount(created.getTotalAmount());
+        saved.setPassengerDetails(created.getPassengerDetails());
+        saved.setPaymentMethod(Order.PaymentMethod.valueOf(created.getPaymentMethod()));
+        saved.setPaymentStatus(Order.PaymentStatus.valueOf(created.getPaymentStatus()));
+        saved.setOrderStatus(Order.OrderStatus.valueOf(created.getOrderStatus()));
+        saved.setConfirmationCode(created.getConfirmationCode());
+        saved.setConfirmedAt(created.getConfirmedAt());
+        saved.setCreatedAt(created.getCreatedAt());
+        return saved;
+    }
+
+    private static TicketResponse ticket() {
+        TicketResponse ticket = new TicketResponse();
+        ticket.setId((long) TICKET_ID);
+        ticket.setName("Economy");
+        ticket.setScheduleRefId((long) SCHEDULE_ID);
+        ticket.setPrice(new BigDecimal("350000"));
+        ticket.setTotalQuantity(500);
+        ticket.setSoldQuantity(0);
+        ticket.setAvailableQuantity(500);
+        ticket.setStatus("active");
+        return ticket;
+    }
+
+    private static ScheduleResponse schedule() {
+        ScheduleResponse schedule = new ScheduleResponse();
+        schedule.setId((long) SCHEDULE_ID);
+        schedule.setTrainNumber("SE1");
+        schedule.setDepartureStation("Ha Noi");
+        schedule.setArrivalStation("Sai Gon");
+        schedule.setDepartureTime(LocalDateTime.of(2026, 1, 15, 19, 30));
+        schedule.setArrivalTime(LocalDateTime.of(2026, 1, 17, 4, 45));
+        schedule.setDurationMinutes(1995L);
+        schedule.setBasePrice(new BigDecimal("350000"));
+        schedule.setStatus("scheduled");
+        return schedule;
+    }
+
+    // Tickets Service trả lời ngay, không qua HTTP
+    private static final class FixedTicketsServiceClient extends TicketsServiceClient {
+        private final TicketResponse ticket;
+
+        FixedTicketsServiceClient(TicketResponse ticket) {
+            this.ticket = ticket;
+        }
+
+        @Override
+        public TicketResponse getTicket(Integer ticketId) {
+            return ticket;
+        }
+    }
+
+    private static final class FixedScheduleServiceClient extends ScheduleServiceClient {
+        private final ScheduleResponse schedule;
+
+        FixedScheduleServiceClient(ScheduleResponse schedule) {
+            this.schedule = schedule;
+        }
+
+        @Override
+        public ScheduleResponse getSchedule(Integer scheduleId) {
+            return schedule;
+        }
+    }
+
+    private static final class NoOpTransactionManager implements PlatformTransactionManager {
+        @Override
+        public TransactionStatus getTransaction(TransactionDefinition definition) {
+            return new SimpleTransactionStatus();
+        }
+
+        @Override
+        public void commit(TransactionStatus status) {
+        }
+
+        @Override
+        public void rollback(TransactionStatus status) {
+        }
+    }
+}
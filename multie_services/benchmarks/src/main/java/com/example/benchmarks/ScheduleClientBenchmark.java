@@ -0,0 +1,114 @@
+package com.example.benchmarks;
+
+import com.example.tickets_service.client.ScheduleClient;
+import com.example.tickets_service.dto.ScheduleResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.RestTemplate;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Concurrent schedule-cache misses in tickets-service's ScheduleClient on virtual threads,
+ * against a stubbed Schedule Service that answers after {@code latencyMs}.
+ * Each operation is one burst of {@code requests} misses for distinct schedules.
+ *
+ * If the remote call ran while a carrier is pinned (e.g. inside the cache map's lock), the burst
+ * would take about requests × latency / carriers; unpinned it stays close to one latency.
+ * Add -Djdk.tracePinnedThreads=short to the fork to print any pinned stack.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ScheduleClientBenchmark {
+
+    @Param("200")
+    public int requests;
+
+    @Param("5")
+    public long latencyMs;
+
+    private ScheduleClient scheduleClient;
+    private ExecutorService executor;
+    // Id mới cho mỗi request để lần nào cũng là miss
+    private final AtomicLong nextScheduleId = new AtomicLong();
+
+    @Setup
+    public void setUp() throws ReflectiveOperationException {
+        scheduleClient = new ScheduleClient(new SlowScheduleService(latencyMs), new SimpleMeterRegistry(), 10_000, 300, 30);
+        Field url = ScheduleClient.class.getDeclaredField("scheduleServiceUrl");
+        url.setAccessible(true);
+        url.set(scheduleClient, "http://schedules/api/schedules");
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.close();
+    }
+
+    @Benchmark
+    public int concurrentMisses() throws Exception {
+        List<Future<ScheduleResponse>> lookups = new ArrayList<>(requests);
+        for (int i = 0; i < requests; i++) {
+            long scheduleId = nextScheduleId.incrementAndGet();
+            lookups.add(executor.submit(() -> scheduleClient.getScheduleById(scheduleId)));
+        }
+        int found = 0;
+        for (Future<ScheduleResponse> lookup : lookups) {
+            if (lookup.get() != null) {
+                found++;
+            }
+        }
+        return found;
+    }
+
+    /** Schedule Service giả: trả lời sau một độ trễ cố định, không qua mạng. */
+    static class SlowScheduleService extends RestTemplate {
+
+        private final long latencyMs;
+
+        SlowScheduleService(long latencyMs) {
+            this.latencyMs = latencyMs;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> ResponseEntity<T> exchange(String url, HttpMethod method, HttpEntity<?> requestEntity,
+                                              Class<T> responseType, Object... uriVariables) {
+            try {
+                Thread.sleep(latencyMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            ScheduleResponse schedule = new ScheduleResponse();
+            schedule.setId(Long.parseLong(url.substring(url.lastIndexOf('/') + 1)));
+            schedule.setStatus("scheduled");
+            return ResponseEntity.ok((T) schedule);
+        }
+    }
+}
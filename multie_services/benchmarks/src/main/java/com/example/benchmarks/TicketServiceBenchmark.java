@@ -0,0 +1,78 @@
+package com.example.benchmarks;
+
+import com.example.tickets_service.client.ScheduleClient;
+import com.example.tickets_service.entity.Ticket;
+import com.example.tickets_service.repository.TicketRepository;
+import com.example.tickets_service.service.IdempotencyRegistry;
+import com.example.tickets_service.service.TicketInventory;
+import com.example.tickets_service.service.impl.TicketServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * TicketServiceImpl.decreaseQuantity with the in-memory inventory (tickets.inventory.mode=memory),
+ * from one thread and from several threads reserving seats of the same ticket.
+ * The database is only read once to load the counter; flushing is not part of the measurement.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = "-XX:+EnableDynamicAgentLoading") // Mockito stubs
+@State(Scope.Benchmark)
+public class TicketServiceBenchmark {
+
+    private static final Long TICKET_ID = 1L;
+
+    private TicketServiceImpl ticketService;
+
+    // Inventory mới mỗi iteration để không bao giờ hết vé
+    @Setup(Level.Iteration)
+    public void setUp() {
+        Ticket ticket = new Ticket();
+        ticket.setId(TICKET_ID);
+        ticket.setName("Economy");
+        ticket.setScheduleRefId(1L);
+        ticket.setPrice(new BigDecimal("350000"));
+        ticket.setTotalQuantity(Integer.MAX_VALUE);
+        ticket.setSoldQuantity(0);
+        ticket.setStatus(Ticket.Status.active);
+
+        TicketRepository ticketRepository = mock(TicketRepository.class, withSettings().stubOnly());
+        when(ticketRepository.findById(TICKET_ID)).thenReturn(Optional.of(ticket));
+        ticketService = new TicketServiceImpl(
+                ticketRepository,
+                mock(ScheduleClient.class, withSettings().stubOnly()),
+                new TicketInventory(ticketRepository, "memory"),
+                mock(IdempotencyRegistry.class, withSettings().stubOnly()));
+    }
+
+    @Benchmark
+    public void decreaseQuantity() {
+        ticketService.decreaseQuantity(TICKET_ID, 1);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void decreaseQuantityContended() {
+        ticketService.decreaseQuantity(TICKET_ID, 1);
+    }
+}
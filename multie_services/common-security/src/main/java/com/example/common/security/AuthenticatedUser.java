@@ -0,0 +1,15 @@
+package com.example.common.security;
+
+import java.security.Principal;
+
+/**
+ * Principal set by JwtAuthenticationFilter: the claims of the access token, or of the identity the
+ * gateway forwarded. getName() is the username, so authentication.getName() keeps working.
+ */
+public record AuthenticatedUser(Long userId, String username, String role) implements Principal {
+
+    @Override
+    public String getName() {
+        return username;
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.common.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.web.SecurityFilterChain;
+
+import java.util.List;
+
+/**
+ * IdentityHeader and JwtUtils for every application (the gateway verifies the access token and signs
+ * the identity, services verify either), plus JwtAuthenticationFilter for servlet services with
+ * Spring Security.
+ *
+ * Properties:
+ * app.identity.secret - key of the X-Auth-Identity HMAC, the same in the gateway and every service
+ * app.jwt.secret - key of auth-service's access tokens
+ * app.jwt.verified-cache-size - verified tokens kept until their exp (default 10000, 0 = off)
+ * app.security.skip-paths - servlet path prefixes the filter does not look at (public endpoints)
+ */
+@AutoConfiguration
+public class CommonSecurityAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public IdentityHeader identityHeader(@Value("${app.identity.secret}") String secret) {
+        return new IdentityHeader(secret);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public JwtUtils jwtUtils(@Value("${app.jwt.secret}") String secret,
+                             @Value("${app.jwt.verified-cache-size:10000}") long verifiedCacheSize) {
+        return new JwtUtils(secret, verifiedCacheSize);
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    @ConditionalOnClass(SecurityFilterChain.class)
+    static class ServletJwtConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean
+        public JwtAuthenticationFilter jwtAuthenticationFilter(JwtUtils jwtUtils, IdentityHeader identityHeader,
+                                                               @Value("${app.security.skip-paths:}") List<String> skipPaths) {
+            return new JwtAuthenticationFilter(jwtUtils, identityHeader,
+                    skipPaths.stream().filter(path -> !path.isBlank()).toList());
+        }
+
+        // Filter chỉ chạy trong SecurityFilterChain (JwtSecurity.statelessJwt), không đăng ký lần nữa ở servlet container
+        @Bean
+        public FilterRegistrationBean<JwtAuthenticationFilter> jwtAuthenticationFilterRegistration(
+                JwtAuthenticationFilter jwtAuthenticationFilter) {
+            FilterRegistrationBean<JwtAuthenticationFilter> registration =
+                    new FilterRegistrationBean<>(jwtAuthenticationFilter);
+            registration.setEnabled(false);
+            return registration;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.common.security;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Base64;
+
+/**
+ * Signed identity forwarded by the gateway instead of the raw JWT (header X-Auth-Identity).
+ *
+ * Value: base64url("userId|role|expiresAtEpochSecond|username") + "." + base64url(HMAC-SHA256 of the
+ * first part), keyed with app.identity.secret, which only the gateway and the services know. The
+ * gateway issues it after verifying the JWT and drops any value the client sent; a service only
+ * checks the HMAC and the expiry (the token's own exp), no JWT parsing.
+ */
+public class IdentityHeader {
+
+    public static final String NAME = "X-Auth-Identity";
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final Mac prototype;
+
+    public IdentityHeader(String secret) {
+        try {
+            this.prototype = Mac.getInstance("HmacSHA256");
+            this.prototype.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 is not available", e);
+        }
+    }
+
+    public record Identity(Long userId, String username, String role) {
+    }
+
+    public String sign(Long userId, String username, String role, long expiresAtEpochSecond) {
+        String payload = ENCODER.encodeToString((
+                (userId != null ? userId.toString() : "") + "|"
+                        + (role != null ? role : "") + "|"
+                        + expiresAtEpochSecond + "|"
+                        + username).getBytes(StandardCharsets.UTF_8));
+        return payload + "." + ENCODER.encodeToString(mac().doFinal(payload.getBytes(StandardCharsets.US_ASCII)));
+    }
+
+    /**
+     * @return the identity, or null if the value is malformed, not signed with our key or expired
+     */
+    public Identity verify(String value) {
+        int dot = value.indexOf('.');
+        if (dot <= 0) {
+            return null;
+        }
+        try {
+            String encodedPayload = value.substring(0, dot);
+            byte[] payload = DECODER.decode(encodedPayload);
+            byte[] expected = mac().doFinal(encodedPayload.getBytes(StandardCharsets.US_ASCII));
+            if (!MessageDigest.isEqual(expected, DECODER.decode(value.substring(dot + 1)))) {
+                return null;
+            }
+            String[] parts = new String(payload, StandardCharsets.UTF_8).split("\\|", 4);
+            if (parts.length != 4 || Long.parseLong(parts[2]) * 1000 <= System.currentTimeMillis()) {
+                return null;
+            }
+            return new Identity(parts[0].isEmpty() ? null : Long.valueOf(parts[0]),
+                    parts[3], parts[1].isEmpty() ? null : parts[1]);
+        } catch (IllegalArgumentException e) {
+            // Base64 hoặc số không hợp lệ (NumberFormatException là IllegalArgumentException)
+            return null;
+        }
+    }
+
+    // Mac không thread-safe; clone từ prototype đã init rẻ hơn getInstance + init mỗi lần
+    private Mac mac() {
+        try {
+            return (Mac) prototype.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException("HmacSHA256 provider does not support clone", e);
+        }
+    }
+}
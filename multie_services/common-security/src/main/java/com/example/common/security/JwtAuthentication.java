@@ -0,0 +1,71 @@
+package com.example.common.security;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.List;
+
+/**
+ * Authentication of a request that carried a valid access token or gateway identity.
+ *
+ * Holds the shared, immutable authority list from RoleAuthorities as is; a
+ * UsernamePasswordAuthenticationToken would copy it into a new list on every request.
+ * Credentials are the verified X-Auth-Identity value (null for a direct Bearer call), so a service
+ * calling another service on behalf of the user can forward it.
+ */
+public final class JwtAuthentication implements Authentication {
+
+    private final AuthenticatedUser principal;
+    private final String credentials;
+    private final List<GrantedAuthority> authorities;
+    private boolean authenticated = true;
+
+    JwtAuthentication(AuthenticatedUser principal, String credentials, List<GrantedAuthority> authorities) {
+        this.principal = principal;
+        this.credentials = credentials;
+        this.authorities = authorities;
+    }
+
+    @Override
+    public List<GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    @Override
+    public String getCredentials() {
+        return credentials;
+    }
+
+    @Override
+    public Object getDetails() {
+        return null;
+    }
+
+    @Override
+    public AuthenticatedUser getPrincipal() {
+        return principal;
+    }
+
+    @Override
+    public boolean isAuthenticated() {
+        return authenticated;
+    }
+
+    @Override
+    public void setAuthenticated(boolean authenticated) {
+        if (authenticated) {
+            throw new IllegalArgumentException("A JwtAuthentication can only be marked as not authenticated");
+        }
+        this.authenticated = false;
+    }
+
+    @Override
+    public String getName() {
+        return principal.getName();
+    }
+
+    @Override
+    public String toString() {
+        return "JwtAuthentication[user=" + principal.username() + ", authorities=" + authorities + "]";
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.common.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Authenticates a request from the gateway identity (X-Auth-Identity) or, for a direct call, from
+ * the Bearer access token. A missing, invalid or expired credential leaves the request anonymous;
+ * the service's authorization rules decide what happens next.
+ *
+ * On the hot path it does no logging, builds no strings apart from the token itself and allocates
+ * only the principal and the Authentication: authorities are shared per role (RoleAuthorities) and
+ * verified tokens come from the JwtUtils cache.
+ */
+@Slf4j
+public class JwtAuthenticationFilter extends OncePerRequestFilter {
+
+    private static final String BEARER = "Bearer ";
+    private static final String ALREADY_FILTERED = JwtAuthenticationFilter.class.getName() + ALREADY_FILTERED_SUFFIX;
+
+    private final JwtUtils jwtUtils;
+    private final IdentityHeader identityHeader;
+    private final String[] skipPathPrefixes;
+
+    public JwtAuthenticationFilter(JwtUtils jwtUtils, IdentityHeader identityHeader, List<String> skipPathPrefixes) {
+        this.jwtUtils = jwtUtils;
+        this.identityHeader = identityHeader;
+        this.skipPathPrefixes = skipPathPrefixes.toArray(String[]::new);
+    }
+
+    // OncePerRequestFilter ghép tên này cho mỗi request; tên filter không đổi nên tính một lần
+    @Override
+    protected String getAlreadyFilteredAttributeName() {
+        return ALREADY_FILTERED;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (skipPathPrefixes.length == 0) {
+            return false;
+        }
+        String path = request.getServletPath();
+        for (String prefix : skipPathPrefixes) {
+            if (path.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+
+        // Qua gateway: JWT đã verify ở gateway, chỉ kiểm tra chữ ký của identity
+        String identityValue = request.getHeader(IdentityHeader.NAME);
+        if (identityValue != null) {
+            IdentityHeader.Identity identity = identityHeader.verify(identityValue);
+            if (identity != null) {
+                authenticate(identity.userId(), identity.username(), identity.role(), identityValue);
+            }
+        } else {
+            String authorization = request.getHeader(HttpHeaders.AUTHORIZATION);
+            if (authorization != null && authorization.startsWith(BEARER)) {
+                authenticateToken(authorization.substring(BEARER.length()));
+            }
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    private void authenticateToken(String token) {
+        Claims claims;
+        try {
+            claims = jwtUtils.validateAndParse(token).getBody();
+        } catch (JwtException | IllegalArgumentException e) {
+            // Token sai hoặc hết hạn -> request vẫn anonymous, bị chặn ở layer Security nếu cần
+            log.debug("Rejected access token: {}", e.getMessage());
+            return;
+        }
+        Object userId = claims.get("userId");
+        Object role = claims.get("role");
+        authenticate(userId instanceof Number number ? number.longValue() : null, claims.getSubject(),
+                role instanceof String value ? value : null, null);
+    }
+
+    private void authenticate(Long userId, String username, String role, String credentials) {
+        List<GrantedAuthority> authorities = RoleAuthorities.of(role);
+        if (authorities == null) {
+            // Không có role thì không có quyền nào để cấp
+            return;
+        }
+        SecurityContextHolder.getContext().setAuthentication(
+                new JwtAuthentication(new AuthenticatedUser(userId, username, role), credentials, authorities));
+    }
+}
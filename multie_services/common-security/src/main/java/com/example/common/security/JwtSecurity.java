@@ -0,0 +1,35 @@
+package com.example.common.security;
+
+import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
+import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+
+/**
+ * The part of SecurityConfig every service had in common. A service only adds its own rules:
+ *
+ * <pre>
+ * JwtSecurity.statelessJwt(http, jwtFilter)
+ *         .authorizeHttpRequests(auth -> ...);
+ * return http.build();
+ * </pre>
+ */
+public final class JwtSecurity {
+
+    private JwtSecurity() {
+    }
+
+    /**
+     * Stateless, no CSRF / CORS (the gateway handles CORS), no form or basic login, and the JWT
+     * filter before UsernamePasswordAuthenticationFilter.
+     */
+    public static HttpSecurity statelessJwt(HttpSecurity http, JwtAuthenticationFilter jwtFilter) throws Exception {
+        return http
+                .csrf(AbstractHttpConfigurer::disable)
+                .cors(AbstractHttpConfigurer::disable)
+                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                .formLogin(AbstractHttpConfigurer::disable)
+                .httpBasic(AbstractHttpConfigurer::disable)
+                .addFilterBefore(jwtFilter, UsernamePasswordAuthenticationFilter.class);
+    }
+}
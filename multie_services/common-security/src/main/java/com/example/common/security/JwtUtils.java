@@ -0,0 +1,58 @@
+package com.example.common.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jws;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+
+import java.time.Duration;
+
+/**
+ * Verifies access tokens issued by auth-service.
+ *
+ * The parser is built once; it is immutable and thread-safe. A token that verified is kept in a
+ * bounded cache until its exp claim, so the same token on later requests costs one map lookup
+ * instead of an HMAC check and JSON parse. Entries expire when the token itself would be rejected
+ * as expired, and tokens that fail verification are never cached.
+ * A cache size of 0 (app.jwt.verified-cache-size=0) turns the cache off.
+ */
+public class JwtUtils {
+
+    private final JwtParser parser;
+    private final Cache<String, Jws<Claims>> verified;
+
+    public JwtUtils(String secret, long verifiedCacheSize) {
+        this.parser = Jwts.parserBuilder().setSigningKey(Keys.hmacShaKeyFor(secret.getBytes())).build();
+        this.verified = verifiedCacheSize > 0
+                ? Caffeine.newBuilder()
+                        .maximumSize(verifiedCacheSize)
+                        .expireAfter(Expiry.creating((String token, Jws<Claims> jws) -> untilExpiry(jws)))
+                        .build()
+                : null;
+    }
+
+    public Jws<Claims> validateAndParse(String token) throws JwtException {
+        if (verified == null) {
+            return parser.parseClaimsJws(token);
+        }
+        // Key là chính token: trùng hash thôi chưa đủ, phải equals toàn bộ chuỗi đã verify
+        Jws<Claims> jws = verified.getIfPresent(token);
+        if (jws == null) {
+            jws = parser.parseClaimsJws(token);
+            if (jws.getBody().getExpiration() != null) {
+                verified.put(token, jws);
+            }
+        }
+        return jws;
+    }
+
+    private static Duration untilExpiry(Jws<Claims> jws) {
+        long remainingMs = jws.getBody().getExpiration().getTime() - System.currentTimeMillis();
+        return Duration.ofMillis(Math.max(remainingMs, 0));
+    }
+}
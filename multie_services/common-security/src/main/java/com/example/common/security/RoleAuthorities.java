@@ -0,0 +1,51 @@
+package com.example.common.security;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Authorities of a role claim, built once per distinct claim value and shared by every request.
+ *
+ * "USER", "user" and "ROLE_USER" all map to [ROLE_USER], the normalisation the services used to
+ * repeat per request. Role values come from tokens signed by auth-service (or identities signed by
+ * the gateway), so the map only ever holds the handful of roles auth-service issues.
+ */
+final class RoleAuthorities {
+
+    private static final String PREFIX = "ROLE_";
+
+    private static final ConcurrentMap<String, List<GrantedAuthority>> BY_ROLE = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<String, List<GrantedAuthority>> BY_AUTHORITY = new ConcurrentHashMap<>();
+
+    static {
+        for (String role : new String[]{"USER", "ADMIN"}) {
+            of(role);
+        }
+    }
+
+    private RoleAuthorities() {
+    }
+
+    /**
+     * @return an immutable single-element list, or null if there is no role
+     */
+    static List<GrantedAuthority> of(String role) {
+        if (role == null || role.isEmpty()) {
+            return null;
+        }
+        List<GrantedAuthority> authorities = BY_ROLE.get(role);
+        return authorities != null ? authorities : BY_ROLE.computeIfAbsent(role, RoleAuthorities::create);
+    }
+
+    private static List<GrantedAuthority> create(String role) {
+        String name = role.toUpperCase(Locale.ROOT);
+        // Mọi cách viết của cùng một role dùng chung một instance
+        return BY_AUTHORITY.computeIfAbsent(name.startsWith(PREFIX) ? name : PREFIX + name,
+                authority -> List.of(new SimpleGrantedAuthority(authority)));
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.common.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.test.context.runner.ReactiveWebApplicationContextRunner;
+import org.springframework.boot.test.context.runner.WebApplicationContextRunner;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CommonSecurityAutoConfigurationTest {
+
+    private static final String[] PROPERTIES = {
+            "app.jwt.secret=12345678901234567890123456789012",
+            "app.identity.secret=identity-test-secret-0123456789abcdef"
+    };
+
+    @Test
+    void servletServiceGetsFilterThatOnlyRunsInsideSecurityChain() {
+        new WebApplicationContextRunner()
+                .withConfiguration(AutoConfigurations.of(CommonSecurityAutoConfiguration.class))
+                .withPropertyValues(PROPERTIES)
+                .run(context -> {
+                    assertThat(context).hasSingleBean(JwtUtils.class).hasSingleBean(JwtAuthenticationFilter.class);
+                    assertThat(context.getBean(FilterRegistrationBean.class).isEnabled()).isFalse();
+                });
+    }
+
+    @Test
+    void reactiveApplicationGetsTheSharedVerifierButNoServletFilter() {
+        new ReactiveWebApplicationContextRunner()
+                .withConfiguration(AutoConfigurations.of(CommonSecurityAutoConfiguration.class))
+                .withPropertyValues(PROPERTIES)
+                .run(context -> assertThat(context)
+                        .hasSingleBean(IdentityHeader.class)
+                        .hasSingleBean(JwtUtils.class)
+                        .doesNotHaveBean(JwtAuthenticationFilter.class));
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.common.security;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IdentityHeaderTest {
+
+    private final IdentityHeader identityHeader = new IdentityHeader("identity-test-secret-0123456789abcdef");
+
+    @Test
+    void signedIdentityVerifies() {
+        String value = identityHeader.sign(7L, "alice|smith", "USER", inOneMinute());
+
+        assertThat(identityHeader.verify(value)).isEqualTo(new IdentityHeader.Identity(7L, "alice|smith", "USER"));
+    }
+
+    @Test
+    void serviceIdentityHasNoUserId() {
+        String value = identityHeader.sign(null, "orders-service", "SERVICE", inOneMinute());
+
+        assertThat(identityHeader.verify(value)).isEqualTo(new IdentityHeader.Identity(null, "orders-service", "SERVICE"));
+    }
+
+    @Test
+    void identitySignedWithAnotherSecretIsRejected() {
+        String value = new IdentityHeader("another-secret-another-secret-0123")
+                .sign(1L, "admin", "ADMIN", inOneMinute());
+
+        assertThat(identityHeader.verify(value)).isNull();
+    }
+
+    @Test
+    void tamperedPayloadIsRejected() {
+        String value = identityHeader.sign(7L, "alice", "USER", inOneMinute());
+        String admin = identityHeader.sign(7L, "alice", "ADMIN", inOneMinute());
+        String swapped = admin.substring(0, admin.indexOf('.')) + value.substring(value.indexOf('.'));
+
+        assertThat(identityHeader.verify(swapped)).isNull();
+    }
+
+    @Test
+    void expiredOrMalformedIdentityIsRejected() {
+        assertThat(identityHeader.verify(identityHeader.sign(7L, "alice", "USER", System.currentTimeMillis() / 1000 - 1)))
+                .isNull();
+        assertThat(identityHeader.verify("not-an-identity")).isNull();
+        assertThat(identityHeader.verify("@@@.###")).isNull();
+    }
+
+    private static long inOneMinute() {
+        return System.currentTimeMillis() / 1000 + 60;
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.common.security;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JwtAuthenticationFilterTest {
+
+    private static final String JWT_SECRET = "12345678901234567890123456789012";
+
+    private final IdentityHeader identityHeader = new IdentityHeader("identity-test-secret-0123456789abcdef");
+    private final JwtAuthenticationFilter filter = new JwtAuthenticationFilter(
+            new JwtUtils(JWT_SECRET, 100), identityHeader, List.of("/api/auth/signin"));
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void bearerTokenAuthenticatesWithUserIdPrincipal() throws Exception {
+        Authentication authentication = filter(request("/api/orders", "Bearer " + token("user")));
+
+        assertThat(authentication.getPrincipal()).isEqualTo(new AuthenticatedUser(7L, "alice", "user"));
+        assertThat(authentication.getName()).isEqualTo("alice");
+        assertThat(authentication.getCredentials()).isNull();
+        assertThat(authentication.getAuthorities()).extracting("authority").containsExactly("ROLE_USER");
+    }
+
+    @Test
+    void gatewayIdentityAuthenticatesAndIsKeptAsCredentials() throws Exception {
+        String identity = identityHeader.sign(3L, "admin", "ROLE_ADMIN", System.currentTimeMillis() / 1000 + 60);
+        MockHttpServletRequest request = request("/api/trains", null);
+        request.addHeader(IdentityHeader.NAME, identity);
+
+        Authentication authentication = filter(request);
+
+        assertThat(authentication.getPrincipal()).isEqualTo(new AuthenticatedUser(3L, "admin", "ROLE_ADMIN"));
+        assertThat(authentication.getCredentials()).isEqualTo(identity);
+        assertThat(authentication.getAuthorities()).extracting("authority").containsExactly("ROLE_ADMIN");
+    }
+
+    @Test
+    void authoritiesAreSharedBetweenRequests() throws Exception {
+        Authentication first = filter(request("/api/orders", "Bearer " + token("USER")));
+        SecurityContextHolder.clearContext();
+        Authentication second = filter(request("/api/orders", "Bearer " + token("ROLE_USER")));
+
+        assertThat(second.getAuthorities().iterator().next()).isSameAs(first.getAuthorities().iterator().next());
+    }
+
+    @Test
+    void invalidIdentityDoesNotFallBackToBearerToken() throws Exception {
+        MockHttpServletRequest request = request("/api/orders", "Bearer " + token("USER"));
+        request.addHeader(IdentityHeader.NAME, "forged.value");
+
+        assertThat(filter(request)).isNull();
+    }
+
+    @Test
+    void invalidTokenLeavesRequestAnonymous() throws Exception {
+        assertThat(filter(request("/api/orders", "Bearer not-a-jwt"))).isNull();
+    }
+
+    @Test
+    void skippedPathIsNotAuthenticated() throws Exception {
+        assertThat(filter(request("/api/auth/signin", "Bearer " + token("USER")))).isNull();
+    }
+
+    private Authentication filter(MockHttpServletRequest request) throws Exception {
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+
+    private static MockHttpServletRequest request(String path, String authorization) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        request.setServletPath(path);
+        if (authorization != null) {
+            request.addHeader("Authorization", authorization);
+        }
+        return request;
+    }
+
+    private static String token(String role) {
+        return Jwts.builder()
+                .setSubject("alice")
+                .claim("userId", 7)
+                .claim("role", role)
+                .setExpiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(Keys.hmacShaKeyFor(JWT_SECRET.getBytes()), SignatureAlgorithm.HS256)
+                .compact();
+    }
+}
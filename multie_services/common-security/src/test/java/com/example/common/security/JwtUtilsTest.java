@@ -0,0 +1,75 @@
+package com.example.common.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.Jws;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JwtUtilsTest {
+
+    private static final String SECRET = "12345678901234567890123456789012";
+
+    @Test
+    void verifiedTokenIsServedFromCache() {
+        JwtUtils jwtUtils = new JwtUtils(SECRET, 100);
+        String token = token(SECRET, System.currentTimeMillis() + 60_000);
+
+        Jws<Claims> first = jwtUtils.validateAndParse(token);
+
+        assertThat(jwtUtils.validateAndParse(token)).isSameAs(first);
+        assertThat(first.getBody().get("userId", Integer.class)).isEqualTo(7);
+    }
+
+    @Test
+    void cacheIsOffWithSizeZero() {
+        JwtUtils jwtUtils = new JwtUtils(SECRET, 0);
+        String token = token(SECRET, System.currentTimeMillis() + 60_000);
+
+        assertThat(jwtUtils.validateAndParse(token)).isNotSameAs(jwtUtils.validateAndParse(token));
+    }
+
+    @Test
+    void tokenWithWrongSignatureIsRejectedAfterValidOneWasCached() {
+        JwtUtils jwtUtils = new JwtUtils(SECRET, 100);
+        long exp = System.currentTimeMillis() + 60_000;
+        jwtUtils.validateAndParse(token(SECRET, exp));
+
+        String forged = token("another-secret-another-secret-12", exp);
+
+        assertThatThrownBy(() -> jwtUtils.validateAndParse(forged)).isInstanceOf(SignatureException.class);
+        assertThatThrownBy(() -> jwtUtils.validateAndParse(forged)).isInstanceOf(SignatureException.class);
+    }
+
+    @Test
+    void cachedTokenIsRejectedOnceItExpires() throws InterruptedException {
+        JwtUtils jwtUtils = new JwtUtils(SECRET, 100);
+        // exp có độ chính xác giây
+        long exp = (System.currentTimeMillis() / 1000 + 2) * 1000;
+        String token = token(SECRET, exp);
+        jwtUtils.validateAndParse(token);
+
+        Thread.sleep(exp - System.currentTimeMillis() + 50);
+
+        assertThatThrownBy(() -> jwtUtils.validateAndParse(token)).isInstanceOf(ExpiredJwtException.class);
+    }
+
+    private static String token(String secret, long expiresAtMillis) {
+        return Jwts.builder()
+                .setSubject("user@example.com")
+                .claim("userId", 7)
+                .claim("role", "USER")
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(expiresAtMillis))
+                .signWith(Keys.hmacShaKeyFor(secret.getBytes()), SignatureAlgorithm.HS256)
+                .compact();
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.common.security.benchmark;
+
+import com.example.common.security.IdentityHeader;
+import com.example.common.security.JwtAuthenticationFilter;
+import com.example.common.security.JwtUtils;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of authentication per request: JwtAuthenticationFilter.doFilter up to the next filter.
+ *
+ * gatewayIdentity is a request forwarded by the gateway (X-Auth-Identity), bearerToken a direct
+ * call with an access token already in the JwtUtils cache, anonymous a request without credentials.
+ * previousFilter is gatewayIdentity through the per-service filter this module replaces (stations'
+ * JwtAuthFilter: role uppercased and "ROLE_" concatenated, a new authority and token list per request).
+ * Run with -prof gc for bytes allocated per request.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class JwtAuthenticationFilterBenchmark {
+
+    // app.jwt.secret của môi trường dev
+    private static final String SECRET = "12345678901234567890123456789012";
+
+    private static final FilterChain NEXT = (request, response) -> {
+    };
+
+    private JwtAuthenticationFilter filter;
+    private MockHttpServletRequest identityRequest;
+    private MockHttpServletRequest bearerRequest;
+    private MockHttpServletRequest anonymousRequest;
+    private MockHttpServletResponse response;
+    private PreviousFilter previousFilter;
+
+    @Setup
+    public void setUp() throws Exception {
+        IdentityHeader identityHeader = new IdentityHeader("identity-dev-secret-change-me-0123456789");
+        filter = new JwtAuthenticationFilter(new JwtUtils(SECRET, 10_000), identityHeader, List.of("/api/auth/"));
+        long expiresAt = System.currentTimeMillis() + TimeUnit.DAYS.toMillis(1);
+
+        identityRequest = request();
+        identityRequest.addHeader(IdentityHeader.NAME,
+                identityHeader.sign(1L, "user@example.com", "USER", expiresAt / 1000));
+
+        bearerRequest = request();
+        bearerRequest.addHeader("Authorization", "Bearer " + Jwts.builder()
+                .setSubject("user@example.com")
+                .claim("userId", 1)
+                .claim("role", "USER")
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(expiresAt))
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)), SignatureAlgorithm.HS256)
+                .compact());
+
+        previousFilter = new PreviousFilter(identityHeader);
+        anonymousRequest = request();
+        response = new MockHttpServletResponse();
+
+        // Token vào cache trước khi đo, như mọi request sau request đầu tiên của token đó
+        authenticate(bearerRequest);
+    }
+
+    @Benchmark
+    public Authentication gatewayIdentity() throws Exception {
+        return authenticate(identityRequest);
+    }
+
+    @Benchmark
+    public Authentication bearerToken() throws Exception {
+        return authenticate(bearerRequest);
+    }
+
+    @Benchmark
+    public Authentication anonymous() throws Exception {
+        return authenticate(anonymousRequest);
+    }
+
+    @Benchmark
+    public Authentication previousFilter() throws Exception {
+        previousFilter.doFilter(identityRequest, response, NEXT);
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return authentication;
+    }
+
+    private Authentication authenticate(HttpServletRequest request) throws Exception {
+        filter.doFilter(request, response, NEXT);
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return authentication;
+    }
+
+    private static MockHttpServletRequest request() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/orders/1");
+        request.setServletPath("/api/orders/1");
+        return request;
+    }
+
+    // Nhánh X-Auth-Identity của JwtAuthFilter (stations-service) trước khi dùng common-security
+    static class PreviousFilter extends OncePerRequestFilter {
+
+        private final IdentityHeader identityHeader;
+
+        PreviousFilter(IdentityHeader identityHeader) {
+            this.identityHeader = identityHeader;
+        }
+
+        @Override
+        protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                        FilterChain filterChain) throws ServletException, IOException {
+            String identityValue = request.getHeader(IdentityHeader.NAME);
+            if (identityValue != null) {
+                IdentityHeader.Identity identity = identityHeader.verify(identityValue);
+                if (identity != null && identity.role() != null) {
+                    String role = identity.role().toUpperCase();
+                    if (role.startsWith("ROLE_")) {
+                        role = role.substring(5);
+                    }
+                    SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                            identity.username(), null, List.of(new SimpleGrantedAuthority("ROLE_" + role))));
+                }
+            }
+            filterChain.doFilter(request, response);
+        }
+    }
+}
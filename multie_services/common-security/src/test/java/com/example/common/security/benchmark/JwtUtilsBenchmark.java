@@ -0,0 +1,89 @@
+package com.example.common.security.benchmark;
+
+import com.example.common.security.IdentityHeader;
+import com.example.common.security.JwtUtils;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jws;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JwtUtils.validateAndParse, run by JwtAuthenticationFilter for every direct Bearer call, with a
+ * token shaped like the ones auth-service issues.
+ *
+ * parserPerCall is how validateAndParse used to work (a new parser for every token),
+ * reusedParser is JwtUtils with the verified-token cache off, validateAndParse is a cache hit.
+ * verifyIdentityHeader is what a service does instead when the request came through the gateway.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class JwtUtilsBenchmark {
+
+    // app.jwt.secret của môi trường dev
+    private static final String SECRET = "12345678901234567890123456789012";
+
+    private JwtUtils jwtUtils;
+    private JwtUtils uncachedJwtUtils;
+    private Key key;
+    private String token;
+    private IdentityHeader identityHeader;
+    private String identity;
+
+    @Setup
+    public void setUp() {
+        jwtUtils = new JwtUtils(SECRET, 10_000);
+        uncachedJwtUtils = new JwtUtils(SECRET, 0);
+        key = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+        Date now = new Date();
+        token = Jwts.builder()
+                .setSubject("user@example.com")
+                .claim("userId", 1)
+                .claim("role", "USER")
+                .setIssuedAt(now)
+                .setExpiration(new Date(now.getTime() + TimeUnit.DAYS.toMillis(1)))
+                .signWith(key, SignatureAlgorithm.HS256)
+                .compact();
+        identityHeader = new IdentityHeader("identity-dev-secret-change-me-0123456789");
+        identity = identityHeader.sign(1L, "user@example.com", "USER", now.getTime() / 1000 + TimeUnit.DAYS.toSeconds(1));
+    }
+
+    @Benchmark
+    public Jws<Claims> validateAndParse() {
+        return jwtUtils.validateAndParse(token);
+    }
+
+    @Benchmark
+    public Jws<Claims> reusedParser() {
+        return uncachedJwtUtils.validateAndParse(token);
+    }
+
+    @Benchmark
+    public IdentityHeader.Identity verifyIdentityHeader() {
+        return identityHeader.verify(identity);
+    }
+
+    @Benchmark
+    public Jws<Claims> parserPerCall() {
+        return Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token);
+    }
+}
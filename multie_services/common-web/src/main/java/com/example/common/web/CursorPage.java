@@ -0,0 +1,73 @@
+package com.example.common.web;
+
+import lombok.Data;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * One page of a keyset-paginated list, ordered by id.
+ * Pass nextCursor back as ?cursor= to get the following page; it is null on the last page.
+ */
+@Data
+public class CursorPage<T> {
+
+    public static final int DEFAULT_SIZE = 20;
+    public static final int MAX_SIZE = 100;
+
+    private List<T> items;
+    private int size;
+    private boolean hasNext;
+    private String nextCursor;
+
+    public static <E, T> CursorPage<T> of(Slice<E> slice, Function<E, T> mapper, Function<E, ? extends Number> idOf) {
+        CursorPage<T> page = new CursorPage<>();
+        page.setItems(slice.getContent().stream().map(mapper).toList());
+        page.setSize(slice.getNumberOfElements());
+        page.setHasNext(slice.hasNext());
+        if (slice.hasNext()) {
+            E last = slice.getContent().get(slice.getNumberOfElements() - 1);
+            page.setNextCursor(encode(idOf.apply(last).longValue()));
+        }
+        return page;
+    }
+
+    // Id cuối của trang trước (0 cho trang đầu)
+    public static long afterId(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0L;
+        }
+        try {
+            return Long.parseLong(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidPageRequestException("Invalid cursor: " + cursor);
+        }
+    }
+
+    // Kích thước trang bị giới hạn ở MAX_SIZE
+    public static Pageable limit(int size) {
+        if (size < 1) {
+            throw new InvalidPageRequestException("size must be at least 1");
+        }
+        return PageRequest.of(0, Math.min(size, MAX_SIZE));
+    }
+
+    // Cho các bảng có id kiểu INT (orders)
+    public static int afterIntId(String cursor) {
+        long id = afterId(cursor);
+        if (id != (int) id) {
+            throw new InvalidPageRequestException("Invalid cursor: " + cursor);
+        }
+        return (int) id;
+    }
+
+    private static String encode(long id) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(Long.toString(id).getBytes(StandardCharsets.UTF_8));
+    }
+}
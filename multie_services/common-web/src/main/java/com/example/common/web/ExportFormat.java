@@ -0,0 +1,13 @@
+package com.example.common.web;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public enum ExportFormat {
+    ndjson("application/x-ndjson"),  // Một object JSON mỗi dòng
+    csv("text/csv");                 // Dòng đầu là tên cột
+
+    private final String contentType;
+}
@@ -0,0 +1,12 @@
+package com.example.common.web;
+
+/**
+ * A cursor or page size the client sent that CursorPage cannot use; services answer it with 400.
+ * Extends IllegalArgumentException so handlers that already map that to 400 cover it too.
+ */
+public class InvalidPageRequestException extends IllegalArgumentException {
+
+    public InvalidPageRequestException(String message) {
+        super(message);
+    }
+}
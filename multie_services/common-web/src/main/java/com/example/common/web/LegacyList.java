@@ -0,0 +1,45 @@
+package com.example.common.web;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * The old unpaginated {@code GET <resource>} list endpoints, kept until {@link #REMOVAL_DATE} for
+ * clients that have not moved to {@code GET <resource>/page} yet. They return at most {@link #MAX_ROWS}
+ * rows (lowest ids first) and say so in the response headers:
+ * Deprecation / Sunset (the removal date), Link rel="successor-version" (the /page endpoint) and
+ * X-Result-Truncated when rows were left out.
+ */
+public final class LegacyList {
+
+    public static final int MAX_ROWS = 1000;
+    public static final LocalDate DEPRECATED_ON = LocalDate.of(2026, 10, 18);
+    public static final LocalDate REMOVAL_DATE = LocalDate.of(2027, 1, 31);
+
+    private LegacyList() {
+    }
+
+    // Trang đầu (id tăng dần) cho query keyset findByIdGreaterThanOrderByIdAsc(0, ...)
+    public static Pageable firstRows() {
+        return PageRequest.of(0, MAX_ROWS);
+    }
+
+    // firstRows: CursorPage.of(slice của firstRows(), ...); hasNext = còn dòng bị bỏ
+    public static <T> ResponseEntity<List<T>> response(CursorPage<T> firstRows, String successorPath) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("Deprecation", "@" + DEPRECATED_ON.atStartOfDay(ZoneOffset.UTC).toEpochSecond());
+        headers.set("Sunset", DateTimeFormatter.RFC_1123_DATE_TIME.format(REMOVAL_DATE.atStartOfDay(ZoneOffset.UTC)));
+        headers.add(HttpHeaders.LINK, "<" + successorPath + ">; rel=\"successor-version\"");
+        if (firstRows.isHasNext()) {
+            headers.set("X-Result-Truncated", "true");
+        }
+        return ResponseEntity.ok().headers(headers).body(firstRows.getItems());
+    }
+}
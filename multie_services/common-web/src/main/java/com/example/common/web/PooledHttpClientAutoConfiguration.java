@@ -0,0 +1,79 @@
+package com.example.common.web;
+
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.DefaultConnectionKeepAliveStrategy;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+
+/**
+ * Pooled keep-alive HTTP client for calls to other services, for every service that has
+ * httpclient5 on its classpath. Connections are reused across requests instead of opening a new
+ * TCP connection per call. A client needing another read timeout wraps pooledHttpClient in its
+ * own HttpComponentsClientHttpRequestFactory, so it still shares the pool.
+ *
+ * Properties (http.client.*):
+ * max-total / max-per-route - pool size (default 200 / 50)
+ * connect-timeout-ms / read-timeout-ms - default 2000 / 5000
+ * connection-request-timeout-ms - wait for a pooled connection when the pool is full (default 2000)
+ * keep-alive-ms - longest keep-alive, even if the server allows more (default 30000)
+ * idle-evict-ms - idle connections closed after (default 60000)
+ */
+@AutoConfiguration
+@ConditionalOnClass({CloseableHttpClient.class, HttpComponentsClientHttpRequestFactory.class})
+public class PooledHttpClientAutoConfiguration {
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnMissingBean
+    public CloseableHttpClient pooledHttpClient(
+            @Value("${http.client.max-total:200}") int maxTotal,
+            @Value("${http.client.max-per-route:50}") int maxPerRoute,
+            @Value("${http.client.connect-timeout-ms:2000}") long connectTimeoutMs,
+            @Value("${http.client.read-timeout-ms:5000}") long readTimeoutMs,
+            @Value("${http.client.connection-request-timeout-ms:2000}") long connectionRequestTimeoutMs,
+            @Value("${http.client.keep-alive-ms:30000}") long keepAliveMs,
+            @Value("${http.client.idle-evict-ms:60000}") long idleEvictMs) {
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxTotal)
+                .setMaxConnPerRoute(maxPerRoute)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(connectTimeoutMs))
+                        .setSocketTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                        // Kiểm tra lại connection đã nằm yên trong pool quá 2s trước khi dùng
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                        .build())
+                .build();
+
+        TimeValue maxKeepAlive = TimeValue.ofMilliseconds(keepAliveMs);
+        return HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.ofMilliseconds(connectionRequestTimeoutMs))
+                        .setResponseTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                        .build())
+                // Giữ connection theo header Keep-Alive của server nhưng không quá keep-alive-ms
+                .setKeepAliveStrategy((response, context) -> {
+                    TimeValue fromServer = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+                    return fromServer.compareTo(maxKeepAlive) < 0 ? fromServer : maxKeepAlive;
+                })
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofMilliseconds(idleEvictMs))
+                .build();
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public HttpComponentsClientHttpRequestFactory pooledRequestFactory(CloseableHttpClient pooledHttpClient) {
+        return new HttpComponentsClientHttpRequestFactory(pooledHttpClient);
+    }
+}
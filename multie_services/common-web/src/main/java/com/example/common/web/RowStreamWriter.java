@@ -0,0 +1,124 @@
+package com.example.common.web;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.MinimalPrettyPrinter;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+
+/**
+ * Writes a JDBC result set to a stream as NDJSON or CSV while it is being read; only the current
+ * row is in memory. Column labels become JSON field names / the CSV header.
+ */
+public final class RowStreamWriter {
+
+    private static final JsonFactory JSON = new JsonFactory();
+
+    private RowStreamWriter() {
+    }
+
+    /**
+     * @return number of rows written
+     * @throws UncheckedIOException if writing fails, usually because the client went away
+     */
+    public static long writeAll(ResultSet rs, ExportFormat format, OutputStream out) throws SQLException {
+        try {
+            String[] labels = labels(rs.getMetaData());
+            return format == ExportFormat.csv ? writeCsv(rs, labels, out) : writeNdjson(rs, labels, out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static long writeNdjson(ResultSet rs, String[] labels, OutputStream out) throws SQLException, IOException {
+        long rows = 0;
+        try (JsonGenerator json = JSON.createGenerator(out)) {
+            json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            json.setPrettyPrinter(new MinimalPrettyPrinter("\n")); // xuống dòng giữa các object gốc
+            while (rs.next()) {
+                json.writeStartObject();
+                for (int i = 0; i < labels.length; i++) {
+                    json.writeFieldName(labels[i]);
+                    writeJsonValue(json, rs.getObject(i + 1));
+                }
+                json.writeEndObject();
+                rows++;
+            }
+            if (rows > 0) {
+                json.writeRaw('\n');
+            }
+        }
+        out.flush();
+        return rows;
+    }
+
+    private static void writeJsonValue(JsonGenerator json, Object value) throws IOException {
+        switch (value) {
+            case null -> json.writeNull();
+            case BigDecimal decimal -> json.writeNumber(decimal);
+            case Long l -> json.writeNumber(l);
+            case Integer i -> json.writeNumber(i);
+            case Number n -> json.writeNumber(n.toString());
+            case Boolean b -> json.writeBoolean(b);
+            case Timestamp timestamp -> json.writeString(timestamp.toLocalDateTime().toString());
+            default -> json.writeString(value.toString()); // String, LocalDateTime, LocalDate: ISO-8601
+        }
+    }
+
+    private static long writeCsv(ResultSet rs, String[] labels, OutputStream out) throws SQLException, IOException {
+        long rows = 0;
+        Writer csv = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        writeCsvLine(csv, labels);
+        String[] values = new String[labels.length];
+        while (rs.next()) {
+            for (int i = 0; i < labels.length; i++) {
+                Object value = rs.getObject(i + 1);
+                values[i] = value instanceof Timestamp timestamp ? timestamp.toLocalDateTime().toString()
+                        : value == null ? "" : value.toString();
+            }
+            writeCsvLine(csv, values);
+            rows++;
+        }
+        csv.flush();
+        return rows;
+    }
+
+    private static void writeCsvLine(Writer csv, String[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                csv.write(',');
+            }
+            csv.write(escapeCsv(values[i]));
+        }
+        csv.write("\r\n");
+    }
+
+    private static String escapeCsv(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                return '"' + value.replace("\"", "\"\"") + '"';
+            }
+        }
+        return value;
+    }
+
+    private static String[] labels(ResultSetMetaData metaData) throws SQLException {
+        String[] labels = new String[metaData.getColumnCount()];
+        for (int i = 0; i < labels.length; i++) {
+            labels[i] = metaData.getColumnLabel(i + 1).toLowerCase();
+        }
+        return labels;
+    }
+}
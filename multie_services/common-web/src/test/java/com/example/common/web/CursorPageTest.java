@@ -0,0 +1,54 @@
+package com.example.common.web;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * CursorPage: the cursor round-trips the last id of a page, and a cursor or size the client made up
+ * ends in InvalidPageRequestException rather than a server error.
+ */
+class CursorPageTest {
+
+    private static String cursor(String id) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(id.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void nextCursorPointsAfterTheLastItem() {
+        CursorPage<String> page = CursorPage.of(new SliceImpl<>(List.of(3L, 7L), PageRequest.of(0, 2), true),
+                id -> "item-" + id, id -> id);
+
+        assertThat(page.getItems()).containsExactly("item-3", "item-7");
+        assertThat(page.getSize()).isEqualTo(2);
+        assertThat(page.isHasNext()).isTrue();
+        assertThat(CursorPage.afterId(page.getNextCursor())).isEqualTo(7L);
+        assertThat(CursorPage.afterIntId(page.getNextCursor())).isEqualTo(7);
+    }
+
+    @Test
+    void lastPageHasNoCursorAndNoCursorMeansTheFirstPage() {
+        CursorPage<Long> page = CursorPage.of(new SliceImpl<>(List.of(3L), PageRequest.of(0, 2), false),
+                id -> id, id -> id);
+
+        assertThat(page.getNextCursor()).isNull();
+        assertThat(CursorPage.afterId(null)).isZero();
+        assertThat(CursorPage.afterId(" ")).isZero();
+    }
+
+    @Test
+    void badCursorOrSizeIsRejected() {
+        assertThatThrownBy(() -> CursorPage.afterId("%%")).isInstanceOf(InvalidPageRequestException.class);
+        assertThatThrownBy(() -> CursorPage.afterId(cursor("abc"))).isInstanceOf(InvalidPageRequestException.class);
+        assertThatThrownBy(() -> CursorPage.afterIntId(cursor("4294967296"))).isInstanceOf(InvalidPageRequestException.class);
+        assertThatThrownBy(() -> CursorPage.limit(0)).isInstanceOf(InvalidPageRequestException.class);
+        assertThat(CursorPage.limit(1_000).getPageSize()).isEqualTo(CursorPage.MAX_SIZE);
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.common.web;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * LegacyList: the old list endpoints announce their removal and point to /page, and a capped
+ * result says that rows were left out.
+ */
+class LegacyListTest {
+
+    @Test
+    void responseIsMarkedDeprecatedWithItsSuccessor() {
+        CursorPage<Long> rows = CursorPage.of(new SliceImpl<>(List.of(1L, 2L), LegacyList.firstRows(), false),
+                id -> id, id -> id);
+
+        ResponseEntity<List<Long>> response = LegacyList.response(rows, "/api/trains/page");
+
+        HttpHeaders headers = response.getHeaders();
+        assertThat(response.getBody()).containsExactly(1L, 2L);
+        assertThat(headers.getFirst("Deprecation")).isEqualTo("@1792281600");
+        assertThat(headers.getFirst("Sunset")).isEqualTo("Sun, 31 Jan 2027 00:00:00 GMT");
+        assertThat(headers.getFirst(HttpHeaders.LINK)).isEqualTo("</api/trains/page>; rel=\"successor-version\"");
+        assertThat(headers.containsKey("X-Result-Truncated")).isFalse();
+    }
+
+    @Test
+    void cappedResultIsFlaggedAsTruncated() {
+        CursorPage<Long> rows = CursorPage.of(new SliceImpl<>(List.of(1L), LegacyList.firstRows(), true),
+                id -> id, id -> id);
+
+        assertThat(LegacyList.response(rows, "/api/orders/page").getHeaders().getFirst("X-Result-Truncated"))
+                .isEqualTo("true");
+        assertThat(LegacyList.firstRows().getPageSize()).isEqualTo(LegacyList.MAX_ROWS);
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.common.web;
+
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.test.context.FilteredClassLoader;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * PooledHttpClientAutoConfiguration: one pooled client and request factory per application, and
+ * nothing at all in a service without httpclient5.
+ */
+class PooledHttpClientAutoConfigurationTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(PooledHttpClientAutoConfiguration.class));
+
+    @Test
+    void requestFactoryIsBuiltOnTheSharedPooledClient() {
+        contextRunner.withPropertyValues("http.client.max-total=10", "http.client.read-timeout-ms=1500")
+                .run(context -> {
+                    assertThat(context).hasSingleBean(CloseableHttpClient.class);
+                    assertThat(context).hasSingleBean(HttpComponentsClientHttpRequestFactory.class);
+                    assertThat(context.getBean(HttpComponentsClientHttpRequestFactory.class).getHttpClient())
+                            .isSameAs(context.getBean(CloseableHttpClient.class));
+                });
+    }
+
+    @Test
+    void serviceWithoutHttpClient5GetsNoBeans() {
+        contextRunner.withClassLoader(new FilteredClassLoader(CloseableHttpClient.class))
+                .run(context -> assertThat(context).doesNotHaveBean("pooledHttpClient")
+                        .doesNotHaveBean("pooledRequestFactory"));
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.common.web;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * RowStreamWriter on a real JDBC result set (H2): lowercase column labels, typed JSON values,
+ * CSV quoting, and nothing but the header for an empty result.
+ */
+class RowStreamWriterTest {
+
+    private Connection connection;
+
+    @BeforeEach
+    void createRows() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:row-stream;DB_CLOSE_DELAY=-1");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE rows_to_export (id BIGINT, name VARCHAR(50), amount DECIMAL(10, 2), "
+                    + "paid BOOLEAN, created_at TIMESTAMP)");
+            statement.execute("INSERT INTO rows_to_export VALUES "
+                    + "(1, 'plain', 10.50, TRUE, TIMESTAMP '2025-03-01 08:30:00'), "
+                    + "(2, 'Nguyễn, \"VIP\"', NULL, FALSE, NULL)");
+        }
+    }
+
+    @AfterEach
+    void dropRows() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE rows_to_export");
+        }
+        connection.close();
+    }
+
+    private String export(String sql, ExportFormat format) throws SQLException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (Statement statement = connection.createStatement(); ResultSet rs = statement.executeQuery(sql)) {
+            RowStreamWriter.writeAll(rs, format, out);
+        }
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void ndjsonHasOneTypedObjectPerLine() throws SQLException {
+        String ndjson = export("SELECT id, name, amount, paid, created_at AS CREATED_AT FROM rows_to_export ORDER BY id",
+                ExportFormat.ndjson);
+
+        assertThat(ndjson).isEqualTo(
+                "{\"id\":1,\"name\":\"plain\",\"amount\":10.50,\"paid\":true,\"created_at\":\"2025-03-01T08:30\"}\n"
+                        + "{\"id\":2,\"name\":\"Nguyễn, \\\"VIP\\\"\",\"amount\":null,\"paid\":false,\"created_at\":null}\n");
+    }
+
+    @Test
+    void csvQuotesOnlyTheValuesThatNeedIt() throws SQLException {
+        String csv = export("SELECT id, name, amount FROM rows_to_export ORDER BY id", ExportFormat.csv);
+
+        assertThat(csv).isEqualTo("id,name,amount\r\n1,plain,10.50\r\n2,\"Nguyễn, \"\"VIP\"\"\",\r\n");
+    }
+
+    @Test
+    void emptyResultWritesNoRows() throws SQLException {
+        assertThat(export("SELECT id FROM rows_to_export WHERE id < 0", ExportFormat.ndjson)).isEmpty();
+        assertThat(export("SELECT id FROM rows_to_export WHERE id < 0", ExportFormat.csv)).isEqualTo("id\r\n");
+    }
+}
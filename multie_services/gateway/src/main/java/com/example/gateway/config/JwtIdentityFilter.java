@@ -0,0 +1,80 @@
+package com.example.gateway.config;
+
+import com.example.common.security.IdentityHeader;
+import com.example.common.security.JwtUtils;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * Verifies the access token once, at the edge, and forwards a signed identity instead.
+ *
+ * A valid Bearer token is replaced by an X-Auth-Identity header (see IdentityHeader) that expires
+ * with the token; services check its HMAC instead of parsing the JWT again. The Authorization
+ * header and any X-Auth-Identity sent by the client are always removed, so an invalid or expired
+ * token reaches the services as an anonymous request, as before. Tokens are verified with the shared
+ * JwtUtils from common-security, whose verified-token cache makes a token seen again one map lookup.
+ * Token revocation checks belong here: it is the only place that sees the raw token.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class JwtIdentityFilter implements GlobalFilter, Ordered {
+
+    private static final String BEARER = "Bearer ";
+
+    private final JwtUtils jwtUtils;
+    private final IdentityHeader identityHeader;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        String authorization = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        String identity = authorization != null && authorization.startsWith(BEARER)
+                ? identityOf(authorization.substring(BEARER.length()))
+                : null;
+
+        return chain.filter(exchange.mutate()
+                .request(request -> request.headers(headers -> {
+                    headers.remove(IdentityHeader.NAME);
+                    headers.remove(HttpHeaders.AUTHORIZATION);
+                    if (identity != null) {
+                        headers.set(IdentityHeader.NAME, identity);
+                    }
+                }))
+                .build());
+    }
+
+    // Trước các filter của route (RequestRateLimiter, ...) và routing
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE + 100;
+    }
+
+    private String identityOf(String token) {
+        Claims claims;
+        try {
+            claims = jwtUtils.validateAndParse(token).getBody();
+        } catch (JwtException | IllegalArgumentException e) {
+            log.debug("Rejected access token: {}", e.getMessage());
+            return null;
+        }
+        // Token không có exp: identity chỉ sống ngắn
+        return sign(claims, claims.getExpiration() != null
+                ? claims.getExpiration().getTime() / 1000
+                : System.currentTimeMillis() / 1000 + 60);
+    }
+
+    private String sign(Claims claims, long expiresAtEpochSecond) {
+        Number userId = claims.get("userId", Number.class);
+        return identityHeader.sign(userId != null ? userId.longValue() : null, claims.getSubject(),
+                claims.get("role", String.class), expiresAtEpochSecond);
+    }
+}
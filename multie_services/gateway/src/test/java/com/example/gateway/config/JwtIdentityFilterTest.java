@@ -0,0 +1,86 @@
+package com.example.gateway.config;
+
+import com.example.common.security.IdentityHeader;
+import com.example.common.security.JwtUtils;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JwtIdentityFilterTest {
+
+    private static final String JWT_SECRET = "12345678901234567890123456789012";
+
+    private final IdentityHeader identityHeader = new IdentityHeader("identity-test-secret-0123456789abcdef");
+    private final JwtIdentityFilter filter = new JwtIdentityFilter(new JwtUtils(JWT_SECRET, 100), identityHeader);
+
+    @Test
+    void validTokenIsReplacedBySignedIdentity() {
+        ServerHttpRequest forwarded = forward(MockServerHttpRequest.get("/api/orders")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token(JWT_SECRET)));
+
+        assertThat(forwarded.getHeaders().containsKey(HttpHeaders.AUTHORIZATION)).isFalse();
+        IdentityHeader.Identity identity = identityHeader.verify(forwarded.getHeaders().getFirst(IdentityHeader.NAME));
+        assertThat(identity).isEqualTo(new IdentityHeader.Identity(7L, "alice", "USER"));
+    }
+
+    @Test
+    void sameTokenGetsTheSameIdentity() {
+        String token = token(JWT_SECRET);
+        String first = forward(MockServerHttpRequest.get("/api/orders")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)).getHeaders().getFirst(IdentityHeader.NAME);
+        String second = forward(MockServerHttpRequest.get("/api/tickets")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)).getHeaders().getFirst(IdentityHeader.NAME);
+
+        assertThat(second).isEqualTo(first);
+    }
+
+    @Test
+    void invalidTokenIsForwardedAsAnonymous() {
+        ServerHttpRequest forwarded = forward(MockServerHttpRequest.get("/api/orders")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token("another-secret-another-secret-12")));
+
+        assertThat(forwarded.getHeaders().containsKey(HttpHeaders.AUTHORIZATION)).isFalse();
+        assertThat(forwarded.getHeaders().containsKey(IdentityHeader.NAME)).isFalse();
+    }
+
+    @Test
+    void identitySentByClientIsDropped() {
+        String forged = identityHeader.sign(1L, "admin", "ADMIN", System.currentTimeMillis() / 1000 + 60);
+
+        ServerHttpRequest forwarded = forward(MockServerHttpRequest.get("/api/orders")
+                .header(IdentityHeader.NAME, forged));
+
+        assertThat(forwarded.getHeaders().containsKey(IdentityHeader.NAME)).isFalse();
+    }
+
+    private ServerHttpRequest forward(MockServerHttpRequest.BaseBuilder<?> request) {
+        AtomicReference<ServerHttpRequest> forwarded = new AtomicReference<>();
+        filter.filter(MockServerWebExchange.from(request), exchange -> {
+            forwarded.set(exchange.getRequest());
+            return Mono.empty();
+        }).block();
+        return forwarded.get();
+    }
+
+    private static String token(String secret) {
+        return Jwts.builder()
+                .setSubject("alice")
+                .claim("userId", 7)
+                .claim("role", "USER")
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(Keys.hmacShaKeyFor(secret.getBytes()), SignatureAlgorithm.HS256)
+                .compact();
+    }
+}
@@ -0,0 +1,307 @@
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.LongStream;
+
+/**
+ * End-to-end load test through the gateway.
+ *
+ * Every virtual user repeats a booking session: sign in, browse schedules and tickets, create an
+ * order, then confirm and/or cancel it (CONFIRM_RATIO / CANCEL_RATIO). After a warm-up the run
+ * reports throughput, p50/p95/p99 and error rate per endpoint, and exits with 1 when any endpoint
+ * is over the p99 or error-rate limit, so it can gate a release.
+ *
+ * Meant for the services started with the "loadtest" profile (H2 instead of MySQL, no Redis,
+ * seeded schedules and tickets; see run-loadtest.bat), but works against any deployment that has
+ * tickets on sale. Accounts are created on the fly, one per virtual user.
+ *
+ * Usage: java GatewayLoadTest.java [gatewayUrl] [users] [durationSeconds] [warmupSeconds] [p99LimitMs] [maxErrorPercent]
+ */
+public class GatewayLoadTest {
+
+    private static final double CONFIRM_RATIO = 0.7;
+    private static final double CANCEL_RATIO = 0.3;
+    private static final String PASSWORD = "LoadTest#2024";
+
+    private static final Pattern ACCESS_TOKEN = Pattern.compile("\"accessToken\":\"([^\"]+)\"");
+    private static final Pattern USER_ID = Pattern.compile("\"userId\":(\\d+)");
+    private static final Pattern ORDER_ID = Pattern.compile("^\\{\"id\":(\\d+)");
+    private static final Pattern TICKET = Pattern.compile(
+            "\\{\"id\":(\\d+),[^{}]*?\"scheduleRefId\":(\\d+),[^{}]*?\"price\":([\\d.]+)");
+
+    enum Endpoint {
+        SIGNIN("POST /api/auth/signin"),
+        SCHEDULES("GET /api/schedules/page"),
+        TICKETS("GET /api/tickets/page"),
+        CREATE_ORDER("POST /api/orders/create"),
+        CONFIRM_ORDER("PUT /api/orders/{id}/confirm"),
+        CANCEL_ORDER("PUT /api/orders/{id}/cancel");
+
+        private final String label;
+
+        Endpoint(String label) {
+            this.label = label;
+        }
+    }
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+    private final String baseUrl;
+    private final AtomicBoolean recording = new AtomicBoolean();
+
+    GatewayLoadTest(String baseUrl) {
+        this.baseUrl = baseUrl;
+    }
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = args.length > 0 ? args[0] : "http://localhost:8888";
+        int users = args.length > 1 ? Integer.parseInt(args[1]) : 50;
+        int durationSeconds = args.length > 2 ? Integer.parseInt(args[2]) : 60;
+        int warmupSeconds = args.length > 3 ? Integer.parseInt(args[3]) : 10;
+        long p99LimitMs = args.length > 4 ? Long.parseLong(args[4]) : 2000;
+        double maxErrorRate = (args.length > 5 ? Double.parseDouble(args[5]) : 1.0) / 100;
+
+        GatewayLoadTest test = new GatewayLoadTest(baseUrl);
+        List<String> usernames = test.createUsers(users);
+        System.out.printf("Created %d users; warming up for %d s, measuring for %d s%n",
+                usernames.size(), warmupSeconds, durationSeconds);
+
+        Map<Endpoint, Result> results = test.run(usernames, Duration.ofSeconds(warmupSeconds),
+                Duration.ofSeconds(durationSeconds));
+
+        System.out.printf("%-30s %8s %9s %8s %8s %8s %8s %8s%n",
+                "endpoint", "requests", "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms", "errors");
+        boolean regressed = false;
+        for (Map.Entry<Endpoint, Result> entry : results.entrySet()) {
+            Result r = entry.getValue();
+            System.out.printf("%-30s %8d %9.1f %8d %8d %8d %8d %7.2f%%%n", entry.getKey().label,
+                    r.count(), r.count() / (double) durationSeconds, r.percentileMs(50), r.percentileMs(95),
+                    r.percentileMs(99), r.percentileMs(100), r.errorRate() * 100);
+            if (!r.errorsByStatus().isEmpty()) {
+                System.out.printf("%-30s errors by status: %s%n", "", r.errorsByStatus());
+            }
+            if (r.percentileMs(99) > p99LimitMs || r.errorRate() > maxErrorRate) {
+                regressed = true;
+            }
+        }
+        Result orders = results.get(Endpoint.CREATE_ORDER);
+        System.out.printf("Orders created: %.1f/s%n", (orders.count() - orders.errors()) / (double) durationSeconds);
+
+        if (regressed) {
+            System.out.printf("FAILED: an endpoint is over p99 %d ms or errors %.2f%%%n", p99LimitMs, maxErrorRate * 100);
+            System.exit(1);
+        }
+        System.out.printf("OK: all endpoints within p99 %d ms and errors %.2f%%%n", p99LimitMs, maxErrorRate * 100);
+    }
+
+    private List<String> createUsers(int count) throws Exception {
+        String prefix = "lt" + Long.toString(System.currentTimeMillis(), 36);
+        List<String> usernames = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String username = prefix + "u" + i;
+            HttpResponse<String> response = send(post("/api/auth/signup", null, """
+                    {"username":"%s","email":"%s@loadtest.local","password":"%s","firstname":"Load","lastname":"Test"}
+                    """.formatted(username, username, PASSWORD)));
+            if (response.statusCode() != 201) {
+                throw new IllegalStateException("Signup failed with " + response.statusCode() + ": " + response.body());
+            }
+            usernames.add(username);
+        }
+        return usernames;
+    }
+
+    private Map<Endpoint, Result> run(List<String> usernames, Duration warmup, Duration duration)
+            throws InterruptedException {
+        AtomicBoolean running = new AtomicBoolean(true);
+        List<Map<Endpoint, Samples>> perWorker = new ArrayList<>();
+
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (String username : usernames) {
+                Map<Endpoint, Samples> samples = new EnumMap<>(Endpoint.class);
+                for (Endpoint endpoint : Endpoint.values()) {
+                    samples.put(endpoint, new Samples());
+                }
+                perWorker.add(samples);
+                workers.execute(() -> {
+                    while (running.get()) {
+                        session(username, samples);
+                    }
+                });
+            }
+            Thread.sleep(warmup.toMillis());
+            recording.set(true);
+            Thread.sleep(duration.toMillis());
+            running.set(false);
+        }
+
+        Map<Endpoint, Result> results = new EnumMap<>(Endpoint.class);
+        for (Endpoint endpoint : Endpoint.values()) {
+            long[] all = perWorker.stream()
+                    .flatMapToLong(w -> w.get(endpoint).stream())
+                    .sorted()
+                    .toArray();
+            long errors = perWorker.stream().mapToLong(w -> w.get(endpoint).errors).sum();
+            Map<Integer, Long> byStatus = new TreeMap<>();
+            perWorker.forEach(w -> w.get(endpoint).errorsByStatus.forEach((status, n) -> byStatus.merge(status, n, Long::sum)));
+            results.put(endpoint, new Result(all, errors, byStatus));
+        }
+        return results;
+    }
+
+    // One booking session; stops at the first failed step since the next ones depend on it
+    private void session(String username, Map<Endpoint, Samples> samples) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        HttpResponse<String> signin = call(Endpoint.SIGNIN, samples, post("/api/auth/signin", null,
+                "{\"username\":\"%s\",\"password\":\"%s\"}".formatted(username, PASSWORD)));
+        Matcher token = signin == null ? null : ACCESS_TOKEN.matcher(signin.body());
+        if (token == null || !token.find()) {
+            return;
+        }
+        String accessToken = token.group(1);
+        Matcher userId = USER_ID.matcher(new String(
+                Base64.getUrlDecoder().decode(accessToken.split("\\.")[1]), StandardCharsets.UTF_8));
+        if (!userId.find()) {
+            return;
+        }
+
+        if (call(Endpoint.SCHEDULES, samples, get("/api/schedules/page?size=20", accessToken)) == null) {
+            return;
+        }
+        HttpResponse<String> tickets = call(Endpoint.TICKETS, samples, get("/api/tickets/page?size=20", accessToken));
+        if (tickets == null) {
+            return;
+        }
+        List<String[]> onSale = new ArrayList<>();
+        Matcher ticket = TICKET.matcher(tickets.body());
+        while (ticket.find()) {
+            onSale.add(new String[]{ticket.group(1), ticket.group(2), ticket.group(3)});
+        }
+        if (onSale.isEmpty()) {
+            return;
+        }
+        String[] chosen = onSale.get(random.nextInt(onSale.size()));
+
+        HttpResponse<String> created = call(Endpoint.CREATE_ORDER, samples, post("/api/orders/create", accessToken, """
+                {"userRefId":%s,"scheduleRefId":%s,"ticketTypeRefId":%s,"quantity":1,"totalAmount":%s,
+                 "paymentMethod":"cash","passengerDetails":"[{\\"name\\":\\"Load Test\\"}]"}
+                """.formatted(userId.group(1), chosen[1], chosen[0], chosen[2])));
+        Matcher orderId = created == null ? null : ORDER_ID.matcher(created.body());
+        if (orderId == null || !orderId.find()) {
+            return;
+        }
+
+        if (random.nextDouble() < CONFIRM_RATIO
+                && call(Endpoint.CONFIRM_ORDER, samples, put("/api/orders/" + orderId.group(1) + "/confirm", accessToken)) == null) {
+            return;
+        }
+        if (random.nextDouble() < CANCEL_RATIO) {
+            call(Endpoint.CANCEL_ORDER, samples, put("/api/orders/" + orderId.group(1) + "/cancel", accessToken));
+        }
+    }
+
+    // Returns the response if it was a 2xx, otherwise null; records latency and errors once warm-up is over
+    private HttpResponse<String> call(Endpoint endpoint, Map<Endpoint, Samples> samples, HttpRequest request) {
+        long t0 = System.nanoTime();
+        HttpResponse<String> response;
+        int status;
+        try {
+            response = send(request);
+            status = response.statusCode();
+        } catch (Exception e) {
+            response = null;
+            status = 0; // timeout / connection refused
+        }
+        if (recording.get()) {
+            samples.get(endpoint).add(System.nanoTime() - t0, status);
+        }
+        return status >= 200 && status < 300 ? response : null;
+    }
+
+    private HttpResponse<String> send(HttpRequest request) throws Exception {
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpRequest get(String path, String accessToken) {
+        return request(path, accessToken).GET().build();
+    }
+
+    private HttpRequest post(String path, String accessToken, String json) {
+        return request(path, accessToken)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    private HttpRequest put(String path, String accessToken) {
+        return request(path, accessToken).PUT(HttpRequest.BodyPublishers.noBody()).build();
+    }
+
+    private HttpRequest.Builder request(String path, String accessToken) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30));
+        if (accessToken != null) {
+            builder.header("Authorization", "Bearer " + accessToken);
+        }
+        return builder;
+    }
+
+    // Latencies of one worker for one endpoint; only that worker writes, main reads after the executor closed
+    private static final class Samples {
+        private long[] values = new long[256];
+        private int count;
+        private long errors;
+        private final Map<Integer, Long> errorsByStatus = new TreeMap<>();
+
+        void add(long nanos, int status) {
+            if (count == values.length) {
+                values = Arrays.copyOf(values, count * 2);
+            }
+            values[count++] = nanos;
+            if (status < 200 || status >= 300) {
+                errors++;
+                errorsByStatus.merge(status, 1L, Long::sum);
+            }
+        }
+
+        LongStream stream() {
+            return Arrays.stream(values, 0, count);
+        }
+    }
+
+    private record Result(long[] sortedLatenciesNanos, long errors, Map<Integer, Long> errorsByStatus) {
+        long count() {
+            return sortedLatenciesNanos.length;
+        }
+
+        double errorRate() {
+            return count() == 0 ? 0 : (double) errors / count();
+        }
+
+        long percentileMs(int percentile) {
+            if (sortedLatenciesNanos.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(percentile / 100.0 * sortedLatenciesNanos.length) - 1;
+            return sortedLatenciesNanos[Math.max(index, 0)] / 1_000_000;
+        }
+    }
+}
@@ -0,0 +1,136 @@
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.LongStream;
+
+/**
+ * Closed-loop load benchmark for POST /api/orders/create.
+ *
+ * Runs increasing numbers of concurrent clients against a running orders-service and prints
+ * throughput, p50/p99 latency and error rate per step. The highest step that stays under the
+ * p99 and error-rate limits is reported as the max concurrent in-flight orders.
+ *
+ * Run it once with spring.threads.virtual.enabled=false and once with =true on orders-service
+ * and tickets-service, then compare the two reports (see benchmark-virtual-threads.bat).
+ *
+ * Usage: java OrderLoadBenchmark.java [baseUrl] [ticketId] [scheduleId] [stepSeconds] [p99LimitMs]
+ */
+public class OrderLoadBenchmark {
+
+    private static final int[] CONCURRENCY_STEPS = {25, 50, 100, 200, 400, 800, 1600};
+    private static final double MAX_ERROR_RATE = 0.01;
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = args.length > 0 ? args[0] : "http://localhost:5006";
+        int ticketId = args.length > 1 ? Integer.parseInt(args[1]) : 1;
+        int scheduleId = args.length > 2 ? Integer.parseInt(args[2]) : 1;
+        int stepSeconds = args.length > 3 ? Integer.parseInt(args[3]) : 20;
+        long p99LimitMs = args.length > 4 ? Long.parseLong(args[4]) : 1000;
+
+        HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        String body = """
+                {"userRefId":1,"scheduleRefId":%d,"ticketTypeRefId":%d,"quantity":1,"totalAmount":1,
+                 "paymentMethod":"cash","passengerDetails":"[{\\"name\\":\\"Load Test\\"}]"}
+                """.formatted(scheduleId, ticketId);
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/orders/create"))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+
+        System.out.printf("%-12s %12s %10s %10s %10s%n", "concurrency", "orders/s", "p50 ms", "p99 ms", "errors");
+        int maxInFlight = 0;
+        for (int concurrency : CONCURRENCY_STEPS) {
+            StepResult result = runStep(client, request, concurrency, Duration.ofSeconds(stepSeconds));
+            System.out.printf("%-12d %12.1f %10d %10d %9.2f%%%n", concurrency, result.throughput(),
+                    result.percentileMs(50), result.percentileMs(99), result.errorRate() * 100);
+            if (result.percentileMs(99) > p99LimitMs || result.errorRate() > MAX_ERROR_RATE) {
+                break;
+            }
+            maxInFlight = concurrency;
+        }
+        System.out.printf("Max concurrent in-flight orders within p99 <= %d ms and errors <= %.0f%%: %d%n",
+                p99LimitMs, MAX_ERROR_RATE * 100, maxInFlight);
+    }
+
+    private static StepResult runStep(HttpClient client, HttpRequest request, int concurrency, Duration duration)
+            throws InterruptedException {
+        AtomicBoolean running = new AtomicBoolean(true);
+        LongAdder errors = new LongAdder();
+        AtomicInteger completed = new AtomicInteger();
+        List<Samples> perWorker = new ArrayList<>();
+
+        long start = System.nanoTime();
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                Samples samples = new Samples();
+                perWorker.add(samples);
+                workers.execute(() -> {
+                    while (running.get()) {
+                        long t0 = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() >= 300) {
+                                errors.increment();
+                            }
+                        } catch (Exception e) {
+                            errors.increment();
+                        }
+                        samples.add(System.nanoTime() - t0);
+                        completed.incrementAndGet();
+                    }
+                });
+            }
+            Thread.sleep(duration.toMillis());
+            running.set(false);
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        long[] all = perWorker.stream()
+                .flatMapToLong(Samples::stream)
+                .sorted()
+                .toArray();
+        return new StepResult(all, completed.get() / seconds,
+                completed.get() == 0 ? 1.0 : errors.doubleValue() / completed.get());
+    }
+
+    // Latencies of one worker; only that worker writes, the main thread reads after the executor closed
+    private static final class Samples {
+        private long[] values = new long[1024];
+        private int count;
+
+        void add(long value) {
+            if (count == values.length) {
+                values = Arrays.copyOf(values, count * 2);
+            }
+            values[count++] = value;
+        }
+
+        LongStream stream() {
+            return Arrays.stream(values, 0, count);
+        }
+    }
+
+    private record StepResult(long[] sortedLatenciesNanos, double throughput, double errorRate) {
+        long percentileMs(int percentile) {
+            if (sortedLatenciesNanos.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(percentile / 100.0 * sortedLatenciesNanos.length) - 1;
+            return sortedLatenciesNanos[Math.max(index, 0)] / 1_000_000;
+        }
+    }
+}
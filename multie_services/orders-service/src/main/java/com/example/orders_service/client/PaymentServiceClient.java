@@ -6,11 +6,13 @@ import com.example.orders_service.exception.ServiceUnavailableException;
 import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestClientException;
@@ -35,11 +37,13 @@ public class PaymentServiceClient {
     /**
      * Constructor that creates a RestTemplate with payment-specific timeout configuration.
      * Payment operations require longer timeout (10 seconds) due to external gateway communication.
+     * Shares the pooled HTTP client auto-configured by common-web; only the read timeout is overridden.
      */
-    public PaymentServiceClient(RestTemplateBuilder restTemplateBuilder) {
+    public PaymentServiceClient(RestTemplateBuilder restTemplateBuilder, CloseableHttpClient pooledHttpClient) {
+        HttpComponentsClientHttpRequestFactory requestFactory = new HttpComponentsClientHttpRequestFactory(pooledHttpClient);
+        requestFactory.setReadTimeout(Duration.ofSeconds(10));
         this.restTemplate = restTemplateBuilder
-                .setConnectTimeout(Duration.ofSeconds(10))
-                .setReadTimeout(Duration.ofSeconds(10))
+                .requestFactory(() -> requestFactory)
                 .build();
     }
 
@@ -0,0 +1,35 @@
+package com.example.orders_service.client;
+
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.util.retry.Retry;
+import reactor.util.retry.RetryBackoffSpec;
+
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Retry policy shared by the reactive clients.
+ */
+final class ReactiveClientSupport {
+
+    private ReactiveClientSupport() {
+    }
+
+    /**
+     * Exponential backoff with 50% jitter, so callers that failed together do not retry together.
+     * Only transient errors are retried; an open circuit breaker or a 4xx is returned immediately.
+     */
+    static RetryBackoffSpec retry(int maxRetries, Duration backoff) {
+        return Retry.backoff(maxRetries, backoff)
+                .jitter(0.5)
+                .filter(ReactiveClientSupport::isTransient)
+                .onRetryExhaustedThrow((spec, signal) -> signal.failure());
+    }
+
+    static boolean isTransient(Throwable error) {
+        return error instanceof WebClientRequestException
+                || error instanceof TimeoutException
+                || (error instanceof WebClientResponseException response && response.getStatusCode().is5xxServerError());
+    }
+}
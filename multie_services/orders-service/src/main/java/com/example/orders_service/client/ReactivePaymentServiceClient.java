@@ -0,0 +1,68 @@
+package com.example.orders_service.client;
+
+import com.example.orders_service.dto.PaymentRequest;
+import com.example.orders_service.dto.PaymentResponse;
+import com.example.orders_service.exception.ServiceUnavailableException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+/**
+ * Non-blocking client for the Payment Service, the WebClient counterpart of PaymentServiceClient.
+ * Shares the "paymentService" circuit breaker. Payments are never retried, since a retry
+ * could charge twice; the timeout is the payment-specific 10 seconds.
+ */
+@Component
+@ConditionalOnProperty(name = "orders.clients.reactive.enabled", havingValue = "true")
+@Slf4j
+public class ReactivePaymentServiceClient {
+
+    private static final Duration PAYMENT_TIMEOUT = Duration.ofSeconds(10);
+
+    private final WebClient webClient;
+    private final CircuitBreaker circuitBreaker;
+    private final String paymentServiceUrl;
+
+    public ReactivePaymentServiceClient(WebClient reactiveWebClient,
+                                        CircuitBreakerRegistry circuitBreakerRegistry,
+                                        @Value("${payment.service.url}") String paymentServiceUrl) {
+        this.webClient = reactiveWebClient;
+        this.circuitBreaker = circuitBreakerRegistry.circuitBreaker("paymentService");
+        this.paymentServiceUrl = paymentServiceUrl;
+    }
+
+    /**
+     * Processes a payment through the Payment Service.
+     *
+     * @param request PaymentRequest containing order ID, amount, and payment method
+     * @return PaymentResponse containing transaction ID, status, and message; errors with ServiceUnavailableException
+     */
+    public Mono<PaymentResponse> processPayment(PaymentRequest request) {
+        return webClient.post()
+                .uri(paymentServiceUrl + "/api/payment/process")
+                .bodyValue(request)
+                .retrieve()
+                .bodyToMono(PaymentResponse.class)
+                .switchIfEmpty(Mono.error(() -> new ServiceUnavailableException("Payment service returned invalid response")))
+                .timeout(PAYMENT_TIMEOUT)
+                .transformDeferred(CircuitBreakerOperator.of(circuitBreaker))
+                .doOnNext(response -> log.info("Payment processing completed for orderId: {}. Status: {}, TransactionId: {}",
+                        request.getOrderId(), response.getStatus(), response.getTransactionId()))
+                .onErrorMap(e -> !(e instanceof ServiceUnavailableException), e -> {
+                    log.error("Failed to process payment for orderId: {}. Error: {}", request.getOrderId(), e.getMessage());
+                    if (e instanceof CallNotPermittedException) {
+                        return new ServiceUnavailableException("Payment service is temporarily unavailable. Circuit breaker is open. Please try again later.", e);
+                    }
+                    return new ServiceUnavailableException("Payment service is temporarily unavailable. Please try again later.", e);
+                });
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.orders_service.client;
+
+import com.example.orders_service.dto.ScheduleResponse;
+import com.example.orders_service.exception.ServiceUnavailableException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+/**
+ * Non-blocking client for the Schedules Service, the WebClient counterpart of ScheduleServiceClient.
+ * Shares the "schedulesService" circuit breaker with the blocking client.
+ */
+@Component
+@ConditionalOnProperty(name = "orders.clients.reactive.enabled", havingValue = "true")
+@Slf4j
+public class ReactiveScheduleServiceClient {
+
+    private final WebClient webClient;
+    private final CircuitBreaker circuitBreaker;
+    private final String schedulesServiceUrl;
+    private final Duration timeout;
+    private final int maxRetries;
+    private final Duration retryBackoff;
+
+    public ReactiveScheduleServiceClient(WebClient reactiveWebClient,
+                                         CircuitBreakerRegistry circuitBreakerRegistry,
+                                         @Value("${schedules.service.url}") String schedulesServiceUrl,
+                                         @Value("${orders.clients.reactive.timeout-ms:5000}") long timeoutMs,
+                                         @Value("${orders.clients.reactive.max-retries:2}") int maxRetries,
+                                         @Value("${orders.clients.reactive.retry-backoff-ms:100}") long retryBackoffMs) {
+        this.webClient = reactiveWebClient;
+        this.circuitBreaker = circuitBreakerRegistry.circuitBreaker("schedulesService");
+        this.schedulesServiceUrl = schedulesServiceUrl;
+        this.timeout = Duration.ofMillis(timeoutMs);
+        this.maxRetries = maxRetries;
+        this.retryBackoff = Duration.ofMillis(retryBackoffMs);
+    }
+
+    /**
+     * Retrieves schedule information by schedule ID. A GET, so transient failures are retried.
+     *
+     * @param scheduleId the ID of the schedule to retrieve
+     * @return ScheduleResponse containing schedule details; errors with ServiceUnavailableException
+     */
+    public Mono<ScheduleResponse> getSchedule(Integer scheduleId) {
+        return webClient.get()
+                .uri(schedulesServiceUrl + "/api/schedules/{id}", scheduleId)
+                .retrieve()
+                .bodyToMono(ScheduleResponse.class)
+                .timeout(timeout)
+                .transformDeferred(CircuitBreakerOperator.of(circuitBreaker))
+                .retryWhen(ReactiveClientSupport.retry(maxRetries, retryBackoff))
+                .doOnError(e -> log.error("Failed to fetch schedule with ID: {}. Error: {}", scheduleId, e.getMessage()))
+                .onErrorMap(e -> {
+                    if (e instanceof CallNotPermittedException) {
+                        return new ServiceUnavailableException("Schedules service is temporarily unavailable. Circuit breaker is open. Please try again later.", e);
+                    }
+                    return new ServiceUnavailableException("Schedules service is temporarily unavailable. Please try again later.", e);
+                });
+    }
+}
@@ -0,0 +1,157 @@
+package com.example.orders_service.client;
+
+import com.example.orders_service.dto.TicketQuantityRequest;
+import com.example.orders_service.dto.TicketResponse;
+import com.example.orders_service.exception.ServiceUnavailableException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Non-blocking client for the Tickets Service, the WebClient counterpart of TicketsServiceClient.
+ * Uses the same "ticketsService" circuit breaker, so both clients share one breaker state.
+ * Transient failures are retried with jittered backoff; quantity changes are only retried
+ * when an idempotency key is sent.
+ */
+@Component
+@ConditionalOnProperty(name = "orders.clients.reactive.enabled", havingValue = "true")
+@Slf4j
+public class ReactiveTicketsServiceClient {
+
+    private final WebClient webClient;
+    private final CircuitBreaker circuitBreaker;
+    private final String ticketsServiceUrl;
+    private final Duration timeout;
+    private final int maxRetries;
+    private final Duration retryBackoff;
+
+    public ReactiveTicketsServiceClient(WebClient reactiveWebClient,
+                                        CircuitBreakerRegistry circuitBreakerRegistry,
+                                        @Value("${tickets.service.url}") String ticketsServiceUrl,
+                                        @Value("${orders.clients.reactive.timeout-ms:5000}") long timeoutMs,
+                                        @Value("${orders.clients.reactive.max-retries:2}") int maxRetries,
+                                        @Value("${orders.clients.reactive.retry-backoff-ms:100}") long retryBackoffMs) {
+        this.webClient = reactiveWebClient;
+        this.circuitBreaker = circuitBreakerRegistry.circuitBreaker("ticketsService");
+        this.ticketsServiceUrl = ticketsServiceUrl;
+        this.timeout = Duration.ofMillis(timeoutMs);
+        this.maxRetries = maxRetries;
+        this.retryBackoff = Duration.ofMillis(retryBackoffMs);
+    }
+
+    /**
+     * Retrieves ticket information by ticket ID.
+     *
+     * @param ticketId the ID of the ticket to retrieve
+     * @return TicketResponse containing ticket details; errors with ServiceUnavailableException
+     */
+    public Mono<TicketResponse> getTicket(Integer ticketId) {
+        Mono<TicketResponse> call = webClient.get()
+                .uri(ticketsServiceUrl + "/api/tickets/{id}", ticketId)
+                .retrieve()
+                .bodyToMono(TicketResponse.class);
+        return guard(call, true, "Please try again later.")
+                .doOnError(e -> log.error("Failed to fetch ticket with ID: {}. Error: {}", ticketId, e.getMessage()));
+    }
+
+    /**
+     * Decreases the available quantity of a ticket.
+     *
+     * @param idempotencyKey sent as Idempotency-Key; without it the call is not retried
+     */
+    public Mono<Void> decreaseTicketQuantity(Integer ticketId, Integer quantity, String idempotencyKey) {
+        return changeQuantity("/decrease-quantity", ticketId, quantity, idempotencyKey,
+                "Cannot process order at this time.");
+    }
+
+    /**
+     * Increases the available quantity of a ticket.
+     *
+     * @param idempotencyKey sent as Idempotency-Key; without it the call is not retried
+     */
+    public Mono<Void> increaseTicketQuantity(Integer ticketId, Integer quantity, String idempotencyKey) {
+        return changeQuantity("/increase-quantity", ticketId, quantity, idempotencyKey,
+                "Cannot restore ticket quantity at this time.");
+    }
+
+    /**
+     * Decreases the available quantity of several tickets in one call (all-or-nothing).
+     *
+     * @param idempotencyKey sent as Idempotency-Key, covering the whole batch; without it the call is not retried
+     */
+    public Mono<Void> decreaseTicketQuantities(List<TicketQuantityRequest> items, String idempotencyKey) {
+        return batch("/api/tickets/decrease-quantity/batch", items, idempotencyKey, "Cannot process order at this time.");
+    }
+
+    /**
+     * Increases the available quantity of several tickets in one call.
+     *
+     * @param idempotencyKey sent as Idempotency-Key, covering the whole batch; without it the call is not retried
+     */
+    public Mono<Void> increaseTicketQuantities(List<TicketQuantityRequest> items, String idempotencyKey) {
+        return batch("/api/tickets/increase-quantity/batch", items, idempotencyKey,
+                "Cannot restore ticket quantity at this time.");
+    }
+
+    private Mono<Void> changeQuantity(String path, Integer ticketId, Integer quantity, String idempotencyKey,
+                                      String unavailableDetail) {
+        Mono<Void> call = webClient.put()
+                .uri(ticketsServiceUrl + "/api/tickets/{id}" + path + "?quantity={quantity}", ticketId, quantity)
+                .headers(headers -> {
+                    if (idempotencyKey != null) {
+                        headers.set("Idempotency-Key", idempotencyKey);
+                    }
+                })
+                .retrieve()
+                .toBodilessEntity()
+                .then();
+        return guard(call, idempotencyKey != null, unavailableDetail)
+                .doOnError(e -> log.error("Failed to call {} for ticketId: {}. Error: {}", path, ticketId, e.getMessage()));
+    }
+
+    private Mono<Void> batch(String path, List<TicketQuantityRequest> items, String idempotencyKey,
+                             String unavailableDetail) {
+        Mono<Void> call = webClient.put()
+                .uri(ticketsServiceUrl + path)
+                .headers(headers -> {
+                    if (idempotencyKey != null) {
+                        headers.set("Idempotency-Key", idempotencyKey);
+                    }
+                })
+                .bodyValue(Map.of("items", items))
+                .retrieve()
+                .toBodilessEntity()
+                .then();
+        return guard(call, idempotencyKey != null, unavailableDetail)
+                .doOnError(e -> log.error("Failed to call {} for items: {}. Error: {}", path, items, e.getMessage()));
+    }
+
+    /**
+     * Timeout per attempt, circuit breaker around each attempt, optional retry, and the same
+     * ServiceUnavailableException messages as the blocking client's fallbacks (original error as cause).
+     */
+    private <T> Mono<T> guard(Mono<T> call, boolean retryable, String unavailableDetail) {
+        Mono<T> attempt = call.timeout(timeout).transformDeferred(CircuitBreakerOperator.of(circuitBreaker));
+        if (retryable) {
+            attempt = attempt.retryWhen(ReactiveClientSupport.retry(maxRetries, retryBackoff));
+        }
+        return attempt.onErrorMap(e -> !(e instanceof ServiceUnavailableException), e -> {
+            if (e instanceof CallNotPermittedException) {
+                return new ServiceUnavailableException(
+                        "Tickets service is temporarily unavailable. Circuit breaker is open. " + unavailableDetail, e);
+            }
+            return new ServiceUnavailableException("Tickets service is temporarily unavailable. " + unavailableDetail, e);
+        });
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.orders_service.client;
 
+import com.example.orders_service.dto.TicketQuantityRequest;
 import com.example.orders_service.dto.TicketResponse;
 import com.example.orders_service.exception.ServiceUnavailableException;
 import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
@@ -7,11 +8,14 @@ import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 
-import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -72,24 +76,23 @@ public class TicketsServiceClient {
 
     /**
      * Decreases the available quantity of a ticket.
-     * Called when an order is created to reserve tickets.
+     * Called by the order outbox dispatcher to reserve tickets for a created order.
      * Protected by circuit breaker to handle service unavailability.
      * 
      * @param ticketId the ID of the ticket
      * @param quantity the quantity to decrease
-     * @throws ServiceUnavailableException if the service is unavailable or circuit is open
+     * @param idempotencyKey sent as Idempotency-Key so a retried call is applied only once (may be null)
+     * @throws ServiceUnavailableException if the call fails; the original error is kept as the cause
      */
     @CircuitBreaker(name = "ticketsService", fallbackMethod = "decreaseTicketQuantityFallback")
-    public void decreaseTicketQuantity(Integer ticketId, Integer quantity) {
+    public void decreaseTicketQuantity(Integer ticketId, Integer quantity, String idempotencyKey) {
         String url = ticketsServiceUrl + "/api/tickets/" + ticketId + "/decrease-quantity";
         
         log.info("Decreasing ticket quantity for ticketId: {}, quantity: {}", ticketId, quantity);
         
         try {
-            Map<String, Integer> params = new HashMap<>();
-            params.put("quantity", quantity);
-            
-            restTemplate.put(url + "?quantity=" + quantity, null);
+            restTemplate.exchange(url + "?quantity=" + quantity, HttpMethod.PUT,
+                    idempotentRequest(idempotencyKey), Void.class);
             log.info("Successfully decreased ticket quantity for ticketId: {}", ticketId);
         } catch (RestClientException e) {
             log.error("Failed to decrease ticket quantity for ticketId: {}. Error: {}", ticketId, e.getMessage());
@@ -102,37 +105,40 @@ public class TicketsServiceClient {
      * 
      * @param ticketId the ID of the ticket
      * @param quantity the quantity to decrease
+     * @param idempotencyKey the idempotency key of the call
      * @param throwable the exception that triggered the fallback
      * @throws ServiceUnavailableException always, with appropriate error message
      */
-    private void decreaseTicketQuantityFallback(Integer ticketId, Integer quantity, Throwable throwable) {
+    private void decreaseTicketQuantityFallback(Integer ticketId, Integer quantity, String idempotencyKey, Throwable throwable) {
         if (throwable instanceof CallNotPermittedException) {
             log.error("Circuit breaker is OPEN for Tickets Service. Cannot decrease quantity for ticketId: {}", ticketId);
-            throw new ServiceUnavailableException("Tickets service is temporarily unavailable. Circuit breaker is open. Cannot process order at this time.");
+            throw new ServiceUnavailableException("Tickets service is temporarily unavailable. Circuit breaker is open. Cannot process order at this time.", throwable);
         }
         
         log.error("Fallback triggered for decreaseTicketQuantity. TicketId: {}, Quantity: {}, Error: {}", 
                 ticketId, quantity, throwable.getMessage());
-        throw new ServiceUnavailableException("Tickets service is temporarily unavailable. Cannot process order at this time.");
+        throw new ServiceUnavailableException("Tickets service is temporarily unavailable. Cannot process order at this time.", throwable);
     }
 
     /**
      * Increases the available quantity of a ticket.
-     * Called when an order is cancelled to restore tickets.
+     * Called by the order outbox dispatcher to restore tickets of a cancelled order.
      * Protected by circuit breaker to handle service unavailability.
      * 
      * @param ticketId the ID of the ticket
      * @param quantity the quantity to increase
-     * @throws ServiceUnavailableException if the service is unavailable or circuit is open
+     * @param idempotencyKey sent as Idempotency-Key so a retried call is applied only once (may be null)
+     * @throws ServiceUnavailableException if the call fails; the original error is kept as the cause
      */
     @CircuitBreaker(name = "ticketsService", fallbackMethod = "increaseTicketQuantityFallback")
-    public void increaseTicketQuantity(Integer ticketId, Integer quantity) {
+    public void increaseTicketQuantity(Integer ticketId, Integer quantity, String idempotencyKey) {
         String url = ticketsServiceUrl + "/api/tickets/" + ticketId + "/increase-quantity";
         
         log.info("Increasing ticket quantity for ticketId: {}, quantity: {}", ticketId, quantity);
         
         try {
-            restTemplate.put(url + "?quantity=" + quantity, null);
+            restTemplate.exchange(url + "?quantity=" + quantity, HttpMethod.PUT,
+                    idempotentRequest(idempotencyKey), Void.class);
             log.info("Successfully increased ticket quantity for ticketId: {}", ticketId);
         } catch (RestClientException e) {
             log.error("Failed to increase ticket quantity for ticketId: {}. Error: {}", ticketId, e.getMessage());
@@ -145,17 +151,117 @@ public class TicketsServiceClient {
      * 
      * @param ticketId the ID of the ticket
      * @param quantity the quantity to increase
+     * @param idempotencyKey the idempotency key of the call
      * @param throwable the exception that triggered the fallback
      * @throws ServiceUnavailableException always, with appropriate error message
      */
-    private void increaseTicketQuantityFallback(Integer ticketId, Integer quantity, Throwable throwable) {
+    private void increaseTicketQuantityFallback(Integer ticketId, Integer quantity, String idempotencyKey, Throwable throwable) {
         if (throwable instanceof CallNotPermittedException) {
             log.error("Circuit breaker is OPEN for Tickets Service. Cannot increase quantity for ticketId: {}", ticketId);
-            throw new ServiceUnavailableException("Tickets service is temporarily unavailable. Circuit breaker is open. Cannot restore ticket quantity at this time.");
+            throw new ServiceUnavailableException("Tickets service is temporarily unavailable. Circuit breaker is open. Cannot restore ticket quantity at this time.", throwable);
         }
         
         log.error("Fallback triggered for increaseTicketQuantity. TicketId: {}, Quantity: {}, Error: {}", 
                 ticketId, quantity, throwable.getMessage());
+        throw new ServiceUnavailableException("Tickets service is temporarily unavailable. Cannot restore ticket quantity at this time.", throwable);
+    }
+
+    /**
+     * Decreases the available quantity of several tickets in one call.
+     * The Tickets Service applies the whole batch or nothing, so a group booking
+     * costs one HTTP call and one circuit breaker evaluation.
+     * 
+     * @param items the (ticketId, quantity) pairs to reserve
+     * @param idempotencyKey sent as Idempotency-Key so a retried batch is applied only once (may be null)
+     * @throws ServiceUnavailableException if the service is unavailable or circuit is open
+     */
+    @CircuitBreaker(name = "ticketsService", fallbackMethod = "decreaseTicketQuantitiesFallback")
+    public void decreaseTicketQuantities(List<TicketQuantityRequest> items, String idempotencyKey) {
+        String url = ticketsServiceUrl + "/api/tickets/decrease-quantity/batch";
+        
+        log.info("Decreasing ticket quantities for {} ticket types", items.size());
+        
+        try {
+            restTemplate.exchange(url, HttpMethod.PUT,
+                    idempotentRequest(Map.of("items", items), idempotencyKey), Void.class);
+            log.info("Successfully decreased ticket quantities: {}", items);
+        } catch (RestClientException e) {
+            log.error("Failed to decrease ticket quantities: {}. Error: {}", items, e.getMessage());
+            throw e;
+        }
+    }
+    
+    /**
+     * Fallback method for decreaseTicketQuantities when circuit breaker is open or service fails.
+     * 
+     * @param items the (ticketId, quantity) pairs to reserve
+     * @param idempotencyKey the idempotency key of the call
+     * @param throwable the exception that triggered the fallback
+     * @throws ServiceUnavailableException always, with appropriate error message
+     */
+    private void decreaseTicketQuantitiesFallback(List<TicketQuantityRequest> items, String idempotencyKey,
+                                                  Throwable throwable) {
+        if (throwable instanceof CallNotPermittedException) {
+            log.error("Circuit breaker is OPEN for Tickets Service. Cannot decrease quantities: {}", items);
+            throw new ServiceUnavailableException("Tickets service is temporarily unavailable. Circuit breaker is open. Cannot process order at this time.");
+        }
+        
+        log.error("Fallback triggered for decreaseTicketQuantities. Items: {}, Error: {}", items, throwable.getMessage());
+        throw new ServiceUnavailableException("Tickets service is temporarily unavailable. Cannot process order at this time.");
+    }
+
+    /**
+     * Increases the available quantity of several tickets in one call.
+     * Called when a multi-ticket order is cancelled to restore tickets.
+     * 
+     * @param items the (ticketId, quantity) pairs to restore
+     * @param idempotencyKey sent as Idempotency-Key so a retried batch is applied only once (may be null)
+     * @throws ServiceUnavailableException if the service is unavailable or circuit is open
+     */
+    @CircuitBreaker(name = "ticketsService", fallbackMethod = "increaseTicketQuantitiesFallback")
+    public void increaseTicketQuantities(List<TicketQuantityRequest> items, String idempotencyKey) {
+        String url = ticketsServiceUrl + "/api/tickets/increase-quantity/batch";
+        
+        log.info("Increasing ticket quantities for {} ticket types", items.size());
+        
+        try {
+            restTemplate.exchange(url, HttpMethod.PUT,
+                    idempotentRequest(Map.of("items", items), idempotencyKey), Void.class);
+            log.info("Successfully increased ticket quantities: {}", items);
+        } catch (RestClientException e) {
+            log.error("Failed to increase ticket quantities: {}. Error: {}", items, e.getMessage());
+            throw e;
+        }
+    }
+    
+    /**
+     * Fallback method for increaseTicketQuantities when circuit breaker is open or service fails.
+     * 
+     * @param items the (ticketId, quantity) pairs to restore
+     * @param idempotencyKey the idempotency key of the call
+     * @param throwable the exception that triggered the fallback
+     * @throws ServiceUnavailableException always, with appropriate error message
+     */
+    private void increaseTicketQuantitiesFallback(List<TicketQuantityRequest> items, String idempotencyKey,
+                                                  Throwable throwable) {
+        if (throwable instanceof CallNotPermittedException) {
+            log.error("Circuit breaker is OPEN for Tickets Service. Cannot increase quantities: {}", items);
+            throw new ServiceUnavailableException("Tickets service is temporarily unavailable. Circuit breaker is open. Cannot restore ticket quantity at this time.");
+        }
+        
+        log.error("Fallback triggered for increaseTicketQuantities. Items: {}, Error: {}", items, throwable.getMessage());
         throw new ServiceUnavailableException("Tickets service is temporarily unavailable. Cannot restore ticket quantity at this time.");
     }
+
+    private HttpEntity<Void> idempotentRequest(String idempotencyKey) {
+        return idempotentRequest(null, idempotencyKey);
+    }
+
+    private <T> HttpEntity<T> idempotentRequest(T body, String idempotencyKey) {
+        HttpHeaders headers = new HttpHeaders();
+        if (idempotencyKey != null) {
+            headers.set("Idempotency-Key", idempotencyKey);
+        }
+        return new HttpEntity<>(body, headers);
+    }
 }
@@ -0,0 +1,18 @@
+package com.example.orders_service.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+@Configuration
+public class LookupExecutorConfig {
+
+    // Mỗi lời gọi lookup (Tickets, Schedules) chạy trên 1 virtual thread riêng,
+    // thread bị block khi chờ HTTP không chiếm platform thread
+    @Bean(destroyMethod = "close")
+    public ExecutorService lookupExecutor() {
+        return Executors.newVirtualThreadPerTaskExecutor();
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.orders_service.config;
 
+import com.example.common.security.IdentityHeader;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
@@ -9,26 +10,20 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
-import java.time.Duration;
-
 @Configuration
 public class RestTemplateConfig {
 
     @Bean
-    public RestTemplate restTemplate(RestTemplateBuilder builder) {
-        // Configure connection pooling and timeouts
-        HttpComponentsClientHttpRequestFactory requestFactory = new HttpComponentsClientHttpRequestFactory();
-        
-        // Connection timeout: 5 seconds
-        requestFactory.setConnectTimeout(5000);
-        
-        // Read timeout: 5 seconds
-        requestFactory.setConnectionRequestTimeout(5000);
-        
+    public RestTemplate restTemplate(RestTemplateBuilder builder, HttpComponentsClientHttpRequestFactory pooledRequestFactory,
+                                     ServiceIdentityProvider serviceIdentityProvider) {
+        // Pool, keep-alive and timeouts: common-web's PooledHttpClientAutoConfiguration (http.client.*)
         return builder
-                .setConnectTimeout(Duration.ofSeconds(5))
-                .setReadTimeout(Duration.ofSeconds(5))
-                .requestFactory(() -> requestFactory)
+                .requestFactory(() -> pooledRequestFactory)
+                // Tickets/Schedules Service yêu cầu xác thực; gọi nội bộ dùng identity của chính orders-service
+                .additionalInterceptors((request, body, execution) -> {
+                    request.getHeaders().set(IdentityHeader.NAME, serviceIdentityProvider.getIdentity());
+                    return execution.execute(request, body);
+                })
                 .build();
     }
 
@@ -0,0 +1,52 @@
+package com.example.orders_service.config;
+
+import com.example.common.security.IdentityHeader;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Identity orders-service presents on its own calls to tickets/schedules/payment.
+ *
+ * Those calls often have no user request behind them (outbox dispatcher, cache warm-up), so the
+ * service signs an X-Auth-Identity for itself (role SERVICE) with the shared app.identity.secret,
+ * the same header the gateway forwards for users. It is reused until shortly before it expires.
+ *
+ * The header and its expiry are swapped together with a CAS instead of a lock, so callers on
+ * virtual threads never pin their carrier; when several notice the renewal at once, each signs
+ * a header (a cheap HMAC) and the first one stored wins.
+ */
+@Component
+public class ServiceIdentityProvider {
+
+    static final String NAME = "orders-service";
+    static final String ROLE = "SERVICE";
+
+    private final IdentityHeader identityHeader;
+    private final long ttlSeconds;
+    private final long renewBeforeSeconds;
+
+    private final AtomicReference<Signed> current = new AtomicReference<>(new Signed(null, 0));
+
+    private record Signed(String identity, long expiresAtEpochSecond) {
+    }
+
+    public ServiceIdentityProvider(IdentityHeader identityHeader,
+                                   @Value("${app.identity.service-ttl-seconds:900}") long ttlSeconds) {
+        this.identityHeader = identityHeader;
+        this.ttlSeconds = ttlSeconds;
+        this.renewBeforeSeconds = ttlSeconds / 5;
+    }
+
+    public String getIdentity() {
+        Signed signed = current.get();
+        long now = System.currentTimeMillis() / 1000;
+        if (now < signed.expiresAtEpochSecond() - renewBeforeSeconds) {
+            return signed.identity();
+        }
+        Signed renewed = new Signed(identityHeader.sign(null, NAME, ROLE, now + ttlSeconds), now + ttlSeconds);
+        // Thread khác đã gia hạn trước: dùng header của nó
+        return current.compareAndSet(signed, renewed) ? renewed.identity() : current.get().identity();
+    }
+}
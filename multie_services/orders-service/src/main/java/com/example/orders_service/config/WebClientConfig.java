@@ -0,0 +1,58 @@
+package com.example.orders_service.config;
+
+import com.example.common.security.IdentityHeader;
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+
+/**
+ * Non-blocking WebClient used by the Reactive*Client beans.
+ * Only created when orders.clients.reactive.enabled=true; otherwise the RestTemplate clients are used.
+ */
+@Configuration
+@ConditionalOnProperty(name = "orders.clients.reactive.enabled", havingValue = "true")
+public class WebClientConfig {
+
+    @Value("${orders.clients.reactive.max-connections:1000}")
+    private int maxConnections;
+
+    // Số request được xếp hàng chờ connection khi pool đã dùng hết
+    @Value("${orders.clients.reactive.pending-acquire-max:10000}")
+    private int pendingAcquireMax;
+
+    @Value("${http.client.connect-timeout-ms:2000}")
+    private int connectTimeoutMs;
+
+    @Value("${http.client.keep-alive-ms:30000}")
+    private long keepAliveMs;
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider reactiveConnectionProvider() {
+        return ConnectionProvider.builder("orders-clients")
+                .maxConnections(maxConnections)
+                .pendingAcquireMaxCount(pendingAcquireMax)
+                .maxIdleTime(Duration.ofMillis(keepAliveMs))
+                .evictInBackground(Duration.ofSeconds(30))
+                .build();
+    }
+
+    @Bean
+    public WebClient reactiveWebClient(WebClient.Builder builder, ConnectionProvider reactiveConnectionProvider,
+                                       ServiceIdentityProvider serviceIdentityProvider) {
+        HttpClient httpClient = HttpClient.create(reactiveConnectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeoutMs);
+        return builder
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                // Same service identity as the RestTemplate clients (see RestTemplateConfig)
+                .defaultRequest(request -> request.header(IdentityHeader.NAME, serviceIdentityProvider.getIdentity()))
+                .build();
+    }
+}
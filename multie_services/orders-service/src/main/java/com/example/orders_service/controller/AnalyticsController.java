@@ -2,10 +2,12 @@ package com.example.orders_service.controller;
 
 import com.example.orders_service.service.AnalyticsService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.Map;
 
 @RestController
@@ -40,4 +42,43 @@ public class AnalyticsController {
     public ResponseEntity<Map<String, Object>> getOrdersByPaymentMethod() {
         return ResponseEntity.ok(analyticsService.getOrdersByPaymentMethod());
     }
+
+    // Tất cả số liệu của dashboard trong một request (from/to: yyyy-MM-dd, tùy chọn, tính cả hai đầu)
+    @GetMapping("/dashboard")
+    public ResponseEntity<Map<String, Object>> getDashboard(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(analyticsService.getDashboard(from, to));
+    }
+
+    // Số order và doanh thu theo giờ/ngày/tháng (mặc định 30 ngày gần nhất, theo ngày)
+    @GetMapping("/revenue/timeseries")
+    public ResponseEntity<Map<String, Object>> getRevenueTimeseries(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "day") String granularity,
+            @RequestParam(required = false) String paymentMethod,
+            @RequestParam(required = false) Integer scheduleId) {
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusDays(30);
+        return ResponseEntity.ok(analyticsService.getRevenueTimeseries(start, end, granularity, paymentMethod, scheduleId));
+    }
+
+    // Lệch giữa bộ đếm order_stats và bảng orders (rỗng nếu khớp)
+    @GetMapping("/aggregates/drift")
+    public ResponseEntity<Map<String, Object>> getAggregatesDrift() {
+        return ResponseEntity.ok(analyticsService.getAggregatesDrift());
+    }
+
+    // Tính lại toàn bộ bộ đếm từ bảng orders
+    @PostMapping("/aggregates/rebuild")
+    public ResponseEntity<Map<String, Object>> rebuildAggregates() {
+        return ResponseEntity.ok(analyticsService.rebuildAggregates());
+    }
+
+    // Tính lại bảng rollup từ bảng orders
+    @PostMapping("/rollups/rebuild")
+    public ResponseEntity<Map<String, Object>> rebuildRollups() {
+        return ResponseEntity.ok(analyticsService.rebuildRollups());
+    }
 }
\ No newline at end of file
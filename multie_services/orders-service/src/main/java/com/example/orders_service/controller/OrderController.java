@@ -1,13 +1,22 @@
 package com.example.orders_service.controller;
 
+import com.example.common.security.AuthenticatedUser;
+import com.example.common.web.CursorPage;
+import com.example.common.web.LegacyList;
 import com.example.orders_service.dto.OrderRequest;
 import com.example.orders_service.dto.OrderResponse;
+import com.example.orders_service.service.OrderExporter;
 import com.example.orders_service.service.OrderService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -16,6 +25,7 @@ import java.util.List;
 public class OrderController {
 
     private final OrderService orderService;
+    private final OrderExporter orderExporter;
 
     @PostMapping("/create")
     // @PreAuthorize("hasRole('USER')") // TEMPORARY: Disabled for testing
@@ -23,10 +33,35 @@ public class OrderController {
         return ResponseEntity.ok(orderService.createOrder(request));
     }
 
+    // Danh sách cũ không phân trang: tối đa LegacyList.MAX_ROWS dòng, bỏ vào LegacyList.REMOVAL_DATE - dùng /page
+    @Deprecated(since = "2026-10-18", forRemoval = true)
     @GetMapping
     // @PreAuthorize("hasRole('USER')") // TEMPORARY: Disabled for testing
     public ResponseEntity<List<OrderResponse>> getAll() {
-        return ResponseEntity.ok(orderService.getAllOrders());
+        return LegacyList.response(orderService.getAllOrders(), "/api/orders/page");
+    }
+
+    // Keyset pagination (?cursor=&size=), tối đa 100 dòng/trang
+    @GetMapping("/page")
+    // @PreAuthorize("hasRole('USER')") // TEMPORARY: Disabled for testing
+    public ResponseEntity<CursorPage<OrderResponse>> getPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(orderService.getOrdersPage(cursor, size));
+    }
+
+    // Export cho đối soát - stream NDJSON/CSV trực tiếp từ DB (?format=ndjson|csv&from=&to=&status=)
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String status) {
+        StreamingResponseBody body = orderExporter.export(format, from, to, status);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(orderExporter.parseFormat(format).getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"orders." + format + "\"")
+                .body(body);
     }
 
     @GetMapping("/{id}")
@@ -64,17 +99,10 @@ public class OrderController {
             @PathVariable Integer userRefId,
             @org.springframework.security.core.annotation.AuthenticationPrincipal Object principal) {
         
-        // Extract userId from JWT token (stored as principal in JwtAuthenticationFilter)
+        // Extract userId from JWT token (principal set by JwtAuthenticationFilter, common-security)
         Integer authenticatedUserId = null;
-        if (principal instanceof Integer) {
-            authenticatedUserId = (Integer) principal;
-        } else if (principal instanceof String) {
-            try {
-                authenticatedUserId = Integer.parseInt((String) principal);
-            } catch (NumberFormatException e) {
-                // If principal is username string, we can't verify - allow for backward compatibility
-                // In production, this should be handled more strictly
-            }
+        if (principal instanceof AuthenticatedUser user && user.userId() != null) {
+            authenticatedUserId = user.userId().intValue();
         }
         
         // Verify requesting user matches userRefId (authorization)
@@ -100,16 +128,10 @@ public class OrderController {
             @PathVariable Integer id,
             @org.springframework.security.core.annotation.AuthenticationPrincipal Object principal) {
         
-        // Extract userId from JWT token (stored as principal in JwtAuthenticationFilter)
+        // Extract userId from JWT token (principal set by JwtAuthenticationFilter, common-security)
         Integer authenticatedUserId = null;
-        if (principal instanceof Integer) {
-            authenticatedUserId = (Integer) principal;
-        } else if (principal instanceof String) {
-            try {
-                authenticatedUserId = Integer.parseInt((String) principal);
-            } catch (NumberFormatException e) {
-                return ResponseEntity.status(401).build(); // Unauthorized if we can't extract userId
-            }
+        if (principal instanceof AuthenticatedUser user && user.userId() != null) {
+            authenticatedUserId = user.userId().intValue();
         }
         
         if (authenticatedUserId == null) {
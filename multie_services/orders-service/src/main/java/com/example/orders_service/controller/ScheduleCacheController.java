@@ -0,0 +1,28 @@
+package com.example.orders_service.controller;
+
+import com.example.orders_service.service.ScheduleCache;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/orders/cache/schedules")
+@RequiredArgsConstructor
+public class ScheduleCacheController {
+
+    private final ScheduleCache scheduleCache;
+
+    // 1. Invalidate one schedule - Called by Schedules Service when a schedule is updated/cancelled/deleted
+    @DeleteMapping("/{scheduleId}")
+    public ResponseEntity<Void> invalidate(@PathVariable Integer scheduleId) {
+        scheduleCache.invalidate(scheduleId);
+        return ResponseEntity.noContent().build();
+    }
+
+    // 2. Invalidate all cached schedules
+    @DeleteMapping
+    public ResponseEntity<Void> invalidateAll() {
+        scheduleCache.invalidateAll();
+        return ResponseEntity.noContent().build();
+    }
+}
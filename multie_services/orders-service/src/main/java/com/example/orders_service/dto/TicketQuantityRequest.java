@@ -0,0 +1,16 @@
+package com.example.orders_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One (ticketId, quantity) pair of a batch quantity change sent to the Tickets Service.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TicketQuantityRequest {
+    private Integer ticketId;
+    private Integer quantity;
+}
@@ -7,7 +7,13 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+        // "My orders": lọc theo user, sắp xếp theo created_at ngay trên index
+        @Index(name = "idx_orders_user_created_at", columnList = "user_ref_id, created_at"),
+        @Index(name = "idx_orders_schedule", columnList = "schedule_ref_id"),
+        @Index(name = "idx_orders_ticket_type", columnList = "ticket_type_ref_id"),
+        @Index(name = "idx_orders_created_at", columnList = "created_at")
+})
 @Data
 public class Order {
 
@@ -73,8 +79,9 @@ public class Order {
         cash, credit_card, ewallet
     }
 
+    // refund_pending: order bị hủy sau khi đã trả tiền, chưa hoàn tiền (xem OrderOutboxDispatcher)
     public enum PaymentStatus {
-        pending, paid, failed, refunded
+        pending, paid, failed, refunded, refund_pending
     }
 
     public enum OrderStatus {
@@ -0,0 +1,70 @@
+package com.example.orders_service.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * Thay đổi số lượng vé cần gửi sang Tickets Service.
+ * Được ghi cùng transaction với Order, sau đó OrderOutboxDispatcher gửi đi (có retry).
+ */
+@Entity
+@Table(name = "order_outbox", indexes = {
+        @Index(name = "idx_order_outbox_status_next_attempt", columnList = "status, next_attempt_at"),
+        @Index(name = "idx_order_outbox_order", columnList = "order_id")
+})
+@Data
+public class OrderOutbox {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "order_id", nullable = false)
+    private Integer orderId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", nullable = false, length = 30)
+    private EventType eventType;
+
+    @Column(name = "ticket_ref_id", nullable = false)
+    private Integer ticketRefId;
+
+    @Column(nullable = false)
+    private Integer quantity;
+
+    // Gửi kèm header Idempotency-Key để Tickets Service không áp dụng 2 lần khi retry
+    @Column(name = "idempotency_key", nullable = false, unique = true, length = 64)
+    private String idempotencyKey;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Status status = Status.pending;
+
+    @Column(nullable = false)
+    private Integer attempts = 0;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt = LocalDateTime.now();
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    @Column(name = "sent_at")
+    private LocalDateTime sentAt;
+
+    public enum EventType {
+        decrease_quantity,  // Giữ vé khi tạo order
+        increase_quantity   // Trả vé khi hủy order / thanh toán thất bại
+    }
+
+    public enum Status {
+        pending,  // Chờ gửi (hoặc chờ retry)
+        sent,     // Tickets Service đã nhận
+        failed    // Lỗi vĩnh viễn hoặc hết số lần retry
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.orders_service.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Số order và doanh thu đã thanh toán theo khung thời gian, phương thức thanh toán và lịch trình.
+ * Order mới được cộng vào khung giờ; OrderRollups định kỳ gộp khung giờ cũ thành ngày, ngày cũ thành tháng.
+ */
+@Entity
+@Table(name = "order_rollups", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_order_rollups_bucket",
+                columnNames = {"granularity", "bucket_start", "payment_method", "schedule_ref_id"})
+}, indexes = {
+        @Index(name = "idx_order_rollups_bucket_start", columnList = "bucket_start")
+})
+@Data
+public class OrderRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private Granularity granularity;
+
+    // Đầu khung: đầu giờ, đầu ngày hoặc ngày 1 của tháng
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDateTime bucketStart;
+
+    // Rỗng nếu order không có phương thức thanh toán
+    @Column(name = "payment_method", nullable = false, length = 20)
+    private String paymentMethod;
+
+    @Column(name = "schedule_ref_id", nullable = false)
+    private Integer scheduleRefId;
+
+    @Column(name = "order_count", nullable = false)
+    private Long orderCount = 0L;
+
+    @Column(name = "paid_revenue", nullable = false, precision = 14, scale = 2)
+    private BigDecimal paidRevenue = BigDecimal.ZERO;
+
+    public enum Granularity {
+        hour, day, month
+    }
+}
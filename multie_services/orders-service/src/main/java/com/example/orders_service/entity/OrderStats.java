@@ -0,0 +1,50 @@
+package com.example.orders_service.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+/**
+ * Bộ đếm tổng hợp cho Analytics: số order và tổng tiền theo từng giá trị của một chiều
+ * (trạng thái, trạng thái thanh toán, phương thức thanh toán, ngày tạo).
+ * Được OrderAggregates cập nhật cùng transaction với Order.
+ * Mỗi bộ đếm gồm nhiều dòng (shard): giá trị thật là tổng các shard.
+ */
+@Entity
+@Table(name = "order_stats", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_order_stats_dimension_value_shard", columnNames = {"dimension", "dim_value", "shard"})
+})
+@Data
+public class OrderStats {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Dimension dimension;
+
+    // Tên enum hoặc ngày yyyy-MM-dd; rỗng với chiều "all"
+    @Column(name = "dim_value", nullable = false, length = 30)
+    private String dimValue;
+
+    // Các order ghi song song cộng vào các shard khác nhau thay vì cùng chờ khóa một dòng
+    @Column(nullable = false)
+    private Integer shard = 0;
+
+    @Column(name = "order_count", nullable = false)
+    private Long orderCount = 0L;
+
+    @Column(name = "amount_sum", nullable = false, precision = 14, scale = 2)
+    private BigDecimal amountSum = BigDecimal.ZERO;
+
+    public enum Dimension {
+        all,             // Tổng toàn bộ order
+        order_status,
+        payment_status,
+        payment_method,
+        created_day      // Theo ngày tạo order
+    }
+}
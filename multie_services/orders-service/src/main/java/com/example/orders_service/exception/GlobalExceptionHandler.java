@@ -1,5 +1,6 @@
 package com.example.orders_service.exception;
 
+import com.example.common.web.InvalidPageRequestException;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
@@ -21,8 +22,8 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(400).body(createErrorResponse(400, "Bad Request", ex.getMessage()));
     }
 
-    @ExceptionHandler(ValidationException.class)
-    public ResponseEntity<?> handleValidation(ValidationException ex) {
+    @ExceptionHandler({ValidationException.class, InvalidPageRequestException.class})
+    public ResponseEntity<?> handleValidation(RuntimeException ex) {
         return ResponseEntity.status(400).body(createErrorResponse(400, "Bad Request", ex.getMessage()));
     }
 
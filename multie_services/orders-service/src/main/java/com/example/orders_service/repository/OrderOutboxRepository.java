@@ -0,0 +1,32 @@
+package com.example.orders_service.repository;
+
+import com.example.orders_service.entity.OrderOutbox;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface OrderOutboxRepository extends JpaRepository<OrderOutbox, Long> {
+
+    // Các event đến hạn gửi, theo thứ tự ghi để mỗi order được xử lý đúng thứ tự
+    @Query("SELECT o FROM OrderOutbox o WHERE o.status = :status AND o.nextAttemptAt <= :now ORDER BY o.id")
+    List<OrderOutbox> findDue(@Param("status") OrderOutbox.Status status,
+                              @Param("now") LocalDateTime now,
+                              Pageable pageable);
+
+    // Còn event cũ hơn của cùng order chưa gửi xong?
+    boolean existsByOrderIdAndStatusAndIdLessThan(Integer orderId, OrderOutbox.Status status, Long id);
+
+    // Bỏ các event còn chờ của 1 order (khi order bị hủy do không giữ được vé)
+    @Transactional
+    @Modifying
+    @Query("UPDATE OrderOutbox o SET o.status = com.example.orders_service.entity.OrderOutbox.Status.failed, " +
+            "o.lastError = :reason WHERE o.orderId = :orderId " +
+            "AND o.status = com.example.orders_service.entity.OrderOutbox.Status.pending")
+    int failPending(@Param("orderId") Integer orderId, @Param("reason") String reason);
+}
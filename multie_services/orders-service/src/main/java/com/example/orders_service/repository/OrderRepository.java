@@ -1,8 +1,14 @@
 package com.example.orders_service.repository;
 
 import com.example.orders_service.entity.Order;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
@@ -26,4 +32,61 @@ public interface OrderRepository extends JpaRepository<Order, Integer> {
     // Analytics methods
     List<Order> findByCreatedAtAfter(LocalDateTime date);
     List<Order> findByCreatedAtBetween(LocalDateTime start, LocalDateTime end);
+
+    // Aggregate projections - grouping done by the database, one row per group
+    interface StatusCount {
+        Order.OrderStatus getStatus();
+        Long getCount();
+    }
+
+    interface PaymentMethodCount {
+        Order.PaymentMethod getMethod();
+        Long getCount();
+    }
+
+    interface PaymentStatusTotal {
+        Order.PaymentStatus getStatus();
+        Long getCount();
+        BigDecimal getAmount();
+    }
+
+    interface DailyCount {
+        LocalDate getDay();
+        Long getCount();
+    }
+
+    @Query("SELECT o.orderStatus AS status, COUNT(o) AS count FROM Order o " +
+           "WHERE o.orderStatus IS NOT NULL GROUP BY o.orderStatus")
+    List<StatusCount> countByOrderStatus();
+
+    @Query("SELECT o.paymentMethod AS method, COUNT(o) AS count FROM Order o " +
+           "WHERE o.paymentMethod IS NOT NULL GROUP BY o.paymentMethod")
+    List<PaymentMethodCount> countByPaymentMethod();
+
+    @Query("SELECT o.paymentStatus AS status, COUNT(o) AS count, COALESCE(SUM(o.totalAmount), 0) AS amount " +
+           "FROM Order o WHERE o.paymentStatus IS NOT NULL GROUP BY o.paymentStatus")
+    List<PaymentStatusTotal> sumByPaymentStatus();
+
+    @Query("SELECT CAST(o.createdAt AS LocalDate) AS day, COUNT(o) AS count FROM Order o " +
+           "WHERE o.createdAt >= :start GROUP BY CAST(o.createdAt AS LocalDate) ORDER BY day")
+    List<DailyCount> countByDaySince(@Param("start") LocalDateTime start);
+
+    // One row per (status, payment status, payment method, day): every dashboard figure in one query
+    interface DashboardCell {
+        Order.OrderStatus getOrderStatus();
+        Order.PaymentStatus getPaymentStatus();
+        Order.PaymentMethod getPaymentMethod();
+        LocalDate getDay();
+        Long getCount();
+        BigDecimal getAmount();
+    }
+
+    @Query("SELECT o.orderStatus AS orderStatus, o.paymentStatus AS paymentStatus, o.paymentMethod AS paymentMethod, " +
+           "CAST(o.createdAt AS LocalDate) AS day, COUNT(o) AS count, COALESCE(SUM(o.totalAmount), 0) AS amount " +
+           "FROM Order o WHERE (:from IS NULL OR o.createdAt >= :from) AND (:to IS NULL OR o.createdAt < :to) " +
+           "GROUP BY o.orderStatus, o.paymentStatus, o.paymentMethod, CAST(o.createdAt AS LocalDate)")
+    List<DashboardCell> dashboardCube(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    // Keyset pagination: trang tiếp theo bắt đầu sau id cuối của trang trước (Slice đọc thêm 1 dòng để biết còn trang sau)
+    Slice<Order> findByIdGreaterThanOrderByIdAsc(Integer id, Pageable pageable);
 }
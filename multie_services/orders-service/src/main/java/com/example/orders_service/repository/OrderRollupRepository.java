@@ -0,0 +1,74 @@
+package com.example.orders_service.repository;
+
+import com.example.orders_service.entity.OrderRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface OrderRollupRepository extends JpaRepository<OrderRollup, Long> {
+
+    // Cộng dồn nguyên tử vào khung giờ của order
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO order_rollups (granularity, bucket_start, payment_method, schedule_ref_id, " +
+            "order_count, paid_revenue) VALUES ('hour', :bucketStart, :paymentMethod, :scheduleId, :count, :revenue) " +
+            "ON DUPLICATE KEY UPDATE order_count = order_count + VALUES(order_count), " +
+            "paid_revenue = paid_revenue + VALUES(paid_revenue)",
+            nativeQuery = true)
+    int incrementHour(@Param("bucketStart") LocalDateTime bucketStart,
+                      @Param("paymentMethod") String paymentMethod,
+                      @Param("scheduleId") Integer scheduleId,
+                      @Param("count") long count,
+                      @Param("revenue") BigDecimal revenue);
+
+    // Gộp các khung `source` bắt đầu trước cutoff vào khung `target` (format: DATE_FORMAT cắt về đầu khung đích).
+    // Bảng dẫn xuất `folded`: đọc xong các dòng nguồn trước khi ghi vào chính order_rollups;
+    // VALUES(cột) là giá trị của dòng gộp, như incrementHour
+    @Modifying
+    @Query(value = "INSERT INTO order_rollups (granularity, bucket_start, payment_method, schedule_ref_id, " +
+            "order_count, paid_revenue) " +
+            "SELECT * FROM (SELECT CAST(:target AS CHAR(10)) AS g, DATE_FORMAT(bucket_start, :format) AS b, payment_method AS m, " +
+            "schedule_ref_id AS s, SUM(order_count) AS c, SUM(paid_revenue) AS r FROM order_rollups " +
+            "WHERE granularity = :source AND bucket_start < :cutoff GROUP BY b, m, s) AS folded " +
+            "ON DUPLICATE KEY UPDATE order_count = order_count + VALUES(order_count), " +
+            "paid_revenue = paid_revenue + VALUES(paid_revenue)",
+            nativeQuery = true)
+    int foldInto(@Param("source") String source,
+                 @Param("target") String target,
+                 @Param("format") String format,
+                 @Param("cutoff") LocalDateTime cutoff);
+
+    @Modifying
+    @Query("DELETE FROM OrderRollup r WHERE r.granularity = :granularity AND r.bucketStart < :cutoff")
+    int deleteBefore(@Param("granularity") OrderRollup.Granularity granularity,
+                     @Param("cutoff") LocalDateTime cutoff);
+
+    @Query("SELECT r FROM OrderRollup r WHERE r.bucketStart >= :from AND r.bucketStart < :to " +
+            "AND (:paymentMethod IS NULL OR r.paymentMethod = :paymentMethod) " +
+            "AND (:scheduleId IS NULL OR r.scheduleRefId = :scheduleId) ORDER BY r.bucketStart")
+    List<OrderRollup> findRange(@Param("from") LocalDateTime from,
+                                @Param("to") LocalDateTime to,
+                                @Param("paymentMethod") String paymentMethod,
+                                @Param("scheduleId") Integer scheduleId);
+
+    // Chặn ghi vào orders cho tới hết transaction (rebuild)
+    @Query(value = "SELECT COUNT(*) FROM orders LOCK IN SHARE MODE", nativeQuery = true)
+    long lockOrdersForShare();
+
+    // Enum payment_method đổi sang chuỗi như cột payment_method của order_rollups ('' nếu không có)
+    @Modifying
+    @Query(value = "INSERT INTO order_rollups (granularity, bucket_start, payment_method, schedule_ref_id, " +
+            "order_count, paid_revenue) " +
+            "SELECT 'hour', DATE_FORMAT(created_at, '%Y-%m-%d %H:00:00'), COALESCE(CAST(payment_method AS CHAR(20)), ''), " +
+            "schedule_ref_id, COUNT(*), COALESCE(SUM(CASE WHEN payment_status = 'paid' THEN total_amount END), 0) " +
+            "FROM orders WHERE created_at IS NOT NULL " +
+            "GROUP BY DATE_FORMAT(created_at, '%Y-%m-%d %H:00:00'), COALESCE(CAST(payment_method AS CHAR(20)), ''), schedule_ref_id",
+            nativeQuery = true)
+    int insertHoursFromOrders();
+}
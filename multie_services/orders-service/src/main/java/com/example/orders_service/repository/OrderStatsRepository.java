@@ -0,0 +1,89 @@
+package com.example.orders_service.repository;
+
+import com.example.orders_service.entity.OrderStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+public interface OrderStatsRepository extends JpaRepository<OrderStats, Long> {
+
+    // Các bộ đếm tính lại từ bảng orders (cùng định nghĩa với cập nhật tăng dần trong OrderAggregates)
+    // Cột enum đổi sang chuỗi cùng độ dài với dim_value: UNION ALL không lấy kiểu enum cho cả cột dimValue
+    String RECOMPUTE_SQL =
+            "SELECT 'all' AS dimension, '' AS dimValue, COUNT(*) AS orderCount, " +
+            "COALESCE(SUM(total_amount), 0) AS amountSum FROM orders " +
+            "UNION ALL SELECT 'order_status', CAST(order_status AS CHAR(30)), COUNT(*), COALESCE(SUM(total_amount), 0) " +
+            "FROM orders WHERE order_status IS NOT NULL GROUP BY order_status " +
+            "UNION ALL SELECT 'payment_status', CAST(payment_status AS CHAR(30)), COUNT(*), COALESCE(SUM(total_amount), 0) " +
+            "FROM orders WHERE payment_status IS NOT NULL GROUP BY payment_status " +
+            "UNION ALL SELECT 'payment_method', CAST(payment_method AS CHAR(30)), COUNT(*), COALESCE(SUM(total_amount), 0) " +
+            "FROM orders WHERE payment_method IS NOT NULL GROUP BY payment_method " +
+            "UNION ALL SELECT 'created_day', DATE_FORMAT(created_at, '%Y-%m-%d'), COUNT(*), COALESCE(SUM(total_amount), 0) " +
+            "FROM orders WHERE created_at IS NOT NULL GROUP BY DATE_FORMAT(created_at, '%Y-%m-%d')";
+
+    interface StatsRow {
+        String getDimension();
+        String getDimValue();
+        Long getOrderCount();
+        BigDecimal getAmountSum();
+    }
+
+    // Tổng các shard của một bộ đếm
+    interface Total {
+        OrderStats.Dimension getDimension();
+        String getDimValue();
+        Long getOrderCount();
+        BigDecimal getAmountSum();
+    }
+
+    String SUM_SELECT = "SELECT s.dimension AS dimension, s.dimValue AS dimValue, " +
+            "SUM(s.orderCount) AS orderCount, SUM(s.amountSum) AS amountSum FROM OrderStats s ";
+    String SUM_GROUP_BY = " GROUP BY s.dimension, s.dimValue";
+
+    // Cộng dồn nguyên tử vào một shard (count/amount có thể âm khi order rời khỏi một giá trị)
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO order_stats (dimension, dim_value, shard, order_count, amount_sum) " +
+            "VALUES (:dimension, :value, :shard, :count, :amount) " +
+            "ON DUPLICATE KEY UPDATE order_count = order_count + VALUES(order_count), " +
+            "amount_sum = amount_sum + VALUES(amount_sum)",
+            nativeQuery = true)
+    int increment(@Param("dimension") String dimension,
+                  @Param("value") String value,
+                  @Param("shard") int shard,
+                  @Param("count") long count,
+                  @Param("amount") BigDecimal amount);
+
+    @Query(SUM_SELECT + SUM_GROUP_BY)
+    List<Total> sumAll();
+
+    @Query(SUM_SELECT + "WHERE s.dimension = :dimension" + SUM_GROUP_BY)
+    List<Total> sumByDimension(@Param("dimension") OrderStats.Dimension dimension);
+
+    @Query(SUM_SELECT + "WHERE s.dimension = :dimension AND s.dimValue = :value" + SUM_GROUP_BY)
+    Optional<Total> sum(@Param("dimension") OrderStats.Dimension dimension, @Param("value") String value);
+
+    // created_day lưu dạng yyyy-MM-dd nên so sánh chuỗi đúng thứ tự ngày
+    @Query(SUM_SELECT + "WHERE s.dimension = :dimension AND s.dimValue >= :from" + SUM_GROUP_BY)
+    List<Total> sumByDimensionFrom(@Param("dimension") OrderStats.Dimension dimension, @Param("from") String from);
+
+    @Query(value = RECOMPUTE_SQL, nativeQuery = true)
+    List<StatsRow> recompute();
+
+    // Chặn ghi vào orders cho tới hết transaction (rebuild): order đang ghi dở phải commit trước
+    @Query(value = "SELECT COUNT(*) FROM orders LOCK IN SHARE MODE", nativeQuery = true)
+    long lockOrdersForShare();
+
+    // Kết quả tính lại nằm hết ở shard 0; các shard khác được tạo dần khi order thay đổi
+    @Modifying
+    @Query(value = "INSERT INTO order_stats (dimension, dim_value, shard, order_count, amount_sum) " +
+            "SELECT dimension, dimValue, 0, orderCount, amountSum FROM (" + RECOMPUTE_SQL + ") recomputed",
+            nativeQuery = true)
+    int insertRecomputed();
+}
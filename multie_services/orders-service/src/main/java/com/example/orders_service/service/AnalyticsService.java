@@ -1,49 +1,59 @@
 package com.example.orders_service.service;
 
 import com.example.orders_service.entity.Order;
+import com.example.orders_service.entity.OrderRollup;
+import com.example.orders_service.entity.OrderStats;
+import com.example.orders_service.exception.ValidationException;
 import com.example.orders_service.repository.OrderRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.*;
-import java.util.stream.Collectors;
 
+/**
+ * Dashboard figures, never built by loading Order entities.
+ *
+ * orders.analytics.source selects where they come from:
+ * aggregates (default) - counters in order_stats maintained by OrderAggregates, O(1) per request;
+ * query - GROUP BY projections over the orders table, always exact, cost grows with the table.
+ */
 @Service
 @RequiredArgsConstructor
 public class AnalyticsService {
 
+    private final OrderAggregates orderAggregates;
     private final OrderRepository orderRepository;
+    private final OrderRollups orderRollups;
+
+    @Value("${orders.analytics.source:aggregates}")
+    private Source source;
+
+    public enum Source {
+        aggregates, query
+    }
+
+    private record Totals(long count, BigDecimal amount) {
+        static final Totals NONE = new Totals(0, BigDecimal.ZERO);
+    }
 
     public Map<String, Object> getOrdersSummary() {
-        List<Order> orders = orderRepository.findAll();
-        
+        Map<Order.OrderStatus, Long> byStatus = countByOrderStatus();
+
         Map<String, Object> summary = new HashMap<>();
-        summary.put("totalOrders", orders.size());
-        summary.put("confirmedOrders", orders.stream()
-            .filter(o -> o.getOrderStatus() == Order.OrderStatus.confirmed)
-            .count());
-        summary.put("cancelledOrders", orders.stream()
-            .filter(o -> o.getOrderStatus() == Order.OrderStatus.cancelled)
-            .count());
-        summary.put("pendingOrders", orders.stream()
-            .filter(o -> o.getOrderStatus() == Order.OrderStatus.created)
-            .count());
+        summary.put("totalOrders", totalOrders());
+        summary.put("confirmedOrders", byStatus.getOrDefault(Order.OrderStatus.confirmed, 0L));
+        summary.put("cancelledOrders", byStatus.getOrDefault(Order.OrderStatus.cancelled, 0L));
+        summary.put("pendingOrders", byStatus.getOrDefault(Order.OrderStatus.created, 0L));
         
         return summary;
     }
 
     public Map<String, Object> getOrdersByDate(int days) {
-        LocalDateTime startDate = LocalDateTime.now().minusDays(days);
-        List<Order> orders = orderRepository.findByCreatedAtAfter(startDate);
-        
-        Map<LocalDate, Long> ordersByDate = orders.stream()
-            .collect(Collectors.groupingBy(
-                order -> order.getCreatedAt().toLocalDate(),
-                Collectors.counting()
-            ));
+        Map<LocalDate, Long> ordersByDate = countByDay(days);
         
         Map<String, Object> result = new HashMap<>();
         result.put("data", ordersByDate);
@@ -53,61 +63,241 @@ public class AnalyticsService {
     }
 
     public Map<String, Object> getRevenueSummary() {
-        List<Order> orders = orderRepository.findAll();
-        
-        BigDecimal totalRevenue = orders.stream()
-            .filter(o -> o.getPaymentStatus() == Order.PaymentStatus.paid)
-            .map(Order::getTotalAmount)
-            .reduce(BigDecimal.ZERO, BigDecimal::add);
-        
-        BigDecimal pendingRevenue = orders.stream()
-            .filter(o -> o.getPaymentStatus() == Order.PaymentStatus.pending)
-            .map(Order::getTotalAmount)
-            .reduce(BigDecimal.ZERO, BigDecimal::add);
+        Map<Order.PaymentStatus, Totals> byPaymentStatus = sumByPaymentStatus();
+        Totals paid = byPaymentStatus.getOrDefault(Order.PaymentStatus.paid, Totals.NONE);
+        Totals pending = byPaymentStatus.getOrDefault(Order.PaymentStatus.pending, Totals.NONE);
         
         Map<String, Object> summary = new HashMap<>();
-        summary.put("totalRevenue", totalRevenue);
-        summary.put("pendingRevenue", pendingRevenue);
-        summary.put("paidOrders", orders.stream()
-            .filter(o -> o.getPaymentStatus() == Order.PaymentStatus.paid)
-            .count());
-        summary.put("pendingPayments", orders.stream()
-            .filter(o -> o.getPaymentStatus() == Order.PaymentStatus.pending)
-            .count());
+        summary.put("totalRevenue", paid.amount());
+        summary.put("pendingRevenue", pending.amount());
+        summary.put("paidOrders", paid.count());
+        summary.put("pendingPayments", pending.count());
         
         return summary;
     }
 
     public Map<String, Object> getOrdersByStatus() {
-        List<Order> orders = orderRepository.findAll();
-        
-        Map<Order.OrderStatus, Long> statusCount = orders.stream()
-            .collect(Collectors.groupingBy(
-                Order::getOrderStatus,
-                Collectors.counting()
-            ));
-        
         Map<String, Object> result = new HashMap<>();
-        result.put("data", statusCount);
-        result.put("total", orders.size());
+        result.put("data", countByOrderStatus());
+        result.put("total", totalOrders());
         
         return result;
     }
 
     public Map<String, Object> getOrdersByPaymentMethod() {
-        List<Order> orders = orderRepository.findAll();
-        
-        Map<Order.PaymentMethod, Long> methodCount = orders.stream()
-            .filter(o -> o.getPaymentMethod() != null)
-            .collect(Collectors.groupingBy(
-                Order::getPaymentMethod,
-                Collectors.counting()
-            ));
-        
         Map<String, Object> result = new HashMap<>();
-        result.put("data", methodCount);
-        result.put("total", orders.size());
+        result.put("data", countByPaymentMethod());
+        result.put("total", totalOrders());
         
         return result;
     }
-}
\ No newline at end of file
+
+    /**
+     * Everything the admin dashboard shows, in the same shapes as the individual endpoints,
+     * from a single read: the counter table when no range is given and source=aggregates,
+     * otherwise one GROUP BY query over the orders created in [from, to] (both inclusive, optional).
+     */
+    public Map<String, Object> getDashboard(LocalDate from, LocalDate to) {
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new ValidationException("'from' must not be after 'to'");
+        }
+
+        Dashboard dashboard = new Dashboard();
+        if (from == null && to == null && source == Source.aggregates) {
+            orderAggregates.all().forEach(dashboard::add);
+        } else {
+            orderRepository.dashboardCube(
+                    from != null ? from.atStartOfDay() : null,
+                    to != null ? to.plusDays(1).atStartOfDay() : null)
+                .forEach(dashboard::add);
+        }
+
+        Map<String, Object> result = dashboard.toMap();
+        result.put("from", from);
+        result.put("to", to);
+        return result;
+    }
+
+    /**
+     * Order count and paid revenue over time from the rollup tables, never from orders.
+     * from/to are inclusive days; paymentMethod and scheduleId are optional filters.
+     */
+    public Map<String, Object> getRevenueTimeseries(LocalDate from, LocalDate to, String granularity,
+                                                    String paymentMethod, Integer scheduleId) {
+        if (from.isAfter(to)) {
+            throw new ValidationException("'from' must not be after 'to'");
+        }
+        OrderRollup.Granularity bucket;
+        try {
+            bucket = OrderRollup.Granularity.valueOf(granularity);
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException("granularity must be one of hour, day, month");
+        }
+        if (paymentMethod != null) {
+            try {
+                Order.PaymentMethod.valueOf(paymentMethod);
+            } catch (IllegalArgumentException e) {
+                throw new ValidationException("Unknown payment method: " + paymentMethod);
+            }
+        }
+
+        List<OrderRollups.Point> points = orderRollups.timeseries(
+                from.atStartOfDay(), to.plusDays(1).atStartOfDay(), bucket, paymentMethod, scheduleId);
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("data", points);
+        result.put("granularity", bucket);
+        result.put("from", from);
+        result.put("to", to);
+        return result;
+    }
+
+    public Map<String, Object> rebuildRollups() {
+        Map<String, Object> result = new HashMap<>();
+        result.put("hourlyRows", orderRollups.rebuild());
+
+        return result;
+    }
+
+    // Kiểm tra lệch giữa bộ đếm và bảng orders
+    public Map<String, Object> getAggregatesDrift() {
+        List<OrderAggregates.Drift> drift = orderAggregates.checkDrift();
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("inSync", drift.isEmpty());
+        result.put("drift", drift);
+
+        return result;
+    }
+
+    public Map<String, Object> rebuildAggregates() {
+        Map<String, Object> result = new HashMap<>();
+        result.put("counters", orderAggregates.rebuild());
+
+        return result;
+    }
+
+    /**
+     * Accumulates dashboard figures in one pass over cube cells or counter rows.
+     */
+    private static final class Dashboard {
+        private long totalOrders;
+        private final Map<Order.OrderStatus, Long> byStatus = new EnumMap<>(Order.OrderStatus.class);
+        private final Map<Order.PaymentMethod, Long> byPaymentMethod = new EnumMap<>(Order.PaymentMethod.class);
+        private final Map<Order.PaymentStatus, Totals> byPaymentStatus = new EnumMap<>(Order.PaymentStatus.class);
+        private final Map<LocalDate, Long> byDate = new TreeMap<>();
+
+        void add(OrderRepository.DashboardCell cell) {
+            long count = cell.getCount();
+            totalOrders += count;
+            if (cell.getOrderStatus() != null) {
+                byStatus.merge(cell.getOrderStatus(), count, Long::sum);
+            }
+            if (cell.getPaymentMethod() != null) {
+                byPaymentMethod.merge(cell.getPaymentMethod(), count, Long::sum);
+            }
+            if (cell.getPaymentStatus() != null) {
+                addPayment(cell.getPaymentStatus(), count, cell.getAmount());
+            }
+            if (cell.getDay() != null) {
+                byDate.merge(cell.getDay(), count, Long::sum);
+            }
+        }
+
+        // Mỗi dòng order_stats chỉ thuộc một chiều
+        void add(OrderStats stats) {
+            long count = stats.getOrderCount();
+            if (count == 0) {
+                return;
+            }
+            String value = stats.getDimValue();
+            switch (stats.getDimension()) {
+                case all -> totalOrders += count;
+                case order_status -> byStatus.merge(Order.OrderStatus.valueOf(value), count, Long::sum);
+                case payment_method -> byPaymentMethod.merge(Order.PaymentMethod.valueOf(value), count, Long::sum);
+                case payment_status -> addPayment(Order.PaymentStatus.valueOf(value), count, stats.getAmountSum());
+                case created_day -> byDate.merge(LocalDate.parse(value), count, Long::sum);
+            }
+        }
+
+        private void addPayment(Order.PaymentStatus status, long count, BigDecimal amount) {
+            byPaymentStatus.merge(status, new Totals(count, amount),
+                (a, b) -> new Totals(a.count() + b.count(), a.amount().add(b.amount())));
+        }
+
+        Map<String, Object> toMap() {
+            Totals paid = byPaymentStatus.getOrDefault(Order.PaymentStatus.paid, Totals.NONE);
+            Totals pending = byPaymentStatus.getOrDefault(Order.PaymentStatus.pending, Totals.NONE);
+
+            Map<String, Object> summary = new HashMap<>();
+            summary.put("totalOrders", totalOrders);
+            summary.put("confirmedOrders", byStatus.getOrDefault(Order.OrderStatus.confirmed, 0L));
+            summary.put("cancelledOrders", byStatus.getOrDefault(Order.OrderStatus.cancelled, 0L));
+            summary.put("pendingOrders", byStatus.getOrDefault(Order.OrderStatus.created, 0L));
+
+            Map<String, Object> revenue = new HashMap<>();
+            revenue.put("totalRevenue", paid.amount());
+            revenue.put("pendingRevenue", pending.amount());
+            revenue.put("paidOrders", paid.count());
+            revenue.put("pendingPayments", pending.count());
+
+            Map<String, Object> result = new HashMap<>();
+            result.put("summary", summary);
+            result.put("revenue", revenue);
+            result.put("byStatus", byStatus);
+            result.put("byPaymentMethod", byPaymentMethod);
+            result.put("byDate", byDate);
+            return result;
+        }
+    }
+
+    private long totalOrders() {
+        return source == Source.query ? orderRepository.count() : orderAggregates.totalOrders();
+    }
+
+    private Map<Order.OrderStatus, Long> countByOrderStatus() {
+        Map<Order.OrderStatus, Long> counts = new EnumMap<>(Order.OrderStatus.class);
+        if (source == Source.query) {
+            orderRepository.countByOrderStatus().forEach(row -> counts.put(row.getStatus(), row.getCount()));
+        } else {
+            orderAggregates.byDimension(OrderStats.Dimension.order_status)
+                .forEach((status, stats) -> counts.put(Order.OrderStatus.valueOf(status), stats.getOrderCount()));
+        }
+        return counts;
+    }
+
+    private Map<Order.PaymentMethod, Long> countByPaymentMethod() {
+        Map<Order.PaymentMethod, Long> counts = new EnumMap<>(Order.PaymentMethod.class);
+        if (source == Source.query) {
+            orderRepository.countByPaymentMethod().forEach(row -> counts.put(row.getMethod(), row.getCount()));
+        } else {
+            orderAggregates.byDimension(OrderStats.Dimension.payment_method)
+                .forEach((method, stats) -> counts.put(Order.PaymentMethod.valueOf(method), stats.getOrderCount()));
+        }
+        return counts;
+    }
+
+    private Map<Order.PaymentStatus, Totals> sumByPaymentStatus() {
+        Map<Order.PaymentStatus, Totals> totals = new EnumMap<>(Order.PaymentStatus.class);
+        if (source == Source.query) {
+            orderRepository.sumByPaymentStatus()
+                .forEach(row -> totals.put(row.getStatus(), new Totals(row.getCount(), row.getAmount())));
+        } else {
+            orderAggregates.byDimension(OrderStats.Dimension.payment_status)
+                .forEach((status, stats) -> totals.put(Order.PaymentStatus.valueOf(status),
+                    new Totals(stats.getOrderCount(), stats.getAmountSum())));
+        }
+        return totals;
+    }
+
+    // aggregates: theo cả ngày, từ ngày cách đây `days` ngày; query: đúng từ thời điểm now - days
+    private Map<LocalDate, Long> countByDay(int days) {
+        if (source == Source.query) {
+            Map<LocalDate, Long> counts = new TreeMap<>();
+            orderRepository.countByDaySince(LocalDateTime.now().minusDays(days))
+                .forEach(row -> counts.put(row.getDay(), row.getCount()));
+            return counts;
+        }
+        return orderAggregates.countsByDaySince(LocalDate.now().minusDays(days));
+    }
+}
@@ -0,0 +1,284 @@
+package com.example.orders_service.service;
+
+import com.example.orders_service.entity.Order;
+import com.example.orders_service.entity.OrderStats;
+import com.example.orders_service.repository.OrderStatsRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+/**
+ * Analytics counters kept in order_stats and updated incrementally as orders change
+ * (the time-bucketed OrderRollups are updated alongside).
+ *
+ * Every change is applied in the caller's transaction with an atomic upsert, so a counter is
+ * only ever off if an order was written without going through OrderServiceImpl (or the outbox
+ * dispatcher). Each counter is split into orders.stats.shards rows and a change goes to a random
+ * one, so concurrent order writes do not all queue on the row lock of the "all" counter and of
+ * today's created_day counter; reads sum the shards. checkDrift() compares the counters with a
+ * GROUP BY over orders; rebuild() replaces them with it. A drift check runs periodically and can
+ * repair automatically (orders.stats.auto-repair).
+ */
+@Component
+@Slf4j
+public class OrderAggregates {
+
+    private final OrderStatsRepository orderStatsRepository;
+    private final OrderRollups orderRollups;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final boolean autoRepair;
+    private final int shards;
+
+    public OrderAggregates(OrderStatsRepository orderStatsRepository,
+                           OrderRollups orderRollups,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${orders.stats.auto-repair:false}") boolean autoRepair,
+                           @Value("${orders.stats.shards:8}") int shards) {
+        this.orderStatsRepository = orderStatsRepository;
+        this.orderRollups = orderRollups;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.autoRepair = autoRepair;
+        this.shards = Math.max(1, shards);
+    }
+
+    /**
+     * Values an order contributes to each dimension; take one before changing an order.
+     */
+    public record Snapshot(String orderStatus, String paymentStatus, String paymentMethod,
+                           String createdDay, BigDecimal amount,
+                           Integer scheduleRefId, LocalDateTime createdAt) {
+
+        String value(OrderStats.Dimension dimension) {
+            return switch (dimension) {
+                case all -> "";
+                case order_status -> orderStatus;
+                case payment_status -> paymentStatus;
+                case payment_method -> paymentMethod;
+                case created_day -> createdDay;
+            };
+        }
+    }
+
+    /**
+     * A difference between a stored counter and the orders table.
+     */
+    public record Drift(OrderStats.Dimension dimension, String value,
+                        long expectedCount, long actualCount,
+                        BigDecimal expectedAmount, BigDecimal actualAmount) {
+    }
+
+    public static Snapshot snapshot(Order order) {
+        return new Snapshot(
+                order.getOrderStatus() != null ? order.getOrderStatus().name() : null,
+                order.getPaymentStatus() != null ? order.getPaymentStatus().name() : null,
+                order.getPaymentMethod() != null ? order.getPaymentMethod().name() : null,
+                order.getCreatedAt() != null ? order.getCreatedAt().toLocalDate().toString() : null,
+                order.getTotalAmount() != null ? order.getTotalAmount() : BigDecimal.ZERO,
+                order.getScheduleRefId(),
+                order.getCreatedAt());
+    }
+
+    public void recordCreated(Order order) {
+        Snapshot snapshot = snapshot(order);
+        apply(snapshot, 1);
+        orderRollups.record(snapshot, 1);
+    }
+
+    public void recordDeleted(Order order) {
+        Snapshot snapshot = snapshot(order);
+        apply(snapshot, -1);
+        orderRollups.record(snapshot, -1);
+    }
+
+    /**
+     * Moves the order from the values in {@code before} to its current ones; dimensions whose
+     * value did not change are not touched.
+     */
+    public void recordChanged(Snapshot before, Order order) {
+        Snapshot after = snapshot(order);
+        boolean sameAmount = before.amount().compareTo(after.amount()) == 0;
+        int shard = pickShard();
+        // Thứ tự cố định theo enum để các transaction khóa các dòng order_stats cùng thứ tự
+        for (OrderStats.Dimension dimension : OrderStats.Dimension.values()) {
+            String oldValue = before.value(dimension);
+            String newValue = after.value(dimension);
+            if (sameAmount && Objects.equals(oldValue, newValue)) {
+                continue;
+            }
+            if (oldValue != null) {
+                orderStatsRepository.increment(dimension.name(), oldValue, shard, -1, before.amount().negate());
+            }
+            if (newValue != null) {
+                orderStatsRepository.increment(dimension.name(), newValue, shard, 1, after.amount());
+            }
+        }
+        orderRollups.recordChanged(before, after);
+    }
+
+    private void apply(Snapshot snapshot, int sign) {
+        BigDecimal amount = sign < 0 ? snapshot.amount().negate() : snapshot.amount();
+        int shard = pickShard();
+        for (OrderStats.Dimension dimension : OrderStats.Dimension.values()) {
+            String value = snapshot.value(dimension);
+            if (value != null) {
+                orderStatsRepository.increment(dimension.name(), value, shard, sign, amount);
+            }
+        }
+    }
+
+    // Một shard cho mọi dòng của một thay đổi: các dòng vẫn bị khóa theo thứ tự chiều cố định
+    private int pickShard() {
+        return shards == 1 ? 0 : ThreadLocalRandom.current().nextInt(shards);
+    }
+
+    public long count(OrderStats.Dimension dimension, String value) {
+        return orderStatsRepository.sum(dimension, value)
+                .map(OrderStatsRepository.Total::getOrderCount)
+                .orElse(0L);
+    }
+
+    public BigDecimal amount(OrderStats.Dimension dimension, String value) {
+        return orderStatsRepository.sum(dimension, value)
+                .map(OrderStatsRepository.Total::getAmountSum)
+                .orElse(BigDecimal.ZERO);
+    }
+
+    public long totalOrders() {
+        return count(OrderStats.Dimension.all, "");
+    }
+
+    /**
+     * All counters (shards summed), read in one query.
+     */
+    public List<OrderStats> all() {
+        return orderStatsRepository.sumAll().stream().map(OrderAggregates::toStats).toList();
+    }
+
+    /**
+     * Non-zero counters of one dimension, keyed by value.
+     */
+    public Map<String, OrderStats> byDimension(OrderStats.Dimension dimension) {
+        return orderStatsRepository.sumByDimension(dimension).stream()
+                .filter(s -> s.getOrderCount() != 0)
+                .map(OrderAggregates::toStats)
+                .collect(Collectors.toMap(OrderStats::getDimValue, s -> s));
+    }
+
+    /**
+     * Order counts per creation day from {@code from} (inclusive) onwards.
+     */
+    public Map<LocalDate, Long> countsByDaySince(LocalDate from) {
+        return orderStatsRepository
+                .sumByDimensionFrom(OrderStats.Dimension.created_day, from.toString())
+                .stream()
+                .filter(s -> s.getOrderCount() != 0)
+                .collect(Collectors.toMap(s -> LocalDate.parse(s.getDimValue()), OrderStatsRepository.Total::getOrderCount));
+    }
+
+    /**
+     * Replaces all counters with values recomputed from the orders table.
+     * Order writes wait until the rebuild commits, so no change is lost or counted twice.
+     *
+     * @return number of counter rows written
+     */
+    public int rebuild() {
+        Integer rows = transactionTemplate.execute(status -> {
+            orderStatsRepository.lockOrdersForShare();
+            orderStatsRepository.deleteAllInBatch();
+            return orderStatsRepository.insertRecomputed();
+        });
+        log.info("Rebuilt order_stats from orders: {} counters", rows);
+        return rows != null ? rows : 0;
+    }
+
+    /**
+     * Compares the stored counters with the orders table. Both are read in one read-only
+     * transaction, so they come from the same snapshot.
+     */
+    public List<Drift> checkDrift() {
+        return readOnlyTransaction.execute(status -> {
+            Map<String, OrderStatsRepository.StatsRow> expected = new HashMap<>();
+            orderStatsRepository.recompute().forEach(row -> expected.put(key(row.getDimension(), row.getDimValue()), row));
+            Map<String, OrderStatsRepository.Total> actual = new HashMap<>();
+            orderStatsRepository.sumAll().forEach(s -> actual.put(key(s.getDimension().name(), s.getDimValue()), s));
+
+            Set<String> keys = new HashSet<>(expected.keySet());
+            keys.addAll(actual.keySet());
+            List<Drift> drift = new ArrayList<>();
+            for (String key : keys) {
+                OrderStatsRepository.StatsRow e = expected.get(key);
+                OrderStatsRepository.Total a = actual.get(key);
+                long expectedCount = e != null ? e.getOrderCount() : 0;
+                long actualCount = a != null ? a.getOrderCount() : 0;
+                BigDecimal expectedAmount = e != null ? e.getAmountSum() : BigDecimal.ZERO;
+                BigDecimal actualAmount = a != null ? a.getAmountSum() : BigDecimal.ZERO;
+                if (expectedCount != actualCount || expectedAmount.compareTo(actualAmount) != 0) {
+                    String[] parts = key.split("\\|", 2);
+                    drift.add(new Drift(OrderStats.Dimension.valueOf(parts[0]), parts[1],
+                            expectedCount, actualCount, expectedAmount, actualAmount));
+                }
+            }
+            return drift;
+        });
+    }
+
+    // Lần đầu triển khai: order cũ có trước bảng order_stats
+    // Lỗi rebuild không được chặn service nhận order: log lại, rebuild tay sau
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        if (orderStatsRepository.count() == 0) {
+            try {
+                rebuild();
+            } catch (RuntimeException e) {
+                log.error("Could not build order_stats at startup; rebuild with POST /api/analytics/aggregates/rebuild", e);
+            }
+        }
+    }
+
+    @Scheduled(initialDelayString = "${orders.stats.drift-check-interval-ms:3600000}",
+            fixedDelayString = "${orders.stats.drift-check-interval-ms:3600000}")
+    public void verify() {
+        List<Drift> drift = checkDrift();
+        if (drift.isEmpty()) {
+            return;
+        }
+        log.warn("order_stats drifted from orders on {} counters, e.g. {}", drift.size(), drift.get(0));
+        if (autoRepair) {
+            rebuild();
+        }
+    }
+
+    private static OrderStats toStats(OrderStatsRepository.Total total) {
+        OrderStats stats = new OrderStats();
+        stats.setDimension(total.getDimension());
+        stats.setDimValue(total.getDimValue());
+        stats.setOrderCount(total.getOrderCount());
+        stats.setAmountSum(total.getAmountSum());
+        return stats;
+    }
+
+    private static String key(String dimension, String value) {
+        return dimension + "|" + value;
+    }
+}
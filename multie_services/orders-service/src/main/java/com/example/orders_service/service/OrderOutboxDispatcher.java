@@ -0,0 +1,186 @@
+package com.example.orders_service.service;
+
+import com.example.orders_service.client.TicketsServiceClient;
+import com.example.orders_service.entity.Order;
+import com.example.orders_service.entity.OrderOutbox;
+import com.example.orders_service.exception.ServiceUnavailableException;
+import com.example.orders_service.repository.OrderOutboxRepository;
+import com.example.orders_service.repository.OrderRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Delivers ticket quantity changes recorded in order_outbox to the Tickets Service.
+ *
+ * Runs outside any transaction, so no database connection is held while waiting on HTTP.
+ * Transient failures are retried with exponential backoff; every attempt carries the entry's
+ * idempotency key, so a call that succeeded but whose response was lost is not applied twice.
+ * Only the Tickets Service's 409 (not enough tickets) to a decrease is permanent; any other
+ * error (including 400, 401/403 from an expired service identity, 404 and 429) is retried.
+ *
+ * An entry that is rejected or runs out of attempts fails together with the later entries of its
+ * order, so an increase is never delivered after a decrease that did not go through. If the failed
+ * entry is a decrease, the order has no seats and is cancelled; a paid order is left as
+ * refund_pending for the refund step, since no money has been returned yet.
+ */
+@Component
+@Slf4j
+public class OrderOutboxDispatcher {
+
+    private final OrderOutboxRepository outboxRepository;
+    private final OrderRepository orderRepository;
+    private final TicketsServiceClient ticketsServiceClient;
+    private final TransactionTemplate transactionTemplate;
+    private final OrderAggregates orderAggregates;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+
+    public OrderOutboxDispatcher(OrderOutboxRepository outboxRepository,
+                                 OrderRepository orderRepository,
+                                 TicketsServiceClient ticketsServiceClient,
+                                 TransactionTemplate transactionTemplate,
+                                 OrderAggregates orderAggregates,
+                                 @Value("${orders.outbox.batch-size:100}") int batchSize,
+                                 @Value("${orders.outbox.max-attempts:10}") int maxAttempts,
+                                 @Value("${orders.outbox.initial-backoff-ms:1000}") long initialBackoffMs,
+                                 @Value("${orders.outbox.max-backoff-ms:300000}") long maxBackoffMs) {
+        this.outboxRepository = outboxRepository;
+        this.orderRepository = orderRepository;
+        this.ticketsServiceClient = ticketsServiceClient;
+        this.transactionTemplate = transactionTemplate;
+        this.orderAggregates = orderAggregates;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = Duration.ofMillis(initialBackoffMs);
+        this.maxBackoff = Duration.ofMillis(maxBackoffMs);
+    }
+
+    @Scheduled(fixedDelayString = "${orders.outbox.poll-interval-ms:500}")
+    public void dispatch() {
+        List<OrderOutbox> due = outboxRepository.findDue(
+                OrderOutbox.Status.pending, LocalDateTime.now(), PageRequest.of(0, batchSize));
+        for (OrderOutbox entry : due) {
+            // Keep per-order ordering: an increase must not overtake a decrease still being retried
+            if (outboxRepository.existsByOrderIdAndStatusAndIdLessThan(
+                    entry.getOrderId(), OrderOutbox.Status.pending, entry.getId())) {
+                continue;
+            }
+            // An earlier change of the order failed: this one must not be applied on its own
+            if (outboxRepository.existsByOrderIdAndStatusAndIdLessThan(
+                    entry.getOrderId(), OrderOutbox.Status.failed, entry.getId())) {
+                giveUp(entry, "An earlier change of order " + entry.getOrderId() + " failed");
+                continue;
+            }
+            deliver(entry);
+        }
+    }
+
+    private void deliver(OrderOutbox entry) {
+        try {
+            if (entry.getEventType() == OrderOutbox.EventType.decrease_quantity) {
+                ticketsServiceClient.decreaseTicketQuantity(
+                        entry.getTicketRefId(), entry.getQuantity(), entry.getIdempotencyKey());
+            } else {
+                ticketsServiceClient.increaseTicketQuantity(
+                        entry.getTicketRefId(), entry.getQuantity(), entry.getIdempotencyKey());
+            }
+        } catch (ServiceUnavailableException e) {
+            if (isRejected(entry, e)) {
+                log.error("Tickets Service rejected outbox entry {} ({} for order {}): {}",
+                        entry.getId(), entry.getEventType(), entry.getOrderId(), e.getCause().getMessage());
+                entry.setAttempts(entry.getAttempts() + 1);
+                giveUp(entry, e.getCause().getMessage());
+            } else {
+                scheduleRetry(entry, e);
+            }
+            return;
+        }
+
+        entry.setStatus(OrderOutbox.Status.sent);
+        entry.setSentAt(LocalDateTime.now());
+        entry.setAttempts(entry.getAttempts() + 1);
+        entry.setLastError(null);
+        outboxRepository.save(entry);
+    }
+
+    // Chỉ "không đủ vé" (409) khi giữ vé là vĩnh viễn; 400/401/403/404/429... có thể hết khi retry
+    private boolean isRejected(OrderOutbox entry, ServiceUnavailableException error) {
+        return entry.getEventType() == OrderOutbox.EventType.decrease_quantity
+                && error.getCause() instanceof HttpClientErrorException clientError
+                && clientError.getStatusCode() == HttpStatus.CONFLICT;
+    }
+
+    private void scheduleRetry(OrderOutbox entry, RuntimeException error) {
+        int attempts = entry.getAttempts() + 1;
+        entry.setAttempts(attempts);
+        if (attempts >= maxAttempts) {
+            log.error("Giving up on outbox entry {} ({} for order {}) after {} attempts. Manual intervention required.",
+                    entry.getId(), entry.getEventType(), entry.getOrderId(), attempts);
+            giveUp(entry, error.getMessage());
+            return;
+        }
+        entry.setLastError(truncate(error.getMessage()));
+        entry.setNextAttemptAt(LocalDateTime.now().plus(backoff(attempts)));
+        log.warn("Outbox entry {} ({} for order {}) failed, attempt {}. Retrying at {}",
+                entry.getId(), entry.getEventType(), entry.getOrderId(), attempts, entry.getNextAttemptAt());
+        outboxRepository.save(entry);
+    }
+
+    // Entry không gửi được nữa: fail nó cùng các event sau của order; decrease không qua thì hủy order
+    private void giveUp(OrderOutbox entry, String reason) {
+        transactionTemplate.executeWithoutResult(status -> {
+            entry.setStatus(OrderOutbox.Status.failed);
+            entry.setLastError(truncate(reason));
+            outboxRepository.save(entry);
+
+            if (entry.getEventType() == OrderOutbox.EventType.decrease_quantity) {
+                cancelUnreservedOrder(entry.getOrderId());
+            }
+            outboxRepository.failPending(entry.getOrderId(),
+                    "Outbox entry " + entry.getId() + " of this order failed");
+        });
+    }
+
+    // Không giữ được vé: hủy order; các event sau của order (vd. trả vé) không còn gì để trả.
+    // Tiền chưa được hoàn: order đã trả tiền chờ bước hoàn tiền (refund_pending), không ghi là refunded
+    private void cancelUnreservedOrder(Integer orderId) {
+        orderRepository.findById(orderId).ifPresent(order -> {
+            if (order.getOrderStatus() == Order.OrderStatus.cancelled) {
+                return;
+            }
+            OrderAggregates.Snapshot before = OrderAggregates.snapshot(order);
+            order.setOrderStatus(Order.OrderStatus.cancelled);
+            if (order.getPaymentStatus() == Order.PaymentStatus.paid) {
+                order.setPaymentStatus(Order.PaymentStatus.refund_pending);
+            }
+            orderRepository.save(order);
+            orderAggregates.recordChanged(before, order);
+            log.warn("Order {} of user {} cancelled because its tickets could not be reserved; payment status {}",
+                    orderId, order.getUserRefId(), order.getPaymentStatus());
+        });
+    }
+
+    private Duration backoff(int attempts) {
+        Duration delay = initialBackoff.multipliedBy(1L << Math.min(attempts - 1, 20));
+        return delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay;
+    }
+
+    private String truncate(String message) {
+        if (message == null) {
+            return null;
+        }
+        return message.length() > 500 ? message.substring(0, 500) : message;
+    }
+}
@@ -0,0 +1,183 @@
+package com.example.orders_service.service;
+
+import com.example.orders_service.entity.OrderRollup;
+import com.example.orders_service.repository.OrderRollupRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/**
+ * Order count and paid revenue per time bucket, payment method and schedule (order_rollups).
+ *
+ * Order changes are added to the hour the order was created in. The compactor folds hourly rows
+ * older than hourly-retention into daily rows and daily rows older than daily-retention into
+ * monthly rows. Rows are additive, so a late change to an old order simply lands in a new hourly
+ * row that the next compaction folds in, and a range query sums whatever granularities cover it:
+ * a year at day resolution reads a few hundred rows per payment method and schedule.
+ */
+@Component
+@Slf4j
+public class OrderRollups {
+
+    private static final String DAY_FORMAT = "%Y-%m-%d 00:00:00";
+    private static final String MONTH_FORMAT = "%Y-%m-01 00:00:00";
+
+    private final OrderRollupRepository orderRollupRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final long hourlyRetentionHours;
+    private final long dailyRetentionDays;
+
+    public OrderRollups(OrderRollupRepository orderRollupRepository,
+                        PlatformTransactionManager transactionManager,
+                        @Value("${orders.rollups.hourly-retention-hours:48}") long hourlyRetentionHours,
+                        @Value("${orders.rollups.daily-retention-days:90}") long dailyRetentionDays) {
+        this.orderRollupRepository = orderRollupRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.hourlyRetentionHours = hourlyRetentionHours;
+        this.dailyRetentionDays = dailyRetentionDays;
+    }
+
+    public record Point(LocalDateTime bucket, long orders, BigDecimal revenue) {
+    }
+
+    /**
+     * Adds ({@code sign} = 1) or removes ({@code sign} = -1) an order's contribution.
+     */
+    public void record(OrderAggregates.Snapshot order, int sign) {
+        if (order.createdAt() == null) {
+            return;
+        }
+        BigDecimal revenue = paidRevenue(order);
+        orderRollupRepository.incrementHour(hour(order), method(order), order.scheduleRefId(),
+                sign, sign < 0 ? revenue.negate() : revenue);
+    }
+
+    public void recordChanged(OrderAggregates.Snapshot before, OrderAggregates.Snapshot after) {
+        boolean sameBucket = Objects.equals(before.createdAt(), after.createdAt())
+                && Objects.equals(before.paymentMethod(), after.paymentMethod())
+                && Objects.equals(before.scheduleRefId(), after.scheduleRefId());
+        if (sameBucket && paidRevenue(before).compareTo(paidRevenue(after)) == 0) {
+            return;
+        }
+        if (sameBucket && after.createdAt() != null) {
+            // Chỉ đổi doanh thu (vd. paid -> refunded): một lần cập nhật
+            orderRollupRepository.incrementHour(hour(after), method(after), after.scheduleRefId(),
+                    0, paidRevenue(after).subtract(paidRevenue(before)));
+            return;
+        }
+        record(before, -1);
+        record(after, 1);
+    }
+
+    /**
+     * Buckets overlapping [from, to), summed per bucket of the requested granularity.
+     * Periods already compacted to a coarser granularity are reported at their own bucket start.
+     */
+    public List<Point> timeseries(LocalDateTime from, LocalDateTime to, OrderRollup.Granularity granularity,
+                                  String paymentMethod, Integer scheduleId) {
+        // Dòng tháng/ngày bắt đầu trước `from` vẫn có thể phủ một phần khoảng cần lấy
+        LocalDateTime queryFrom = truncate(from, OrderRollup.Granularity.month);
+        Map<LocalDateTime, Point> points = new TreeMap<>();
+        for (OrderRollup row : orderRollupRepository.findRange(queryFrom, to, paymentMethod, scheduleId)) {
+            if (!end(row).isAfter(from)) {
+                continue;
+            }
+            LocalDateTime bucket = truncate(row.getBucketStart(), granularity);
+            points.merge(bucket, new Point(bucket, row.getOrderCount(), row.getPaidRevenue()),
+                    (a, b) -> new Point(bucket, a.orders() + b.orders(), a.revenue().add(b.revenue())));
+        }
+        return new ArrayList<>(points.values());
+    }
+
+    @Scheduled(initialDelayString = "${orders.rollups.compact-interval-ms:3600000}",
+            fixedDelayString = "${orders.rollups.compact-interval-ms:3600000}")
+    public void compact() {
+        LocalDateTime now = LocalDateTime.now();
+        // Chỉ gộp trọn ngày / trọn tháng
+        LocalDateTime hourCutoff = now.minusHours(hourlyRetentionHours).truncatedTo(ChronoUnit.DAYS);
+        LocalDateTime dayCutoff = truncate(now.minusDays(dailyRetentionDays), OrderRollup.Granularity.month);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            orderRollupRepository.foldInto("hour", "day", DAY_FORMAT, hourCutoff);
+            int hours = orderRollupRepository.deleteBefore(OrderRollup.Granularity.hour, hourCutoff);
+            orderRollupRepository.foldInto("day", "month", MONTH_FORMAT, dayCutoff);
+            int days = orderRollupRepository.deleteBefore(OrderRollup.Granularity.day, dayCutoff);
+            if (hours > 0 || days > 0) {
+                log.info("Compacted order rollups: {} hourly rows before {}, {} daily rows before {}",
+                        hours, hourCutoff, days, dayCutoff);
+            }
+        });
+    }
+
+    /**
+     * Recomputes the hourly rollups from the orders table, then compacts them.
+     * Order writes wait until the rebuild commits.
+     *
+     * @return number of hourly rows recomputed
+     */
+    public int rebuild() {
+        Integer rows = transactionTemplate.execute(status -> {
+            orderRollupRepository.lockOrdersForShare();
+            orderRollupRepository.deleteAllInBatch();
+            return orderRollupRepository.insertHoursFromOrders();
+        });
+        compact();
+        log.info("Rebuilt order rollups from orders: {} hourly rows", rows);
+        return rows != null ? rows : 0;
+    }
+
+    // Lần đầu triển khai: order cũ có trước bảng order_rollups
+    // Lỗi rebuild không được chặn service nhận order: log lại, rebuild tay sau
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        if (orderRollupRepository.count() == 0) {
+            try {
+                rebuild();
+            } catch (RuntimeException e) {
+                log.error("Could not build order_rollups at startup; rebuild with POST /api/analytics/rollups/rebuild", e);
+            }
+        }
+    }
+
+    private static BigDecimal paidRevenue(OrderAggregates.Snapshot order) {
+        return "paid".equals(order.paymentStatus()) ? order.amount() : BigDecimal.ZERO;
+    }
+
+    private static LocalDateTime hour(OrderAggregates.Snapshot order) {
+        return order.createdAt().truncatedTo(ChronoUnit.HOURS);
+    }
+
+    private static String method(OrderAggregates.Snapshot order) {
+        return order.paymentMethod() != null ? order.paymentMethod() : "";
+    }
+
+    private static LocalDateTime truncate(LocalDateTime time, OrderRollup.Granularity granularity) {
+        return switch (granularity) {
+            case hour -> time.truncatedTo(ChronoUnit.HOURS);
+            case day -> time.truncatedTo(ChronoUnit.DAYS);
+            case month -> time.truncatedTo(ChronoUnit.DAYS).withDayOfMonth(1);
+        };
+    }
+
+    private static LocalDateTime end(OrderRollup row) {
+        return switch (row.getGranularity()) {
+            case hour -> row.getBucketStart().plusHours(1);
+            case day -> row.getBucketStart().plusDays(1);
+            case month -> row.getBucketStart().plusMonths(1);
+        };
+    }
+}
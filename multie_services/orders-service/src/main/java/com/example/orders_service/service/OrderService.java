@@ -1,5 +1,6 @@
 package com.example.orders_service.service;
 
+import com.example.common.web.CursorPage;
 import com.example.orders_service.dto.OrderRequest;
 import com.example.orders_service.dto.OrderResponse;
 
@@ -7,7 +8,9 @@ import java.util.List;
 
 public interface OrderService {
     OrderResponse createOrder(OrderRequest request);
-    List<OrderResponse> getAllOrders();
+    // GET danh sách cũ (deprecated): chỉ LegacyList.MAX_ROWS dòng đầu, hasNext = còn dòng bị bỏ
+    CursorPage<OrderResponse> getAllOrders();
+    CursorPage<OrderResponse> getOrdersPage(String cursor, int size);
     OrderResponse getOrderById(Integer id);
     void deleteOrder(Integer id);
     OrderResponse confirmPayment(Integer id);
@@ -0,0 +1,96 @@
+package com.example.orders_service.service;
+
+import com.example.orders_service.client.ScheduleServiceClient;
+import com.example.orders_service.dto.ScheduleResponse;
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Function;
+
+/**
+ * Local cache of schedules used for order snapshots, in front of ScheduleServiceClient.
+ *
+ * Bounded by size with W-TinyLFU eviction. After refresh-after the next read still returns the
+ * cached schedule and reloads it in the background (stale-while-revalidate); if the reload fails
+ * the old value is kept until expire-after. Schedules Service calls the invalidation endpoint when
+ * a schedule is updated or deleted. Hit/miss/eviction counters are published as cache.* metrics
+ * with cache=orders.schedules.
+ *
+ * The cache holds futures, so a load in progress is an entry too. An invalidation that arrives
+ * while a schedule is being fetched drops that load, and its (possibly stale) result is never
+ * stored.
+ */
+@Component
+@Slf4j
+public class ScheduleCache {
+
+    private final AsyncLoadingCache<Integer, ScheduleResponse> cache;
+
+    public ScheduleCache(ScheduleServiceClient scheduleServiceClient,
+                         ExecutorService lookupExecutor,
+                         MeterRegistry meterRegistry,
+                         @Value("${orders.schedule-cache.max-size:10000}") long maxSize,
+                         @Value("${orders.schedule-cache.refresh-after-seconds:60}") long refreshAfterSeconds,
+                         @Value("${orders.schedule-cache.expire-after-seconds:600}") long expireAfterSeconds) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .refreshAfterWrite(Duration.ofSeconds(refreshAfterSeconds))
+                .expireAfterWrite(Duration.ofSeconds(expireAfterSeconds))
+                .executor(lookupExecutor)
+                .recordStats()
+                .buildAsync(scheduleServiceClient::getSchedule);
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "orders.schedules");
+    }
+
+    /**
+     * Returns the schedule, loading it from Schedules Service on a miss.
+     * Concurrent misses for the same id share one remote call.
+     *
+     * @throws RuntimeException the client's exception (e.g. ServiceUnavailableException) if the load fails
+     */
+    public ScheduleResponse get(Integer scheduleId) {
+        CompletableFuture<ScheduleResponse> load = cache.get(scheduleId);
+        try {
+            return load.join();
+        } catch (CompletionException e) {
+            dropFailed(scheduleId, load);
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    /**
+     * Returns the schedule, loading it with the given reactive call on a miss. The load is shared
+     * with concurrent callers and is not cancelled when one of them gives up (e.g. on a timeout).
+     */
+    public Mono<ScheduleResponse> get(Integer scheduleId, Function<Integer, Mono<ScheduleResponse>> loader) {
+        return Mono.defer(() -> {
+            CompletableFuture<ScheduleResponse> load = cache.get(scheduleId, (id, executor) -> loader.apply(id).toFuture());
+            return Mono.fromFuture(load, true).doOnError(e -> dropFailed(scheduleId, load));
+        });
+    }
+
+    // Caffeine chỉ bỏ future lỗi sau khi callback hoàn tất của nó chạy; bỏ ngay để lần gọi kế tiếp tải lại
+    private void dropFailed(Integer scheduleId, CompletableFuture<ScheduleResponse> load) {
+        cache.asMap().remove(scheduleId, load);
+    }
+
+    public void invalidate(Integer scheduleId) {
+        cache.synchronous().invalidate(scheduleId);
+        log.info("Invalidated cached schedule {}", scheduleId);
+    }
+
+    public void invalidateAll() {
+        cache.synchronous().invalidateAll();
+        log.info("Invalidated all cached schedules");
+    }
+}
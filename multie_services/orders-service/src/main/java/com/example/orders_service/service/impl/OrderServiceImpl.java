@@ -1,7 +1,11 @@
 package com.example.orders_service.service.impl;
 
+import com.example.common.web.CursorPage;
+import com.example.common.web.LegacyList;
 import com.example.orders_service.client.PaymentServiceClient;
-import com.example.orders_service.client.ScheduleServiceClient;
+import com.example.orders_service.client.ReactivePaymentServiceClient;
+import com.example.orders_service.client.ReactiveScheduleServiceClient;
+import com.example.orders_service.client.ReactiveTicketsServiceClient;
 import com.example.orders_service.client.TicketsServiceClient;
 import com.example.orders_service.dto.OrderRequest;
 import com.example.orders_service.dto.OrderResponse;
@@ -10,26 +14,46 @@ import com.example.orders_service.dto.PaymentResponse;
 import com.example.orders_service.dto.ScheduleResponse;
 import com.example.orders_service.dto.TicketResponse;
 import com.example.orders_service.entity.Order;
+import com.example.orders_service.entity.OrderOutbox;
 import com.example.orders_service.exception.InsufficientTicketsException;
 import com.example.orders_service.exception.NotFoundException;
 import com.example.orders_service.exception.ServiceUnavailableException;
 import com.example.orders_service.exception.ValidationException;
+import com.example.orders_service.repository.OrderOutboxRepository;
 import com.example.orders_service.repository.OrderRepository;
+import com.example.orders_service.service.OrderAggregates;
 import com.example.orders_service.service.OrderService;
+import com.example.orders_service.service.ScheduleCache;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.client.RestClientException;
+import reactor.core.publisher.Mono;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Service
@@ -38,31 +62,47 @@ import java.util.stream.Collectors;
 public class OrderServiceImpl implements OrderService {
 
     private final OrderRepository orderRepository;
+    private final OrderOutboxRepository orderOutboxRepository;
+    private final TransactionTemplate transactionTemplate;
     private final TicketsServiceClient ticketsServiceClient;
     private final PaymentServiceClient paymentServiceClient;
-    private final ScheduleServiceClient scheduleServiceClient;
+    private final ScheduleCache scheduleCache;
+    private final OrderAggregates orderAggregates;
     private final ObjectMapper objectMapper;
-
+    private final ExecutorService lookupExecutor;
+    // Chỉ có khi orders.clients.reactive.enabled=true
+    private final ObjectProvider<ReactiveTicketsServiceClient> reactiveTicketsClient;
+    private final ObjectProvider<ReactiveScheduleServiceClient> reactiveScheduleClient;
+    private final ObjectProvider<ReactivePaymentServiceClient> reactivePaymentClient;
+    private final MeterRegistry meterRegistry;
+
+    // Deadline chung cho các lookup song song trong createOrder
+    @Value("${orders.lookup.timeout-ms:5000}")
+    private long lookupTimeoutMs;
+
+    // Không dùng @Transactional: các lời gọi Tickets/Schedules ở bước 1-5 chạy khi chưa giữ DB connection,
+    // chỉ bước 7 (lưu order + outbox) mới mở transaction
     @Override
-    @Transactional
     public OrderResponse createOrder(OrderRequest request) {
         log.info("Creating order for user: {}, ticket: {}, quantity: {}", 
                 request.getUserRefId(), request.getTicketTypeRefId(), request.getQuantity());
 
-        // Step 1: Get ticket information from Tickets Service
-        TicketResponse ticket;
-        try {
-            ticket = ticketsServiceClient.getTicket(request.getTicketTypeRefId());
-        } catch (RestClientException e) {
-            log.error("Failed to fetch ticket information: {}", e.getMessage());
-            throw new ServiceUnavailableException("Tickets service is temporarily unavailable", e);
-        }
-
-        // Step 2: Validate requested quantity against available quantity (Property 2)
+        // Step 1: Validate requested quantity before any remote call
         if (request.getQuantity() == null || request.getQuantity() <= 0) {
             throw new ValidationException("Quantity must be greater than 0");
         }
 
+        // Step 2: Fetch ticket (Tickets Service) and schedule (Schedules Service) concurrently.
+        // The lookups are independent, so order latency is the slower of the two, not their sum.
+        ReactiveTicketsServiceClient reactiveTickets = reactiveTicketsClient.getIfAvailable();
+        ReactiveScheduleServiceClient reactiveSchedules = reactiveScheduleClient.getIfAvailable();
+        OrderLookups lookups = reactiveTickets != null && reactiveSchedules != null
+                ? lookupReactive(request, reactiveTickets, reactiveSchedules)
+                : lookupOnVirtualThreads(request);
+        TicketResponse ticket = lookups.ticket();
+        ScheduleResponse schedule = lookups.schedule();
+
+        // Validate requested quantity against available quantity (Property 2)
         if (ticket.getAvailableQuantity() == null || request.getQuantity() > ticket.getAvailableQuantity()) {
             throw new InsufficientTicketsException(
                 String.format("Insufficient tickets available. Requested: %d, Available: %d", 
@@ -96,18 +136,11 @@ public class OrderServiceImpl implements OrderService {
             }
         }
 
-        // Step 5: Fetch schedule information and create snapshot (Property 20)
+        // Step 5: Create schedule snapshot from the schedule fetched in step 2 (Property 20)
         String scheduleInfoSnapshot = null;
-        if (request.getScheduleRefId() != null) {
-            try {
-                ScheduleResponse schedule = scheduleServiceClient.getSchedule(request.getScheduleRefId());
-                scheduleInfoSnapshot = createScheduleSnapshot(schedule);
-                log.info("Successfully created schedule snapshot for scheduleId: {}", request.getScheduleRefId());
-            } catch (RestClientException e) {
-                log.error("Failed to fetch schedule information for scheduleId: {}. Error: {}", 
-                        request.getScheduleRefId(), e.getMessage());
-                throw new ServiceUnavailableException("Schedules service is temporarily unavailable. Cannot create order at this time.", e);
-            }
+        if (schedule != null) {
+            scheduleInfoSnapshot = createScheduleSnapshot(schedule);
+            log.info("Successfully created schedule snapshot for scheduleId: {}", request.getScheduleRefId());
         }
 
         // Step 6: Create order entity
@@ -138,30 +171,32 @@ public class OrderServiceImpl implements OrderService {
         order.setConfirmedAt(LocalDateTime.now());
         order.setCreatedAt(LocalDateTime.now());
 
-        // Step 7: Save order to database
-        Order savedOrder = orderRepository.save(order);
+        // Step 7: Save order and the ticket quantity decrease (Property 4) in one transaction.
+        // OrderOutboxDispatcher delivers the decrease; if Tickets Service rejects it the order is cancelled.
+        Order savedOrder = transactionTemplate.execute(status -> {
+            Order saved = orderRepository.save(order);
+            enqueueQuantityChange(saved, OrderOutbox.EventType.decrease_quantity);
+            orderAggregates.recordCreated(saved);
+            return saved;
+        });
         log.info("Order created and confirmed with ID: {}, Confirmation code: {}", 
                 savedOrder.getId(), savedOrder.getConfirmationCode());
 
-        // Step 8: Decrease ticket quantity (Property 4)
-        // Implement compensation logic - if this fails, the transaction will rollback
-        try {
-            ticketsServiceClient.decreaseTicketQuantity(request.getTicketTypeRefId(), request.getQuantity());
-            log.info("Successfully decreased ticket quantity for ticket: {}", request.getTicketTypeRefId());
-        } catch (RestClientException e) {
-            log.error("Failed to decrease ticket quantity, rolling back order creation: {}", e.getMessage());
-            // Transaction will automatically rollback the order creation
-            throw new ServiceUnavailableException("Failed to reserve tickets. Order creation cancelled.", e);
-        }
-
         return mapToResponse(savedOrder);
     }
 
     @Override
-    public List<OrderResponse> getAllOrders() {
-        return orderRepository.findAll().stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+    public CursorPage<OrderResponse> getAllOrders() {
+        return CursorPage.of(
+                orderRepository.findByIdGreaterThanOrderByIdAsc(0, LegacyList.firstRows()),
+                this::mapToResponse, Order::getId);
+    }
+
+    @Override
+    public CursorPage<OrderResponse> getOrdersPage(String cursor, int size) {
+        return CursorPage.of(
+                orderRepository.findByIdGreaterThanOrderByIdAsc(CursorPage.afterIntId(cursor), CursorPage.limit(size)),
+                this::mapToResponse, Order::getId);
     }
 
     @Override
@@ -172,11 +207,12 @@ public class OrderServiceImpl implements OrderService {
     }
 
     @Override
+    @Transactional
     public void deleteOrder(Integer id) {
-        if (!orderRepository.existsById(id)) {
-            throw new NotFoundException("Không tìm thấy giao dịch để xóa với id: " + id);
-        }
-        orderRepository.deleteById(id);
+        Order order = orderRepository.findById(id)
+                .orElseThrow(() -> new NotFoundException("Không tìm thấy giao dịch để xóa với id: " + id));
+        orderRepository.delete(order);
+        orderAggregates.recordDeleted(order);
     }
 
     @Override
@@ -203,6 +239,8 @@ public class OrderServiceImpl implements OrderService {
             );
         }
 
+        OrderAggregates.Snapshot before = OrderAggregates.snapshot(order);
+
         // Step 3: Process payment (call Payment Service)
         PaymentRequest paymentRequest = new PaymentRequest();
         paymentRequest.setOrderId(id);
@@ -212,7 +250,10 @@ public class OrderServiceImpl implements OrderService {
 
         PaymentResponse paymentResponse;
         try {
-            paymentResponse = paymentServiceClient.processPayment(paymentRequest);
+            ReactivePaymentServiceClient reactivePayment = reactivePaymentClient.getIfAvailable();
+            paymentResponse = reactivePayment != null
+                    ? reactivePayment.processPayment(paymentRequest).block()
+                    : paymentServiceClient.processPayment(paymentRequest);
         } catch (RestClientException e) {
             log.error("Failed to process payment for order: {}. Error: {}", id, e.getMessage());
             throw new ServiceUnavailableException("Payment service is temporarily unavailable", e);
@@ -245,30 +286,150 @@ public class OrderServiceImpl implements OrderService {
             log.warn("Payment failed for order: {}. Status: {}, Message: {}", 
                     id, paymentResponse.getStatus(), paymentResponse.getMessage());
             
-            // Payment FAILED: restore ticket quantity (call TicketsServiceClient)
-            try {
-                ticketsServiceClient.increaseTicketQuantity(
-                    order.getTicketTypeRefId(), 
-                    order.getQuantity()
-                );
-                log.info("Successfully restored ticket quantity for failed payment. Order: {}, Ticket: {}", 
-                        id, order.getTicketTypeRefId());
-            } catch (RestClientException e) {
-                log.error("Failed to restore ticket quantity after payment failure for order: {}. Error: {}", 
-                        id, e.getMessage());
-                // Continue with order update even if quantity restoration fails
-                // This should be handled by a compensation mechanism or manual intervention
-            }
+            // Payment FAILED: restore ticket quantity (delivered by OrderOutboxDispatcher with retry)
+            enqueueQuantityChange(order, OrderOutbox.EventType.increase_quantity);
         }
 
         // Step 5: Save the updated order
         Order savedOrder = orderRepository.save(order);
+        orderAggregates.recordChanged(before, savedOrder);
         log.info("Order payment confirmation completed for order: {}. Payment status: {}, Order status: {}", 
                 id, savedOrder.getPaymentStatus(), savedOrder.getOrderStatus());
 
         return mapToResponse(savedOrder);
     }
 
+    private record OrderLookups(TicketResponse ticket, ScheduleResponse schedule) {
+    }
+
+    /**
+     * Blocking clients, each call on its own virtual thread, joined under one deadline.
+     */
+    private OrderLookups lookupOnVirtualThreads(OrderRequest request) {
+        Future<TicketResponse> ticketLookup = lookup("ticket", () -> {
+            try {
+                return ticketsServiceClient.getTicket(request.getTicketTypeRefId());
+            } catch (RestClientException e) {
+                log.error("Failed to fetch ticket information: {}", e.getMessage());
+                throw new ServiceUnavailableException("Tickets service is temporarily unavailable", e);
+            }
+        });
+        Future<ScheduleResponse> scheduleLookup = request.getScheduleRefId() == null
+                ? CompletableFuture.completedFuture(null)
+                : lookup("schedule", () -> {
+                    try {
+                        return scheduleCache.get(request.getScheduleRefId());
+                    } catch (RestClientException e) {
+                        log.error("Failed to fetch schedule information for scheduleId: {}. Error: {}", 
+                                request.getScheduleRefId(), e.getMessage());
+                        throw new ServiceUnavailableException("Schedules service is temporarily unavailable. Cannot create order at this time.", e);
+                    }
+                });
+        awaitLookups(ticketLookup, scheduleLookup);
+        return new OrderLookups(ticketLookup.resultNow(), scheduleLookup.resultNow());
+    }
+
+    /**
+     * Reactive clients (orders.clients.reactive.enabled=true): both calls are in flight without
+     * holding a thread each, zipped and awaited under the same deadline.
+     */
+    private OrderLookups lookupReactive(OrderRequest request,
+                                        ReactiveTicketsServiceClient reactiveTickets,
+                                        ReactiveScheduleServiceClient reactiveSchedules) {
+        Mono<TicketResponse> ticketLookup = timed("ticket", reactiveTickets.getTicket(request.getTicketTypeRefId()));
+        Mono<Optional<ScheduleResponse>> scheduleLookup = request.getScheduleRefId() == null
+                ? Mono.just(Optional.empty())
+                : timed("schedule", cachedSchedule(request.getScheduleRefId(), reactiveSchedules)).map(Optional::of);
+        try {
+            return timed("combined", Mono.zip(ticketLookup, scheduleLookup))
+                    .timeout(Duration.ofMillis(lookupTimeoutMs))
+                    .map(both -> new OrderLookups(both.getT1(), both.getT2().orElse(null)))
+                    .block();
+        } catch (RuntimeException e) {
+            if (e.getCause() instanceof TimeoutException timeout) {
+                throw new ServiceUnavailableException(
+                        "Tickets/Schedules services did not respond within " + lookupTimeoutMs + " ms. Please try again later.", timeout);
+            }
+            throw e;
+        }
+    }
+
+    // ScheduleCache first; on a miss the reactive call loads the entry (invalidations during the call win)
+    private Mono<ScheduleResponse> cachedSchedule(Integer scheduleId, ReactiveScheduleServiceClient reactiveSchedules) {
+        return scheduleCache.get(scheduleId, reactiveSchedules::getSchedule);
+    }
+
+    private <T> Mono<T> timed(String leg, Mono<T> call) {
+        return Mono.defer(() -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            return call.doFinally(signal -> sample.stop(lookupTimer(leg)));
+        });
+    }
+
+    /**
+     * Runs one createOrder lookup on the lookup executor (virtual threads) and records
+     * its latency in the orders.create.lookup timer, tagged with the leg name.
+     * Cancelling the returned Future interrupts the lookup's thread, which aborts its HTTP call.
+     */
+    private <T> Future<T> lookup(String leg, Supplier<T> call) {
+        Timer timer = lookupTimer(leg);
+        return lookupExecutor.submit(() -> timer.record(call));
+    }
+
+    private Timer lookupTimer(String leg) {
+        return Timer.builder("orders.create.lookup")
+                .description("Latency of the remote lookups done by createOrder")
+                .tag("leg", leg)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Waits for all lookups under one deadline shared by every leg.
+     * The first failure (already a ServiceUnavailableException or similar) is rethrown as is.
+     * A lookup still running when this returns (deadline missed, or another leg failed) is
+     * cancelled, so it does not keep its thread and HTTP connection after the order gave up.
+     */
+    private void awaitLookups(Future<?>... lookups) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(lookupTimeoutMs);
+        try {
+            for (Future<?> lookup : lookups) {
+                lookup.get(Math.max(deadline - System.nanoTime(), 0), TimeUnit.NANOSECONDS);
+            }
+        } catch (TimeoutException e) {
+            throw new ServiceUnavailableException(
+                    "Tickets/Schedules services did not respond within " + lookupTimeoutMs + " ms. Please try again later.", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new ServiceUnavailableException("Order lookups failed: " + e.getCause().getMessage(), e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("Interrupted while waiting for order lookups", e);
+        } finally {
+            // Future đã xong thì cancel không làm gì
+            for (Future<?> lookup : lookups) {
+                lookup.cancel(true);
+            }
+            sample.stop(lookupTimer("combined"));
+        }
+    }
+
+    /**
+     * Records a ticket quantity change for the order in order_outbox.
+     * Must be called inside the transaction that saves the order, so both are committed or neither is.
+     */
+    private void enqueueQuantityChange(Order order, OrderOutbox.EventType eventType) {
+        OrderOutbox entry = new OrderOutbox();
+        entry.setOrderId(order.getId());
+        entry.setEventType(eventType);
+        entry.setTicketRefId(order.getTicketTypeRefId());
+        entry.setQuantity(order.getQuantity());
+        entry.setIdempotencyKey(UUID.randomUUID().toString());
+        orderOutboxRepository.save(entry);
+    }
+
     /**
      * Generates a unique confirmation code for confirmed orders.
      * Format: BK-XXXXXXXX (where X is uppercase alphanumeric)
@@ -303,6 +464,8 @@ public class OrderServiceImpl implements OrderService {
             );
         }
 
+        OrderAggregates.Snapshot before = OrderAggregates.snapshot(order);
+
         // Step 4: Update order status to 'cancelled' (Property 14)
         order.setOrderStatus(Order.OrderStatus.cancelled);
 
@@ -314,21 +477,12 @@ public class OrderServiceImpl implements OrderService {
 
         // Step 6: Save the order with updated status
         Order savedOrder = orderRepository.save(order);
+        orderAggregates.recordChanged(before, savedOrder);
         log.info("Order status updated to cancelled for order: {}", orderId);
 
-        // Step 7: Call TicketsServiceClient to increase quantity (Property 6)
-        try {
-            ticketsServiceClient.increaseTicketQuantity(order.getTicketTypeRefId(), order.getQuantity());
-            log.info("Successfully restored ticket quantity for ticket: {}", order.getTicketTypeRefId());
-        } catch (RestClientException e) {
-            log.error("Failed to restore ticket quantity for order: {}. Error: {}", orderId, e.getMessage());
-            // Note: Order is already marked as cancelled in DB due to @Transactional
-            // In a production system, you might want to implement a compensation mechanism
-            // or retry logic here
-            throw new ServiceUnavailableException(
-                "Order cancelled but failed to restore ticket quantity. Please contact support.", e
-            );
-        }
+        // Step 7: Restore ticket quantity (Property 6) - written in the same transaction,
+        // delivered by OrderOutboxDispatcher with retry
+        enqueueQuantityChange(savedOrder, OrderOutbox.EventType.increase_quantity);
 
         return mapToResponse(savedOrder);
     }
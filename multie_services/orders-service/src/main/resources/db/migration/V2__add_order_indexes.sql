@@ -0,0 +1,7 @@
+-- Migration script to add indexes for the hot order lookups
+-- "My orders" (user_ref_id + ORDER BY created_at), orders by schedule / ticket type, date ranges
+
+CREATE INDEX idx_orders_user_created_at ON orders(user_ref_id, created_at);
+CREATE INDEX idx_orders_schedule ON orders(schedule_ref_id);
+CREATE INDEX idx_orders_ticket_type ON orders(ticket_type_ref_id);
+CREATE INDEX idx_orders_created_at ON orders(created_at);
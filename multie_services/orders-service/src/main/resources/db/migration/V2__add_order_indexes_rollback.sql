@@ -0,0 +1,6 @@
+-- Rollback script for V2__add_order_indexes.sql
+
+DROP INDEX idx_orders_user_created_at ON orders;
+DROP INDEX idx_orders_schedule ON orders;
+DROP INDEX idx_orders_ticket_type ON orders;
+DROP INDEX idx_orders_created_at ON orders;
@@ -0,0 +1,10 @@
+-- Migration script to split each analytics counter (order_stats) into shards
+-- Order writes add to a random shard instead of all waiting on the lock of one row; readers sum the shards.
+-- Existing rows become shard 0. Also applied by Hibernate (ddl-auto=update) except for the old unique key,
+-- which has to be dropped here: while it exists every upsert lands on the shard 0 row.
+
+ALTER TABLE order_stats ADD COLUMN shard INT NOT NULL DEFAULT 0 AFTER dim_value;
+
+ALTER TABLE order_stats
+DROP INDEX uk_order_stats_dimension_value,
+ADD CONSTRAINT uk_order_stats_dimension_value_shard UNIQUE (dimension, dim_value, shard);
@@ -0,0 +1,18 @@
+-- Rollback script for V3__shard_order_stats.sql
+-- Folds the shards of each counter back into one row
+
+CREATE TEMPORARY TABLE order_stats_totals AS
+SELECT dimension, dim_value, SUM(order_count) AS order_count, SUM(amount_sum) AS amount_sum
+FROM order_stats GROUP BY dimension, dim_value;
+
+DELETE FROM order_stats;
+
+ALTER TABLE order_stats
+DROP INDEX uk_order_stats_dimension_value_shard,
+DROP COLUMN shard,
+ADD CONSTRAINT uk_order_stats_dimension_value UNIQUE (dimension, dim_value);
+
+INSERT INTO order_stats (dimension, dim_value, order_count, amount_sum)
+SELECT dimension, dim_value, order_count, amount_sum FROM order_stats_totals;
+
+DROP TEMPORARY TABLE order_stats_totals;
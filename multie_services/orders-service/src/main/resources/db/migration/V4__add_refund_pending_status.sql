@@ -0,0 +1,7 @@
+-- Migration script to add the refund_pending payment status
+-- An order cancelled by the outbox after it was paid (its seats could not be reserved) waits here for
+-- the refund instead of being marked refunded. Hibernate (ddl-auto=update) does not change the values
+-- of an existing ENUM column, so this has to be applied before the new version runs.
+
+ALTER TABLE orders
+MODIFY COLUMN payment_status ENUM('pending', 'paid', 'failed', 'refunded', 'refund_pending');
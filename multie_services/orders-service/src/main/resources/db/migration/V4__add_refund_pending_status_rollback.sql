@@ -0,0 +1,7 @@
+-- Rollback script for V4__add_refund_pending_status.sql
+-- Orders still waiting for their refund go back to refunded, as the previous version recorded them
+
+UPDATE orders SET payment_status = 'refunded' WHERE payment_status = 'refund_pending';
+
+ALTER TABLE orders
+MODIFY COLUMN payment_status ENUM('pending', 'paid', 'failed', 'refunded');
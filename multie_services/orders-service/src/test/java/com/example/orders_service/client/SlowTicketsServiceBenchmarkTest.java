@@ -0,0 +1,158 @@
+package com.example.orders_service.client;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.example.orders_service.dto.TicketResponse;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Blocking vs reactive TicketsServiceClient against a tickets-service stub that answers after 200 ms.
+ * Prints throughput and peak JVM thread count for each. Opt-in:
+ * mvn test -Dtest=SlowTicketsServiceBenchmarkTest -Dbenchmark=true
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class SlowTicketsServiceBenchmarkTest {
+
+    private static final int CALLS = 4_000;
+    private static final int IN_FLIGHT = 1_000;
+    private static final int TOMCAT_THREADS = 200; // default server.tomcat.threads.max
+    private static final long LATENCY_MS = 200;
+
+    private static DisposableServer slowTickets;
+    private static String baseUrl;
+
+    @BeforeAll
+    static void startSlowTicketsService() {
+        // Without a Spring context logback logs at DEBUG; per-call logging would dominate the timings
+        ((Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+
+        byte[] body = "{\"id\":1,\"name\":\"Economy\",\"price\":10,\"availableQuantity\":100}"
+                .getBytes(StandardCharsets.UTF_8);
+        // Non-blocking stub so the stub itself is never the bottleneck
+        slowTickets = HttpServer.create()
+                .host("127.0.0.1")
+                .port(0)
+                .route(routes -> routes.get("/api/tickets/{id}", (request, response) -> response
+                        .header("Content-Type", "application/json")
+                        .sendByteArray(Mono.delay(Duration.ofMillis(LATENCY_MS)).thenReturn(body))))
+                .bindNow();
+        baseUrl = "http://127.0.0.1:" + slowTickets.port();
+    }
+
+    @AfterAll
+    static void stopSlowTicketsService() {
+        slowTickets.disposeNow();
+    }
+
+    @Test
+    void blockingVersusReactiveUnderSlowTicketsService() throws Exception {
+        Result blocking = runBlocking();
+        Result reactive = runReactive();
+
+        System.out.printf("%-10s %10s %14s %14s%n", "client", "calls/s", "peak threads", "errors");
+        System.out.printf("%-10s %10.0f %14d %14d%n", "blocking", blocking.throughput(), blocking.peakThreads(), blocking.errors());
+        System.out.printf("%-10s %10.0f %14d %14d%n", "reactive", reactive.throughput(), reactive.peakThreads(), reactive.errors());
+
+        assertThat(blocking.errors()).isZero();
+        assertThat(reactive.errors()).isZero();
+        // Throughput depends on the machine; the thread count does not
+        assertThat(reactive.peakThreads()).isLessThan(blocking.peakThreads());
+    }
+
+    // One platform thread per in-flight call, capped like Tomcat's request pool
+    private Result runBlocking() throws Exception {
+        CloseableHttpClient httpClient = HttpClients.custom()
+                .setConnectionManager(PoolingHttpClientConnectionManagerBuilder.create()
+                        .setMaxConnTotal(TOMCAT_THREADS)
+                        .setMaxConnPerRoute(TOMCAT_THREADS)
+                        .build())
+                .build();
+        TicketsServiceClient client = new TicketsServiceClient();
+        ReflectionTestUtils.setField(client, "restTemplate",
+                new RestTemplate(new HttpComponentsClientHttpRequestFactory(httpClient)));
+        ReflectionTestUtils.setField(client, "ticketsServiceUrl", baseUrl);
+
+        AtomicInteger errors = new AtomicInteger();
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        threads.resetPeakThreadCount();
+        long start = System.nanoTime();
+        ExecutorService pool = Executors.newFixedThreadPool(TOMCAT_THREADS);
+        for (int i = 0; i < CALLS; i++) {
+            pool.execute(() -> {
+                try {
+                    client.getTicket(1);
+                } catch (RuntimeException e) {
+                    errors.incrementAndGet();
+                }
+            });
+        }
+        pool.shutdown();
+        assertThat(pool.awaitTermination(2, TimeUnit.MINUTES)).isTrue();
+        double seconds = (System.nanoTime() - start) / 1e9;
+        httpClient.close();
+        return new Result(CALLS / seconds, threads.getPeakThreadCount(), errors.get());
+    }
+
+    // All calls in flight at once on the Netty event loop
+    private Result runReactive() {
+        ConnectionProvider connections = ConnectionProvider.builder("benchmark")
+                .maxConnections(IN_FLIGHT)
+                .pendingAcquireMaxCount(CALLS)
+                .build();
+        WebClient webClient = WebClient.builder()
+                .clientConnector(new ReactorClientHttpConnector(HttpClient.create(connections)))
+                .build();
+        ReactiveTicketsServiceClient client = new ReactiveTicketsServiceClient(
+                webClient, CircuitBreakerRegistry.ofDefaults(), baseUrl, 30_000, 0, 100);
+
+        AtomicInteger errors = new AtomicInteger();
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        threads.resetPeakThreadCount();
+        long start = System.nanoTime();
+        Long completed = Flux.range(0, CALLS)
+                .flatMap(i -> client.getTicket(1)
+                        .onErrorResume(e -> {
+                            errors.incrementAndGet();
+                            return Mono.just(new TicketResponse());
+                        }), IN_FLIGHT)
+                .count()
+                .block();
+        double seconds = (System.nanoTime() - start) / 1e9;
+        connections.dispose();
+        assertThat(completed).isEqualTo(CALLS);
+        return new Result(CALLS / seconds, threads.getPeakThreadCount(), errors.get());
+    }
+
+    private record Result(double throughput, int peakThreads, int errors) {
+    }
+}
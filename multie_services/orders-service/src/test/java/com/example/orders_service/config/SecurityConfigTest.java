@@ -0,0 +1,102 @@
+package com.example.orders_service.config;
+
+import com.example.common.security.CommonSecurityAutoConfiguration;
+import com.example.common.security.IdentityHeader;
+import com.example.common.web.ExportFormat;
+import com.example.orders_service.controller.AnalyticsController;
+import com.example.orders_service.controller.OrderController;
+import com.example.orders_service.controller.ScheduleCacheController;
+import com.example.orders_service.service.AnalyticsService;
+import com.example.orders_service.service.OrderExporter;
+import com.example.orders_service.service.OrderService;
+import com.example.orders_service.service.ScheduleCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Rules of the orders SecurityFilterChain that are not "permit all": the caller is identified
+ * the way the gateway does it, with a signed X-Auth-Identity.
+ */
+@WebMvcTest(controllers = {OrderController.class, ScheduleCacheController.class, AnalyticsController.class})
+@ImportAutoConfiguration(CommonSecurityAutoConfiguration.class)
+@Import(SecurityConfig.class)
+@TestPropertySource(properties = {
+        "app.jwt.secret=12345678901234567890123456789012",
+        "app.identity.secret=test-identity-secret-0123456789012345"
+})
+class SecurityConfigTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private IdentityHeader identityHeader;
+
+    @MockitoBean
+    private OrderService orderService;
+
+    @MockitoBean
+    private OrderExporter orderExporter;
+
+    @MockitoBean
+    private ScheduleCache scheduleCache;
+
+    @MockitoBean
+    private AnalyticsService analyticsService;
+
+    @BeforeEach
+    void exporter() {
+        StreamingResponseBody empty = out -> { };
+        when(orderExporter.export(any(), any(), any(), any())).thenReturn(empty);
+        when(orderExporter.parseFormat(any())).thenReturn(ExportFormat.ndjson);
+    }
+
+    private MockHttpServletRequestBuilder as(MockHttpServletRequestBuilder request, String role) {
+        long expiresAt = System.currentTimeMillis() / 1000 + 60;
+        return request.header(IdentityHeader.NAME, identityHeader.sign(1L, "someone", role, expiresAt));
+    }
+
+    @Test
+    void exportNeedsAnAdmin() throws Exception {
+        mockMvc.perform(get("/api/orders/export")).andExpect(status().isForbidden());
+        mockMvc.perform(as(get("/api/orders/export"), "USER")).andExpect(status().isForbidden());
+        mockMvc.perform(as(get("/api/orders/export"), "ADMIN")).andExpect(status().isOk());
+    }
+
+    @Test
+    void scheduleCacheIsOnlyFlushedByServices() throws Exception {
+        mockMvc.perform(delete("/api/orders/cache/schedules/7")).andExpect(status().isForbidden());
+        mockMvc.perform(delete("/api/orders/cache/schedules")).andExpect(status().isForbidden());
+        mockMvc.perform(as(delete("/api/orders/cache/schedules"), "ADMIN")).andExpect(status().isForbidden());
+        mockMvc.perform(as(delete("/api/orders/cache/schedules/7"), "SERVICE")).andExpect(status().is2xxSuccessful());
+        mockMvc.perform(as(delete("/api/orders/cache/schedules"), "SERVICE")).andExpect(status().is2xxSuccessful());
+    }
+
+    @Test
+    void aggregateRebuildsNeedAnAdmin() throws Exception {
+        for (String rebuild : new String[]{"/api/analytics/aggregates/rebuild", "/api/analytics/rollups/rebuild"}) {
+            mockMvc.perform(post(rebuild)).andExpect(status().isForbidden());
+            mockMvc.perform(as(post(rebuild), "USER")).andExpect(status().isForbidden());
+            mockMvc.perform(as(post(rebuild), "ADMIN")).andExpect(status().isOk());
+        }
+        mockMvc.perform(as(get("/api/analytics/aggregates/drift"), "USER")).andExpect(status().isForbidden());
+        mockMvc.perform(as(get("/api/analytics/aggregates/drift"), "ADMIN")).andExpect(status().isOk());
+        mockMvc.perform(get("/api/analytics/dashboard")).andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.orders_service.config;
+
+import com.example.common.security.IdentityHeader;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * ServiceIdentityProvider: one signed identity is reused until its renewal window, and many
+ * virtual threads renewing at once all get one without waiting on a lock.
+ */
+class ServiceIdentityProviderTest {
+
+    private final IdentityHeader identityHeader = new IdentityHeader("test-identity-secret-0123456789012345");
+
+    @Test
+    void identityIsReusedUntilItNeedsRenewal() {
+        ServiceIdentityProvider provider = new ServiceIdentityProvider(identityHeader, 900);
+
+        String identity = provider.getIdentity();
+
+        assertThat(provider.getIdentity()).isSameAs(identity);
+        IdentityHeader.Identity verified = identityHeader.verify(identity);
+        assertThat(verified.username()).isEqualTo(ServiceIdentityProvider.NAME);
+        assertThat(verified.role()).isEqualTo(ServiceIdentityProvider.ROLE);
+    }
+
+    @Test
+    void concurrentRenewalsOnVirtualThreadsAllGetAValidIdentity() throws Exception {
+        // TTL 0: mọi lần gọi đều phải gia hạn
+        ServiceIdentityProvider provider = new ServiceIdentityProvider(identityHeader, 0);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<String>> identities = IntStream.range(0, 1_000)
+                    .mapToObj(i -> executor.submit(provider::getIdentity))
+                    .toList();
+            for (Future<String> identity : identities) {
+                assertThat(identity.get()).isNotNull();
+            }
+        }
+    }
+}
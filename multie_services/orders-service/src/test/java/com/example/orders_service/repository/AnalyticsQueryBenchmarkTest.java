@@ -0,0 +1,193 @@
+package com.example.orders_service.repository;
+
+import com.example.orders_service.entity.Order;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Analytics over a large orders table: loading Order entities and grouping in Java (before)
+ * versus GROUP BY projections in OrderRepository (after). Prints time, bytes allocated and peak
+ * heap per query and checks both give the same answer. Opt-in, needs a few GB of heap:
+ * mvn test -Dtest=AnalyticsQueryBenchmarkTest -Dbenchmark=true -DargLine=-Xmx3g [-Dbenchmark.orders=1000000]
+ */
+@DataJpaTest(showSql = false)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:orders-benchmark;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "logging.level.root=WARN"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // như service: mỗi query một transaction riêng
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class AnalyticsQueryBenchmarkTest {
+
+    private static final int ORDERS = Integer.getInteger("benchmark.orders", 1_000_000);
+    private static final int DAYS = 30;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    void insertOrders() {
+        // Một năm order, trạng thái/phương thức thanh toán trải đều
+        jdbcTemplate.update("""
+                INSERT INTO orders (user_ref_id, user_email_snapshot, schedule_ref_id, schedule_info_snapshot,
+                    ticket_type_ref_id, ticket_type_name_snapshot, quantity, total_amount, payment_method,
+                    payment_status, order_status, created_at, passenger_details)
+                SELECT MOD(X, 5000) + 1, CONCAT('user', MOD(X, 5000), '@example.com'), MOD(X, 300) + 1,
+                    '{"trainName":"SE1","departureStation":"Ha Noi","arrivalStation":"Sai Gon"}' FORMAT JSON,
+                    MOD(X, 40) + 1, 'Economy', MOD(X, 4) + 1, MOD(X, 500) + 10,
+                    CASEWHEN(MOD(X, 3) = 0, 'cash', CASEWHEN(MOD(X, 3) = 1, 'credit_card', 'ewallet')),
+                    CASEWHEN(MOD(X, 4) = 0, 'pending', CASEWHEN(MOD(X, 4) = 3, 'refunded', 'paid')),
+                    CASEWHEN(MOD(X, 5) = 0, 'created', CASEWHEN(MOD(X, 5) = 4, 'cancelled', 'confirmed')),
+                    DATEADD('SECOND', -MOD(X * 7919, 31536000), CURRENT_TIMESTAMP),
+                    '[{"name":"Nguyen Van A","idNumber":"012345678901"}]'
+                FROM SYSTEM_RANGE(1, ?)
+                """, ORDERS);
+    }
+
+    @Test
+    void groupingInTheDatabaseVersusLoadingEntities() {
+        System.out.printf("%,d orders%n", ORDERS);
+        System.out.printf("%-22s %-8s %10s %14s %14s%n", "endpoint", "variant", "ms", "allocated MB", "peak heap MB");
+
+        compare("orders/by-status",
+                () -> orderRepository.findAll().stream()
+                        .collect(Collectors.groupingBy(Order::getOrderStatus, TreeMap::new, Collectors.counting())),
+                () -> orderRepository.countByOrderStatus().stream()
+                        .collect(Collectors.toMap(OrderRepository.StatusCount::getStatus,
+                                OrderRepository.StatusCount::getCount, (a, b) -> a, TreeMap::new)));
+
+        compare("orders/by-payment",
+                () -> orderRepository.findAll().stream()
+                        .filter(o -> o.getPaymentMethod() != null)
+                        .collect(Collectors.groupingBy(Order::getPaymentMethod, TreeMap::new, Collectors.counting())),
+                () -> orderRepository.countByPaymentMethod().stream()
+                        .collect(Collectors.toMap(OrderRepository.PaymentMethodCount::getMethod,
+                                OrderRepository.PaymentMethodCount::getCount, (a, b) -> a, TreeMap::new)));
+
+        compare("revenue/summary",
+                () -> orderRepository.findAll().stream()
+                        .filter(o -> o.getPaymentStatus() == Order.PaymentStatus.paid)
+                        .map(Order::getTotalAmount)
+                        .reduce(BigDecimal.ZERO, BigDecimal::add)
+                        .stripTrailingZeros(),
+                () -> orderRepository.sumByPaymentStatus().stream()
+                        .filter(row -> row.getStatus() == Order.PaymentStatus.paid)
+                        .map(OrderRepository.PaymentStatusTotal::getAmount)
+                        .findFirst().orElse(BigDecimal.ZERO)
+                        .stripTrailingZeros());
+
+        LocalDateTime start = LocalDateTime.now().minusDays(DAYS);
+        compare("orders/by-date",
+                () -> orderRepository.findByCreatedAtAfter(start).stream()
+                        .collect(Collectors.groupingBy(o -> o.getCreatedAt().toLocalDate(), TreeMap::new,
+                                Collectors.counting())),
+                () -> orderRepository.countByDaySince(start).stream()
+                        .collect(Collectors.toMap(OrderRepository.DailyCount::getDay,
+                                OrderRepository.DailyCount::getCount, (a, b) -> a, TreeMap::new)));
+    }
+
+    @Test
+    void dashboardCubeMatchesTheSeparateQueries() {
+        // Dashboard không lọc ngày: 5 query (mỗi endpoint một lần quét) so với 1 query cube
+        LocalDateTime start = LocalDateTime.now().minusYears(2);
+        Measurement separate = measure(() -> List.of(
+                orderRepository.count(),
+                orderRepository.countByOrderStatus().stream()
+                        .collect(Collectors.toMap(OrderRepository.StatusCount::getStatus,
+                                OrderRepository.StatusCount::getCount, (a, b) -> a, TreeMap::new)),
+                orderRepository.countByPaymentMethod().stream()
+                        .collect(Collectors.toMap(OrderRepository.PaymentMethodCount::getMethod,
+                                OrderRepository.PaymentMethodCount::getCount, (a, b) -> a, TreeMap::new)),
+                orderRepository.sumByPaymentStatus().stream()
+                        .collect(Collectors.toMap(OrderRepository.PaymentStatusTotal::getStatus,
+                                row -> row.getAmount().stripTrailingZeros(), (a, b) -> a, TreeMap::new)),
+                orderRepository.countByDaySince(start).stream()
+                        .collect(Collectors.toMap(OrderRepository.DailyCount::getDay,
+                                OrderRepository.DailyCount::getCount, (a, b) -> a, TreeMap::new))));
+        Measurement cube = measure(() -> {
+            List<OrderRepository.DashboardCell> cells = orderRepository.dashboardCube(start, null);
+            return List.of(
+                    cells.stream().mapToLong(OrderRepository.DashboardCell::getCount).sum(),
+                    cells.stream().collect(Collectors.groupingBy(OrderRepository.DashboardCell::getOrderStatus,
+                            TreeMap::new, Collectors.summingLong(OrderRepository.DashboardCell::getCount))),
+                    cells.stream().collect(Collectors.groupingBy(OrderRepository.DashboardCell::getPaymentMethod,
+                            TreeMap::new, Collectors.summingLong(OrderRepository.DashboardCell::getCount))),
+                    cells.stream().collect(Collectors.groupingBy(OrderRepository.DashboardCell::getPaymentStatus,
+                            TreeMap::new, Collectors.collectingAndThen(
+                                    Collectors.reducing(BigDecimal.ZERO, OrderRepository.DashboardCell::getAmount,
+                                            BigDecimal::add),
+                                    BigDecimal::stripTrailingZeros))),
+                    cells.stream().collect(Collectors.groupingBy(OrderRepository.DashboardCell::getDay,
+                            TreeMap::new, Collectors.summingLong(OrderRepository.DashboardCell::getCount))));
+        });
+        print("dashboard", "5 query", separate);
+        print("dashboard", "cube", cube);
+
+        assertThat(cube.result()).isEqualTo(separate.result());
+    }
+
+    private void compare(String endpoint, Supplier<Object> entities, Supplier<Object> projection) {
+        Measurement before = measure(entities);
+        Measurement after = measure(projection);
+        print(endpoint, "before", before);
+        print(endpoint, "after", after);
+
+        assertThat(after.result()).isEqualTo(before.result());
+        assertThat(after.allocatedBytes()).isLessThan(before.allocatedBytes());
+    }
+
+    private Measurement measure(Supplier<Object> query) {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        List<MemoryPoolMXBean> heapPools = ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP)
+                .toList();
+        System.gc();
+        heapPools.forEach(MemoryPoolMXBean::resetPeakUsage);
+
+        long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        Object result = query.get();
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        long allocated = threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+        long peakHeap = heapPools.stream().mapToLong(pool -> pool.getPeakUsage().getUsed()).sum();
+        return new Measurement(result, elapsedMs, allocated, peakHeap);
+    }
+
+    private void print(String endpoint, String variant, Measurement m) {
+        System.out.printf("%-22s %-8s %10d %14.1f %14.1f%n", endpoint, variant, m.elapsedMs(),
+                m.allocatedBytes() / 1e6, m.peakHeapBytes() / 1e6);
+    }
+
+    private record Measurement(Object result, long elapsedMs, long allocatedBytes, long peakHeapBytes) {
+    }
+}
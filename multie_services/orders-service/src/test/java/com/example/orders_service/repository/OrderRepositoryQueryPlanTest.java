@@ -0,0 +1,128 @@
+package com.example.orders_service.repository;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs EXPLAIN on the SQL Hibernate generates for the hot OrderRepository lookups, on a seeded
+ * orders table, and fails if a query no longer uses an index (full table scan).
+ */
+@DataJpaTest(showSql = false)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:orders-plans;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.example.orders_service.repository.OrderRepositoryQueryPlanTest$LastSql",
+        "logging.level.root=WARN"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class OrderRepositoryQueryPlanTest {
+
+    private static final int ORDERS = 20_000;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    void seedOrders() {
+        // 2000 user, 300 lịch trình, 40 loại vé, created_at trải trên một năm
+        jdbcTemplate.update("""
+                INSERT INTO orders (user_ref_id, user_email_snapshot, schedule_ref_id, ticket_type_ref_id,
+                    ticket_type_name_snapshot, quantity, total_amount, payment_method, payment_status,
+                    order_status, created_at, confirmation_code)
+                SELECT MOD(X, 2000) + 1, CONCAT('user', MOD(X, 2000), '@example.com'), MOD(X, 300) + 1,
+                    MOD(X, 40) + 1, 'Economy', 1, 10, 'cash', 'paid', 'confirmed',
+                    DATEADD('SECOND', -MOD(X * 7919, 31536000), CURRENT_TIMESTAMP), CONCAT('BK-', X)
+                FROM SYSTEM_RANGE(1, ?)
+                """, ORDERS);
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @Test
+    void myOrdersUseUserCreatedAtIndex() {
+        orderRepository.findByUserRefIdOrderByCreatedAtDesc(7);
+        assertThat(plan(7)).containsIgnoringCase("idx_orders_user_created_at");
+    }
+
+    @Test
+    void ordersByScheduleUseScheduleIndex() {
+        orderRepository.findByScheduleRefId(7);
+        assertThat(plan(7)).containsIgnoringCase("idx_orders_schedule");
+    }
+
+    @Test
+    void ordersByTicketTypeUseTicketTypeIndex() {
+        orderRepository.findByTicketTypeRefId(7);
+        assertThat(plan(7)).containsIgnoringCase("idx_orders_ticket_type");
+    }
+
+    @Test
+    void recentOrdersUseCreatedAtIndex() {
+        Timestamp since = Timestamp.valueOf(LocalDateTime.now().minusDays(1));
+        orderRepository.findByCreatedAtAfter(since.toLocalDateTime());
+        assertThat(plan(since)).containsIgnoringCase("idx_orders_created_at");
+    }
+
+    @Test
+    void ordersBetweenDatesUseCreatedAtIndex() {
+        Timestamp start = Timestamp.valueOf(LocalDateTime.now().minusDays(2));
+        Timestamp end = Timestamp.valueOf(LocalDateTime.now().minusDays(1));
+        orderRepository.findByCreatedAtBetween(start.toLocalDateTime(), end.toLocalDateTime());
+        assertThat(plan(start, end)).containsIgnoringCase("idx_orders_created_at");
+    }
+
+    @Test
+    void lookupsByKeyUseTheirIndexes() {
+        orderRepository.findByIdAndUserRefId(7, 7);
+        assertThat(plan(7, 7)).containsIgnoringCase("primary_key");
+
+        orderRepository.findByConfirmationCode("BK-7");
+        plan("BK-7");
+
+        orderRepository.findByIdGreaterThanOrderByIdAsc(100, PageRequest.of(0, 20));
+        plan(100, 21);
+    }
+
+    /**
+     * EXPLAIN of the last statement Hibernate sent, with the same parameter values.
+     * Fails if H2 plans a table scan.
+     */
+    private String plan(Object... args) {
+        String plan = jdbcTemplate.queryForObject("EXPLAIN " + LastSql.sql, String.class, args);
+        assertThat(plan).as("query plan").isNotNull().doesNotContainIgnoringCase("tableScan");
+        return plan;
+    }
+
+    // Giữ lại câu SQL cuối cùng Hibernate sinh ra (test chạy tuần tự trên một thread)
+    public static class LastSql implements StatementInspector {
+        static volatile String sql;
+
+        @Override
+        public String inspect(String sql) {
+            LastSql.sql = sql;
+            return sql;
+        }
+    }
+}
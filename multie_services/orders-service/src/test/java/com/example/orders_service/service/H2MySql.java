@@ -0,0 +1,41 @@
+package com.example.orders_service.service;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+/**
+ * What the native analytics SQL needs from MySQL that H2 (MODE=MySQL) lacks: DATE_FORMAT, as a
+ * function alias, and LOCK IN SHARE MODE, which the statement inspector drops (the tests write from
+ * one thread, the lock is not what they check).
+ */
+public final class H2MySql {
+
+    private H2MySql() {
+    }
+
+    static void install(JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.execute("CREATE ALIAS IF NOT EXISTS DATE_FORMAT FOR \"" + H2MySql.class.getName() + ".dateFormat\"");
+    }
+
+    // Chỉ các ký hiệu mà các câu SQL trong repository dùng: %Y %m %d %H
+    public static String dateFormat(Timestamp time, String format) {
+        if (time == null) {
+            return null;
+        }
+        LocalDateTime t = time.toLocalDateTime();
+        return format.replace("%Y", String.format("%04d", t.getYear()))
+                .replace("%m", String.format("%02d", t.getMonthValue()))
+                .replace("%d", String.format("%02d", t.getDayOfMonth()))
+                .replace("%H", String.format("%02d", t.getHour()));
+    }
+
+    public static class Inspector implements StatementInspector {
+        @Override
+        public String inspect(String sql) {
+            return sql.replace(" LOCK IN SHARE MODE", "");
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package com.example.orders_service.service;
+
+import com.example.orders_service.entity.Order;
+import com.example.orders_service.entity.OrderStats;
+import com.example.orders_service.repository.OrderRepository;
+import com.example.orders_service.repository.OrderRollupRepository;
+import com.example.orders_service.repository.OrderStatsRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * OrderAggregates on a seeded orders table: rebuild() and the sharded incremental counters both
+ * give the numbers of a full scan of orders, and checkDrift() finds an order written behind their back.
+ */
+@DataJpaTest(showSql = false)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:orders-aggregates;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.example.orders_service.service.H2MySql$Inspector",
+        "logging.level.root=WARN"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrderAggregatesTest {
+
+    private static final int ORDERS = 600;
+    private static final int SHARDS = 4;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderStatsRepository orderStatsRepository;
+
+    @Autowired
+    private OrderRollupRepository orderRollupRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private OrderAggregates aggregates;
+
+    @BeforeEach
+    void seedOrders() {
+        H2MySql.install(jdbcTemplate);
+        jdbcTemplate.update("DELETE FROM order_stats");
+        jdbcTemplate.update("DELETE FROM order_rollups");
+        jdbcTemplate.update("DELETE FROM orders");
+        // 10 ngày order, trạng thái/phương thức thanh toán trải đều, vài order thiếu giá trị
+        jdbcTemplate.update("""
+                INSERT INTO orders (user_ref_id, schedule_ref_id, quantity, total_amount, payment_method,
+                    payment_status, order_status, created_at)
+                SELECT MOD(X, 50) + 1, MOD(X, 7) + 1, 1, MOD(X, 90) + 10.5,
+                    CASEWHEN(MOD(X, 11) = 0, NULL, CASEWHEN(MOD(X, 3) = 0, 'cash', CASEWHEN(MOD(X, 3) = 1, 'credit_card', 'ewallet'))),
+                    CASEWHEN(MOD(X, 4) = 0, 'pending', CASEWHEN(MOD(X, 4) = 3, 'refunded', 'paid')),
+                    CASEWHEN(MOD(X, 5) = 0, 'created', CASEWHEN(MOD(X, 5) = 4, 'cancelled', 'confirmed')),
+                    DATEADD('MINUTE', -MOD(X * 7919, 14400), CURRENT_TIMESTAMP)
+                FROM SYSTEM_RANGE(1, ?)
+                """, ORDERS);
+        OrderRollups rollups = new OrderRollups(orderRollupRepository, transactionManager, 48, 90);
+        aggregates = new OrderAggregates(orderStatsRepository, rollups, transactionManager, false, SHARDS);
+    }
+
+    // Bộ đếm tính bằng quét toàn bảng orders, độc lập với RECOMPUTE_SQL
+    private Map<String, String> fullScan() {
+        Map<String, String> counters = new HashMap<>();
+        String[][] dimensions = {
+                {"all", "''"},
+                {"order_status", "order_status"},
+                {"payment_status", "payment_status"},
+                {"payment_method", "payment_method"},
+                {"created_day", "CAST(CAST(created_at AS DATE) AS VARCHAR)"}
+        };
+        for (String[] d : dimensions) {
+            jdbcTemplate.query("SELECT " + d[1] + " AS v, COUNT(*) AS c, SUM(total_amount) AS a FROM orders "
+                            + "WHERE " + d[1] + " IS NOT NULL GROUP BY " + d[1],
+                    rs -> {
+                        counters.put(d[0] + "|" + rs.getString("v"),
+                                rs.getLong("c") + " " + rs.getBigDecimal("a").stripTrailingZeros().toPlainString());
+                    });
+        }
+        return counters;
+    }
+
+    private Map<String, String> counters() {
+        Map<String, String> counters = new HashMap<>();
+        for (OrderStats stats : aggregates.all()) {
+            if (stats.getOrderCount() != 0) {
+                counters.put(stats.getDimension() + "|" + stats.getDimValue(),
+                        stats.getOrderCount() + " " + stats.getAmountSum().stripTrailingZeros().toPlainString());
+            }
+        }
+        return counters;
+    }
+
+    @Test
+    void rebuildGivesTheCountsOfAFullScan() {
+        aggregates.rebuild();
+
+        assertThat(counters()).isEqualTo(fullScan());
+        assertThat(aggregates.totalOrders()).isEqualTo(ORDERS);
+        assertThat(aggregates.checkDrift()).isEmpty();
+    }
+
+    @Test
+    void incrementalChangesAcrossShardsMatchAFullScan() {
+        aggregates.rebuild();
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        for (int i = 0; i < 200; i++) {
+            int n = i;
+            transaction.executeWithoutResult(status -> {
+                Order order = new Order();
+                order.setUserRefId(1);
+                order.setScheduleRefId(n % 7 + 1);
+                order.setQuantity(1);
+                order.setTotalAmount(BigDecimal.valueOf(20 + n % 13));
+                order.setPaymentMethod(Order.PaymentMethod.values()[n % 3]);
+                order.setPaymentStatus(Order.PaymentStatus.pending);
+                order.setOrderStatus(Order.OrderStatus.created);
+                aggregates.recordCreated(orderRepository.save(order));
+            });
+        }
+        List<Order> orders = orderRepository.findAll();
+        for (int i = 0; i < orders.size(); i += 3) {
+            Order order = orders.get(i);
+            transaction.executeWithoutResult(status -> {
+                OrderAggregates.Snapshot before = OrderAggregates.snapshot(order);
+                order.setOrderStatus(Order.OrderStatus.confirmed);
+                order.setPaymentStatus(Order.PaymentStatus.paid);
+                aggregates.recordChanged(before, orderRepository.save(order));
+            });
+        }
+        for (int i = 1; i < orders.size(); i += 10) {
+            Order order = orders.get(i);
+            transaction.executeWithoutResult(status -> {
+                orderRepository.delete(order);
+                aggregates.recordDeleted(order);
+            });
+        }
+
+        assertThat(counters()).isEqualTo(fullScan());
+        assertThat(aggregates.checkDrift()).isEmpty();
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(DISTINCT shard) FROM order_stats WHERE dimension = 'all'", Integer.class))
+                .isGreaterThan(1);
+    }
+
+    @Test
+    void orderWrittenBehindTheCountersIsFoundAndRepairedByRebuild() {
+        aggregates.rebuild();
+        jdbcTemplate.update("INSERT INTO orders (user_ref_id, schedule_ref_id, quantity, total_amount, "
+                + "payment_status, order_status, created_at) VALUES (1, 1, 1, 99, 'paid', 'confirmed', CURRENT_TIMESTAMP)");
+
+        List<OrderAggregates.Drift> drift = aggregates.checkDrift();
+        assertThat(drift).anySatisfy(d -> {
+            assertThat(d.dimension()).isEqualTo(OrderStats.Dimension.all);
+            assertThat(d.expectedCount()).isEqualTo(ORDERS + 1);
+            assertThat(d.actualCount()).isEqualTo(ORDERS);
+        });
+
+        aggregates.rebuild();
+        assertThat(aggregates.checkDrift()).isEmpty();
+        assertThat(counters()).isEqualTo(fullScan());
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.orders_service.service;
+
+import com.example.orders_service.repository.OrderRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Peak retained (old gen) heap of GET /api/orders (every order mapped into one list, then serialized) versus the
+ * streaming export, at two table sizes. The export should stay flat while the list grows.
+ * Opt-in: mvn test -Dtest=OrderExporterBenchmarkTest -Dbenchmark=true -DargLine=-Xmx3g [-Dbenchmark.orders=1000000]
+ */
+@DataJpaTest(showSql = false)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = {
+        // LAZY_QUERY_EXECUTION: H2 trả từng dòng như MySQL streaming, không dựng cả kết quả trong bộ nhớ
+        "spring.datasource.url=jdbc:h2:mem:orders-export;MODE=MySQL;DB_CLOSE_DELAY=-1;LAZY_QUERY_EXECUTION=TRUE",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "logging.level.root=WARN"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class OrderExporterBenchmarkTest {
+
+    private static final int ORDERS = Integer.getInteger("benchmark.orders", 1_000_000);
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    @Test
+    void streamingExportHeapStaysFlatAsOrdersGrow() throws Exception {
+        // H2 không nhận fetch size âm như MySQL; 1000 dòng mỗi lần đọc
+        OrderExporter exporter = new OrderExporter(dataSource, 1000);
+
+        int small = ORDERS / 5;
+        insertOrders(1, small);
+        Result smallExport = measure(() -> exporter.export("ndjson", null, null, null).writeTo(new CountingStream()));
+        Result smallList = measure(() -> objectMapper.writeValue(new CountingStream(), orderRepository.findAll()));
+
+        insertOrders(small + 1, ORDERS);
+        Result largeExport = measure(() -> exporter.export("ndjson", null, null, null).writeTo(new CountingStream()));
+        Result largeCsv = measure(() -> exporter.export("csv", null, null, null).writeTo(new CountingStream()));
+        Result largeList = measure(() -> objectMapper.writeValue(new CountingStream(), orderRepository.findAll()));
+
+        System.out.printf("%-16s %10s %10s %18s%n", "variant", "orders", "ms", "peak old gen +MB");
+        print("list (getAll)", small, smallList);
+        print("export ndjson", small, smallExport);
+        print("list (getAll)", ORDERS, largeList);
+        print("export ndjson", ORDERS, largeExport);
+        print("export csv", ORDERS, largeCsv);
+
+        assertThat(largeExport.bytes()).isGreaterThan(smallExport.bytes() * 4);
+        // 5x số dòng: list tăng theo, export gần như không đổi
+        assertThat(largeExport.peakHeapDelta()).isLessThan(largeList.peakHeapDelta() / 4);
+        assertThat(largeExport.peakHeapDelta()).isLessThan(smallExport.peakHeapDelta() + 64_000_000L);
+    }
+
+    private void insertOrders(int first, int last) {
+        jdbcTemplate.update("""
+                INSERT INTO orders (user_ref_id, user_email_snapshot, schedule_ref_id, ticket_type_ref_id,
+                    ticket_type_name_snapshot, quantity, total_amount, payment_method, payment_status,
+                    order_status, created_at, confirmation_code)
+                SELECT MOD(X, 5000) + 1, CONCAT('user', MOD(X, 5000), '@example.com'), MOD(X, 300) + 1,
+                    MOD(X, 40) + 1, 'Economy', MOD(X, 4) + 1, MOD(X, 500) + 10, 'cash', 'paid', 'confirmed',
+                    DATEADD('SECOND', -MOD(X * 7919, 31536000), CURRENT_TIMESTAMP), CONCAT('BK-', X)
+                FROM SYSTEM_RANGE(?, ?)
+                """, first, last);
+    }
+
+    private Result measure(Body body) throws Exception {
+        // Chỉ old gen: rác ngắn hạn của từng dòng chết ở young gen, dữ liệu bị giữ lại mới lên đây
+        List<MemoryPoolMXBean> heapPools = ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP)
+                .filter(pool -> pool.getName().contains("Old") || pool.getName().contains("Tenured"))
+                .toList();
+        System.gc();
+        long baseline = heapPools.stream().mapToLong(pool -> pool.getUsage().getUsed()).sum();
+        heapPools.forEach(MemoryPoolMXBean::resetPeakUsage);
+
+        CountingStream.total = 0;
+        long start = System.nanoTime();
+        body.run();
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        long peak = heapPools.stream().mapToLong(pool -> pool.getPeakUsage().getUsed()).sum();
+        return new Result(elapsedMs, Math.max(peak - baseline, 0), CountingStream.total);
+    }
+
+    private void print(String variant, int orders, Result r) {
+        System.out.printf("%-16s %,10d %10d %18.1f%n", variant, orders, r.elapsedMs(), r.peakHeapDelta() / 1e6);
+    }
+
+    private interface Body {
+        void run() throws Exception;
+    }
+
+    private record Result(long elapsedMs, long peakHeapDelta, long bytes) {
+    }
+
+    // Bỏ dữ liệu, chỉ đếm số byte
+    private static final class CountingStream extends OutputStream {
+        static long total;
+
+        @Override
+        public void write(int b) {
+            total++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            total += len;
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package com.example.orders_service.service;
+
+import com.example.orders_service.client.TicketsServiceClient;
+import com.example.orders_service.entity.Order;
+import com.example.orders_service.entity.OrderOutbox;
+import com.example.orders_service.exception.ServiceUnavailableException;
+import com.example.orders_service.repository.OrderOutboxRepository;
+import com.example.orders_service.repository.OrderRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * OrderOutboxDispatcher against a real (H2) order_outbox table and a mocked Tickets Service: which
+ * answers are permanent, and what happens to the order and its later entries when one entry fails.
+ */
+@DataJpaTest(showSql = false)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:orders-outbox;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "logging.level.root=WARN"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // như dispatcher: chạy ngoài transaction
+class OrderOutboxDispatcherTest {
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    @Autowired
+    private OrderOutboxRepository outboxRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final TicketsServiceClient ticketsServiceClient = mock(TicketsServiceClient.class);
+    private final OrderAggregates orderAggregates = mock(OrderAggregates.class);
+    private OrderOutboxDispatcher dispatcher;
+    private Order order;
+
+    @BeforeEach
+    void setUp() {
+        outboxRepository.deleteAll();
+        orderRepository.deleteAll();
+        order = new Order();
+        order.setUserRefId(1);
+        order.setScheduleRefId(1);
+        order.setQuantity(2);
+        order.setOrderStatus(Order.OrderStatus.confirmed);
+        order.setPaymentStatus(Order.PaymentStatus.paid);
+        order = orderRepository.save(order);
+        // Backoff 0: entry retry đến hạn ngay ở lần dispatch sau
+        dispatcher = new OrderOutboxDispatcher(outboxRepository, orderRepository, ticketsServiceClient,
+                new TransactionTemplate(transactionManager), orderAggregates, 100, MAX_ATTEMPTS, 0, 0);
+    }
+
+    private OrderOutbox entry(OrderOutbox.EventType type) {
+        OrderOutbox entry = new OrderOutbox();
+        entry.setOrderId(order.getId());
+        entry.setEventType(type);
+        entry.setTicketRefId(7);
+        entry.setQuantity(2);
+        entry.setIdempotencyKey(UUID.randomUUID().toString());
+        entry.setNextAttemptAt(LocalDateTime.now().minusSeconds(1));
+        return outboxRepository.save(entry);
+    }
+
+    private static ServiceUnavailableException answered(HttpStatus status, String body) {
+        return new ServiceUnavailableException("Tickets service is temporarily unavailable.",
+                HttpClientErrorException.create(status, status.getReasonPhrase(), null,
+                        body.getBytes(StandardCharsets.UTF_8), StandardCharsets.UTF_8));
+    }
+
+    private OrderOutbox reload(OrderOutbox entry) {
+        return outboxRepository.findById(entry.getId()).orElseThrow();
+    }
+
+    private Order reloadOrder() {
+        return orderRepository.findById(order.getId()).orElseThrow();
+    }
+
+    @Test
+    void notEnoughTicketsCancelsTheOrderAndItsLaterEntries() {
+        OrderOutbox decrease = entry(OrderOutbox.EventType.decrease_quantity);
+        OrderOutbox increase = entry(OrderOutbox.EventType.increase_quantity);
+        doThrow(answered(HttpStatus.CONFLICT, "{\"error\":\"Insufficient tickets available. Requested: 2, Available: 1\"}"))
+                .when(ticketsServiceClient).decreaseTicketQuantity(anyInt(), anyInt(), anyString());
+
+        dispatcher.dispatch();
+
+        assertThat(reload(decrease).getStatus()).isEqualTo(OrderOutbox.Status.failed);
+        assertThat(reload(increase).getStatus()).isEqualTo(OrderOutbox.Status.failed);
+        assertThat(reloadOrder().getOrderStatus()).isEqualTo(Order.OrderStatus.cancelled);
+        // Chưa hoàn tiền thật: chờ bước hoàn tiền
+        assertThat(reloadOrder().getPaymentStatus()).isEqualTo(Order.PaymentStatus.refund_pending);
+        verify(ticketsServiceClient, never()).increaseTicketQuantity(anyInt(), anyInt(), anyString());
+    }
+
+    @Test
+    void otherClientErrorsAreRetriedAndKeepThePaidOrder() {
+        OrderOutbox decrease = entry(OrderOutbox.EventType.decrease_quantity);
+        // Chỉ mã 409 là vĩnh viễn, kể cả khi nội dung 400 giống thông báo hết vé
+        doThrow(answered(HttpStatus.UNAUTHORIZED, ""))
+                .doThrow(answered(HttpStatus.BAD_REQUEST, "{\"error\":\"Insufficient tickets available\"}"))
+                .doNothing()
+                .when(ticketsServiceClient).decreaseTicketQuantity(anyInt(), anyInt(), anyString());
+
+        dispatcher.dispatch();
+        dispatcher.dispatch();
+        assertThat(reload(decrease).getStatus()).isEqualTo(OrderOutbox.Status.pending);
+        assertThat(reloadOrder().getOrderStatus()).isEqualTo(Order.OrderStatus.confirmed);
+
+        dispatcher.dispatch();
+        assertThat(reload(decrease).getStatus()).isEqualTo(OrderOutbox.Status.sent);
+        assertThat(reload(decrease).getAttempts()).isEqualTo(3);
+        assertThat(reloadOrder().getOrderStatus()).isEqualTo(Order.OrderStatus.confirmed);
+    }
+
+    @Test
+    void exhaustedDecreaseCancelsTheOrderAndNeverReleasesItsSeats() {
+        OrderOutbox decrease = entry(OrderOutbox.EventType.decrease_quantity);
+        OrderOutbox increase = entry(OrderOutbox.EventType.increase_quantity);
+        doThrow(new ServiceUnavailableException("down", new ResourceAccessException("Connection refused")))
+                .when(ticketsServiceClient).decreaseTicketQuantity(anyInt(), anyInt(), anyString());
+
+        for (int i = 0; i < MAX_ATTEMPTS + 2; i++) {
+            dispatcher.dispatch();
+        }
+
+        assertThat(reload(decrease).getStatus()).isEqualTo(OrderOutbox.Status.failed);
+        assertThat(reload(decrease).getAttempts()).isEqualTo(MAX_ATTEMPTS);
+        assertThat(reload(increase).getStatus()).isEqualTo(OrderOutbox.Status.failed);
+        assertThat(reloadOrder().getOrderStatus()).isEqualTo(Order.OrderStatus.cancelled);
+        verify(ticketsServiceClient, never()).increaseTicketQuantity(anyInt(), anyInt(), anyString());
+        verify(orderAggregates).recordChanged(any(), any());
+    }
+
+    @Test
+    void entryBehindAnAlreadyFailedOneIsNotDelivered() {
+        // Dữ liệu cũ: decrease đã failed nhưng increase sau nó vẫn pending
+        OrderOutbox decrease = entry(OrderOutbox.EventType.decrease_quantity);
+        decrease.setStatus(OrderOutbox.Status.failed);
+        outboxRepository.save(decrease);
+        OrderOutbox increase = entry(OrderOutbox.EventType.increase_quantity);
+
+        dispatcher.dispatch();
+
+        assertThat(reload(increase).getStatus()).isEqualTo(OrderOutbox.Status.failed);
+        verify(ticketsServiceClient, never()).increaseTicketQuantity(anyInt(), anyInt(), anyString());
+    }
+}
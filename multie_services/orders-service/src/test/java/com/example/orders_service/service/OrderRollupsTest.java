@@ -0,0 +1,202 @@
+package com.example.orders_service.service;
+
+import com.example.orders_service.entity.Order;
+import com.example.orders_service.entity.OrderRollup;
+import com.example.orders_service.repository.OrderRepository;
+import com.example.orders_service.repository.OrderRollupRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * OrderRollups on a seeded orders table spanning 200 days: compaction can run any number of times,
+ * a late change to an hour that was already folded into a day or a month still counts, and the
+ * timeseries at every granularity gives the totals of the raw orders.
+ */
+@DataJpaTest(showSql = false)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:orders-rollups;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.example.orders_service.service.H2MySql$Inspector",
+        "logging.level.root=WARN"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrderRollupsTest {
+
+    private static final int ORDERS = 2_000;
+    private static final long HOURLY_RETENTION_HOURS = 48;
+    private static final long DAILY_RETENTION_DAYS = 90;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderRollupRepository orderRollupRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private OrderRollups rollups;
+
+    @BeforeEach
+    void seedOrders() {
+        H2MySql.install(jdbcTemplate);
+        jdbcTemplate.update("DELETE FROM order_rollups");
+        jdbcTemplate.update("DELETE FROM orders");
+        // 200 ngày order, vài order không có phương thức thanh toán
+        jdbcTemplate.update("""
+                INSERT INTO orders (user_ref_id, schedule_ref_id, quantity, total_amount, payment_method,
+                    payment_status, order_status, created_at)
+                SELECT MOD(X, 50) + 1, MOD(X, 3) + 1, 1, MOD(X, 90) + 10.5,
+                    CASEWHEN(MOD(X, 17) = 0, NULL, CASEWHEN(MOD(X, 2) = 0, 'cash', 'ewallet')),
+                    CASEWHEN(MOD(X, 4) = 0, 'pending', CASEWHEN(MOD(X, 4) = 3, 'refunded', 'paid')),
+                    'confirmed',
+                    DATEADD('MINUTE', -MOD(X * 7919, 288000), CURRENT_TIMESTAMP)
+                FROM SYSTEM_RANGE(1, ?)
+                """, ORDERS);
+        rollups = new OrderRollups(orderRollupRepository, transactionManager, HOURLY_RETENTION_HOURS, DAILY_RETENTION_DAYS);
+    }
+
+    // Tổng theo khung tính thẳng từ bảng orders
+    private Map<LocalDateTime, String> rawTotals(LocalDateTime from, LocalDateTime to, OrderRollup.Granularity granularity) {
+        Map<LocalDateTime, long[]> counts = new TreeMap<>();
+        Map<LocalDateTime, BigDecimal> revenue = new TreeMap<>();
+        jdbcTemplate.query("SELECT created_at, payment_status, total_amount FROM orders WHERE created_at >= ? AND created_at < ?",
+                rs -> {
+                    LocalDateTime bucket = truncate(rs.getTimestamp("created_at").toLocalDateTime(), granularity);
+                    counts.computeIfAbsent(bucket, b -> new long[1])[0]++;
+                    BigDecimal paid = "paid".equals(rs.getString("payment_status")) ? rs.getBigDecimal("total_amount") : BigDecimal.ZERO;
+                    revenue.merge(bucket, paid, BigDecimal::add);
+                }, from, to);
+        return counts.keySet().stream().collect(Collectors.toMap(b -> b,
+                b -> counts.get(b)[0] + " " + revenue.get(b).stripTrailingZeros().toPlainString(), (a, b) -> a, TreeMap::new));
+    }
+
+    private Map<LocalDateTime, String> timeseries(LocalDateTime from, LocalDateTime to, OrderRollup.Granularity granularity) {
+        return rollups.timeseries(from, to, granularity, null, null).stream()
+                .filter(p -> p.orders() != 0)
+                .collect(Collectors.toMap(OrderRollups.Point::bucket,
+                        p -> p.orders() + " " + p.revenue().stripTrailingZeros().toPlainString(), (a, b) -> a, TreeMap::new));
+    }
+
+    private static LocalDateTime truncate(LocalDateTime time, OrderRollup.Granularity granularity) {
+        return switch (granularity) {
+            case hour -> time.truncatedTo(ChronoUnit.HOURS);
+            case day -> time.truncatedTo(ChronoUnit.DAYS);
+            case month -> time.truncatedTo(ChronoUnit.DAYS).withDayOfMonth(1);
+        };
+    }
+
+    private Set<String> rows() {
+        return orderRollupRepository.findAll().stream()
+                .map(r -> r.getGranularity() + " " + r.getBucketStart() + " " + r.getPaymentMethod() + " "
+                        + r.getScheduleRefId() + " " + r.getOrderCount() + " " + r.getPaidRevenue().stripTrailingZeros().toPlainString())
+                .collect(Collectors.toSet());
+    }
+
+    // Các mốc gộp như OrderRollups.compact(): giờ trước hourCutoff thành ngày, ngày trước dayCutoff thành tháng
+    private static LocalDateTime hourCutoff() {
+        return LocalDateTime.now().minusHours(HOURLY_RETENTION_HOURS).truncatedTo(ChronoUnit.DAYS);
+    }
+
+    private static LocalDateTime dayCutoff() {
+        return truncate(LocalDateTime.now().minusDays(DAILY_RETENTION_DAYS), OrderRollup.Granularity.month);
+    }
+
+    private void assertCompacted() {
+        assertThat(orderRollupRepository.findAll()).noneMatch(r ->
+                r.getGranularity() == OrderRollup.Granularity.hour && r.getBucketStart().isBefore(hourCutoff())
+                        || r.getGranularity() == OrderRollup.Granularity.day && r.getBucketStart().isBefore(dayCutoff()));
+    }
+
+    private void assertTimeseriesMatchesOrders() {
+        LocalDateTime to = LocalDateTime.now().plusHours(1);
+        LocalDateTime firstMonth = truncate(LocalDateTime.now().minusDays(210), OrderRollup.Granularity.month);
+        assertThat(timeseries(firstMonth, to, OrderRollup.Granularity.month))
+                .isEqualTo(rawTotals(firstMonth, to, OrderRollup.Granularity.month));
+        // Khoảng còn dòng ngày / dòng giờ
+        LocalDateTime lastDays = dayCutoff();
+        assertThat(timeseries(lastDays, to, OrderRollup.Granularity.day))
+                .isEqualTo(rawTotals(lastDays, to, OrderRollup.Granularity.day));
+        LocalDateTime lastHours = hourCutoff();
+        assertThat(timeseries(lastHours, to, OrderRollup.Granularity.hour))
+                .isEqualTo(rawTotals(lastHours, to, OrderRollup.Granularity.hour));
+    }
+
+    @Test
+    void timeseriesGivesTheTotalsOfTheRawOrders() {
+        rollups.rebuild();
+
+        assertCompacted();
+        assertTimeseriesMatchesOrders();
+        assertThat(orderRollupRepository.findAll()).extracting(OrderRollup::getGranularity)
+                .contains(OrderRollup.Granularity.hour, OrderRollup.Granularity.day, OrderRollup.Granularity.month);
+    }
+
+    @Test
+    void compactionCanRunAgainWithoutChangingAnything() {
+        rollups.rebuild();
+        Set<String> compacted = rows();
+
+        rollups.compact();
+        rollups.compact();
+
+        assertThat(rows()).isEqualTo(compacted);
+        assertTimeseriesMatchesOrders();
+    }
+
+    @Test
+    void lateChangeToAnAlreadyCompactedHourIsCounted() {
+        rollups.rebuild();
+        Order inDay = orderCreatedAround(LocalDateTime.now().minusDays(10));
+        Order inMonth = orderCreatedAround(LocalDateTime.now().minusDays(150));
+
+        // Hoàn tiền một order nằm trong dòng ngày, đổi phương thức thanh toán của order nằm trong dòng tháng
+        change(inDay, order -> order.setPaymentStatus(Order.PaymentStatus.refunded));
+        change(inMonth, order -> order.setPaymentMethod(Order.PaymentMethod.credit_card));
+        assertThat(orderRollupRepository.findAll())
+                .anyMatch(r -> r.getGranularity() == OrderRollup.Granularity.hour && r.getBucketStart().isBefore(dayCutoff()));
+        assertTimeseriesMatchesOrders();
+
+        rollups.compact();
+        assertCompacted();
+        assertTimeseriesMatchesOrders();
+    }
+
+    private Order orderCreatedAround(LocalDateTime time) {
+        Integer id = jdbcTemplate.queryForObject("SELECT id FROM orders WHERE payment_status = 'paid' AND payment_method = 'cash' "
+                + "ORDER BY ABS(DATEDIFF('MINUTE', created_at, ?)) LIMIT 1", Integer.class, time);
+        return orderRepository.findById(id).orElseThrow();
+    }
+
+    private void change(Order order, Consumer<Order> change) {
+        OrderAggregates.Snapshot before = OrderAggregates.snapshot(order);
+        change.accept(order);
+        rollups.recordChanged(before, OrderAggregates.snapshot(orderRepository.save(order)));
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.orders_service.service;
+
+import com.example.orders_service.client.ScheduleServiceClient;
+import com.example.orders_service.dto.ScheduleResponse;
+import com.example.orders_service.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ScheduleCacheTest {
+
+    private static final int SCHEDULE_ID = 7;
+
+    private final ScheduleServiceClient client = mock(ScheduleServiceClient.class);
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final ScheduleCache cache = new ScheduleCache(client, executor, new SimpleMeterRegistry(), 100, 60, 600);
+
+    @AfterEach
+    void shutdown() {
+        executor.close();
+    }
+
+    private static ScheduleResponse schedule(String status) {
+        ScheduleResponse schedule = new ScheduleResponse();
+        schedule.setId((long) SCHEDULE_ID);
+        schedule.setStatus(status);
+        return schedule;
+    }
+
+    @Test
+    void invalidationDuringALoadDropsItsResult() {
+        Sinks.One<ScheduleResponse> remote = Sinks.one();
+        AtomicInteger calls = new AtomicInteger();
+
+        Mono<ScheduleResponse> first = cache.get(SCHEDULE_ID, id -> {
+            calls.incrementAndGet();
+            return remote.asMono();
+        }).cache();
+        first.subscribe();
+        // Schedules Service đổi lịch trình trong lúc bản cũ đang được tải
+        cache.invalidate(SCHEDULE_ID);
+        remote.tryEmitValue(schedule("scheduled"));
+        assertThat(first.block().getStatus()).isEqualTo("scheduled");
+
+        ScheduleResponse fresh = cache.get(SCHEDULE_ID, id -> {
+            calls.incrementAndGet();
+            return Mono.just(schedule("cancelled"));
+        }).block();
+
+        assertThat(fresh.getStatus()).isEqualTo("cancelled");
+        assertThat(calls).hasValue(2);
+    }
+
+    @Test
+    void concurrentMissesShareOneLoad() {
+        Sinks.One<ScheduleResponse> remote = Sinks.one();
+        AtomicInteger calls = new AtomicInteger();
+
+        Mono<ScheduleResponse> first = cache.get(SCHEDULE_ID, id -> {
+            calls.incrementAndGet();
+            return remote.asMono();
+        }).cache();
+        Mono<ScheduleResponse> second = cache.get(SCHEDULE_ID, id -> {
+            calls.incrementAndGet();
+            return Mono.just(schedule("other"));
+        }).cache();
+        first.subscribe();
+        second.subscribe();
+        remote.tryEmitValue(schedule("scheduled"));
+
+        assertThat(second.block().getStatus()).isEqualTo("scheduled");
+        assertThat(cache.get(SCHEDULE_ID).getStatus()).isEqualTo("scheduled");
+        assertThat(calls).hasValue(1);
+    }
+
+    @Test
+    void failedLoadIsNotCachedAndKeepsItsException() {
+        when(client.getSchedule(SCHEDULE_ID))
+                .thenThrow(new ServiceUnavailableException("Schedules service is temporarily unavailable."))
+                .thenReturn(schedule("scheduled"));
+
+        assertThatThrownBy(() -> cache.get(SCHEDULE_ID)).isInstanceOf(ServiceUnavailableException.class);
+        assertThat(cache.get(SCHEDULE_ID).getStatus()).isEqualTo("scheduled");
+    }
+}
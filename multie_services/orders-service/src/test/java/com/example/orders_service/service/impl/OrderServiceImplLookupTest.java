@@ -0,0 +1,87 @@
+package com.example.orders_service.service.impl;
+
+import com.example.orders_service.client.PaymentServiceClient;
+import com.example.orders_service.client.TicketsServiceClient;
+import com.example.orders_service.dto.OrderRequest;
+import com.example.orders_service.exception.ServiceUnavailableException;
+import com.example.orders_service.repository.OrderOutboxRepository;
+import com.example.orders_service.repository.OrderRepository;
+import com.example.orders_service.service.OrderAggregates;
+import com.example.orders_service.service.ScheduleCache;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * createOrder's lookups on virtual threads: a lookup that misses the shared deadline is
+ * interrupted instead of running on with its HTTP connection.
+ */
+class OrderServiceImplLookupTest {
+
+    private final TicketsServiceClient ticketsServiceClient = mock(TicketsServiceClient.class);
+    private final ExecutorService lookupExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    @AfterEach
+    void shutdown() {
+        lookupExecutor.close();
+    }
+
+    @SuppressWarnings("unchecked")
+    private OrderServiceImpl service(long lookupTimeoutMs) {
+        OrderServiceImpl service = new OrderServiceImpl(
+                mock(OrderRepository.class), mock(OrderOutboxRepository.class), mock(TransactionTemplate.class),
+                ticketsServiceClient, mock(PaymentServiceClient.class), mock(ScheduleCache.class),
+                mock(OrderAggregates.class), new ObjectMapper(), lookupExecutor,
+                mock(ObjectProvider.class), mock(ObjectProvider.class), mock(ObjectProvider.class),
+                new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(service, "lookupTimeoutMs", lookupTimeoutMs);
+        return service;
+    }
+
+    @Test
+    void lookupPastTheDeadlineIsInterrupted() {
+        CountDownLatch interrupted = new CountDownLatch(1);
+        when(ticketsServiceClient.getTicket(1)).thenAnswer(invocation -> {
+            // Tickets Service không trả lời: chờ đến khi bị ngắt
+            try {
+                Thread.sleep(60_000);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+                throw new ResourceAccessException("I/O interrupted");
+            }
+            return null;
+        });
+        OrderRequest request = new OrderRequest();
+        request.setTicketTypeRefId(1);
+        request.setQuantity(1);
+
+        assertThatThrownBy(() -> service(100).createOrder(request))
+                .isInstanceOf(ServiceUnavailableException.class)
+                .hasMessageContaining("did not respond within 100 ms");
+        assertThat(awaitQuietly(interrupted)).isTrue();
+    }
+
+    private static boolean awaitQuietly(CountDownLatch latch) {
+        try {
+            return latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -1,31 +0,0 @@
-package com.example.payment_service.config;
-
-import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.Jws;
-import io.jsonwebtoken.JwtException;
-import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.security.Keys;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.stereotype.Component;
-
-import java.security.Key;
-
-@Component
-public class JwtUtils {
-
-    private final Key key;
-
-    // Inject secret key từ file application.properties
-    public JwtUtils(@Value("${app.jwt.secret}") String secret) {
-        this.key = Keys.hmacShaKeyFor(secret.getBytes());
-    }
-
-    // Hàm giải mã và validate token
-    // Nếu token hết hạn hoặc sai chữ ký, nó sẽ ném ra JwtException
-    public Jws<Claims> validateAndParse(String token) throws JwtException {
-        return Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token);
-    }
-}
\ No newline at end of file
@@ -19,6 +19,11 @@ taskkill /F /FI "WINDOWTITLE eq Trains*" 2>nul
 taskkill /F /FI "WINDOWTITLE eq Schedules*" 2>nul
 timeout /t 2 /nobreak >nul
 
+echo.
+echo Installing common-security (shared JWT filter used by every service) and common-web...
+call gateway\mvnw.cmd -q -f common-security\pom.xml install -DskipTests || exit /b 1
+call gateway\mvnw.cmd -q -f common-web\pom.xml install -DskipTests || exit /b 1
+
 echo.
 echo Starting services...
 echo.
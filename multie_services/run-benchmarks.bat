@@ -0,0 +1,35 @@
+@echo off
+echo ========================================
+echo JMH Benchmarks - booking hot path
+echo ========================================
+echo.
+echo Builds orders-service and tickets-service, packages benchmarks\target\benchmarks.jar
+echo and runs every benchmark. No database or running service is needed.
+echo.
+echo Usage: run-benchmarks.bat [JMH options]
+echo   e.g. run-benchmarks.bat OrderServiceBenchmark        (only matching benchmarks)
+echo        run-benchmarks.bat -prof gc                     (allocation per operation)
+echo.
+
+echo [1/3] Installing common-security, common-web, orders-service and tickets-service (tests skipped)...
+call orders-service\mvnw.cmd -q -f common-security\pom.xml install -DskipTests || goto :error
+call orders-service\mvnw.cmd -q -f common-web\pom.xml install -DskipTests || goto :error
+call orders-service\mvnw.cmd -q -f orders-service\pom.xml install -DskipTests || goto :error
+call tickets-service\mvnw.cmd -q -f tickets-service\pom.xml install -DskipTests || goto :error
+
+echo [2/3] Packaging benchmarks...
+call orders-service\mvnw.cmd -q -f benchmarks\pom.xml package || goto :error
+
+echo [3/3] Running benchmarks...
+java -jar benchmarks\target\benchmarks.jar -rf json -rff benchmark-results.json %*
+
+echo.
+echo ========================================
+echo Results: benchmark-results.json
+echo Keep a copy as the baseline before a change, then compare the Score columns.
+echo ========================================
+exit /b 0
+
+:error
+echo Build failed.
+exit /b 1
@@ -0,0 +1,52 @@
+@echo off
+echo ========================================
+echo End-to-end Load Test through the Gateway
+echo ========================================
+echo.
+echo Starts auth, schedules, tickets, orders, payment and the gateway with the
+echo "loadtest" profile: in-memory H2 (MySQL mode) instead of MySQL, seeded
+echo schedules and tickets, and no Redis rate limiter on the gateway.
+echo Then runs loadtest\GatewayLoadTest.java (signin, browse, create, confirm, cancel).
+echo.
+echo Usage: run-loadtest.bat [users] [durationSeconds] [p99LimitMs] [maxErrorPercent]
+echo Exit code 1 when an endpoint is over the p99 or error-rate limit.
+echo.
+
+set USERS=%1
+if "%USERS%"=="" set USERS=50
+set DURATION=%2
+if "%DURATION%"=="" set DURATION=60
+set P99_LIMIT=%3
+if "%P99_LIMIT%"=="" set P99_LIMIT=2000
+set MAX_ERRORS=%4
+if "%MAX_ERRORS%"=="" set MAX_ERRORS=1
+
+set RUN=spring-boot:run -Ploadtest -Dspring-boot.run.profiles=loadtest
+
+echo [1/3] Installing common-security (shared JWT filter) and common-web, then starting services...
+call orders-service\mvnw.cmd -q -f common-security\pom.xml install -DskipTests || exit /b 1
+call orders-service\mvnw.cmd -q -f common-web\pom.xml install -DskipTests || exit /b 1
+start "LoadTest-Auth-5001" cmd /k "cd auth-service && mvnw.cmd %RUN%"
+start "LoadTest-Schedules-5005" cmd /k "cd schedules-service && mvnw.cmd %RUN%"
+start "LoadTest-Tickets-5004" cmd /k "cd tickets-service && mvnw.cmd %RUN%"
+start "LoadTest-Orders-5006" cmd /k "cd orders-service && mvnw.cmd %RUN%"
+start "LoadTest-Payment-5007" cmd /k "cd payment-service && mvnw.cmd %RUN%"
+start "LoadTest-Gateway-8888" cmd /k "cd gateway && mvnw.cmd %RUN%"
+
+echo [2/3] Wait until every window shows "Started ...Application", then
+pause
+
+echo [3/3] Running load test...
+java loadtest\GatewayLoadTest.java http://localhost:8888 %USERS% %DURATION% 10 %P99_LIMIT% %MAX_ERRORS% > loadtest-results.txt
+set RESULT=%ERRORLEVEL%
+type loadtest-results.txt
+
+echo.
+echo Stopping services...
+taskkill /F /FI "WINDOWTITLE eq LoadTest-*" 2>nul
+
+echo ========================================
+echo Results: loadtest-results.txt
+echo Keep a copy as the baseline before a change, then compare p99 and req/s.
+echo ========================================
+exit /b %RESULT%
@@ -0,0 +1,73 @@
+package com.example.schedules_service.client;
+
+import com.example.common.security.IdentityHeader;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Tells services that cache schedules (e.g. Orders Service) to drop a schedule after it changes.
+ * Sent in the background so schedule updates do not wait on other services; a lost
+ * notification only means the cached copy lives until its TTL.
+ *
+ * The cache endpoints only accept role SERVICE, so each call carries an X-Auth-Identity signed
+ * for schedules-service with the shared app.identity.secret.
+ */
+@Component
+@Slf4j
+public class ScheduleChangeNotifier {
+
+    static final String NAME = "schedules-service";
+    static final String ROLE = "SERVICE";
+    // Thông báo hiếm và gửi ngay: identity ngắn hạn, ký lại mỗi lần
+    private static final long IDENTITY_TTL_SECONDS = 60;
+
+    private final RestTemplate restTemplate;
+    private final IdentityHeader identityHeader;
+    private final List<String> invalidationUrls;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public ScheduleChangeNotifier(IdentityHeader identityHeader,
+                                  HttpComponentsClientHttpRequestFactory pooledRequestFactory,
+                                  @Value("${schedules.cache-invalidation.urls:}") List<String> invalidationUrls) {
+        this.identityHeader = identityHeader;
+        // Pool, keep-alive và timeout: http.client.* (common-web)
+        this.restTemplate = new RestTemplate(pooledRequestFactory);
+        this.invalidationUrls = invalidationUrls.stream().filter(url -> !url.isBlank()).toList();
+    }
+
+    public void scheduleChanged(Long scheduleId) {
+        if (invalidationUrls.isEmpty()) {
+            return;
+        }
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(IdentityHeader.NAME, identityHeader.sign(
+                null, NAME, ROLE, System.currentTimeMillis() / 1000 + IDENTITY_TTL_SECONDS));
+        HttpEntity<Void> request = new HttpEntity<>(headers);
+        for (String url : invalidationUrls) {
+            executor.execute(() -> {
+                try {
+                    restTemplate.exchange(url + "/" + scheduleId, HttpMethod.DELETE, request, Void.class);
+                } catch (RestClientException e) {
+                    log.warn("Failed to invalidate schedule {} at {}: {}", scheduleId, url, e.getMessage());
+                }
+            });
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.close();
+    }
+}
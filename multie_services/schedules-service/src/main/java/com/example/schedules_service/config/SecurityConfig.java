@@ -1,16 +1,16 @@
 package com.example.schedules_service.config;
 
+import com.example.common.security.JwtAuthenticationFilter;
+import com.example.common.security.JwtSecurity;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
-import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
-import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
 @Configuration
 @EnableWebSecurity
@@ -22,17 +22,8 @@ public class SecurityConfig {
 
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
-        http
-                // Tắt CSRF vì dùng JWT (Stateless)
-                .csrf(csrf -> csrf.disable())
-
-                // Không lưu session phía server
-                .sessionManagement(sess -> sess.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
-
-                // Tắt form login mặc định
-                .formLogin(f -> f.disable())
-                .httpBasic(h -> h.disable())
-
+        // Stateless, không CSRF / form login, Filter JWT trước filter xác thực mặc định
+        JwtSecurity.statelessJwt(http, jwtAuthenticationFilter)
                 // Cấu hình phân quyền
                 .authorizeHttpRequests(auth -> auth
                         // Các endpoint public (Swagger, Actuator)
@@ -46,10 +37,7 @@ public class SecurityConfig {
 
                         // Các request còn lại bắt buộc phải đăng nhập
                         .anyRequest().authenticated()
-                )
-
-                // Thêm Filter JWT vào trước filter xác thực mặc định
-                .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
+                );
 
         return http.build();
     }
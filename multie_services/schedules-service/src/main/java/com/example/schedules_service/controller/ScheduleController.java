@@ -1,5 +1,7 @@
 package com.example.schedules_service.controller;
 
+import com.example.common.web.CursorPage;
+import com.example.common.web.LegacyList;
 import com.example.schedules_service.dto.ScheduleRequest;
 import com.example.schedules_service.dto.ScheduleResponse;
 import com.example.schedules_service.service.ScheduleService;
@@ -26,11 +28,21 @@ public class ScheduleController {
         return ResponseEntity.ok(scheduleService.create(request));
     }
 
-    // 2. GET ALL - USER & ADMIN
+    // 2. GET ALL - USER & ADMIN (deprecated: tối đa LegacyList.MAX_ROWS dòng, bỏ vào LegacyList.REMOVAL_DATE - dùng /page)
+    @Deprecated(since = "2026-10-18", forRemoval = true)
     @GetMapping
     @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
     public ResponseEntity<List<ScheduleResponse>> getAll() {
-        return ResponseEntity.ok(scheduleService.getAll());
+        return LegacyList.response(scheduleService.getAll(), "/api/schedules/page");
+    }
+
+    // 2.1. Get Page - keyset pagination (?cursor=&size=), giới hạn 100 dòng/trang
+    @GetMapping("/page")
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    public ResponseEntity<CursorPage<ScheduleResponse>> getPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(scheduleService.getPage(cursor, size));
     }
 
     // 2.1. GET BY ID
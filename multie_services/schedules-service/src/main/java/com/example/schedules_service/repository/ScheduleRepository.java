@@ -1,9 +1,13 @@
 package com.example.schedules_service.repository;
 
 import com.example.schedules_service.entity.Schedule;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface ScheduleRepository extends JpaRepository<Schedule, Long> {
+    // Keyset pagination: trang tiếp theo bắt đầu sau id cuối của trang trước (Slice đọc thêm 1 dòng để biết còn trang sau)
+    Slice<Schedule> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
 }
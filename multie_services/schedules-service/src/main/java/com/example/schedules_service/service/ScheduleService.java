@@ -1,13 +1,15 @@
 package com.example.schedules_service.service;
 
+import com.example.common.web.CursorPage;
 import com.example.schedules_service.dto.ScheduleRequest;
 import com.example.schedules_service.dto.ScheduleResponse;
 
-import java.util.List;
 
 public interface ScheduleService {
     ScheduleResponse create(ScheduleRequest request);
-    List<ScheduleResponse> getAll();
+    // GET danh sách cũ (deprecated): chỉ LegacyList.MAX_ROWS dòng đầu, hasNext = còn dòng bị bỏ
+    CursorPage<ScheduleResponse> getAll();
+    CursorPage<ScheduleResponse> getPage(String cursor, int size);
     ScheduleResponse getById(Long id);
     ScheduleResponse update(Long id, ScheduleRequest request);
     void delete(Long id);
@@ -1,5 +1,8 @@
 package com.example.schedules_service.service.impl;
 
+import com.example.common.web.CursorPage;
+import com.example.common.web.LegacyList;
+import com.example.schedules_service.client.ScheduleChangeNotifier;
 import com.example.schedules_service.dto.ScheduleRequest;
 import com.example.schedules_service.dto.ScheduleResponse;
 import com.example.schedules_service.entity.Schedule;
@@ -11,14 +14,13 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
 import java.time.Duration;
-import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class ScheduleServiceImpl implements ScheduleService {
 
     private final ScheduleRepository scheduleRepository;
+    private final ScheduleChangeNotifier scheduleChangeNotifier;
 
     @Override
     public ScheduleResponse create(ScheduleRequest request) {
@@ -32,10 +34,17 @@ public class ScheduleServiceImpl implements ScheduleService {
     }
 
     @Override
-    public List<ScheduleResponse> getAll() {
-        return scheduleRepository.findAll().stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+    public CursorPage<ScheduleResponse> getAll() {
+        return CursorPage.of(
+                scheduleRepository.findByIdGreaterThanOrderByIdAsc(0L, LegacyList.firstRows()),
+                this::mapToResponse, Schedule::getId);
+    }
+
+    @Override
+    public CursorPage<ScheduleResponse> getPage(String cursor, int size) {
+        return CursorPage.of(
+                scheduleRepository.findByIdGreaterThanOrderByIdAsc(CursorPage.afterId(cursor), CursorPage.limit(size)),
+                this::mapToResponse, Schedule::getId);
     }
 
     @Override
@@ -56,7 +65,10 @@ public class ScheduleServiceImpl implements ScheduleService {
         // Cập nhật thông tin
         mapRequestToEntity(request, schedule);
 
-        return mapToResponse(scheduleRepository.save(schedule));
+        ScheduleResponse response = mapToResponse(scheduleRepository.save(schedule));
+        // Báo các service đang cache lịch trình (đổi giờ, hủy chuyến...) xóa bản cũ
+        scheduleChangeNotifier.scheduleChanged(id);
+        return response;
     }
 
     @Override
@@ -65,6 +77,7 @@ public class ScheduleServiceImpl implements ScheduleService {
             throw new NotFoundException("Schedule not found with id: " + id);
         }
         scheduleRepository.deleteById(id);
+        scheduleChangeNotifier.scheduleChanged(id);
     }
 
     // --- Hàm Validation mới ---
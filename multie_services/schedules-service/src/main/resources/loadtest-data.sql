@@ -0,0 +1,7 @@
+-- Load test seed (profile loadtest): 50 schedules, ids 1..50, departing over the next 50 days
+INSERT INTO schedules (train_ref_id, train_number_snapshot, departure_station_ref_id, departure_station_name_snapshot,
+    arrival_station_ref_id, arrival_station_name_snapshot, departure_time, arrival_time, status, created_at)
+SELECT MOD(X, 5) + 1, CONCAT('SE', MOD(X, 5) + 1), 1, 'Ha Noi', 2, 'Sai Gon',
+    DATEADD('HOUR', 19, DATEADD('DAY', X, CURRENT_DATE)), DATEADD('HOUR', 52, DATEADD('DAY', X, CURRENT_DATE)),
+    'scheduled', CURRENT_TIMESTAMP
+FROM SYSTEM_RANGE(1, 50);
@@ -1,37 +0,0 @@
-package com.example.stations_service.config;
-
-import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.Jws;
-import io.jsonwebtoken.JwtException;
-import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.security.Keys;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.stereotype.Component;
-
-import java.security.Key;
-
-@Component
-public class JwtUtils {
-
-    private final Key key;
-
-    public JwtUtils(@Value("${app.jwt.secret}") String secret) {
-        this.key = Keys.hmacShaKeyFor(secret.getBytes());
-    }
-
-    public Jws<Claims> validateAndParse(String token) throws JwtException {
-        return Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token);
-    }
-
-    public boolean isTokenValid(String token) {
-        try {
-            validateAndParse(token);
-            return true;
-        } catch (JwtException ex) {
-            return false;
-        }
-    }
-}
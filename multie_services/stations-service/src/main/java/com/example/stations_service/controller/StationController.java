@@ -1,5 +1,7 @@
 package com.example.stations_service.controller;
 
+import com.example.common.web.CursorPage;
+import com.example.common.web.LegacyList;
 import com.example.stations_service.dto.StationRequest;
 import com.example.stations_service.dto.StationResponse;
 import com.example.stations_service.service.StationService;
@@ -18,11 +20,21 @@ public class StationController {
 
     private final StationService stationService;
 
-    // 1. Get All - USER & ADMIN (Hoặc Public tùy nghiệp vụ)
+    // 1. Get All - USER & ADMIN (Hoặc Public tùy nghiệp vụ) (deprecated: tối đa LegacyList.MAX_ROWS dòng, bỏ vào LegacyList.REMOVAL_DATE - dùng /page)
+    @Deprecated(since = "2026-10-18", forRemoval = true)
     @GetMapping
     @PreAuthorize("hasAnyRole('USER', 'ADMIN')") // Thêm quyền xem
     public ResponseEntity<List<StationResponse>> getAll() {
-        return ResponseEntity.ok(stationService.getAllStations());
+        return LegacyList.response(stationService.getAllStations(), "/api/stations/page");
+    }
+
+    // 1.1. Get Page - keyset pagination (?cursor=&size=), giới hạn 100 dòng/trang
+    @GetMapping("/page")
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')") // Thêm quyền xem
+    public ResponseEntity<CursorPage<StationResponse>> getPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(stationService.getStationsPage(cursor, size));
     }
 
     // 2. Get By ID - USER & ADMIN
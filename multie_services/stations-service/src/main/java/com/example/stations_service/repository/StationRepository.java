@@ -1,7 +1,11 @@
 package com.example.stations_service.repository;
 
 import com.example.stations_service.entity.Station;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 
 public interface StationRepository extends JpaRepository<Station, Long> {
+    // Keyset pagination: trang tiếp theo bắt đầu sau id cuối của trang trước (Slice đọc thêm 1 dòng để biết còn trang sau)
+    Slice<Station> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
 }
@@ -1,13 +1,15 @@
 package com.example.stations_service.service;
 
 
+import com.example.common.web.CursorPage;
 import com.example.stations_service.dto.StationRequest;
 import com.example.stations_service.dto.StationResponse;
 
-import java.util.List;
 
 public interface StationService {
-    List<StationResponse> getAllStations();
+    // GET danh sách cũ (deprecated): chỉ LegacyList.MAX_ROWS dòng đầu, hasNext = còn dòng bị bỏ
+    CursorPage<StationResponse> getAllStations();
+    CursorPage<StationResponse> getStationsPage(String cursor, int size);
     StationResponse getStationById(Long id);
     StationResponse updateStation(Long id, StationRequest request);
     StationResponse createStation(StationRequest request);
@@ -1,5 +1,7 @@
 package com.example.stations_service.service.impl;
 
+import com.example.common.web.CursorPage;
+import com.example.common.web.LegacyList;
 import com.example.stations_service.dto.StationRequest;
 import com.example.stations_service.dto.StationResponse;
 import com.example.stations_service.entity.Station;
@@ -9,7 +11,6 @@ import com.example.stations_service.service.StationService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
-import java.util.List;
 
 @Service
 @RequiredArgsConstructor
@@ -18,11 +19,17 @@ public class StationServiceImpl implements StationService {
     private final StationRepository stationRepository;
 
     @Override
-    public List<StationResponse> getAllStations() {
-        return stationRepository.findAll()
-                .stream()
-                .map(this::toResponse)
-                .toList();
+    public CursorPage<StationResponse> getAllStations() {
+        return CursorPage.of(
+                stationRepository.findByIdGreaterThanOrderByIdAsc(0L, LegacyList.firstRows()),
+                this::toResponse, Station::getId);
+    }
+
+    @Override
+    public CursorPage<StationResponse> getStationsPage(String cursor, int size) {
+        return CursorPage.of(
+                stationRepository.findByIdGreaterThanOrderByIdAsc(CursorPage.afterId(cursor), CursorPage.limit(size)),
+                this::toResponse, Station::getId);
     }
 
     @Override
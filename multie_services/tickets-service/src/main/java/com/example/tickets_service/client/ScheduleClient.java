@@ -1,9 +1,15 @@
 package com.example.tickets_service.client;
 
+import com.example.common.security.IdentityHeader;
 import com.example.tickets_service.dto.ScheduleResponse;
 import com.example.tickets_service.exception.NotFoundException;
 import com.example.tickets_service.exception.ServiceUnavailableException;
-import lombok.RequiredArgsConstructor;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
@@ -16,17 +22,46 @@ import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
 @Component
-@RequiredArgsConstructor
+@Slf4j
 public class ScheduleClient {
     
     private final RestTemplate restTemplate;
     
     @Value("${schedule.service.url}")
     private String scheduleServiceUrl;
+
+    // Optional.empty() = schedule không tồn tại (404), được cache ngắn hơn.
+    // Giữ future: lần tải đang chạy cũng là một entry, các miss đồng thời chờ trên nó
+    private final AsyncCache<Long, Optional<ScheduleResponse>> cache;
+
+    public ScheduleClient(RestTemplate restTemplate,
+                          MeterRegistry meterRegistry,
+                          @Value("${tickets.schedule-cache.max-size:5000}") long maxSize,
+                          @Value("${tickets.schedule-cache.ttl-seconds:300}") long ttlSeconds,
+                          @Value("${tickets.schedule-cache.negative-ttl-seconds:30}") long negativeTtlSeconds) {
+        this.restTemplate = restTemplate;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(Expiry.creating((Long id, Optional<ScheduleResponse> schedule) ->
+                        Duration.ofSeconds(schedule.isPresent() ? ttlSeconds : negativeTtlSeconds)))
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "tickets.schedules");
+    }
     
     /**
-     * Fetches schedule data from the Schedule Service API
+     * Fetches schedule data, from the local cache when possible.
+     * Concurrent misses for the same id wait for a single call to the Schedule Service,
+     * and a 404 is remembered for a short time. Other errors are not cached.
+     *
+     * The call is made on the caller's thread after the entry is in place, not inside the cache's
+     * map lock, so a slow Schedule Service never blocks lookups of other ids (nor pins a carrier).
      * 
      * @param scheduleId The ID of the schedule to fetch
      * @return ScheduleResponse containing schedule details
@@ -34,15 +69,51 @@ public class ScheduleClient {
      * @throws ServiceUnavailableException if the schedule service is unavailable
      */
     public ScheduleResponse getScheduleById(Long scheduleId) {
+        CompletableFuture<Optional<ScheduleResponse>> load = new CompletableFuture<>();
+        CompletableFuture<Optional<ScheduleResponse>> schedule = cache.get(scheduleId, (id, executor) -> load);
+        if (schedule == load) {
+            try {
+                load.complete(fetchSchedule(scheduleId));
+            } catch (RuntimeException e) {
+                // Lỗi không được cache: bỏ entry trước khi báo cho các request đang chờ
+                cache.asMap().remove(scheduleId, load);
+                load.completeExceptionally(e);
+                throw e;
+            }
+        }
+        return join(schedule)
+                .orElseThrow(() -> new NotFoundException("Schedule not found with ID: " + scheduleId));
+    }
+
+    /**
+     * Drops a cached schedule, called when the Schedule Service reports a change.
+     * A call still in flight for it is dropped too: its (possibly stale) result is not stored.
+     */
+    public void evict(Long scheduleId) {
+        cache.synchronous().invalidate(scheduleId);
+        log.info("Invalidated cached schedule {}", scheduleId);
+    }
+
+    private static Optional<ScheduleResponse> join(CompletableFuture<Optional<ScheduleResponse>> schedule) {
+        try {
+            return schedule.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    /**
+     * Fetches schedule data from the Schedule Service API
+     */
+    private Optional<ScheduleResponse> fetchSchedule(Long scheduleId) {
         try {
             String url = scheduleServiceUrl + "/" + scheduleId;
             
-            // Get JWT token from security context
+            // Chuyển tiếp identity (gateway đã ký) của request hiện tại từ security context
             HttpHeaders headers = new HttpHeaders();
             Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
             if (authentication != null && authentication.getCredentials() != null) {
-                String token = authentication.getCredentials().toString();
-                headers.set("Authorization", "Bearer " + token);
+                headers.set(IdentityHeader.NAME, authentication.getCredentials().toString());
             }
             
             HttpEntity<Void> entity = new HttpEntity<>(headers);
@@ -53,9 +124,9 @@ public class ScheduleClient {
                 entity,
                 ScheduleResponse.class
             );
-            return response.getBody();
+            return Optional.ofNullable(response.getBody());
         } catch (HttpClientErrorException.NotFound e) {
-            throw new NotFoundException("Schedule not found with ID: " + scheduleId);
+            return Optional.empty();
         } catch (HttpClientErrorException.Forbidden e) {
             throw new ServiceUnavailableException("Access denied to schedule service. Authentication required.");
         } catch (RestClientException e) {
@@ -1,13 +1,15 @@
 package com.example.tickets_service.config;
 
+import com.example.common.security.JwtAuthenticationFilter;
+import com.example.common.security.JwtSecurity;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
-import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.web.SecurityFilterChain;
-import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
 @Configuration
 @RequiredArgsConstructor
@@ -18,24 +20,23 @@ public class SecurityConfig {
 
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
-        System.out.println("🔒 Tickets SecurityConfig: SECURITY ENABLED (JWT + RBAC)"); // Update log để dễ debug
-
-        http.csrf(csrf -> csrf.disable());
-        http.cors(cors -> cors.disable()); // Hoặc config CORS nếu FE gọi trực tiếp
-        http.sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS));
+        // Stateless, CORS tắt (gateway lo), filter giải mã JWT / identity của gateway
+        JwtSecurity.statelessJwt(http, jwtFilter);
 
         http.authorizeHttpRequests(auth -> auth
                 // Nếu có các endpoint public (ví dụ swagger), khai báo ở đây:
                 // .requestMatchers("/v3/api-docs/**", "/swagger-ui/**").permitAll()
+                // Schedules Service gọi khi lịch trình thay đổi, kèm identity SERVICE; chỉ xóa cache
+                .requestMatchers(HttpMethod.DELETE, "/api/tickets/cache/schedules/**").hasRole("SERVICE")
+                // Export stream (StreamingResponseBody) hoàn tất trong ASYNC dispatch; request gốc đã
+                // được kiểm tra token + @PreAuthorize, dispatch này không còn JWT trong SecurityContext
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
 
                 // Tất cả các request khác bắt buộc phải có Token (Authenticated)
                 // Việc user có quyền ADMIN hay USER sẽ do Controller quyết định
                 .anyRequest().authenticated()
         );
 
-        // <--- 2. QUAN TRỌNG: Thêm filter để giải mã JWT Token
-        http.addFilterBefore(jwtFilter, UsernamePasswordAuthenticationFilter.class);
-
         return http.build();
     }
 }
\ No newline at end of file
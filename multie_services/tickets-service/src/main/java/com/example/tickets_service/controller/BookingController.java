@@ -1,13 +1,21 @@
 package com.example.tickets_service.controller;
 
+import com.example.common.web.CursorPage;
+import com.example.common.web.LegacyList;
 import com.example.tickets_service.dto.BookingRequest;
 import com.example.tickets_service.dto.BookingResponse;
+import com.example.tickets_service.service.BookingExporter;
 import com.example.tickets_service.service.BookingService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -16,6 +24,7 @@ import java.util.List;
 public class BookingController {
 
     private final BookingService bookingService;
+    private final BookingExporter bookingExporter;
 
     // 1. Create Booking - USER và ADMIN
     @PostMapping("/create")
@@ -24,11 +33,36 @@ public class BookingController {
         return ResponseEntity.ok(bookingService.createBooking(request));
     }
 
-    // 2. Get All Bookings - ADMIN only
+    // 2. Get All Bookings - ADMIN only (deprecated: tối đa LegacyList.MAX_ROWS dòng, bỏ vào LegacyList.REMOVAL_DATE - dùng /page)
+    @Deprecated(since = "2026-10-18", forRemoval = true)
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<List<BookingResponse>> getAll() {
-        return ResponseEntity.ok(bookingService.getAllBookings());
+        return LegacyList.response(bookingService.getAllBookings(), "/api/bookings/page");
+    }
+
+    // 2.1. Get Page - keyset pagination (?cursor=&size=), giới hạn 100 dòng/trang
+    @GetMapping("/page")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<CursorPage<BookingResponse>> getPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(bookingService.getBookingsPage(cursor, size));
+    }
+
+    // 2.2. Export - ADMIN only, stream NDJSON/CSV trực tiếp từ DB (?format=ndjson|csv&from=&to=&status=)
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> export(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String status) {
+        StreamingResponseBody body = bookingExporter.export(format, from, to, status);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(bookingExporter.parseFormat(format).getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"bookings." + format + "\"")
+                .body(body);
     }
 
     // 3. Get Booking By ID - USER và ADMIN
@@ -0,0 +1,21 @@
+package com.example.tickets_service.controller;
+
+import com.example.tickets_service.client.ScheduleClient;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/tickets/cache/schedules")
+@RequiredArgsConstructor
+public class ScheduleCacheController {
+
+    private final ScheduleClient scheduleClient;
+
+    // 1. Invalidate - Called by Schedules Service when a schedule is updated/cancelled/deleted
+    @DeleteMapping("/{scheduleId}")
+    public ResponseEntity<Void> invalidate(@PathVariable Long scheduleId) {
+        scheduleClient.evict(scheduleId);
+        return ResponseEntity.noContent().build();
+    }
+}
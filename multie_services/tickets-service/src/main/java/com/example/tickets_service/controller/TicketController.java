@@ -1,5 +1,8 @@
 package com.example.tickets_service.controller;
 
+import com.example.common.web.CursorPage;
+import com.example.common.web.LegacyList;
+import com.example.tickets_service.dto.TicketQuantityBatchRequest;
 import com.example.tickets_service.dto.TicketRequest;
 import com.example.tickets_service.dto.TicketResponse;
 import com.example.tickets_service.service.TicketService;
@@ -25,11 +28,21 @@ public class TicketController {
         return ResponseEntity.ok(ticketService.create(request));
     }
 
-    // 2. Get All - ADMIN và USER
+    // 2. Get All - ADMIN và USER (deprecated: tối đa LegacyList.MAX_ROWS dòng, bỏ vào LegacyList.REMOVAL_DATE - dùng /page)
+    @Deprecated(since = "2026-10-18", forRemoval = true)
     @GetMapping
     // @PreAuthorize("hasAnyRole('USER', 'ADMIN')") // TEMPORARY: Disabled for testing
     public ResponseEntity<List<TicketResponse>> getAll() {
-        return ResponseEntity.ok(ticketService.getAll());
+        return LegacyList.response(ticketService.getAll(), "/api/tickets/page");
+    }
+
+    // 2.1. Get Page - keyset pagination (?cursor=&size=), giới hạn 100 dòng/trang
+    @GetMapping("/page")
+    // @PreAuthorize("hasAnyRole('USER', 'ADMIN')") // TEMPORARY: Disabled for testing
+    public ResponseEntity<CursorPage<TicketResponse>> getPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(ticketService.getPage(cursor, size));
     }
 
     // 3. Get By ID - ADMIN và USER
@@ -67,8 +80,9 @@ public class TicketController {
     @PutMapping("/{id}/decrease-quantity")
     public ResponseEntity<Void> decreaseQuantity(
             @PathVariable Long id,
-            @RequestParam Integer quantity) {
-        ticketService.decreaseQuantity(id, quantity);
+            @RequestParam Integer quantity,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        ticketService.decreaseQuantity(id, quantity, idempotencyKey);
         return ResponseEntity.ok().build();
     }
 
@@ -76,8 +90,27 @@ public class TicketController {
     @PutMapping("/{id}/increase-quantity")
     public ResponseEntity<Void> increaseQuantity(
             @PathVariable Long id,
-            @RequestParam Integer quantity) {
-        ticketService.increaseQuantity(id, quantity);
+            @RequestParam Integer quantity,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        ticketService.increaseQuantity(id, quantity, idempotencyKey);
+        return ResponseEntity.ok().build();
+    }
+
+    // 9. Batch Decrease Quantity - Called by Orders Service for multi-ticket orders (all-or-nothing)
+    @PutMapping("/decrease-quantity/batch")
+    public ResponseEntity<Void> decreaseQuantities(
+            @Valid @RequestBody TicketQuantityBatchRequest request,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        ticketService.decreaseQuantities(request.getItems(), idempotencyKey);
+        return ResponseEntity.ok().build();
+    }
+
+    // 10. Batch Increase Quantity - Called by Orders Service when a multi-ticket order is cancelled
+    @PutMapping("/increase-quantity/batch")
+    public ResponseEntity<Void> increaseQuantities(
+            @Valid @RequestBody TicketQuantityBatchRequest request,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        ticketService.increaseQuantities(request.getItems(), idempotencyKey);
         return ResponseEntity.ok().build();
     }
 }
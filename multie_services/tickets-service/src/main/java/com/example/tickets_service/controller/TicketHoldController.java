@@ -0,0 +1,41 @@
+package com.example.tickets_service.controller;
+
+import com.example.tickets_service.dto.TicketHoldRequest;
+import com.example.tickets_service.dto.TicketHoldResponse;
+import com.example.tickets_service.service.TicketHoldService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/tickets/holds")
+@RequiredArgsConstructor
+public class TicketHoldController {
+
+    private final TicketHoldService ticketHoldService;
+
+    // 1. Hold - Giữ chỗ có thời hạn, trả về holdId và expiresAt
+    @PostMapping
+    public ResponseEntity<TicketHoldResponse> hold(@Valid @RequestBody TicketHoldRequest request) {
+        return ResponseEntity.ok(ticketHoldService.hold(request));
+    }
+
+    // 2. Get By ID
+    @GetMapping("/{holdId}")
+    public ResponseEntity<TicketHoldResponse> getById(@PathVariable Long holdId) {
+        return ResponseEntity.ok(ticketHoldService.getById(holdId));
+    }
+
+    // 3. Confirm - Chuyển hold thành vé đã bán
+    @PutMapping("/{holdId}/confirm")
+    public ResponseEntity<TicketHoldResponse> confirm(@PathVariable Long holdId) {
+        return ResponseEntity.ok(ticketHoldService.confirm(holdId));
+    }
+
+    // 4. Release - Trả lại chỗ trước khi hết hạn
+    @DeleteMapping("/{holdId}")
+    public ResponseEntity<TicketHoldResponse> release(@PathVariable Long holdId) {
+        return ResponseEntity.ok(ticketHoldService.release(holdId));
+    }
+}
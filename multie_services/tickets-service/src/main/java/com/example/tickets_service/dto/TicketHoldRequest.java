@@ -0,0 +1,15 @@
+package com.example.tickets_service.dto;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+@Data
+public class TicketHoldRequest {
+    @NotNull(message = "Mã vé không được bỏ trống")
+    private Long ticketId;
+
+    @NotNull(message = "Số lượng không được bỏ trống")
+    @Min(value = 1, message = "Số lượng phải ít nhất là 1")
+    private Integer quantity;
+}
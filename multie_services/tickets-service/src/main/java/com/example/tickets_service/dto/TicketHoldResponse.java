@@ -0,0 +1,15 @@
+package com.example.tickets_service.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+public class TicketHoldResponse {
+    private Long id;
+    private Long ticketId;
+    private Integer quantity;
+    private String status;
+    private LocalDateTime expiresAt;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,15 @@
+package com.example.tickets_service.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class TicketQuantityBatchRequest {
+    // Các cặp (ticketId, quantity) được áp dụng tất cả hoặc không gì cả
+    @NotEmpty(message = "Danh sách vé không được bỏ trống")
+    @Valid
+    private List<TicketQuantityRequest> items;
+}
@@ -7,7 +7,13 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "bookings")
+@Table(name = "bookings", indexes = {
+        // "My bookings": lọc theo user, sắp xếp theo booking_date ngay trên index
+        @Index(name = "idx_bookings_user_booking_date", columnList = "user_ref_id, booking_date"),
+        @Index(name = "idx_bookings_order", columnList = "order_ref_id"),
+        @Index(name = "idx_bookings_schedule", columnList = "schedule_ref_id"),
+        @Index(name = "idx_bookings_created_at", columnList = "created_at")
+})
 @Data
 public class Booking {
 
@@ -0,0 +1,24 @@
+package com.example.tickets_service.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * Idempotency-Key đã xử lý, để lời gọi retry từ Orders Service không trừ/cộng vé 2 lần.
+ */
+@Entity
+@Table(name = "processed_requests", indexes = {
+        @Index(name = "idx_processed_requests_created_at", columnList = "created_at")
+})
+@Data
+public class ProcessedRequest {
+
+    @Id
+    @Column(name = "idempotency_key", length = 64)
+    private String idempotencyKey;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt = LocalDateTime.now();
+}
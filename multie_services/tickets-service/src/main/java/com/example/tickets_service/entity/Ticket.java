@@ -57,10 +57,13 @@ public class Ticket {
     @Column(name = "total_quantity", nullable = false)
     private Integer totalQuantity = 0; // Tổng số vé có thể bán
 
-    @Column(name = "sold_quantity", nullable = false)
+    // Chỉ được thay đổi qua các câu UPDATE trong TicketRepository (không ghi đè khi save entity)
+    @Column(name = "sold_quantity", nullable = false, updatable = false)
     private Integer soldQuantity = 0; // Số vé đã bán
 
+    // Như sold_quantity: bán/flush đổi sang sold_out, admin đổi qua TicketRepository.updateStatus
     @Enumerated(EnumType.STRING)
+    @Column(updatable = false)
     private Status status = Status.active;
 
     @Column(name = "created_at")
@@ -0,0 +1,42 @@
+package com.example.tickets_service.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "ticket_holds", indexes = {
+        @Index(name = "idx_ticket_holds_status_expires_at", columnList = "status, expires_at")
+})
+@Data
+public class TicketHold {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Tham chiếu Ticket (loại vé) đang được giữ chỗ
+    @Column(name = "ticket_ref_id", nullable = false)
+    private Long ticketRefId;
+
+    @Column(nullable = false)
+    private Integer quantity;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Status status = Status.held;
+
+    // Hết thời gian này mà chưa confirm thì ghế được trả lại
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    public enum Status {
+        held,       // Đang giữ chỗ
+        confirmed,  // Đã chuyển thành vé bán
+        released    // Đã trả lại (hết hạn hoặc bị hủy)
+    }
+}
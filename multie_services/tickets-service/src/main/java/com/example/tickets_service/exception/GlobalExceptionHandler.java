@@ -1,5 +1,6 @@
 package com.example.tickets_service.exception;
 
+import com.example.common.web.InvalidPageRequestException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -20,8 +21,13 @@ public class GlobalExceptionHandler {
     }
 
 
-    @ExceptionHandler(BadRequestException.class)
-    public ResponseEntity<?> handleBadRequest(BadRequestException ex) {
+    @ExceptionHandler(InsufficientTicketsException.class)
+    public ResponseEntity<?> handleInsufficientTickets(InsufficientTicketsException ex) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", ex.getMessage()));
+    }
+
+    @ExceptionHandler({BadRequestException.class, InvalidPageRequestException.class})
+    public ResponseEntity<?> handleBadRequest(RuntimeException ex) {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", ex.getMessage()));
     }
 
@@ -0,0 +1,11 @@
+package com.example.tickets_service.exception;
+
+/**
+ * Not enough seats left for a reservation. Answered with 409 so callers (the orders outbox) can
+ * tell it apart from other rejected requests without reading the message.
+ */
+public class InsufficientTicketsException extends BadRequestException {
+    public InsufficientTicketsException(String message) {
+        super(message);
+    }
+}
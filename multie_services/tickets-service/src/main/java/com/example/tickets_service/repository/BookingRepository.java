@@ -1,6 +1,8 @@
 package com.example.tickets_service.repository;
 
 import com.example.tickets_service.entity.Booking;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
@@ -24,4 +26,7 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
     
     // Đếm số bookings của user
     long countByUserRefId(Integer userRefId);
+
+    // Keyset pagination: trang tiếp theo bắt đầu sau id cuối của trang trước (Slice đọc thêm 1 dòng để biết còn trang sau)
+    Slice<Booking> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
 }
@@ -0,0 +1,24 @@
+package com.example.tickets_service.repository;
+
+import com.example.tickets_service.entity.ProcessedRequest;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+public interface ProcessedRequestRepository extends JpaRepository<ProcessedRequest, String> {
+
+    // Trả về 0 nếu key đã tồn tại (không ném lỗi duplicate key như save())
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO processed_requests (idempotency_key, created_at) VALUES (:key, :now)",
+            nativeQuery = true)
+    int insertIfAbsent(@Param("key") String key, @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM ProcessedRequest p WHERE p.createdAt < :before")
+    int deleteOlderThan(@Param("before") LocalDateTime before);
+}
@@ -0,0 +1,50 @@
+package com.example.tickets_service.repository;
+
+import com.example.tickets_service.entity.TicketHold;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface TicketHoldRepository extends JpaRepository<TicketHold, Long> {
+
+    // Chỉ lấy id + expiresAt để dựng lại hàng đợi hết hạn khi khởi động
+    interface HoldExpiryView {
+        Long getId();
+        LocalDateTime getExpiresAt();
+    }
+
+    List<HoldExpiryView> findByStatus(TicketHold.Status status);
+
+    // Hold đã hết hạn mà vẫn "held" trong bảng: của instance khác, hoặc bị sót khỏi hàng đợi
+    @Query("SELECT h.id FROM TicketHold h WHERE h.status = :status AND h.expiresAt <= :now ORDER BY h.expiresAt")
+    List<Long> findExpiredIds(@Param("status") TicketHold.Status status,
+                              @Param("now") LocalDateTime now,
+                              Pageable pageable);
+
+    // Khóa các hold còn "held" để sweeper và confirm không xử lý cùng một hold
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<TicketHold> findByIdInAndStatus(Collection<Long> ids, TicketHold.Status status);
+
+    // Trả lại hàng loạt hold hết hạn trong 1 câu UPDATE
+    @Modifying
+    @Query("UPDATE TicketHold h SET h.status = com.example.tickets_service.entity.TicketHold.Status.released " +
+            "WHERE h.id IN :ids AND h.status = com.example.tickets_service.entity.TicketHold.Status.held")
+    int releaseAll(@Param("ids") Collection<Long> ids);
+
+    // Chuyển trạng thái 1 hold còn hiệu lực (held và chưa hết hạn)
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE TicketHold h SET h.status = :status " +
+            "WHERE h.id = :id AND h.status = com.example.tickets_service.entity.TicketHold.Status.held " +
+            "AND h.expiresAt > :now")
+    int transitionActive(@Param("id") Long id,
+                         @Param("status") TicketHold.Status status,
+                         @Param("now") LocalDateTime now);
+}
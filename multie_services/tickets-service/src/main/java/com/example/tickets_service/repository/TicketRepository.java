@@ -1,7 +1,59 @@
 package com.example.tickets_service.repository;
 
 import com.example.tickets_service.entity.Ticket;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 public interface TicketRepository extends JpaRepository<Ticket, Long> {
+
+    // Các câu UPDATE có điều kiện cho số lượng vé: kiểm tra và cập nhật trong cùng 1 statement,
+    // không cần findById -> save. Trả về 0 nếu không đủ vé (hoặc không tìm thấy vé).
+    // Status được gán trước soldQuantity để mọi DB đều đọc giá trị cũ của sold_quantity.
+
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Ticket t SET " +
+            "t.status = CASE WHEN t.totalQuantity - t.soldQuantity = :quantity " +
+            "  THEN com.example.tickets_service.entity.Ticket.Status.sold_out ELSE t.status END, " +
+            "t.soldQuantity = t.soldQuantity + :quantity " +
+            "WHERE t.id = :id AND t.totalQuantity - t.soldQuantity >= :quantity")
+    int reserveQuantity(@Param("id") Long id, @Param("quantity") int quantity);
+
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Ticket t SET " +
+            "t.status = CASE WHEN t.status = com.example.tickets_service.entity.Ticket.Status.sold_out " +
+            "  THEN com.example.tickets_service.entity.Ticket.Status.active ELSE t.status END, " +
+            "t.soldQuantity = t.soldQuantity - :quantity " +
+            "WHERE t.id = :id AND t.soldQuantity >= :quantity")
+    int releaseQuantity(@Param("id") Long id, @Param("quantity") int quantity);
+
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Ticket t SET t.totalQuantity = t.totalQuantity + :delta " +
+            "WHERE t.id = :id AND t.totalQuantity + :delta >= t.soldQuantity")
+    int resizeTotalQuantity(@Param("id") Long id, @Param("delta") int delta);
+
+    // Trạng thái do admin đặt: chỉ ghi cột status (save không ghi, xem Ticket.status)
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Ticket t SET t.status = :status WHERE t.id = :id")
+    int updateStatus(@Param("id") Long id, @Param("status") Ticket.Status status);
+
+    // Admin mở bán lại: vé đã hết chỗ vẫn giữ sold_out
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Ticket t SET t.status = CASE WHEN t.soldQuantity >= t.totalQuantity " +
+            "  THEN com.example.tickets_service.entity.Ticket.Status.sold_out " +
+            "  ELSE com.example.tickets_service.entity.Ticket.Status.active END " +
+            "WHERE t.id = :id")
+    int activate(@Param("id") Long id);
+
+    // Keyset pagination: trang tiếp theo bắt đầu sau id cuối của trang trước (Slice đọc thêm 1 dòng để biết còn trang sau)
+    Slice<Ticket> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
 }
@@ -1,5 +1,6 @@
 package com.example.tickets_service.service;
 
+import com.example.common.web.CursorPage;
 import com.example.tickets_service.dto.BookingRequest;
 import com.example.tickets_service.dto.BookingResponse;
 
@@ -7,7 +8,9 @@ import java.util.List;
 
 public interface BookingService {
     BookingResponse createBooking(BookingRequest request);
-    List<BookingResponse> getAllBookings();
+    // GET danh sách cũ (deprecated): chỉ LegacyList.MAX_ROWS dòng đầu, hasNext = còn dòng bị bỏ
+    CursorPage<BookingResponse> getAllBookings();
+    CursorPage<BookingResponse> getBookingsPage(String cursor, int size);
     BookingResponse getBookingById(Long id);
     List<BookingResponse> getBookingsByUser(Integer userRefId);
     List<BookingResponse> getBookingsByOrder(Integer orderRefId);
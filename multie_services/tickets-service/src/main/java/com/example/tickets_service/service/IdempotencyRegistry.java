@@ -0,0 +1,48 @@
+package com.example.tickets_service.service;
+
+import com.example.tickets_service.repository.ProcessedRequestRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Remembers Idempotency-Key values of quantity changes already applied.
+ * The key is inserted in the caller's transaction before the change, so a failed change
+ * rolls the key back and the retry is applied; a successful one makes later retries no-ops.
+ */
+@Component
+@Slf4j
+public class IdempotencyRegistry {
+
+    private final ProcessedRequestRepository processedRequestRepository;
+    private final Duration retention;
+
+    public IdempotencyRegistry(ProcessedRequestRepository processedRequestRepository,
+                               @Value("${tickets.idempotency.retention-hours:72}") long retentionHours) {
+        this.processedRequestRepository = processedRequestRepository;
+        this.retention = Duration.ofHours(retentionHours);
+    }
+
+    /**
+     * @return true the first time a key is seen (or if there is no key), false for a repeated request
+     */
+    public boolean firstSeen(String idempotencyKey) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return true;
+        }
+        return processedRequestRepository.insertIfAbsent(idempotencyKey, LocalDateTime.now()) == 1;
+    }
+
+    // Retries stop long before the retention period ends, so old keys can go
+    @Scheduled(cron = "${tickets.idempotency.purge-cron:0 0 3 * * *}")
+    public void purgeOldKeys() {
+        int deleted = processedRequestRepository.deleteOlderThan(LocalDateTime.now().minus(retention));
+        if (deleted > 0) {
+            log.info("Purged {} processed idempotency keys", deleted);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.tickets_service.service;
+
+import com.example.tickets_service.dto.TicketHoldRequest;
+import com.example.tickets_service.dto.TicketHoldResponse;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface TicketHoldService {
+    TicketHoldResponse hold(TicketHoldRequest request);
+    TicketHoldResponse getById(Long holdId);
+    TicketHoldResponse confirm(Long holdId);
+    TicketHoldResponse release(Long holdId);
+    List<Long> drainExpired(int maxHolds);
+    int releaseExpired(Collection<Long> holdIds);
+    void requeue(Collection<Long> holdIds);
+    int requeueExpiredFromDatabase(int maxHolds);
+}
@@ -0,0 +1,56 @@
+package com.example.tickets_service.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Releases expired seat holds in batches.
+ * Each batch is released in its own transaction so a large backlog never holds locks for long.
+ * A batch that fails is put back and retried on the next run; its seats are only returned once
+ * a release commits.
+ */
+@Component
+@Slf4j
+public class TicketHoldSweeper {
+
+    private final TicketHoldService ticketHoldService;
+    private final int batchSize;
+
+    public TicketHoldSweeper(TicketHoldService ticketHoldService,
+                             @Value("${tickets.holds.sweep-batch-size:500}") int batchSize) {
+        this.ticketHoldService = ticketHoldService;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${tickets.holds.sweep-interval-ms:1000}")
+    public void sweep() {
+        int released = 0;
+        List<Long> due;
+        while (!(due = ticketHoldService.drainExpired(batchSize)).isEmpty()) {
+            try {
+                released += ticketHoldService.releaseExpired(due);
+            } catch (RuntimeException e) {
+                ticketHoldService.requeue(due);
+                log.error("Failed to release {} expired holds: {}", due.size(), e.getMessage());
+                break;
+            }
+        }
+        if (released > 0) {
+            log.info("Released {} expired ticket holds", released);
+        }
+    }
+
+    // Hold hết hạn còn sót trong bảng (vd. giữ chỗ qua instance khác) được đưa vào hàng đợi
+    @Scheduled(initialDelayString = "${tickets.holds.rescan-interval-ms:60000}",
+            fixedDelayString = "${tickets.holds.rescan-interval-ms:60000}")
+    public void rescan() {
+        int queued = ticketHoldService.requeueExpiredFromDatabase(batchSize);
+        if (queued > 0) {
+            log.info("Queued {} expired ticket holds found in the table", queued);
+        }
+    }
+}
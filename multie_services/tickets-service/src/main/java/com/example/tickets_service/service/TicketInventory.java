@@ -0,0 +1,360 @@
+package com.example.tickets_service.service;
+
+import com.example.tickets_service.entity.Ticket;
+import com.example.tickets_service.exception.NotFoundException;
+import com.example.tickets_service.repository.TicketRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Seat inventory keyed by ticket id, the single path for every sold-quantity change.
+ *
+ * In "memory" mode (default) reservations are admitted or rejected with a CAS on a per-ticket
+ * counter, without a database round trip. Sold-quantity deltas are flushed to the tickets table
+ * in the background, and a counter is rebuilt from totalQuantity - soldQuantity the first time a
+ * ticket is touched after a restart. Counters live in this JVM only, so this mode requires a
+ * single tickets-service instance.
+ *
+ * In "database" mode every change is one conditional UPDATE on the tickets table, which is safe
+ * with several instances.
+ */
+@Component
+@Slf4j
+public class TicketInventory {
+
+    private final TicketRepository ticketRepository;
+    private final boolean inMemory;
+
+    private final Map<Long, Counter> counters = new ConcurrentHashMap<>();
+
+    public TicketInventory(TicketRepository ticketRepository,
+                           @Value("${tickets.inventory.mode:memory}") String mode) {
+        this.ticketRepository = ticketRepository;
+        this.inMemory = !"database".equalsIgnoreCase(mode);
+    }
+
+    /**
+     * Reserves seats for a ticket.
+     *
+     * @return true if the seats were reserved, false if not enough seats are available
+     * @throws NotFoundException if the ticket does not exist
+     */
+    public boolean tryReserve(Long ticketId, int quantity) {
+        if (!inMemory) {
+            return ticketRepository.reserveQuantity(ticketId, quantity) == 1 || notFoundOrFalse(ticketId);
+        }
+        Counter counter = counterFor(ticketId);
+        if (!counter.reserve(quantity)) {
+            return false;
+        }
+        counter.unflushed.addAndGet(quantity);
+        return true;
+    }
+
+    /**
+     * tryReserve for use inside a transaction. In memory mode the seats are given back if the
+     * transaction rolls back; in database mode the UPDATE is part of the transaction already.
+     */
+    public boolean tryReserveInTransaction(Long ticketId, int quantity) {
+        if (!tryReserve(ticketId, quantity)) {
+            return false;
+        }
+        if (inMemory && TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_ROLLED_BACK) {
+                        release(ticketId, quantity);
+                    }
+                }
+            });
+        }
+        return true;
+    }
+
+    /**
+     * release for use inside a transaction, checked now. In memory mode the seats stop counting as
+     * sold at once, so concurrent releases cannot return them twice, but only become available once
+     * the transaction commits; a rollback puts them back as sold. In database mode the UPDATE is
+     * part of the transaction already.
+     *
+     * @return true if the seats are released (on commit), false if fewer than quantity seats are sold
+     * @throws NotFoundException if the ticket does not exist
+     */
+    public boolean releaseAfterCommit(Long ticketId, int quantity) {
+        if (!inMemory || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return release(ticketId, quantity);
+        }
+        Counter counter = counterFor(ticketId);
+        if (!counter.beginRelease(quantity)) {
+            return false;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                boolean committed = status == STATUS_COMMITTED;
+                counter.endRelease(quantity, committed);
+                if (committed) {
+                    counter.unflushed.addAndGet(-quantity);
+                }
+            }
+        });
+        return true;
+    }
+
+    /**
+     * Returns previously reserved seats to the pool.
+     *
+     * @return true if the seats were released, false if fewer than quantity seats are sold
+     * @throws NotFoundException if the ticket does not exist
+     */
+    public boolean release(Long ticketId, int quantity) {
+        if (!inMemory) {
+            return ticketRepository.releaseQuantity(ticketId, quantity) == 1 || notFoundOrFalse(ticketId);
+        }
+        Counter counter = counterFor(ticketId);
+        if (!counter.release(quantity)) {
+            return false;
+        }
+        counter.unflushed.addAndGet(-quantity);
+        return true;
+    }
+
+    /**
+     * Changes the total quantity of a ticket by delta.
+     *
+     * @return false if shrinking would drop the total below the sold quantity
+     */
+    public boolean resize(Long ticketId, int delta) {
+        if (!inMemory) {
+            return ticketRepository.resizeTotalQuantity(ticketId, delta) == 1 || notFoundOrFalse(ticketId);
+        }
+        Counter counter = counterFor(ticketId);
+        if (!counter.resize(delta)) {
+            return false;
+        }
+        // Caller ghi totalQuantity mới vào bảng (hoặc resize lại nếu không ghi được)
+        counter.flushedTotal.addAndGet(delta);
+        return true;
+    }
+
+    /**
+     * @return seats available according to the in-memory counter, or null if the ticket is not loaded
+     */
+    public Integer getAvailable(Long ticketId) {
+        Counter counter = counters.get(ticketId);
+        return counter != null ? counter.available() : null;
+    }
+
+    /**
+     * @return seats available, including sales not yet flushed
+     */
+    public int getAvailableQuantity(Long ticketId) {
+        if (!inMemory) {
+            return findTicket(ticketId).getAvailableQuantity();
+        }
+        return counterFor(ticketId).available();
+    }
+
+    /**
+     * @return seats sold, including sales not yet flushed
+     */
+    public int getSold(Long ticketId) {
+        if (!inMemory) {
+            return findTicket(ticketId).getSoldQuantity();
+        }
+        Counter counter = counterFor(ticketId);
+        return counter.total() - counter.available();
+    }
+
+    /**
+     * Drops the counter of a deleted ticket.
+     */
+    public void evict(Long ticketId) {
+        counters.remove(ticketId);
+    }
+
+    /**
+     * Writes pending sold-quantity deltas to the tickets table with the same conditional UPDATEs
+     * used in database mode. A delta that fails to write is put back and retried on the next run.
+     *
+     * A delta the database rejects means the row was changed outside this instance. The delta is
+     * kept (callers were already told those seats are theirs) and the counter is rebased on a fresh
+     * read of the row, so the outside change is counted too. If that leaves fewer seats than the
+     * pending delta, available goes negative: new reservations are refused until releases or a
+     * larger total let the delta through.
+     */
+    @Scheduled(fixedDelayString = "${tickets.inventory.flush-interval-ms:500}")
+    public void flush() {
+        counters.forEach((ticketId, counter) -> {
+            int delta = counter.unflushed.getAndSet(0);
+            if (delta == 0) {
+                return;
+            }
+            try {
+                int updated = delta > 0
+                        ? ticketRepository.reserveQuantity(ticketId, delta)
+                        : ticketRepository.releaseQuantity(ticketId, -delta);
+                if (updated == 1) {
+                    counter.flushedSold.addAndGet(delta);
+                    return;
+                }
+                counter.unflushed.addAndGet(delta);
+                reconcile(ticketId, counter, delta);
+            } catch (RuntimeException e) {
+                counter.unflushed.addAndGet(delta);
+                log.error("Failed to flush sold quantity delta {} for ticket {}: {}", delta, ticketId, e.getMessage());
+            }
+        });
+    }
+
+    // Cộng phần thay đổi từ bên ngoài (so với lần flush cuối) vào counter, giữ nguyên delta đang chờ
+    private void reconcile(Long ticketId, Counter counter, int delta) {
+        Ticket ticket = ticketRepository.findById(ticketId).orElse(null);
+        if (ticket == null) {
+            log.warn("Ticket {} was deleted with sold quantity delta {} not flushed", ticketId, delta);
+            counters.remove(ticketId, counter);
+            return;
+        }
+        int outsideTotal = ticket.getTotalQuantity() - counter.flushedTotal.get();
+        int outsideSold = ticket.getSoldQuantity() - counter.flushedSold.get();
+        counter.adjust(outsideTotal, outsideSold);
+        counter.flushedTotal.addAndGet(outsideTotal);
+        counter.flushedSold.addAndGet(outsideSold);
+        log.warn("Sold quantity delta {} rejected for ticket {}: total {} and sold {} changed outside this instance, "
+                        + "{} seats available after reconciling",
+                delta, ticketId, outsideTotal, outsideSold, counter.available());
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private Counter counterFor(Long ticketId) {
+        return counters.computeIfAbsent(ticketId, id -> {
+            Ticket ticket = findTicket(id);
+            return new Counter(ticket.getTotalQuantity(), ticket.getSoldQuantity());
+        });
+    }
+
+    private Ticket findTicket(Long ticketId) {
+        return ticketRepository.findById(ticketId)
+                .orElseThrow(() -> new NotFoundException("Ticket not found with id: " + ticketId));
+    }
+
+    // A conditional UPDATE touches 0 rows both when the ticket is missing and when the condition fails
+    private boolean notFoundOrFalse(Long ticketId) {
+        findTicket(ticketId);
+        return false;
+    }
+
+    /**
+     * Total and available quantities packed into one long (total in the high 32 bits,
+     * available in the low 32 bits) so both change in a single CAS.
+     */
+    static final class Counter {
+        private final AtomicLong state;
+        private final AtomicInteger unflushed = new AtomicInteger();
+        // Giá trị của dòng trong bảng theo những gì instance này đã ghi: phần lệch là thay đổi từ bên ngoài
+        private final AtomicInteger flushedTotal;
+        private final AtomicInteger flushedSold;
+
+        Counter(int total, int sold) {
+            this.state = new AtomicLong(pack(total, total - sold));
+            this.flushedTotal = new AtomicInteger(total);
+            this.flushedSold = new AtomicInteger(sold);
+        }
+
+        int total() {
+            return (int) (state.get() >>> 32);
+        }
+
+        int available() {
+            return (int) state.get();
+        }
+
+        boolean reserve(int quantity) {
+            long current;
+            do {
+                current = state.get();
+                int available = (int) current;
+                if (available < quantity) {
+                    return false;
+                }
+            } while (!state.compareAndSet(current, pack((int) (current >>> 32), (int) current - quantity)));
+            return true;
+        }
+
+        boolean release(int quantity) {
+            long current;
+            do {
+                current = state.get();
+                int total = (int) (current >>> 32);
+                int available = (int) current;
+                if (available + quantity > total) {
+                    return false;
+                }
+            } while (!state.compareAndSet(current, pack((int) (current >>> 32), (int) current + quantity)));
+            return true;
+        }
+
+        boolean resize(int delta) {
+            long current;
+            do {
+                current = state.get();
+                int available = (int) current;
+                if (delta < 0 && available + delta < 0) {
+                    return false;
+                }
+            } while (!state.compareAndSet(current, pack((int) (current >>> 32) + delta, (int) current + delta)));
+            return true;
+        }
+
+        // Release đang chờ commit: bớt khỏi total (sold giảm) nhưng available giữ nguyên, chưa ai lấy được
+        boolean beginRelease(int quantity) {
+            long current;
+            do {
+                current = state.get();
+                int total = (int) (current >>> 32);
+                int available = (int) current;
+                if (available + quantity > total) {
+                    return false;
+                }
+            } while (!state.compareAndSet(current, pack((int) (current >>> 32) - quantity, (int) current)));
+            return true;
+        }
+
+        // Commit: ghế thành available; rollback: ghế lại là đã bán. Không thể thất bại
+        void endRelease(int quantity, boolean committed) {
+            long current;
+            do {
+                current = state.get();
+            } while (!state.compareAndSet(current, pack((int) (current >>> 32) + quantity,
+                    (int) current + (committed ? quantity : 0))));
+        }
+
+        // Available có thể âm: khi đó reserve luôn từ chối cho đến khi release/resize bù lại
+        void adjust(int totalDelta, int soldDelta) {
+            long current;
+            do {
+                current = state.get();
+            } while (!state.compareAndSet(current, pack((int) (current >>> 32) + totalDelta,
+                    (int) current + totalDelta - soldDelta)));
+        }
+
+        private static long pack(int total, int available) {
+            return ((long) total << 32) | (available & 0xFFFFFFFFL);
+        }
+    }
+}
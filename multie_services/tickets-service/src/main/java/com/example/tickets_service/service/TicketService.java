@@ -1,5 +1,7 @@
 package com.example.tickets_service.service;
 
+import com.example.common.web.CursorPage;
+import com.example.tickets_service.dto.TicketQuantityRequest;
 import com.example.tickets_service.dto.TicketRequest;
 import com.example.tickets_service.dto.TicketResponse;
 
@@ -7,11 +9,19 @@ import java.util.List;
 
 public interface TicketService {
     TicketResponse create(TicketRequest request);
-    List<TicketResponse> getAll();
+    // GET danh sách cũ (deprecated): chỉ LegacyList.MAX_ROWS dòng đầu, hasNext = còn dòng bị bỏ
+    CursorPage<TicketResponse> getAll();
+    CursorPage<TicketResponse> getPage(String cursor, int size);
     TicketResponse getById(Long id);
     TicketResponse update(Long id, TicketRequest request);
     void delete(Long id);
     TicketResponse purchaseTickets(Long id, Integer quantity);
     void decreaseQuantity(Long ticketId, Integer quantity);
     void increaseQuantity(Long ticketId, Integer quantity);
+    void decreaseQuantity(Long ticketId, Integer quantity, String idempotencyKey);
+    void increaseQuantity(Long ticketId, Integer quantity, String idempotencyKey);
+    void decreaseQuantities(List<TicketQuantityRequest> items);
+    void increaseQuantities(List<TicketQuantityRequest> items);
+    void decreaseQuantities(List<TicketQuantityRequest> items, String idempotencyKey);
+    void increaseQuantities(List<TicketQuantityRequest> items, String idempotencyKey);
 }
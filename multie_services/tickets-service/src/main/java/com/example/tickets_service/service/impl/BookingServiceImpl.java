@@ -1,5 +1,7 @@
 package com.example.tickets_service.service.impl;
 
+import com.example.common.web.CursorPage;
+import com.example.common.web.LegacyList;
 import com.example.tickets_service.dto.BookingRequest;
 import com.example.tickets_service.dto.BookingResponse;
 import com.example.tickets_service.entity.Booking;
@@ -55,10 +57,17 @@ public class BookingServiceImpl implements BookingService {
     }
 
     @Override
-    public List<BookingResponse> getAllBookings() {
-        return bookingRepository.findAll().stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+    public CursorPage<BookingResponse> getAllBookings() {
+        return CursorPage.of(
+                bookingRepository.findByIdGreaterThanOrderByIdAsc(0L, LegacyList.firstRows()),
+                this::mapToResponse, Booking::getId);
+    }
+
+    @Override
+    public CursorPage<BookingResponse> getBookingsPage(String cursor, int size) {
+        return CursorPage.of(
+                bookingRepository.findByIdGreaterThanOrderByIdAsc(CursorPage.afterId(cursor), CursorPage.limit(size)),
+                this::mapToResponse, Booking::getId);
     }
 
     @Override
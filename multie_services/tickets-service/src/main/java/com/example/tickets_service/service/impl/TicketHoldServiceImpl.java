@@ -0,0 +1,244 @@
+package com.example.tickets_service.service.impl;
+
+import com.example.tickets_service.dto.TicketHoldRequest;
+import com.example.tickets_service.dto.TicketHoldResponse;
+import com.example.tickets_service.entity.TicketHold;
+import com.example.tickets_service.exception.BadRequestException;
+import com.example.tickets_service.exception.InsufficientTicketsException;
+import com.example.tickets_service.exception.NotFoundException;
+import com.example.tickets_service.repository.TicketHoldRepository;
+import com.example.tickets_service.service.TicketHoldService;
+import com.example.tickets_service.service.TicketInventory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time-bounded seat holds.
+ * A hold takes seats from the inventory immediately and gives them back if it is not confirmed
+ * before it expires. Active holds are indexed by expiry in a DelayQueue, so the sweeper only ever
+ * touches holds that are already due; confirmed or released holds are skipped when they come up.
+ *
+ * The queue is rebuilt from the table at startup and topped up from it periodically, which also
+ * picks up expired holds created by another instance. Seats taken or returned in memory mode
+ * follow the transaction that changes the hold: they are given back on rollback and returned
+ * only after commit.
+ */
+@Service
+@Slf4j
+public class TicketHoldServiceImpl implements TicketHoldService {
+
+    private final TicketHoldRepository ticketHoldRepository;
+    private final TicketInventory ticketInventory;
+    private final Duration holdTtl;
+
+    private final DelayQueue<HoldExpiry> expiries = new DelayQueue<>();
+
+    public TicketHoldServiceImpl(TicketHoldRepository ticketHoldRepository,
+                                 TicketInventory ticketInventory,
+                                 @Value("${tickets.holds.ttl-seconds:600}") long holdTtlSeconds) {
+        this.ticketHoldRepository = ticketHoldRepository;
+        this.ticketInventory = ticketInventory;
+        this.holdTtl = Duration.ofSeconds(holdTtlSeconds);
+    }
+
+    /**
+     * Rebuilds the expiry index from the holds still marked "held" after a restart.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadActiveHolds() {
+        List<TicketHoldRepository.HoldExpiryView> active = ticketHoldRepository.findByStatus(TicketHold.Status.held);
+        active.forEach(h -> expiries.add(new HoldExpiry(h.getId(), h.getExpiresAt())));
+        log.info("Loaded {} active ticket holds", active.size());
+    }
+
+    @Override
+    @Transactional
+    public TicketHoldResponse hold(TicketHoldRequest request) {
+        if (request.getQuantity() == null || request.getQuantity() <= 0) {
+            throw new BadRequestException("Quantity must be greater than 0");
+        }
+        if (!ticketInventory.tryReserveInTransaction(request.getTicketId(), request.getQuantity())) {
+            throw new InsufficientTicketsException(
+                String.format("Insufficient tickets available. Requested: %d, Available: %d",
+                    request.getQuantity(), ticketInventory.getAvailableQuantity(request.getTicketId()))
+            );
+        }
+
+        TicketHold hold = new TicketHold();
+        hold.setTicketRefId(request.getTicketId());
+        hold.setQuantity(request.getQuantity());
+        hold.setStatus(TicketHold.Status.held);
+        hold.setCreatedAt(LocalDateTime.now());
+        hold.setExpiresAt(hold.getCreatedAt().plus(holdTtl));
+
+        TicketHold saved = ticketHoldRepository.save(hold);
+        afterCommit(() -> expiries.add(new HoldExpiry(saved.getId(), saved.getExpiresAt())));
+        return mapToResponse(saved);
+    }
+
+    @Override
+    public TicketHoldResponse getById(Long holdId) {
+        return mapToResponse(findHold(holdId));
+    }
+
+    @Override
+    @Transactional
+    public TicketHoldResponse confirm(Long holdId) {
+        // Seats were taken when the hold was created, so confirming only changes the status
+        if (ticketHoldRepository.transitionActive(holdId, TicketHold.Status.confirmed, LocalDateTime.now()) == 0) {
+            throw inactiveHold(findHold(holdId));
+        }
+        return mapToResponse(findHold(holdId));
+    }
+
+    @Override
+    @Transactional
+    public TicketHoldResponse release(Long holdId) {
+        if (ticketHoldRepository.transitionActive(holdId, TicketHold.Status.released, LocalDateTime.now()) == 0) {
+            throw inactiveHold(findHold(holdId));
+        }
+        TicketHold hold = findHold(holdId);
+        returnSeats(hold.getTicketRefId(), hold.getQuantity());
+        return mapToResponse(hold);
+    }
+
+    @Override
+    public List<Long> drainExpired(int maxHolds) {
+        List<HoldExpiry> due = new ArrayList<>();
+        expiries.drainTo(due, maxHolds);
+        return due.stream().map(HoldExpiry::holdId).toList();
+    }
+
+    /**
+     * Releases expired holds: one locking SELECT, one bulk UPDATE of hold status,
+     * then one inventory release per distinct ticket with the summed quantity.
+     *
+     * @return number of holds released
+     */
+    @Override
+    @Transactional
+    public int releaseExpired(Collection<Long> holdIds) {
+        if (holdIds.isEmpty()) {
+            return 0;
+        }
+        List<TicketHold> stillHeld = ticketHoldRepository.findByIdInAndStatus(holdIds, TicketHold.Status.held);
+        if (stillHeld.isEmpty()) {
+            return 0;
+        }
+
+        Map<Long, Integer> quantityByTicket = new TreeMap<>();
+        List<Long> ids = new ArrayList<>(stillHeld.size());
+        for (TicketHold hold : stillHeld) {
+            ids.add(hold.getId());
+            quantityByTicket.merge(hold.getTicketRefId(), hold.getQuantity(), Integer::sum);
+        }
+
+        int released = ticketHoldRepository.releaseAll(ids);
+        quantityByTicket.forEach(this::returnSeats);
+        return released;
+    }
+
+    // Ghế của hold đã được giữ khi tạo hold, nên release chỉ thất bại nếu dòng vé bị sửa từ bên ngoài
+    private void returnSeats(Long ticketId, int quantity) {
+        if (!ticketInventory.releaseAfterCommit(ticketId, quantity)) {
+            log.warn("Could not return {} seats to ticket {}", quantity, ticketId);
+        }
+    }
+
+    /**
+     * Puts drained holds back as already due, e.g. after a failed sweep, so the next run retries them.
+     */
+    @Override
+    public void requeue(Collection<Long> holdIds) {
+        long now = System.currentTimeMillis();
+        holdIds.forEach(id -> expiries.add(new HoldExpiry(id, now)));
+    }
+
+    /**
+     * Queues expired holds still marked "held" in the table.
+     *
+     * @return number of holds queued
+     */
+    @Override
+    public int requeueExpiredFromDatabase(int maxHolds) {
+        List<Long> expired = ticketHoldRepository.findExpiredIds(
+                TicketHold.Status.held, LocalDateTime.now(), PageRequest.of(0, maxHolds));
+        requeue(expired);
+        return expired.size();
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private TicketHold findHold(Long holdId) {
+        return ticketHoldRepository.findById(holdId)
+                .orElseThrow(() -> new NotFoundException("Hold not found with id: " + holdId));
+    }
+
+    private BadRequestException inactiveHold(TicketHold hold) {
+        if (hold.getStatus() == TicketHold.Status.held) {
+            return new BadRequestException("Hold " + hold.getId() + " has expired");
+        }
+        return new BadRequestException("Hold " + hold.getId() + " is already " + hold.getStatus());
+    }
+
+    private TicketHoldResponse mapToResponse(TicketHold entity) {
+        TicketHoldResponse response = new TicketHoldResponse();
+        response.setId(entity.getId());
+        response.setTicketId(entity.getTicketRefId());
+        response.setQuantity(entity.getQuantity());
+        response.setStatus(entity.getStatus().name());
+        response.setExpiresAt(entity.getExpiresAt());
+        response.setCreatedAt(entity.getCreatedAt());
+        return response;
+    }
+
+    /**
+     * Entry of the expiry index; becomes available from the DelayQueue once the hold expires.
+     */
+    private record HoldExpiry(Long holdId, long expiresAtMillis) implements Delayed {
+
+        HoldExpiry(Long holdId, LocalDateTime expiresAt) {
+            this(holdId, expiresAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(expiresAtMillis - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(expiresAtMillis, ((HoldExpiry) other).expiresAtMillis);
+        }
+    }
+}
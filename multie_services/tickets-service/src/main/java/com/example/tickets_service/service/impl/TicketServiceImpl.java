@@ -1,19 +1,28 @@
 package com.example.tickets_service.service.impl;
 
+import com.example.common.web.CursorPage;
+import com.example.common.web.LegacyList;
 import com.example.tickets_service.client.ScheduleClient;
 import com.example.tickets_service.dto.ScheduleResponse;
+import com.example.tickets_service.dto.TicketQuantityRequest;
 import com.example.tickets_service.dto.TicketRequest;
 import com.example.tickets_service.dto.TicketResponse;
 import com.example.tickets_service.entity.Ticket;
 import com.example.tickets_service.exception.BadRequestException;
+import com.example.tickets_service.exception.InsufficientTicketsException;
 import com.example.tickets_service.exception.NotFoundException;
 import com.example.tickets_service.repository.TicketRepository;
+import com.example.tickets_service.service.IdempotencyRegistry;
+import com.example.tickets_service.service.TicketInventory;
 import com.example.tickets_service.service.TicketService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 
 @Service
 @RequiredArgsConstructor
@@ -21,6 +30,8 @@ public class TicketServiceImpl implements TicketService {
 
     private final TicketRepository ticketRepository;
     private final ScheduleClient scheduleClient;
+    private final TicketInventory ticketInventory;
+    private final IdempotencyRegistry idempotencyRegistry;
 
     @Override
     public TicketResponse create(TicketRequest request) {
@@ -49,10 +60,17 @@ public class TicketServiceImpl implements TicketService {
     }
 
     @Override
-    public List<TicketResponse> getAll() {
-        return ticketRepository.findAll().stream()
-                .map(this::mapEntityToResponse)
-                .toList();
+    public CursorPage<TicketResponse> getAll() {
+        return CursorPage.of(
+                ticketRepository.findByIdGreaterThanOrderByIdAsc(0L, LegacyList.firstRows()),
+                this::mapEntityToResponse, Ticket::getId);
+    }
+
+    @Override
+    public CursorPage<TicketResponse> getPage(String cursor, int size) {
+        return CursorPage.of(
+                ticketRepository.findByIdGreaterThanOrderByIdAsc(CursorPage.afterId(cursor), CursorPage.limit(size)),
+                this::mapEntityToResponse, Ticket::getId);
     }
 
     @Override
@@ -90,25 +108,45 @@ public class TicketServiceImpl implements TicketService {
             ticket.setDescription(request.getDescription());
         }
         
+        int totalQuantityDelta = 0;
         if (request.getTotalQuantity() != null) {
             // Validate totalQuantity is greater than or equal to soldQuantity
-            if (request.getTotalQuantity() < ticket.getSoldQuantity()) {
+            // (checked by the inventory, which includes sales not yet flushed)
+            totalQuantityDelta = request.getTotalQuantity() - ticket.getTotalQuantity();
+            if (!ticketInventory.resize(id, totalQuantityDelta)) {
                 throw new BadRequestException(
                     String.format("Total quantity (%d) cannot be less than sold quantity (%d)", 
-                        request.getTotalQuantity(), ticket.getSoldQuantity())
+                        request.getTotalQuantity(), ticketInventory.getSold(id))
                 );
             }
             ticket.setTotalQuantity(request.getTotalQuantity());
         }
 
-        if (request.getStatus() != null) {
-            ticket.setStatus(Ticket.Status.valueOf(request.getStatus()));
-        }
-
         // Note: scheduleRefId and snapshot fields (trainNumberSnapshot, routeSnapshot, 
         // departureTimeSnapshot) are immutable and are never modified during update
 
-        return mapEntityToResponse(ticketRepository.save(ticket));
+        Ticket.Status status;
+        Ticket saved;
+        try {
+            status = request.getStatus() != null ? Ticket.Status.valueOf(request.getStatus()) : null;
+            saved = ticketRepository.save(ticket);
+        } catch (RuntimeException e) {
+            // Keep the in-memory total in line with the database
+            ticketInventory.resize(id, -totalQuantityDelta);
+            throw e;
+        }
+
+        // status is not written by save (a sale may have marked the ticket sold_out since it was read)
+        if (status != null) {
+            if (status == Ticket.Status.active) {
+                ticketRepository.activate(id);
+            } else {
+                ticketRepository.updateStatus(id, status);
+            }
+            saved = ticketRepository.findById(id)
+                    .orElseThrow(() -> new NotFoundException("Ticket not found with id: " + id));
+        }
+        return mapEntityToResponse(saved);
     }
 
     @Override
@@ -117,6 +155,7 @@ public class TicketServiceImpl implements TicketService {
             throw new NotFoundException("Ticket not found with id: " + id);
         }
         ticketRepository.deleteById(id);
+        ticketInventory.evict(id);
     }
 
     @Override
@@ -129,25 +168,20 @@ public class TicketServiceImpl implements TicketService {
             throw new IllegalArgumentException("Quantity must be greater than 0");
         }
 
-        // Check if enough tickets available
-        Integer availableQuantity = ticket.getAvailableQuantity();
-        if (availableQuantity < quantity) {
+        // Reserve through the inventory (in-memory counter or one conditional UPDATE)
+        if (!ticketInventory.tryReserve(id, quantity)) {
             throw new IllegalArgumentException(
                 String.format("Not enough tickets available. Requested: %d, Available: %d", 
-                    quantity, availableQuantity)
+                    quantity, ticketInventory.getAvailableQuantity(id))
             );
         }
 
-        // Update sold quantity
-        ticket.setSoldQuantity(ticket.getSoldQuantity() + quantity);
-
-        // Auto update status to sold_out if no tickets left
-        if (ticket.getAvailableQuantity() == 0) {
-            ticket.setStatus(Ticket.Status.sold_out);
+        // Database mode has no counter: the conditional UPDATE changed the row after it was read
+        if (ticketInventory.getAvailable(id) == null) {
+            ticket = ticketRepository.findById(id)
+                    .orElseThrow(() -> new NotFoundException("Ticket not found with id: " + id));
         }
-
-        Ticket updatedTicket = ticketRepository.save(ticket);
-        return mapEntityToResponse(updatedTicket);
+        return mapEntityToResponse(ticket);
     }
 
     /**
@@ -216,28 +250,15 @@ public class TicketServiceImpl implements TicketService {
             throw new BadRequestException("Quantity must be greater than 0");
         }
 
-        // Find ticket
-        Ticket ticket = ticketRepository.findById(ticketId)
-                .orElseThrow(() -> new NotFoundException("Ticket not found with id: " + ticketId));
-
-        // Validate available quantity >= requested quantity
-        Integer availableQuantity = ticket.getAvailableQuantity();
-        if (availableQuantity < quantity) {
-            throw new BadRequestException(
+        // Validate available quantity >= requested quantity and reserve atomically
+        // (TicketInventory throws NotFoundException if the ticket does not exist).
+        // Inside a transaction (idempotent and batch calls) the seats follow its rollback.
+        if (!ticketInventory.tryReserveInTransaction(ticketId, quantity)) {
+            throw new InsufficientTicketsException(
                 String.format("Insufficient tickets available. Requested: %d, Available: %d", 
-                    quantity, availableQuantity)
+                    quantity, ticketInventory.getAvailableQuantity(ticketId))
             );
         }
-
-        // Update soldQuantity atomically
-        ticket.setSoldQuantity(ticket.getSoldQuantity() + quantity);
-
-        // Auto update status to sold_out if no tickets left
-        if (ticket.getAvailableQuantity() == 0) {
-            ticket.setStatus(Ticket.Status.sold_out);
-        }
-
-        ticketRepository.save(ticket);
     }
 
     @Override
@@ -247,29 +268,100 @@ public class TicketServiceImpl implements TicketService {
             throw new BadRequestException("Quantity must be greater than 0");
         }
 
-        // Find ticket
-        Ticket ticket = ticketRepository.findById(ticketId)
-                .orElseThrow(() -> new NotFoundException("Ticket not found with id: " + ticketId));
-
-        // Decrease soldQuantity atomically
-        Integer newSoldQuantity = ticket.getSoldQuantity() - quantity;
-
-        // Ensure soldQuantity doesn't go negative
-        if (newSoldQuantity < 0) {
+        // Decrease soldQuantity atomically, ensuring it doesn't go negative
+        // (status goes back to active together with the sold quantity).
+        // Inside a transaction the seats become available only once it commits.
+        if (!ticketInventory.releaseAfterCommit(ticketId, quantity)) {
             throw new BadRequestException(
                 String.format("Cannot increase quantity by %d. Current sold quantity: %d", 
-                    quantity, ticket.getSoldQuantity())
+                    quantity, ticketInventory.getSold(ticketId))
             );
         }
+    }
 
-        ticket.setSoldQuantity(newSoldQuantity);
+    @Override
+    @Transactional
+    public void decreaseQuantity(Long ticketId, Integer quantity, String idempotencyKey) {
+        // A retried request with a key already applied is acknowledged without changing anything
+        if (!idempotencyRegistry.firstSeen(idempotencyKey)) {
+            return;
+        }
+        decreaseQuantity(ticketId, quantity);
+    }
 
-        // Update status back to active if tickets become available
-        if (ticket.getStatus() == Ticket.Status.sold_out && ticket.getAvailableQuantity() > 0) {
-            ticket.setStatus(Ticket.Status.active);
+    @Override
+    @Transactional
+    public void increaseQuantity(Long ticketId, Integer quantity, String idempotencyKey) {
+        if (!idempotencyRegistry.firstSeen(idempotencyKey)) {
+            return;
         }
+        increaseQuantity(ticketId, quantity);
+    }
 
-        ticketRepository.save(ticket);
+    @Override
+    @Transactional
+    public void decreaseQuantities(List<TicketQuantityRequest> items) {
+        // All-or-nothing: a rejected item rolls the transaction back, and the seats already
+        // reserved with it (memory mode gives them back, database mode undoes the UPDATEs)
+        for (Map.Entry<Long, Integer> item : mergeByTicket(items).entrySet()) {
+            if (!ticketInventory.tryReserveInTransaction(item.getKey(), item.getValue())) {
+                throw new InsufficientTicketsException(
+                    String.format("Insufficient tickets available for ticket %d. Requested: %d, Available: %d", 
+                        item.getKey(), item.getValue(), ticketInventory.getAvailableQuantity(item.getKey()))
+                );
+            }
+        }
+    }
+
+    @Override
+    @Transactional
+    public void increaseQuantities(List<TicketQuantityRequest> items) {
+        // Seats released here become available only if the whole batch commits
+        for (Map.Entry<Long, Integer> item : mergeByTicket(items).entrySet()) {
+            if (!ticketInventory.releaseAfterCommit(item.getKey(), item.getValue())) {
+                throw new BadRequestException(
+                    String.format("Cannot increase quantity of ticket %d by %d. Current sold quantity: %d", 
+                        item.getKey(), item.getValue(), ticketInventory.getSold(item.getKey()))
+                );
+            }
+        }
+    }
+
+    @Override
+    @Transactional
+    public void decreaseQuantities(List<TicketQuantityRequest> items, String idempotencyKey) {
+        // The key covers the whole batch: a failed batch rolls it back together with the seats
+        if (!idempotencyRegistry.firstSeen(idempotencyKey)) {
+            return;
+        }
+        decreaseQuantities(items);
+    }
+
+    @Override
+    @Transactional
+    public void increaseQuantities(List<TicketQuantityRequest> items, String idempotencyKey) {
+        if (!idempotencyRegistry.firstSeen(idempotencyKey)) {
+            return;
+        }
+        increaseQuantities(items);
+    }
+
+    /**
+     * Sums quantities per ticket id. Sorted by id so concurrent batches
+     * always touch ticket rows in the same order (no deadlocks in database mode).
+     */
+    private Map<Long, Integer> mergeByTicket(List<TicketQuantityRequest> items) {
+        if (items == null || items.isEmpty()) {
+            throw new BadRequestException("Ticket list must not be empty");
+        }
+        Map<Long, Integer> quantities = new TreeMap<>();
+        for (TicketQuantityRequest item : items) {
+            if (item.getTicketId() == null || item.getQuantity() == null || item.getQuantity() <= 0) {
+                throw new BadRequestException("Quantity must be greater than 0");
+            }
+            quantities.merge(item.getTicketId(), item.getQuantity(), Integer::sum);
+        }
+        return quantities;
     }
 
     // Mapper Helper Methods
@@ -289,9 +381,24 @@ public class TicketServiceImpl implements TicketService {
         res.setPrice(entity.getPrice());
         res.setDescription(entity.getDescription());
         res.setTotalQuantity(entity.getTotalQuantity());
-        res.setSoldQuantity(entity.getSoldQuantity());
-        res.setAvailableQuantity(entity.getAvailableQuantity()); // Computed field
-        res.setStatus(entity.getStatus().name());
+
+        // Prefer the in-memory inventory, which includes sales not yet flushed to the database
+        Integer available = ticketInventory.getAvailable(entity.getId());
+        if (available != null) {
+            res.setSoldQuantity(entity.getTotalQuantity() - available);
+            res.setAvailableQuantity(available);
+            if (available <= 0) {
+                res.setStatus(Ticket.Status.sold_out.name());
+            } else if (entity.getStatus() == Ticket.Status.sold_out) {
+                res.setStatus(Ticket.Status.active.name());
+            } else {
+                res.setStatus(entity.getStatus().name());
+            }
+        } else {
+            res.setSoldQuantity(entity.getSoldQuantity());
+            res.setAvailableQuantity(entity.getAvailableQuantity()); // Computed field
+            res.setStatus(entity.getStatus().name());
+        }
         res.setCreatedAt(entity.getCreatedAt());
         return res;
     }
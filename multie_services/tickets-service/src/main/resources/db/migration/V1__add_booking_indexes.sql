@@ -0,0 +1,7 @@
+-- Migration script to add indexes for the hot booking lookups
+-- "My bookings" (user_ref_id + ORDER BY booking_date), bookings by order / schedule, export date ranges
+
+CREATE INDEX idx_bookings_user_booking_date ON bookings(user_ref_id, booking_date);
+CREATE INDEX idx_bookings_order ON bookings(order_ref_id);
+CREATE INDEX idx_bookings_schedule ON bookings(schedule_ref_id);
+CREATE INDEX idx_bookings_created_at ON bookings(created_at);
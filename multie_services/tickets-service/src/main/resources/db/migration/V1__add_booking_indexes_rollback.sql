@@ -0,0 +1,6 @@
+-- Rollback script for V1__add_booking_indexes.sql
+
+DROP INDEX idx_bookings_user_booking_date ON bookings;
+DROP INDEX idx_bookings_order ON bookings;
+DROP INDEX idx_bookings_schedule ON bookings;
+DROP INDEX idx_bookings_created_at ON bookings;
@@ -0,0 +1,5 @@
+-- Load test seed (profile loadtest): ticket id N belongs to schedule N (schedules-service seed)
+INSERT INTO tickets (name, schedule_ref_id, train_number_snapshot, route_snapshot, price, total_quantity,
+    sold_quantity, status, created_at)
+SELECT 'Economy', X, CONCAT('SE', MOD(X, 5) + 1), 'Ha Noi - Sai Gon', 350000, 10000000, 0, 'active', CURRENT_TIMESTAMP
+FROM SYSTEM_RANGE(1, 50);
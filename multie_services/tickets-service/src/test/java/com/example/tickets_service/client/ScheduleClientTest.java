@@ -0,0 +1,112 @@
+package com.example.tickets_service.client;
+
+import com.example.tickets_service.dto.ScheduleResponse;
+import com.example.tickets_service.exception.NotFoundException;
+import com.example.tickets_service.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.stubbing.Answer;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ScheduleClientTest {
+
+    private static final long SCHEDULE_ID = 7L;
+    private static final String URL = "http://schedules/api/schedules";
+
+    private final RestTemplate restTemplate = mock(RestTemplate.class);
+    private final ScheduleClient client = new ScheduleClient(restTemplate, new SimpleMeterRegistry(), 100, 300, 30);
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(client, "scheduleServiceUrl", URL);
+    }
+
+    @AfterEach
+    void shutdown() {
+        executor.close();
+    }
+
+    private static ResponseEntity<ScheduleResponse> schedule(long id) {
+        ScheduleResponse schedule = new ScheduleResponse();
+        schedule.setId(id);
+        schedule.setStatus("scheduled");
+        return ResponseEntity.ok(schedule);
+    }
+
+    private void whenFetching(long id, Answer<ResponseEntity<ScheduleResponse>> answer) {
+        when(restTemplate.exchange(eq(URL + "/" + id), eq(HttpMethod.GET), any(HttpEntity.class), eq(ScheduleResponse.class)))
+                .thenAnswer(answer);
+    }
+
+    @Test
+    void slowLoadDoesNotBlockOtherIdsAndIsSharedByConcurrentMisses() throws Exception {
+        CountDownLatch slowCallStarted = new CountDownLatch(1);
+        CountDownLatch releaseSlowCall = new CountDownLatch(1);
+        whenFetching(SCHEDULE_ID, invocation -> {
+            slowCallStarted.countDown();
+            releaseSlowCall.await();
+            return schedule(SCHEDULE_ID);
+        });
+        whenFetching(8L, invocation -> schedule(8L));
+
+        Future<ScheduleResponse> first = executor.submit(() -> client.getScheduleById(SCHEDULE_ID));
+        assertThat(slowCallStarted.await(5, TimeUnit.SECONDS)).isTrue();
+        Future<ScheduleResponse> second = executor.submit(() -> client.getScheduleById(SCHEDULE_ID));
+
+        // Lần gọi chậm chạy ngoài lock của map: id khác vẫn được tải ngay
+        assertThat(client.getScheduleById(8L).getId()).isEqualTo(8L);
+        assertThat(second.isDone()).isFalse();
+
+        releaseSlowCall.countDown();
+        assertThat(first.get(5, TimeUnit.SECONDS).getId()).isEqualTo(SCHEDULE_ID);
+        assertThat(second.get(5, TimeUnit.SECONDS).getId()).isEqualTo(SCHEDULE_ID);
+        verify(restTemplate, times(1)).exchange(eq(URL + "/" + SCHEDULE_ID), eq(HttpMethod.GET),
+                any(HttpEntity.class), eq(ScheduleResponse.class));
+    }
+
+    @Test
+    void failedLoadIsNotCachedAndKeepsItsException() {
+        when(restTemplate.exchange(eq(URL + "/" + SCHEDULE_ID), eq(HttpMethod.GET), any(HttpEntity.class), eq(ScheduleResponse.class)))
+                .thenThrow(new ResourceAccessException("connection refused"))
+                .thenReturn(schedule(SCHEDULE_ID));
+
+        assertThatThrownBy(() -> client.getScheduleById(SCHEDULE_ID)).isInstanceOf(ServiceUnavailableException.class);
+        assertThat(client.getScheduleById(SCHEDULE_ID).getId()).isEqualTo(SCHEDULE_ID);
+    }
+
+    @Test
+    void missingScheduleIsRememberedAsNotFound() {
+        when(restTemplate.exchange(eq(URL + "/" + SCHEDULE_ID), eq(HttpMethod.GET), any(HttpEntity.class), eq(ScheduleResponse.class)))
+                .thenThrow(HttpClientErrorException.create(HttpStatus.NOT_FOUND, "Not Found", null, null, null));
+
+        assertThatThrownBy(() -> client.getScheduleById(SCHEDULE_ID)).isInstanceOf(NotFoundException.class);
+        assertThatThrownBy(() -> client.getScheduleById(SCHEDULE_ID)).isInstanceOf(NotFoundException.class);
+        verify(restTemplate, times(1)).exchange(eq(URL + "/" + SCHEDULE_ID), eq(HttpMethod.GET),
+                any(HttpEntity.class), eq(ScheduleResponse.class));
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.tickets_service.config;
+
+import com.example.common.security.CommonSecurityAutoConfiguration;
+import com.example.common.security.IdentityHeader;
+import com.example.tickets_service.client.ScheduleClient;
+import com.example.tickets_service.controller.ScheduleCacheController;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Rules of the tickets SecurityFilterChain for callers that are services, not users: the caller is
+ * identified the way schedules-service does it, with a signed X-Auth-Identity.
+ */
+@WebMvcTest(controllers = ScheduleCacheController.class)
+@ImportAutoConfiguration(CommonSecurityAutoConfiguration.class)
+@Import(SecurityConfig.class)
+@TestPropertySource(properties = {
+        "app.jwt.secret=12345678901234567890123456789012",
+        "app.identity.secret=test-identity-secret-0123456789012345"
+})
+class SecurityConfigTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private IdentityHeader identityHeader;
+
+    @MockitoBean
+    private ScheduleClient scheduleClient;
+
+    private MockHttpServletRequestBuilder as(MockHttpServletRequestBuilder request, String role) {
+        long expiresAt = System.currentTimeMillis() / 1000 + 60;
+        return request.header(IdentityHeader.NAME, identityHeader.sign(1L, "someone", role, expiresAt));
+    }
+
+    @Test
+    void scheduleCacheIsOnlyFlushedByServices() throws Exception {
+        mockMvc.perform(delete("/api/tickets/cache/schedules/7")).andExpect(status().isForbidden());
+        mockMvc.perform(as(delete("/api/tickets/cache/schedules/7"), "USER")).andExpect(status().isForbidden());
+        mockMvc.perform(as(delete("/api/tickets/cache/schedules/7"), "SERVICE")).andExpect(status().is2xxSuccessful());
+    }
+}
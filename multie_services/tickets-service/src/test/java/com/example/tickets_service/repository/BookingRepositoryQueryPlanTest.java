@@ -0,0 +1,110 @@
+package com.example.tickets_service.repository;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs EXPLAIN on the SQL Hibernate generates for the hot BookingRepository lookups, on a seeded
+ * bookings table, and fails if a query no longer uses an index (full table scan).
+ */
+@DataJpaTest(showSql = false)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:bookings-plans;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.example.tickets_service.repository.BookingRepositoryQueryPlanTest$LastSql",
+        "logging.level.root=WARN"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class BookingRepositoryQueryPlanTest {
+
+    private static final int BOOKINGS = 20_000;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    void seedBookings() {
+        // 2000 user, 2 vé mỗi order, 300 lịch trình, booking_date trải trên một năm
+        jdbcTemplate.update("""
+                INSERT INTO bookings (order_ref_id, user_ref_id, schedule_ref_id, ticket_ref_id, passenger_name,
+                    seat_number, ticket_code, price, status, booking_date, created_at)
+                SELECT X / 2 + 1, MOD(X, 2000) + 1, MOD(X, 300) + 1, MOD(X, 40) + 1, 'Load Test',
+                    CONCAT('A', MOD(X, 60)), CONCAT('VT-', X), 10, 'confirmed',
+                    DATEADD('SECOND', -MOD(X * 7919, 31536000), CURRENT_TIMESTAMP),
+                    DATEADD('SECOND', -MOD(X * 7919, 31536000), CURRENT_TIMESTAMP)
+                FROM SYSTEM_RANGE(1, ?)
+                """, BOOKINGS);
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @Test
+    void myBookingsUseUserBookingDateIndex() {
+        bookingRepository.findByUserRefIdOrderByBookingDateDesc(7);
+        assertThat(plan(7)).containsIgnoringCase("idx_bookings_user_booking_date");
+
+        bookingRepository.countByUserRefId(7);
+        assertThat(plan(7)).containsIgnoringCase("idx_bookings_user_booking_date");
+    }
+
+    @Test
+    void bookingsByOrderUseOrderIndex() {
+        bookingRepository.findByOrderRefId(7);
+        assertThat(plan(7)).containsIgnoringCase("idx_bookings_order");
+    }
+
+    @Test
+    void bookingsByScheduleUseScheduleIndex() {
+        bookingRepository.findByScheduleRefId(7L);
+        assertThat(plan(7L)).containsIgnoringCase("idx_bookings_schedule");
+    }
+
+    @Test
+    void lookupsByKeyUseTheirIndexes() {
+        bookingRepository.findByTicketCode("VT-7");
+        plan("VT-7");
+
+        bookingRepository.findByIdGreaterThanOrderByIdAsc(100L, PageRequest.of(0, 20));
+        plan(100L, 21);
+    }
+
+    /**
+     * EXPLAIN of the last statement Hibernate sent, with the same parameter values.
+     * Fails if H2 plans a table scan.
+     */
+    private String plan(Object... args) {
+        String plan = jdbcTemplate.queryForObject("EXPLAIN " + LastSql.sql, String.class, args);
+        assertThat(plan).as("query plan").isNotNull().doesNotContainIgnoringCase("tableScan");
+        return plan;
+    }
+
+    // Giữ lại câu SQL cuối cùng Hibernate sinh ra (test chạy tuần tự trên một thread)
+    public static class LastSql implements StatementInspector {
+        static volatile String sql;
+
+        @Override
+        public String inspect(String sql) {
+            LastSql.sql = sql;
+            return sql;
+        }
+    }
+}
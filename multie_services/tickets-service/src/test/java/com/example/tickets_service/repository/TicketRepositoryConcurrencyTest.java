@@ -0,0 +1,125 @@
+package com.example.tickets_service.repository;
+
+import com.example.tickets_service.entity.Ticket;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(showSql = false)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:tickets;MODE=MySQL;LOCK_TIMEOUT=30000;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // mỗi thread tự commit
+class TicketRepositoryConcurrencyTest {
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    private Ticket saveTicket(int total, int sold) {
+        Ticket ticket = new Ticket();
+        ticket.setName("Economy");
+        ticket.setScheduleRefId(1L);
+        ticket.setPrice(BigDecimal.TEN);
+        ticket.setTotalQuantity(total);
+        ticket.setSoldQuantity(sold);
+        ticket.setStatus(sold >= total ? Ticket.Status.sold_out : Ticket.Status.active);
+        return ticketRepository.save(ticket);
+    }
+
+    @Test
+    void manyThreadsReservingOneTicketNeverOversell() throws InterruptedException {
+        int seats = 200;
+        int threads = 16;
+        int attemptsPerThread = 25; // 400 attempts for 200 seats
+        Long ticketId = saveTicket(seats, 0).getId();
+
+        AtomicInteger admitted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        for (int t = 0; t < threads; t++) {
+            pool.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < attemptsPerThread; i++) {
+                    admitted.addAndGet(ticketRepository.reserveQuantity(ticketId, 1));
+                }
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+        assertThat(pool.awaitTermination(60, TimeUnit.SECONDS)).isTrue();
+
+        Ticket ticket = ticketRepository.findById(ticketId).orElseThrow();
+        assertThat(admitted.get()).isEqualTo(seats);
+        assertThat(ticket.getSoldQuantity()).isEqualTo(seats);
+        assertThat(ticket.getStatus()).isEqualTo(Ticket.Status.sold_out);
+    }
+
+    @Test
+    void releaseReopensSoldOutTicketAndNeverGoesNegative() {
+        Long ticketId = saveTicket(5, 5).getId();
+
+        assertThat(ticketRepository.releaseQuantity(ticketId, 6)).isZero();
+        assertThat(ticketRepository.releaseQuantity(ticketId, 2)).isEqualTo(1);
+
+        Ticket ticket = ticketRepository.findById(ticketId).orElseThrow();
+        assertThat(ticket.getSoldQuantity()).isEqualTo(3);
+        assertThat(ticket.getStatus()).isEqualTo(Ticket.Status.active);
+    }
+
+    @Test
+    void resizeCannotDropTotalBelowSold() {
+        Long ticketId = saveTicket(10, 8).getId();
+
+        assertThat(ticketRepository.resizeTotalQuantity(ticketId, -3)).isZero();
+        assertThat(ticketRepository.resizeTotalQuantity(ticketId, -2)).isEqualTo(1);
+        assertThat(ticketRepository.findById(ticketId).orElseThrow().getTotalQuantity()).isEqualTo(8);
+    }
+
+    @Test
+    void savingAStaleTicketKeepsTheStatusSetByASale() {
+        Ticket stale = saveTicket(4, 2);
+        assertThat(ticketRepository.reserveQuantity(stale.getId(), 2)).isEqualTo(1);
+
+        // Admin sửa tên trên bản đọc trước lần bán cuối (status vẫn là active)
+        stale.setName("Economy plus");
+        ticketRepository.save(stale);
+
+        Ticket ticket = ticketRepository.findById(stale.getId()).orElseThrow();
+        assertThat(ticket.getName()).isEqualTo("Economy plus");
+        assertThat(ticket.getStatus()).isEqualTo(Ticket.Status.sold_out);
+    }
+
+    @Test
+    void adminStatusChangeCannotReopenASoldOutTicket() {
+        Long soldOut = saveTicket(3, 3).getId();
+        Long open = saveTicket(3, 1).getId();
+
+        assertThat(ticketRepository.activate(soldOut)).isEqualTo(1);
+        assertThat(ticketRepository.updateStatus(open, Ticket.Status.inactive)).isEqualTo(1);
+
+        assertThat(ticketRepository.findById(soldOut).orElseThrow().getStatus()).isEqualTo(Ticket.Status.sold_out);
+        assertThat(ticketRepository.findById(open).orElseThrow().getStatus()).isEqualTo(Ticket.Status.inactive);
+    }
+}
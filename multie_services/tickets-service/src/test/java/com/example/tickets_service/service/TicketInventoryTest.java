@@ -0,0 +1,216 @@
+package com.example.tickets_service.service;
+
+import com.example.tickets_service.entity.Ticket;
+import com.example.tickets_service.repository.TicketRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TicketInventoryTest {
+
+    private static final long TICKET_ID = 1L;
+
+    private TicketInventory inventoryFor(int total, int sold, TicketRepository repository) {
+        Ticket ticket = new Ticket();
+        ticket.setId(TICKET_ID);
+        ticket.setTotalQuantity(total);
+        ticket.setSoldQuantity(sold);
+        when(repository.findById(TICKET_ID)).thenReturn(Optional.of(ticket));
+        return new TicketInventory(repository, "memory");
+    }
+
+    @Test
+    void rebuildsFromTotalMinusSold() {
+        TicketInventory inventory = inventoryFor(100, 40, mock(TicketRepository.class));
+
+        assertThat(inventory.tryReserve(TICKET_ID, 60)).isTrue();
+        assertThat(inventory.tryReserve(TICKET_ID, 1)).isFalse();
+        assertThat(inventory.release(TICKET_ID, 101)).isFalse();
+        assertThat(inventory.getSold(TICKET_ID)).isEqualTo(100);
+    }
+
+    @Test
+    void flushWritesNetDeltaOnce() {
+        TicketRepository repository = mock(TicketRepository.class);
+        TicketInventory inventory = inventoryFor(10, 0, repository);
+        when(repository.reserveQuantity(TICKET_ID, 4)).thenReturn(1);
+
+        inventory.tryReserve(TICKET_ID, 3);
+        inventory.tryReserve(TICKET_ID, 2);
+        inventory.release(TICKET_ID, 1);
+        inventory.flush();
+        inventory.flush();
+
+        verify(repository).reserveQuantity(eq(TICKET_ID), eq(4));
+        verify(repository, times(1)).reserveQuantity(eq(TICKET_ID), anyInt());
+    }
+
+    private static Ticket row(int total, int sold) {
+        Ticket ticket = new Ticket();
+        ticket.setId(TICKET_ID);
+        ticket.setTotalQuantity(total);
+        ticket.setSoldQuantity(sold);
+        return ticket;
+    }
+
+    @Test
+    void rejectedFlushKeepsTheDeltaAndCountsTheOutsideChange() {
+        TicketRepository repository = mock(TicketRepository.class);
+        // Lần đọc thứ 2 (khi flush bị từ chối): 5 vé đã bị bán từ bên ngoài instance này
+        when(repository.findById(TICKET_ID)).thenReturn(Optional.of(row(10, 0)), Optional.of(row(10, 5)));
+        TicketInventory inventory = new TicketInventory(repository, "memory");
+        when(repository.reserveQuantity(TICKET_ID, 8)).thenReturn(0);
+        when(repository.reserveQuantity(TICKET_ID, 5)).thenReturn(1);
+
+        assertThat(inventory.tryReserve(TICKET_ID, 8)).isTrue();
+        inventory.flush();
+
+        // 8 vé đã hứa vẫn được tính, cộng 5 vé bán bên ngoài: âm 3, không nhận thêm
+        assertThat(inventory.getAvailable(TICKET_ID)).isEqualTo(-3);
+        assertThat(inventory.getSold(TICKET_ID)).isEqualTo(13);
+        assertThat(inventory.tryReserve(TICKET_ID, 1)).isFalse();
+
+        // Hủy 3 vé: delta còn 5, vừa đủ chỗ trong bảng
+        assertThat(inventory.release(TICKET_ID, 3)).isTrue();
+        inventory.flush();
+        inventory.flush();
+
+        verify(repository).reserveQuantity(TICKET_ID, 5);
+        verify(repository, times(2)).reserveQuantity(eq(TICKET_ID), anyInt());
+        assertThat(inventory.getAvailable(TICKET_ID)).isZero();
+    }
+
+    @Test
+    void reservationDuringARejectedFlushIsNotLost() {
+        TicketRepository repository = mock(TicketRepository.class);
+        when(repository.findById(TICKET_ID)).thenReturn(Optional.of(row(10, 0)), Optional.of(row(10, 5)));
+        TicketInventory inventory = new TicketInventory(repository, "memory");
+        when(repository.reserveQuantity(TICKET_ID, 4)).thenAnswer(invocation -> {
+            // Một request giữ vé đúng lúc flush đang ghi
+            assertThat(inventory.tryReserve(TICKET_ID, 1)).isTrue();
+            return 0;
+        });
+        when(repository.reserveQuantity(TICKET_ID, 5)).thenReturn(1);
+
+        inventory.tryReserve(TICKET_ID, 4);
+        inventory.flush();
+        assertThat(inventory.getAvailable(TICKET_ID)).isZero();
+
+        inventory.flush();
+        verify(repository).reserveQuantity(TICKET_ID, 5);
+    }
+
+    @Test
+    void growingTheTotalLetsAPendingDeltaThrough() {
+        TicketRepository repository = mock(TicketRepository.class);
+        when(repository.findById(TICKET_ID)).thenReturn(Optional.of(row(10, 0)), Optional.of(row(10, 5)));
+        TicketInventory inventory = new TicketInventory(repository, "memory");
+        when(repository.reserveQuantity(TICKET_ID, 8)).thenReturn(0, 1);
+
+        inventory.tryReserve(TICKET_ID, 8);
+        inventory.flush();
+        assertThat(inventory.resize(TICKET_ID, 2)).isTrue();
+        assertThat(inventory.getAvailable(TICKET_ID)).isEqualTo(-1);
+        assertThat(inventory.resize(TICKET_ID, 1)).isTrue();
+        inventory.flush();
+
+        verify(repository, times(2)).reserveQuantity(TICKET_ID, 8);
+        assertThat(inventory.getAvailable(TICKET_ID)).isZero();
+        assertThat(inventory.resize(TICKET_ID, -1)).isFalse();
+    }
+
+    // Chạy release trong một "transaction" giả: chỉ có synchronization, kết thúc bằng status cho trước
+    private static boolean releaseInTransaction(TicketInventory inventory, int quantity, int status) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            boolean released = inventory.releaseAfterCommit(TICKET_ID, quantity);
+            TransactionSynchronizationManager.getSynchronizations().forEach(sync -> sync.afterCompletion(status));
+            return released;
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void seatsReleasedInATransactionAreCheckedAtOnceAndFreedOnlyOnCommit() {
+        TicketRepository repository = mock(TicketRepository.class);
+        TicketInventory inventory = inventoryFor(10, 6, repository);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            assertThat(inventory.releaseAfterCommit(TICKET_ID, 4)).isTrue();
+            // 4 trong 6 ghế đã bán đang được trả: chỉ còn 2 trả được, và chưa ai giữ được 4 ghế kia trước khi commit
+            assertThat(inventory.releaseAfterCommit(TICKET_ID, 3)).isFalse();
+            assertThat(inventory.getAvailable(TICKET_ID)).isEqualTo(4);
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertThat(inventory.getAvailable(TICKET_ID)).isEqualTo(8);
+        assertThat(inventory.getSold(TICKET_ID)).isEqualTo(2);
+
+        assertThat(releaseInTransaction(inventory, 2, TransactionSynchronization.STATUS_ROLLED_BACK)).isTrue();
+        assertThat(inventory.getAvailable(TICKET_ID)).isEqualTo(8);
+        assertThat(inventory.getSold(TICKET_ID)).isEqualTo(2);
+
+        inventory.flush();
+        verify(repository).releaseQuantity(TICKET_ID, 4);
+    }
+
+    @Test
+    void concurrentReservationsOnOneTicketNeverOversell() throws InterruptedException {
+        int seats = 50_000;
+        int threads = 32;
+        int attemptsPerThread = 5_000; // 160k attempts for 50k seats
+        TicketRepository repository = mock(TicketRepository.class);
+        TicketInventory inventory = inventoryFor(seats, 0, repository);
+
+        AtomicInteger admitted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        for (int t = 0; t < threads; t++) {
+            pool.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < attemptsPerThread; i++) {
+                    if (inventory.tryReserve(TICKET_ID, 1)) {
+                        admitted.incrementAndGet();
+                    }
+                }
+            });
+        }
+
+        long begin = System.nanoTime();
+        start.countDown();
+        pool.shutdown();
+        assertThat(pool.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+        double seconds = (System.nanoTime() - begin) / 1_000_000_000.0;
+
+        assertThat(admitted.get()).isEqualTo(seats);
+        assertThat(inventory.getAvailable(TICKET_ID)).isZero();
+        assertThat(threads * attemptsPerThread / seconds).isGreaterThan(1_000);
+
+        inventory.flush();
+        verify(repository).reserveQuantity(TICKET_ID, seats);
+    }
+}
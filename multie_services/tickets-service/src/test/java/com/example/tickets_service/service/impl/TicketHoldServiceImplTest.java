@@ -0,0 +1,213 @@
+package com.example.tickets_service.service.impl;
+
+import com.example.tickets_service.dto.TicketHoldRequest;
+import com.example.tickets_service.dto.TicketHoldResponse;
+import com.example.tickets_service.entity.Ticket;
+import com.example.tickets_service.entity.TicketHold;
+import com.example.tickets_service.exception.BadRequestException;
+import com.example.tickets_service.repository.TicketHoldRepository;
+import com.example.tickets_service.repository.TicketRepository;
+import com.example.tickets_service.service.TicketHoldService;
+import com.example.tickets_service.service.TicketHoldSweeper;
+import com.example.tickets_service.service.TicketInventory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionManager;
+import org.springframework.transaction.annotation.AnnotationTransactionAttributeSource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionInterceptor;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * TicketHoldServiceImpl with the in-memory inventory on a real (H2) database: seats follow the
+ * transaction that changes the hold, and the sweeper retries a failed batch without returning
+ * its seats twice.
+ */
+@DataJpaTest(showSql = false)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:ticket-holds;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "logging.level.root=WARN"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // như request thật: service tự mở transaction
+class TicketHoldServiceImplTest {
+
+    private static final int SEATS = 10;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private TicketHoldRepository ticketHoldRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TicketInventory inventory;
+    private Long ticketId;
+
+    @BeforeEach
+    void setUp() {
+        ticketHoldRepository.deleteAll();
+        ticketRepository.deleteAll();
+        Ticket ticket = new Ticket();
+        ticket.setName("Economy");
+        ticket.setScheduleRefId(1L);
+        ticket.setPrice(BigDecimal.TEN);
+        ticket.setTotalQuantity(SEATS);
+        ticket.setStatus(Ticket.Status.active);
+        ticketId = ticketRepository.save(ticket).getId();
+        inventory = new TicketInventory(ticketRepository, "memory");
+    }
+
+    // Giống bean thật: @Transactional của service được áp dụng qua proxy
+    private TicketHoldService service(long ttlSeconds) {
+        ProxyFactory factory = new ProxyFactory(new TicketHoldServiceImpl(ticketHoldRepository, inventory, ttlSeconds));
+        factory.addAdvice(new TransactionInterceptor((TransactionManager) transactionManager,
+                new AnnotationTransactionAttributeSource()));
+        return (TicketHoldService) factory.getProxy();
+    }
+
+    private TicketHoldRequest request(int quantity) {
+        TicketHoldRequest request = new TicketHoldRequest();
+        request.setTicketId(ticketId);
+        request.setQuantity(quantity);
+        return request;
+    }
+
+    private TicketHold.Status statusOf(Long holdId) {
+        return ticketHoldRepository.findById(holdId).orElseThrow().getStatus();
+    }
+
+    @Test
+    void holdTakesSeatsAndConfirmKeepsThem() {
+        TicketHoldService holds = service(600);
+
+        TicketHoldResponse hold = holds.hold(request(4));
+        assertThat(inventory.getAvailable(ticketId)).isEqualTo(SEATS - 4);
+        assertThatThrownBy(() -> holds.hold(request(SEATS))).isInstanceOf(BadRequestException.class);
+
+        assertThat(holds.confirm(hold.getId()).getStatus()).isEqualTo("confirmed");
+        assertThat(inventory.getAvailable(ticketId)).isEqualTo(SEATS - 4);
+        assertThatThrownBy(() -> holds.release(hold.getId())).isInstanceOf(BadRequestException.class);
+    }
+
+    @Test
+    void releaseReturnsTheSeats() {
+        TicketHoldService holds = service(600);
+
+        TicketHoldResponse hold = holds.hold(request(4));
+        holds.release(hold.getId());
+
+        assertThat(statusOf(hold.getId())).isEqualTo(TicketHold.Status.released);
+        assertThat(inventory.getAvailable(ticketId)).isEqualTo(SEATS);
+    }
+
+    @Test
+    void holdThatRollsBackGivesItsSeatsBack() {
+        TicketHoldService holds = service(0);
+
+        assertThatThrownBy(() -> new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            holds.hold(request(4));
+            throw new IllegalStateException("commit failed");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(inventory.getAvailable(ticketId)).isEqualTo(SEATS);
+        assertThat(ticketHoldRepository.count()).isZero();
+        assertThat(holds.drainExpired(10)).isEmpty();
+    }
+
+    @Test
+    void expiredHoldIsReleasedBySweeperAndCannotBeConfirmed() {
+        TicketHoldService holds = service(0);
+        TicketHoldResponse hold = holds.hold(request(4));
+
+        new TicketHoldSweeper(holds, 500).sweep();
+
+        assertThat(statusOf(hold.getId())).isEqualTo(TicketHold.Status.released);
+        assertThat(inventory.getAvailable(ticketId)).isEqualTo(SEATS);
+        assertThatThrownBy(() -> holds.confirm(hold.getId())).isInstanceOf(BadRequestException.class);
+    }
+
+    @Test
+    void sweepThatFailsToCommitIsRetriedWithoutReturningSeatsTwice() {
+        TicketHoldService holds = service(0);
+        TicketHoldResponse first = holds.hold(request(3));
+        TicketHoldResponse second = holds.hold(request(4));
+        AtomicInteger failures = new AtomicInteger(1);
+        TicketHoldService failingOnce = commitFailing(holds, failures);
+        TicketHoldSweeper sweeper = new TicketHoldSweeper(failingOnce, 500);
+
+        sweeper.sweep();
+        assertThat(failures.get()).isZero();
+        assertThat(statusOf(first.getId())).isEqualTo(TicketHold.Status.held);
+        assertThat(inventory.getAvailable(ticketId)).isEqualTo(SEATS - 7);
+
+        sweeper.sweep();
+        sweeper.sweep();
+        assertThat(statusOf(first.getId())).isEqualTo(TicketHold.Status.released);
+        assertThat(statusOf(second.getId())).isEqualTo(TicketHold.Status.released);
+        assertThat(inventory.getAvailable(ticketId)).isEqualTo(SEATS);
+    }
+
+    @Test
+    void expiredHoldMissingFromTheQueueIsFoundInTheTable() {
+        // Hold giữ qua instance khác: chỉ có trong bảng
+        inventory.tryReserve(ticketId, 5);
+        TicketHold other = new TicketHold();
+        other.setTicketRefId(ticketId);
+        other.setQuantity(5);
+        other.setExpiresAt(LocalDateTime.now().minusSeconds(1));
+        other = ticketHoldRepository.save(other);
+        TicketHoldService holds = service(600);
+        TicketHoldSweeper sweeper = new TicketHoldSweeper(holds, 500);
+
+        sweeper.sweep();
+        assertThat(statusOf(other.getId())).isEqualTo(TicketHold.Status.held);
+
+        sweeper.rescan();
+        sweeper.sweep();
+        assertThat(statusOf(other.getId())).isEqualTo(TicketHold.Status.released);
+        assertThat(inventory.getAvailable(ticketId)).isEqualTo(SEATS);
+    }
+
+    // releaseExpired chạy hết nhưng transaction không commit được, "failures" lần đầu
+    @SuppressWarnings("unchecked")
+    private TicketHoldService commitFailing(TicketHoldService holds, AtomicInteger failures) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        return (TicketHoldService) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{TicketHoldService.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("releaseExpired") && failures.getAndDecrement() > 0) {
+                        return transactionTemplate.execute(status -> {
+                            holds.releaseExpired((Collection<Long>) args[0]);
+                            throw new IllegalStateException("commit failed");
+                        });
+                    }
+                    try {
+                        return method.invoke(holds, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+}
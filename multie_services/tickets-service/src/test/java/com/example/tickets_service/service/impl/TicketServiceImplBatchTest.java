@@ -0,0 +1,172 @@
+package com.example.tickets_service.service.impl;
+
+import com.example.tickets_service.client.ScheduleClient;
+import com.example.tickets_service.dto.TicketQuantityRequest;
+import com.example.tickets_service.entity.Ticket;
+import com.example.tickets_service.exception.BadRequestException;
+import com.example.tickets_service.exception.InsufficientTicketsException;
+import com.example.tickets_service.repository.ProcessedRequestRepository;
+import com.example.tickets_service.repository.TicketRepository;
+import com.example.tickets_service.service.IdempotencyRegistry;
+import com.example.tickets_service.service.TicketInventory;
+import com.example.tickets_service.service.TicketService;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionManager;
+import org.springframework.transaction.annotation.AnnotationTransactionAttributeSource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionInterceptor;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Batch quantity changes on a real (H2) database, with both inventory modes: a batch that fails
+ * part way, or whose commit fails, leaves every ticket as it was, and a batch repeated with its
+ * Idempotency-Key is applied once.
+ */
+@DataJpaTest(showSql = false)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:ticket-batches;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "logging.level.root=WARN"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // như request thật: service tự mở transaction
+class TicketServiceImplBatchTest {
+
+    private static final String[] MODES = {"memory", "database"};
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private ProcessedRequestRepository processedRequestRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TicketInventory inventory;
+    private TicketService tickets;
+    private Long economy;
+    private Long business;
+
+    // Hai loại vé: economy còn 10 ghế, business còn 2; service bọc transaction như bean thật
+    private void seed(String mode) {
+        processedRequestRepository.deleteAll();
+        ticketRepository.deleteAll();
+        economy = ticketRepository.save(ticket("Economy", 10)).getId();
+        business = ticketRepository.save(ticket("Business", 2)).getId();
+        inventory = new TicketInventory(ticketRepository, mode);
+        ProxyFactory factory = new ProxyFactory(new TicketServiceImpl(ticketRepository, mock(ScheduleClient.class),
+                inventory, new IdempotencyRegistry(processedRequestRepository, 72)));
+        factory.addAdvice(new TransactionInterceptor((TransactionManager) transactionManager,
+                new AnnotationTransactionAttributeSource()));
+        tickets = (TicketService) factory.getProxy();
+    }
+
+    private static Ticket ticket(String name, int total) {
+        Ticket ticket = new Ticket();
+        ticket.setName(name);
+        ticket.setScheduleRefId(1L);
+        ticket.setPrice(BigDecimal.TEN);
+        ticket.setTotalQuantity(total);
+        ticket.setStatus(Ticket.Status.active);
+        return ticket;
+    }
+
+    private static List<TicketQuantityRequest> items(Long first, int firstQuantity, Long second, int secondQuantity) {
+        return List.of(new TicketQuantityRequest(first, firstQuantity), new TicketQuantityRequest(second, secondQuantity));
+    }
+
+    @Test
+    void decreaseThatFailsPartWayReservesNothing() {
+        for (String mode : MODES) {
+            seed(mode);
+
+            assertThatThrownBy(() -> tickets.decreaseQuantities(items(economy, 3, business, 5), "order-1"))
+                    .as(mode).isInstanceOf(InsufficientTicketsException.class);
+
+            assertThat(inventory.getAvailableQuantity(economy)).as(mode).isEqualTo(10);
+            assertThat(inventory.getAvailableQuantity(business)).as(mode).isEqualTo(2);
+            // Key không được ghi nhận: lần gửi lại vẫn được xử lý (và vẫn bị từ chối)
+            assertThat(processedRequestRepository.count()).as(mode).isZero();
+            assertThatThrownBy(() -> tickets.decreaseQuantities(items(economy, 3, business, 5), "order-1"))
+                    .as(mode).isInstanceOf(BadRequestException.class);
+        }
+    }
+
+    @Test
+    void increaseThatFailsPartWayReleasesNothing() {
+        for (String mode : MODES) {
+            seed(mode);
+            tickets.decreaseQuantities(items(economy, 3, business, 1), null);
+
+            assertThatThrownBy(() -> tickets.increaseQuantities(items(economy, 2, business, 2), "cancel-1"))
+                    .as(mode).isInstanceOf(BadRequestException.class);
+
+            assertThat(inventory.getSold(economy)).as(mode).isEqualTo(3);
+            assertThat(inventory.getSold(business)).as(mode).isEqualTo(1);
+            assertThat(processedRequestRepository.count()).as(mode).isZero();
+        }
+    }
+
+    @Test
+    void batchRepeatedWithItsKeyIsAppliedOnce() {
+        for (String mode : MODES) {
+            seed(mode);
+
+            tickets.decreaseQuantities(items(economy, 3, business, 1), "order-1");
+            tickets.decreaseQuantities(items(economy, 3, business, 1), "order-1");
+            assertThat(inventory.getSold(economy)).as(mode).isEqualTo(3);
+            assertThat(inventory.getSold(business)).as(mode).isEqualTo(1);
+
+            tickets.increaseQuantities(items(economy, 3, business, 1), "cancel-1");
+            tickets.increaseQuantities(items(economy, 3, business, 1), "cancel-1");
+            assertThat(inventory.getSold(economy)).as(mode).isZero();
+            assertThat(inventory.getSold(business)).as(mode).isZero();
+        }
+    }
+
+    @Test
+    void batchWhoseCommitFailsChangesNothingAndIsAppliedOnRetry() {
+        for (String mode : MODES) {
+            seed(mode);
+            tickets.decreaseQuantities(items(economy, 3, business, 1), null);
+
+            // Batch chạy hết nhưng transaction (cùng với key) không commit được
+            assertThatThrownBy(() -> failingCommit(() -> tickets.decreaseQuantities(items(economy, 2, business, 1), "order-2")))
+                    .as(mode).isInstanceOf(IllegalStateException.class);
+            assertThatThrownBy(() -> failingCommit(() -> tickets.increaseQuantities(items(economy, 3, business, 1), "cancel-1")))
+                    .as(mode).isInstanceOf(IllegalStateException.class);
+            assertThat(inventory.getSold(economy)).as(mode).isEqualTo(3);
+            assertThat(inventory.getSold(business)).as(mode).isEqualTo(1);
+            assertThat(processedRequestRepository.count()).as(mode).isZero();
+
+            tickets.decreaseQuantities(items(economy, 2, business, 1), "order-2");
+            tickets.increaseQuantities(items(economy, 3, business, 1), "cancel-1");
+            assertThat(inventory.getSold(economy)).as(mode).isEqualTo(2);
+            assertThat(inventory.getSold(business)).as(mode).isEqualTo(1);
+        }
+    }
+
+    private void failingCommit(Runnable batch) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            batch.run();
+            throw new IllegalStateException("commit failed");
+        });
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.tickets_service.service.impl;
+
+import com.example.tickets_service.client.ScheduleClient;
+import com.example.tickets_service.dto.TicketResponse;
+import com.example.tickets_service.entity.Ticket;
+import com.example.tickets_service.repository.TicketRepository;
+import com.example.tickets_service.service.IdempotencyRegistry;
+import com.example.tickets_service.service.TicketInventory;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TicketServiceImplTest {
+
+    private static final long TICKET_ID = 1L;
+
+    private final TicketRepository repository = mock(TicketRepository.class);
+
+    private TicketServiceImpl serviceWith(String inventoryMode) {
+        return new TicketServiceImpl(repository, mock(ScheduleClient.class),
+                new TicketInventory(repository, inventoryMode), mock(IdempotencyRegistry.class));
+    }
+
+    private static Ticket row(int total, int sold) {
+        Ticket ticket = new Ticket();
+        ticket.setId(TICKET_ID);
+        ticket.setName("Ghế mềm");
+        ticket.setTotalQuantity(total);
+        ticket.setSoldQuantity(sold);
+        ticket.setStatus(Ticket.Status.active);
+        return ticket;
+    }
+
+    @Test
+    void purchaseInDatabaseModeAnswersWithTheRowAfterTheUpdate() {
+        when(repository.findById(TICKET_ID)).thenReturn(Optional.of(row(10, 7)), Optional.of(row(10, 10)));
+        when(repository.reserveQuantity(TICKET_ID, 3)).thenReturn(1);
+
+        TicketResponse response = serviceWith("database").purchaseTickets(TICKET_ID, 3);
+
+        assertThat(response.getSoldQuantity()).isEqualTo(10);
+        assertThat(response.getAvailableQuantity()).isZero();
+    }
+
+    @Test
+    void purchaseInMemoryModeAnswersFromTheCounter() {
+        when(repository.findById(TICKET_ID)).thenReturn(Optional.of(row(10, 7)));
+
+        TicketResponse response = serviceWith("memory").purchaseTickets(TICKET_ID, 3);
+
+        assertThat(response.getSoldQuantity()).isEqualTo(10);
+        assertThat(response.getAvailableQuantity()).isZero();
+        assertThat(response.getStatus()).isEqualTo(Ticket.Status.sold_out.name());
+    }
+}
@@ -1,5 +1,7 @@
 package com.example.trains_service.controller;
 
+import com.example.common.web.CursorPage;
+import com.example.common.web.LegacyList;
 import com.example.trains_service.dto.TrainRequest;
 import com.example.trains_service.dto.TrainResponse;
 import com.example.trains_service.entity.Train;
@@ -26,11 +28,21 @@ public class TrainController {
         return ResponseEntity.ok(trainService.create(request));
     }
 
-    // 2. Get All - ADMIN & USER
+    // 2. Get All - ADMIN & USER (deprecated: tối đa LegacyList.MAX_ROWS dòng, bỏ vào LegacyList.REMOVAL_DATE - dùng /page)
+    @Deprecated(since = "2026-10-18", forRemoval = true)
     @GetMapping
     @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
     public ResponseEntity<List<TrainResponse>> getAll() {
-        return ResponseEntity.ok(trainService.getAll());
+        return LegacyList.response(trainService.getAll(), "/api/trains/page");
+    }
+
+    // 2.1. Get Page - keyset pagination (?cursor=&size=), giới hạn 100 dòng/trang
+    @GetMapping("/page")
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    public ResponseEntity<CursorPage<TrainResponse>> getPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(trainService.getPage(cursor, size));
     }
 
     // 3. Get By ID - ADMIN & USER
@@ -1,6 +1,8 @@
 package com.example.trains_service.repository;
 
 import com.example.trains_service.entity.Train;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
@@ -8,4 +10,7 @@ import org.springframework.stereotype.Repository;
 public interface TrainRepository extends JpaRepository<Train, Long> {
     // Kiểm tra trùng mã tàu nếu cần
     boolean existsByTrainNumber(String trainNumber);
+
+    // Keyset pagination: trang tiếp theo bắt đầu sau id cuối của trang trước (Slice đọc thêm 1 dòng để biết còn trang sau)
+    Slice<Train> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
 }
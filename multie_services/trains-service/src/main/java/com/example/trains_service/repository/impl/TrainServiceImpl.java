@@ -1,5 +1,7 @@
 package com.example.trains_service.repository.impl;
 
+import com.example.common.web.CursorPage;
+import com.example.common.web.LegacyList;
 import com.example.trains_service.dto.TrainRequest;
 import com.example.trains_service.dto.TrainResponse;
 import com.example.trains_service.entity.Train;
@@ -9,8 +11,6 @@ import com.example.trains_service.service.TrainService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
-import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -31,14 +31,17 @@ public class TrainServiceImpl implements TrainService {
     }
 
     @Override
-    public List<TrainResponse> getAll() {
-        try {
-            return trainRepository.findAll().stream()
-                    .map(this::mapToResponse)
-                    .collect(Collectors.toList());
-        } catch (Exception e) {
-            throw new RuntimeException("Error fetching trains: " + e.getMessage(), e);
-        }
+    public CursorPage<TrainResponse> getAll() {
+        return CursorPage.of(
+                trainRepository.findByIdGreaterThanOrderByIdAsc(0L, LegacyList.firstRows()),
+                this::mapToResponse, Train::getId);
+    }
+
+    @Override
+    public CursorPage<TrainResponse> getPage(String cursor, int size) {
+        return CursorPage.of(
+                trainRepository.findByIdGreaterThanOrderByIdAsc(CursorPage.afterId(cursor), CursorPage.limit(size)),
+                this::mapToResponse, Train::getId);
     }
 
     @Override
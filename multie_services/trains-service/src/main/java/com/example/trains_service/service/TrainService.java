@@ -1,14 +1,16 @@
 package com.example.trains_service.service;
 
+import com.example.common.web.CursorPage;
 import com.example.trains_service.dto.TrainRequest;
 import com.example.trains_service.dto.TrainResponse;
 import com.example.trains_service.entity.Train;
 
-import java.util.List;
 
 public interface TrainService {
     TrainResponse create(TrainRequest request);
-    List<TrainResponse> getAll();
+    // GET danh sách cũ (deprecated): chỉ LegacyList.MAX_ROWS dòng đầu, hasNext = còn dòng bị bỏ
+    CursorPage<TrainResponse> getAll();
+    CursorPage<TrainResponse> getPage(String cursor, int size);
     TrainResponse getById(Long id);
     TrainResponse update(Long id, TrainRequest request);
     void delete(Long id);